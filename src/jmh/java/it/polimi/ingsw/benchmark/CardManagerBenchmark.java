@@ -0,0 +1,93 @@
+package it.polimi.ingsw.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.polimi.ingsw.exception.*;
+import it.polimi.ingsw.model.GameSetting;
+import it.polimi.ingsw.model.card.Development;
+import it.polimi.ingsw.model.card.Leader;
+import it.polimi.ingsw.model.personalBoard.PersonalBoard;
+import it.polimi.ingsw.model.personalBoard.cardManager.CardManager;
+import it.polimi.ingsw.model.personalBoard.market.Market;
+import it.polimi.ingsw.model.personalBoard.resourceManager.ResourceManager;
+import it.polimi.ingsw.model.resource.ResourceFactory;
+import it.polimi.ingsw.model.resource.ResourceType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the activation of a leader. A leader can be activated only once, so a new personal board with a
+ * fresh copy of the leader is built before every invocation, outside of the measured time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CardManagerBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Development baseProduction;
+    private GameSetting gameSetting;
+    private Market market;
+    private String leaderSerialized;
+    private CardManager cardManager;
+
+    @Setup
+    public void setUp() throws IOException, JsonFileModificationError {
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+
+        gameSetting = new GameSetting(1);
+        baseProduction = gameSetting.getBaseProduction();
+        market = gameSetting.getMarket();
+
+        //the first leader whose requirements are satisfied by resources only
+        for (Leader leader : gameSetting.getDeckLeader()){
+            String serialized = mapper.writeValueAsString(leader);
+            try {
+                newCardManager(serialized).activateLeader(0);
+                leaderSerialized = serialized;
+                return;
+            } catch (NotEnoughRequirementException | LeaderCardAlreadyActivatedException | InvalidStateActionException ignored) {
+                //try with the next leader
+            }
+        }
+        throw new IllegalStateException("No leader can be activated with resources only");
+    }
+
+    @Setup(Level.Invocation)
+    public void newLeader() throws IOException {
+        cardManager = newCardManager(leaderSerialized);
+    }
+
+    /**
+     * Build a personal board with enough resources in the strongbox and a copy of the leader.
+     * @param serialized the leader to copy.
+     * @return the card manager of the personal board.
+     * @throws IOException if the leader can't be read.
+     */
+    private CardManager newCardManager(String serialized) throws IOException {
+        ResourceManager resourceManager = new ResourceManager();
+        for (ResourceType type : new ResourceType[]{ResourceType.COIN, ResourceType.SHIELD, ResourceType.SERVANT, ResourceType.STONE})
+            resourceManager.addToStrongbox(ResourceFactory.createResource(type, 20));
+        resourceManager.restoreRM();
+        baseProduction.setResourceManager(resourceManager);
+
+        CardManager newCardManager = new CardManager(baseProduction);
+        PersonalBoard personalBoard = new PersonalBoard("player", gameSetting.getFaithTrack(), resourceManager, newCardManager);
+        Leader leader = mapper.readValue(serialized, Leader.class);
+        leader.attachCardToUser(personalBoard, market);
+        newCardManager.addLeader(leader);
+        return newCardManager;
+    }
+
+    @Benchmark
+    public CardManager activateLeader() throws LeaderCardAlreadyActivatedException, NotEnoughRequirementException, InvalidStateActionException {
+        cardManager.activateLeader(0);
+        return cardManager;
+    }
+}
@@ -0,0 +1,69 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.exception.InvalidStateActionException;
+import it.polimi.ingsw.exception.JsonFileModificationError;
+import it.polimi.ingsw.model.GameMaster;
+import it.polimi.ingsw.model.GameSetting;
+import it.polimi.ingsw.model.forward.CompactState;
+import it.polimi.ingsw.model.forward.ForwardRules;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the forward model used by the bots: the copy of a state and the random actions of a playout, as a
+ * search plays them. The playout starts again from the first state when the game ends, so every invocation is an
+ * action and the result is the number of actions per second of a core.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ForwardModelBenchmark {
+    private static final long SEED = 2021;
+    @Param({"1", "2", "4"})
+    private int numberOfPlayers;
+
+    private CompactState start;
+    private CompactState state;
+    private int[] actions;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() throws IOException, JsonFileModificationError, InvalidStateActionException {
+        ArrayList<String> players = new ArrayList<>(numberOfPlayers);
+        for (int i = 0; i < numberOfPlayers; i++)
+            players.add("player" + i);
+        GameMaster gameMaster = new GameMaster(new GameSetting(numberOfPlayers), players, SEED);
+        gameMaster.deliverLeaderCards();
+        for (String player : gameMaster.getPlayersTurn()){
+            gameMaster.getPlayerPersonalBoard(player).getCardManager().discardLeaderSetUp(0);
+            gameMaster.getPlayerPersonalBoard(player).getCardManager().discardLeaderSetUp(0);
+        }
+        gameMaster.nextPlayer();
+        ForwardRules rules = new ForwardRules(gameMaster);
+        start = CompactState.fromGameMaster(rules, gameMaster);
+        state = start.copy();
+        actions = new int[rules.getActionCount()];
+        random = new SplittableRandom(SEED);
+    }
+
+    @Benchmark
+    public CompactState copy() {
+        state.copyFrom(start);
+        return state;
+    }
+
+    @Benchmark
+    public boolean randomAction() {
+        if (state.isEnded())
+            state.copyFrom(start);
+        int count = state.legalActions(actions);
+        return state.apply(actions[random.nextInt(count)]);
+    }
+}
@@ -0,0 +1,95 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.exception.InvalidStateActionException;
+import it.polimi.ingsw.exception.JsonFileModificationError;
+import it.polimi.ingsw.model.GameMaster;
+import it.polimi.ingsw.model.GameSetting;
+import it.polimi.ingsw.model.PlayerState;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the GameMaster: the creation of a match, the change of turn and the computation of the winner.
+ * In single player the change of turn also draws a token of Lorenzo, so it includes his action.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameMasterBenchmark {
+    private static final long SEED = 2021;
+    @Param({"1", "2", "4"})
+    private int numberOfPlayers;
+
+    /**
+     * A match that is already started, the turns go around forever.
+     */
+    @State(Scope.Thread)
+    public static class StartedMatch {
+        private GameMaster gameMaster;
+
+        @Setup
+        public void setUp(GameMasterBenchmark benchmark) throws IOException, JsonFileModificationError, InvalidStateActionException {
+            gameMaster = benchmark.newMatch();
+            gameMaster.nextPlayer();
+        }
+    }
+
+    /**
+     * A new match at the last turn of the last player, so the next change of turn ends the game.
+     * The game can end only once, so it's built again before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class EndingMatch {
+        private GameMaster gameMaster;
+
+        @Setup(Level.Invocation)
+        public void setUp(GameMasterBenchmark benchmark) throws IOException, JsonFileModificationError, InvalidStateActionException {
+            gameMaster = benchmark.newMatch();
+            gameMaster.nextPlayer();
+            for (int i = 1; i < benchmark.numberOfPlayers; i++){
+                gameMaster.onPlayerStateChange(PlayerState.LEADER_MANAGE_AFTER);
+                gameMaster.nextPlayer();
+            }
+            gameMaster.winningCondition();
+            gameMaster.onPlayerStateChange(PlayerState.LEADER_MANAGE_AFTER);
+        }
+    }
+
+    /**
+     * Create a new match, the GameMaster shuffles the list of players so it's created every time. The seed is fixed,
+     * so every run plays the same match.
+     * @return the GameMaster of the match.
+     * @throws IOException if there's some error during the reading of a json file.
+     * @throws JsonFileModificationError if a json file is not written correctly.
+     */
+    private GameMaster newMatch() throws IOException, JsonFileModificationError {
+        ArrayList<String> players = new ArrayList<>(numberOfPlayers);
+        for (int i = 0; i < numberOfPlayers; i++)
+            players.add("player" + i);
+        return new GameMaster(new GameSetting(numberOfPlayers), players, SEED);
+    }
+
+    @Benchmark
+    public GameMaster newGameMaster() throws IOException, JsonFileModificationError {
+        return newMatch();
+    }
+
+    @Benchmark
+    public String nextPlayer(StartedMatch match) throws InvalidStateActionException {
+        match.gameMaster.onPlayerStateChange(PlayerState.LEADER_MANAGE_AFTER);
+        match.gameMaster.nextPlayer();
+        return match.gameMaster.getCurrentPlayer();
+    }
+
+    @Benchmark
+    public boolean gameOver(EndingMatch match) throws InvalidStateActionException {
+        match.gameMaster.nextPlayer();
+        return match.gameMaster.isGameEnded();
+    }
+}
@@ -0,0 +1,48 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.exception.InvalidStateActionException;
+import it.polimi.ingsw.exception.JsonFileModificationError;
+import it.polimi.ingsw.model.GameSetting;
+import it.polimi.ingsw.model.personalBoard.market.Market;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the market action. The market has no GameMaster attached, so the marbles only fill the resources
+ * to send, that are cleared after every insertion as it happens at the end of the action.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MarketBenchmark {
+    private Market market;
+    private int line;
+
+    @Setup
+    public void setUp() throws IOException, JsonFileModificationError {
+        market = new GameSetting(1).getMarket();
+    }
+
+    @Benchmark
+    public int insertMarbleInRow() throws InvalidStateActionException {
+        line = (line + 1) % market.getNumRow();
+        market.insertMarbleInRow(line);
+        int whiteMarbles = market.getWhiteMarbleDrew();
+        market.reset();
+        return whiteMarbles;
+    }
+
+    @Benchmark
+    public int insertMarbleInCol() throws InvalidStateActionException {
+        line = (line + 1) % market.getNumCol();
+        market.insertMarbleInCol(line);
+        int whiteMarbles = market.getWhiteMarbleDrew();
+        market.reset();
+        return whiteMarbles;
+    }
+}
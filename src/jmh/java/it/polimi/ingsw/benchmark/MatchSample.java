@@ -0,0 +1,137 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.client.data.CardLeaderData;
+import it.polimi.ingsw.client.data.ResourceData;
+import it.polimi.ingsw.exception.InvalidOrganizationWarehouseException;
+import it.polimi.ingsw.exception.InvalidStateActionException;
+import it.polimi.ingsw.exception.JsonFileModificationError;
+import it.polimi.ingsw.exception.TooMuchResourceDepotException;
+import it.polimi.ingsw.model.GameMaster;
+import it.polimi.ingsw.model.GameSetting;
+import it.polimi.ingsw.model.card.Leader;
+import it.polimi.ingsw.model.personalBoard.PersonalBoard;
+import it.polimi.ingsw.model.personalBoard.resourceManager.ResourceManager;
+import it.polimi.ingsw.model.resource.Resource;
+import it.polimi.ingsw.model.resource.ResourceFactory;
+import it.polimi.ingsw.model.resource.ResourceType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * A match in the middle of the game, the source of the payloads of the protocol benchmarks.
+ * The leaders are delivered and every player owns some resources in the warehouse and in the strongbox,
+ * so the messages that carry the state of the boards are as big as they are during a real match.
+ */
+public class MatchSample {
+    //the same seed gives the same decks and market, so the payloads are the same in every run
+    private static final long SEED = 2021;
+    private final GameSetting gameSetting;
+    private final GameMaster gameMaster;
+    private final ArrayList<String> usernames = new ArrayList<>();
+
+    /**
+     * Create the match and fill the boards of the players.
+     * @param numberOfPlayers the number of players of the match.
+     * @throws IOException if there's some error during the reading of a json file.
+     * @throws JsonFileModificationError if a json file is not written correctly.
+     * @throws InvalidStateActionException if the first turn can't start.
+     */
+    public MatchSample(int numberOfPlayers) throws IOException, JsonFileModificationError, InvalidStateActionException {
+        for (int i = 0; i < numberOfPlayers; i++)
+            usernames.add("player" + i);
+        gameSetting = new GameSetting(numberOfPlayers);
+        gameMaster = new GameMaster(gameSetting, new ArrayList<>(usernames), SEED);
+        gameMaster.deliverLeaderCards();
+        gameMaster.nextPlayer();
+        for (String username : usernames)
+            fillBoard(gameMaster.getPlayerPersonalBoard(username).getResourceManager());
+    }
+
+    /**
+     * Put in the board the resources a player usually owns after a few turns.
+     * @param resourceManager the resource manager of the player.
+     */
+    private static void fillBoard(ResourceManager resourceManager){
+        try {
+            resourceManager.getWarehouse().addDepotResourceAt(0, ResourceFactory.createResource(ResourceType.SHIELD, 1), true);
+            resourceManager.getWarehouse().addDepotResourceAt(1, ResourceFactory.createResource(ResourceType.COIN, 2), true);
+            resourceManager.getWarehouse().addDepotResourceAt(2, ResourceFactory.createResource(ResourceType.STONE, 1), true);
+        } catch (TooMuchResourceDepotException | InvalidOrganizationWarehouseException e) {
+            throw new IllegalStateException(e);
+        }
+        resourceManager.addToStrongbox(ResourceFactory.createResource(ResourceType.COIN, 4));
+        resourceManager.addToStrongbox(ResourceFactory.createResource(ResourceType.SERVANT, 3));
+        resourceManager.addToStrongbox(ResourceFactory.createResource(ResourceType.STONE, 2));
+    }
+
+    /**
+     * Return the game setting of the match.
+     * @return the game setting of the match.
+     */
+    public GameSetting getGameSetting() {
+        return gameSetting;
+    }
+
+    /**
+     * Return the game master of the match.
+     * @return the game master of the match.
+     */
+    public GameMaster getGameMaster() {
+        return gameMaster;
+    }
+
+    /**
+     * Return the usernames of the players, in the order they joined the match.
+     * @return the usernames of the players.
+     */
+    public ArrayList<String> getUsernames() {
+        return usernames;
+    }
+
+    /**
+     * Return the username of the player whose messages are sampled.
+     * @return the username of the current player.
+     */
+    public String getPlayer() {
+        return gameMaster.getCurrentPlayer();
+    }
+
+    /**
+     * Return the personal board of the player whose messages are sampled.
+     * @return the personal board of the current player.
+     */
+    public PersonalBoard getPersonalBoard() {
+        return gameMaster.getPlayerPersonalBoard(getPlayer());
+    }
+
+    /**
+     * Return the leaders of the player as they are sent to the clients.
+     * @return the leaders of the current player.
+     */
+    public ArrayList<CardLeaderData> getLeaders() {
+        return getPersonalBoard().getCardManager().getLeaders().stream()
+                .map(Leader::toCardLeaderData)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Return the resources of the strongbox of the player as they are sent to the clients.
+     * @return the resources of the strongbox of the current player.
+     */
+    public ArrayList<ResourceData> getStrongbox() {
+        return toData(getPersonalBoard().getResourceManager().getStrongbox().getResources());
+    }
+
+    /**
+     * Convert a list of resources to ResourceData.
+     * @param resources the resources to convert.
+     * @return the resources as ResourceData.
+     */
+    public static ArrayList<ResourceData> toData(ArrayList<Resource> resources){
+        return resources.stream()
+                .map(Resource::toClient)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
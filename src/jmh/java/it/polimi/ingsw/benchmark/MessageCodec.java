@@ -0,0 +1,142 @@
+package it.polimi.ingsw.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.message.clientMessage.ClientMessage;
+import it.polimi.ingsw.message.serverMessage.ServerMessage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * The ways a message can be turned into bytes and back. Every codec uses the same mappers of the real connection:
+ * the server writes with field visibility (like ClientConnectionHandler), the client writes and reads with the
+ * default mapper (like Client), so a codec can be compared with the current one on the same messages.
+ * A new codec is a new constant.
+ */
+public enum MessageCodec {
+    /**
+     * The current protocol: the message is written as a String and sent as a line of UTF-8 text.
+     */
+    JSON {
+        @Override
+        public byte[] encode(Message message, Class<? extends Message> channel) throws IOException {
+            return sender(channel).writeValueAsString(message).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Message decode(byte[] bytes, Class<? extends Message> channel) throws IOException {
+            return receiver(channel).readValue(new String(bytes, StandardCharsets.UTF_8), channel);
+        }
+    },
+    /**
+     * The same json, written and read directly as bytes with writers and readers bound to the type of the channel.
+     */
+    JSON_BYTES {
+        @Override
+        public byte[] encode(Message message, Class<? extends Message> channel) throws IOException {
+            return writer(channel).writeValueAsBytes(message);
+        }
+
+        @Override
+        public Message decode(byte[] bytes, Class<? extends Message> channel) throws IOException {
+            return reader(channel).readValue(bytes);
+        }
+    },
+    /**
+     * The binary version of json, the same structure with shorter numbers and back references to repeated names.
+     */
+    SMILE(SmileFactory::new) {
+        @Override
+        public byte[] encode(Message message, Class<? extends Message> channel) throws IOException {
+            return writer(channel).writeValueAsBytes(message);
+        }
+
+        @Override
+        public Message decode(byte[] bytes, Class<? extends Message> channel) throws IOException {
+            return reader(channel).readValue(bytes);
+        }
+    };
+
+    private final ObjectMapper serverMapper;
+    private final ObjectMapper clientMapper;
+    private final ObjectWriter toClientWriter;
+    private final ObjectWriter toServerWriter;
+    private final ObjectReader clientReader;
+    private final ObjectReader serverReader;
+
+    MessageCodec() {
+        this(JsonFactory::new);
+    }
+
+    MessageCodec(Supplier<JsonFactory> factory) {
+        serverMapper = new ObjectMapper(factory.get());
+        serverMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        clientMapper = new ObjectMapper(factory.get());
+        toClientWriter = serverMapper.writerFor(ClientMessage.class);
+        toServerWriter = clientMapper.writerFor(ServerMessage.class);
+        clientReader = clientMapper.readerFor(ClientMessage.class);
+        serverReader = serverMapper.readerFor(ServerMessage.class);
+    }
+
+    /**
+     * Turn a message into the bytes sent on the socket.
+     * @param message the message to send.
+     * @param channel ClientMessage if the server sends it, ServerMessage if a client sends it.
+     * @return the bytes of the message.
+     * @throws IOException if the message can't be written.
+     */
+    public abstract byte[] encode(Message message, Class<? extends Message> channel) throws IOException;
+
+    /**
+     * Turn the bytes received from the socket into the message.
+     * @param bytes the bytes of the message.
+     * @param channel ClientMessage if the server sent it, ServerMessage if a client sent it.
+     * @return the message.
+     * @throws IOException if the bytes are not a message.
+     */
+    public abstract Message decode(byte[] bytes, Class<? extends Message> channel) throws IOException;
+
+    /**
+     * Return the mapper of the side that sends the messages of the channel.
+     * @param channel the type of the messages.
+     * @return the mapper of the sender.
+     */
+    protected ObjectMapper sender(Class<? extends Message> channel){
+        return channel == ClientMessage.class ? serverMapper : clientMapper;
+    }
+
+    /**
+     * Return the mapper of the side that receives the messages of the channel.
+     * @param channel the type of the messages.
+     * @return the mapper of the receiver.
+     */
+    protected ObjectMapper receiver(Class<? extends Message> channel){
+        return channel == ClientMessage.class ? clientMapper : serverMapper;
+    }
+
+    /**
+     * Return the writer of the sender, bound to the type of the channel.
+     * @param channel the type of the messages.
+     * @return the writer of the sender.
+     */
+    protected ObjectWriter writer(Class<? extends Message> channel){
+        return channel == ClientMessage.class ? toClientWriter : toServerWriter;
+    }
+
+    /**
+     * Return the reader of the receiver, bound to the type of the channel.
+     * @param channel the type of the messages.
+     * @return the reader of the receiver.
+     */
+    protected ObjectReader reader(Class<? extends Message> channel){
+        return channel == ClientMessage.class ? clientReader : serverReader;
+    }
+}
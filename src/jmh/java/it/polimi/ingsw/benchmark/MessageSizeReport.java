@@ -0,0 +1,40 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.exception.InvalidStateActionException;
+import it.polimi.ingsw.exception.JsonFileModificationError;
+import it.polimi.ingsw.message.Message;
+
+import java.io.IOException;
+
+/**
+ * Print the bytes every message takes on the socket with every codec, for matches of 1, 2 and 4 players.
+ * Every message is decoded again, so a codec that loses part of a message fails here and not during a match.
+ */
+public class MessageSizeReport {
+    private static final int[] NUMBER_OF_PLAYERS = {1, 2, 4};
+
+    public static void main(String[] args) throws IOException, JsonFileModificationError, InvalidStateActionException {
+        MatchSample[] samples = new MatchSample[NUMBER_OF_PLAYERS.length];
+        for (int i = 0; i < samples.length; i++)
+            samples[i] = new MatchSample(NUMBER_OF_PLAYERS[i]);
+
+        System.out.printf("%-34s %-8s", "message", "players");
+        for (MessageCodec codec : MessageCodec.values())
+            System.out.printf(" %12s", codec);
+        System.out.println();
+
+        for (ProtocolMessage message : ProtocolMessage.values()){
+            for (int i = 0; i < samples.length; i++){
+                Message payload = message.create(samples[i]);
+                System.out.printf("%-34s %-8d", message, NUMBER_OF_PLAYERS[i]);
+                for (MessageCodec codec : MessageCodec.values()){
+                    byte[] bytes = codec.encode(payload, message.getChannel());
+                    if (codec.decode(bytes, message.getChannel()).getClass() != payload.getClass())
+                        throw new IOException(codec + " doesn't decode " + message);
+                    System.out.printf(" %12d", bytes.length);
+                }
+                System.out.println();
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.exception.InvalidStateActionException;
+import it.polimi.ingsw.exception.JsonFileModificationError;
+import it.polimi.ingsw.message.Message;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the serialization of the protocol: every message is encoded by the side that sends it and decoded
+ * by the side that receives it, with every codec and with the payloads of a match of 1, 2 and 4 players.
+ * The allocation per message is the gc.alloc.rate.norm of the GC profiler, the bytes per message are printed by
+ * MessageSizeReport. Every message and codec together take a while, restrict them with -p message=GAME_SETUP.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProtocolBenchmark {
+    @Param({"1", "2", "4"})
+    private int numberOfPlayers;
+
+    @Param
+    private ProtocolMessage message;
+
+    @Param
+    private MessageCodec codec;
+
+    private Message payload;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException, JsonFileModificationError, InvalidStateActionException {
+        payload = message.create(new MatchSample(numberOfPlayers));
+        encoded = codec.encode(payload, message.getChannel());
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return codec.encode(payload, message.getChannel());
+    }
+
+    @Benchmark
+    public Message decode() throws IOException {
+        return codec.decode(encoded, message.getChannel());
+    }
+}
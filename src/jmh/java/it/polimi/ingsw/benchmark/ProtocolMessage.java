@@ -0,0 +1,409 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.client.data.ModelData;
+import it.polimi.ingsw.client.data.ResourceData;
+import it.polimi.ingsw.client.data.ResourcePlacementData;
+import it.polimi.ingsw.message.Message;
+import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionMessage;
+import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionType;
+import it.polimi.ingsw.message.bothArchitectureMessage.PingPongMessage;
+import it.polimi.ingsw.message.bothArchitectureMessage.ReconnectionMessage;
+import it.polimi.ingsw.message.clientMessage.*;
+import it.polimi.ingsw.message.serverMessage.*;
+import it.polimi.ingsw.model.personalBoard.market.Market;
+import it.polimi.ingsw.model.personalBoard.resourceManager.PaymentPolicy;
+import it.polimi.ingsw.model.personalBoard.resourceManager.Warehouse;
+import it.polimi.ingsw.model.personalBoard.resourceManager.WarehouseArrangement;
+import it.polimi.ingsw.model.resource.ResourceBag;
+import it.polimi.ingsw.model.resource.ResourceFactory;
+import it.polimi.ingsw.model.resource.ResourceType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Every message of the protocol, with the way the server or the client builds it during a match.
+ * The messages sent by the server to the clients travel as ClientMessage, the ones sent by the clients to the
+ * server travel as ServerMessage; the messages of both architectures are sampled in the direction they're sent more.
+ */
+public enum ProtocolMessage {
+    ANY_CONVERSION_REQUEST(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new AnyConversionRequest(sample.getStrongbox(), resources(ResourceType.COIN), 2, true);
+        }
+    },
+    ARRANGE_PREVIEW(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            Warehouse warehouse = sample.getPersonalBoard().getResourceManager().getWarehouse();
+            ResourceBag buffer = new ResourceBag();
+            buffer.add(ResourceType.COIN, 1);
+            buffer.add(ResourceType.SHIELD, 2);
+            buffer.add(ResourceType.SERVANT, 1);
+            WarehouseArrangement arrangement = WarehouseArrangement.best(warehouse, buffer);
+            return new ArrangePreview(arrangement.toStandardDepotData(), arrangement.toLeaderDepotData(),
+                    MatchSample.toData(arrangement.toDiscardedList()));
+        }
+    },
+    BUFFER_UPDATE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new BufferUpdate(resources(ResourceType.COIN, ResourceType.SHIELD, ResourceType.SERVANT));
+        }
+    },
+    CARD_SLOT_UPDATE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new CardSlotUpdate(1, 2, 0, sample.getPlayer());
+        }
+    },
+    CONNECTION_MESSAGE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new ConnectionMessage(ConnectionType.INFO, "Match successfully created");
+        }
+    },
+    DEPOT_LEADER_UPDATE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            ArrayList<ResourceData> depots = new ArrayList<>();
+            depots.add(new ResourceData(ResourceType.STONE, 2));
+            return new DepotLeaderUpdate(depots, false, sample.getPlayer());
+        }
+    },
+    DEPOT_POSITIONING_REQUEST(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new DepotPositioningRequest(resources(ResourceType.COIN, ResourceType.SHIELD));
+        }
+    },
+    DEPOT_UPDATE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new DepotUpdate(new ResourceData(ResourceType.COIN, 2), 1, true, sample.getPlayer());
+        }
+    },
+    ERROR_MESSAGE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new ErrorMessage(ErrorType.NOT_YOUR_TURN);
+        }
+    },
+    FAITH_TRACK_INCREMENT(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new FaithTrackIncrement(sample.getPlayer());
+        }
+    },
+    GAME_OVER(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            Map<Float, String> ranking = new HashMap<>();
+            float points = 40.5f;
+            for (String username : sample.getUsernames())
+                ranking.put(points--, username);
+            return new GameOver(ranking);
+        }
+    },
+    GAME_SETUP(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new GameSetup(sample.getUsernames(), sample.getGameMaster().getMarket().toMarketData(),
+                    sample.getGameMaster().toDeckDevData(),
+                    sample.getGameSetting().getFaithTrackLayout().toFaithTrackData(),
+                    sample.getGameMaster().toEffectDataBasePro());
+        }
+    },
+    LEADER_ACTIVATE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new LeaderActivate(new ArrayList<>(sample.getLeaders().subList(0, 2)), sample.getPlayer());
+        }
+    },
+    LEADER_DISCARD(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new LeaderDiscard(1, sample.getPlayer());
+        }
+    },
+    LEADER_SET_UP_MESSAGE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new LeaderSetUpMessage(sample.getLeaders());
+        }
+    },
+    LEGAL_ACTIONS_UPDATE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new LegalActionsUpdate(sample.getGameMaster().toLegalActionsData());
+        }
+    },
+    MAIN_MENU_MESSAGE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new MainMenuMessage();
+        }
+    },
+    MARKET_PREVIEW(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            Market market = sample.getGameMaster().getMarket();
+            ResourceBag[] preview = market.createPreviewBuffer();
+            market.preview(sample.getPersonalBoard().getCardManager().whiteMarbleConversion(), preview);
+            ArrayList<ArrayList<ResourceData>> rows = new ArrayList<>();
+            ArrayList<ArrayList<ResourceData>> columns = new ArrayList<>();
+            for (int i = 0; i < preview.length; i++) {
+                if (i < market.getNumRow()) rows.add(MatchSample.toData(preview[i].toResourceList()));
+                else columns.add(MatchSample.toData(preview[i].toResourceList()));
+            }
+            return new MarketPreview(rows, columns);
+        }
+    },
+    MARKET_UPDATE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new MarketUpdate(sample.getGameMaster().getMarket().toMarketData());
+        }
+    },
+    MATCH_START(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new MatchStart();
+        }
+    },
+    PING_PONG_MESSAGE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new PingPongMessage();
+        }
+    },
+    POPE_FAVOR_ACTIVATED(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new PopeFavorActivated(1, false, sample.getPlayer());
+        }
+    },
+    RECONNECT_GAME_MESSAGE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            ArrayList<ModelData> models = new ArrayList<>();
+            for (String username : sample.getUsernames())
+                models.add(sample.getGameMaster().getPlayerModelData(username));
+            return new ReconnectGameMessage(sample.getUsernames(), sample.getGameMaster().getMarket().toMarketData(),
+                    sample.getGameMaster().toDeckDevData(), sample.getGameMaster().toFaithTrackData(),
+                    sample.getGameMaster().toEffectDataBasePro(), models, sample.getPlayer());
+        }
+    },
+    REMOVE_DECK_DEVELOPMENT_CARD(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new RemoveDeckDevelopmentCard(2, 3);
+        }
+    },
+    STAR_TURN(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new StarTurn(sample.getPlayer());
+        }
+    },
+    STRONGBOX_UPDATE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new StrongboxUpdate(sample.getStrongbox(), sample.getPlayer());
+        }
+    },
+    WAREHOUSE_LAYOUT_UPDATE(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            Warehouse warehouse = sample.getPersonalBoard().getResourceManager().getWarehouse();
+            return new WarehouseLayoutUpdate(warehouse.toStandardDepotData(), warehouse.toLeaderDepotData(),
+                    sample.getStrongbox(), sample.getPlayer());
+        }
+    },
+    WAREHOUSE_REMOVING_REQUEST(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new WarehouseRemovingRequest(resources(ResourceType.COIN, ResourceType.STONE));
+        }
+    },
+    WHITE_MARBLE_CONVERSION_REQUEST(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            Map<Integer, ArrayList<ResourceData>> conversions = new HashMap<>();
+            conversions.put(0, resources(ResourceType.SERVANT));
+            conversions.put(1, resources(ResourceType.SHIELD));
+            return new WhiteMarbleConversionRequest(2, conversions);
+        }
+    },
+    WINNING_CONDITION(ClientMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new WinningCondition();
+        }
+    },
+    ANY_RESPONSE(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new AnyResponse(resources(ResourceType.COIN, ResourceType.SERVANT));
+        }
+    },
+    ARRANGE_PREVIEW_REQUEST(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new ArrangePreviewRequest();
+        }
+    },
+    AUTO_ARRANGE(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new AutoArrange();
+        }
+    },
+    AUTO_PAYMENT(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new AutoPayment(PaymentPolicy.WAREHOUSE_FIRST);
+        }
+    },
+    BASE_PRODUCTION(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new BaseProduction();
+        }
+    },
+    DEPOT_MODIFY(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new DepotModify(1, new ResourceData(ResourceType.COIN, 1), true);
+        }
+    },
+    DEPOT_SWITCH(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new DepotSwitch(0, true, 2, true);
+        }
+    },
+    DEVELOPMENT_ACTION(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new DevelopmentAction(1, 2, 0);
+        }
+    },
+    DISCARD_RESOURCES_FROM_MARKET(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new DiscardResourcesFromMarket();
+        }
+    },
+    END_PRODUCTION_SELECTION(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new EndProductionSelection();
+        }
+    },
+    END_TURN(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new EndTurn();
+        }
+    },
+    LEADER_MANAGE(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new LeaderManage(0, false);
+        }
+    },
+    MARKET_ACTION(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new MarketAction(1, true);
+        }
+    },
+    MARKET_PREVIEW_REQUEST(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new MarketPreviewRequest();
+        }
+    },
+    PRODUCTION_ACTION(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new ProductionAction(0, false);
+        }
+    },
+    QUIT_GAME(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new QuitGame();
+        }
+    },
+    RECONNECTION_MESSAGE(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new ReconnectionMessage(3, 12);
+        }
+    },
+    SINGLE_PLAYER_MESSAGE(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new SinglePlayerMessage();
+        }
+    },
+    STRONGBOX_MODIFY(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new StrongboxModify(new ResourceData(ResourceType.STONE, 1));
+        }
+    },
+    WAREHOUSE_LAYOUT(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            ArrayList<ResourcePlacementData> placements = new ArrayList<>();
+            placements.add(new ResourcePlacementData(new ResourceData(ResourceType.SHIELD, 1), false, 0, true));
+            placements.add(new ResourcePlacementData(new ResourceData(ResourceType.COIN, 2), false, 1, true));
+            placements.add(new ResourcePlacementData(new ResourceData(ResourceType.SERVANT, 3), true, 0, true));
+            return new WarehouseLayout(placements);
+        }
+    },
+    WHITE_MARBLE_CONVERSION_RESPONSE(ServerMessage.class) {
+        @Override
+        public Message create(MatchSample sample) {
+            return new WhiteMarbleConversionResponse(1, 2);
+        }
+    };
+
+    private final Class<? extends Message> channel;
+
+    ProtocolMessage(Class<? extends Message> channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Return the type the message is read as by the receiver.
+     * @return ClientMessage if the server sends it, ServerMessage if a client sends it.
+     */
+    public Class<? extends Message> getChannel() {
+        return channel;
+    }
+
+    /**
+     * Build the message from the state of the match.
+     * @param sample the match the message is taken from.
+     * @return the message.
+     */
+    public abstract Message create(MatchSample sample);
+
+    /**
+     * Return one resource of every type as ResourceData.
+     * @param types the types of the resources.
+     * @return the list of ResourceData.
+     */
+    private static ArrayList<ResourceData> resources(ResourceType... types){
+        ArrayList<ResourceData> resources = new ArrayList<>(types.length);
+        for (ResourceType type : types)
+            resources.add(ResourceFactory.createResource(type, 1).toClient());
+        return resources;
+    }
+}
@@ -0,0 +1,77 @@
+package it.polimi.ingsw.benchmark;
+
+import it.polimi.ingsw.exception.*;
+import it.polimi.ingsw.model.personalBoard.resourceManager.ResourceManager;
+import it.polimi.ingsw.model.personalBoard.resourceManager.Warehouse;
+import it.polimi.ingsw.model.resource.Resource;
+import it.polimi.ingsw.model.resource.ResourceFactory;
+import it.polimi.ingsw.model.resource.ResourceType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the ResourceManager and Warehouse operations done at every placement or payment.
+ * Every benchmark leaves the state as it found it, so the invocations can be repeated without a per-invocation set up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResourceManagerBenchmark {
+    private ResourceManager resourceManager;
+    private Warehouse warehouse;
+    private final Resource toAdd = ResourceFactory.createResource(ResourceType.COIN, 2);
+    private final Resource toSub = ResourceFactory.createResource(ResourceType.COIN, 2);
+
+    @Setup
+    public void setUp() throws TooMuchResourceDepotException, InvalidOrganizationWarehouseException {
+        resourceManager = new ResourceManager();
+        for (ResourceType type : new ResourceType[]{ResourceType.COIN, ResourceType.SHIELD, ResourceType.SERVANT, ResourceType.STONE})
+            resourceManager.addToStrongbox(ResourceFactory.createResource(type, 20));
+        resourceManager.addToWarehouse(true, 0, ResourceFactory.createResource(ResourceType.STONE, 1));
+        resourceManager.addToWarehouse(true, 1, ResourceFactory.createResource(ResourceType.SHIELD, 2));
+
+        //a warehouse on its own, so the switch doesn't fill the depot used by addDepotResourceAt
+        warehouse = new Warehouse();
+        warehouse.addDepotResourceAt(1, ResourceFactory.createResource(ResourceType.SHIELD, 2), true);
+    }
+
+    /**
+     * The cost list is rebuilt every time because canIAfford consumes it, and the turn is restored before the check
+     * like the Controller does when a new action starts.
+     */
+    @Benchmark
+    public int canIAfford() throws NotEnoughRequirementException {
+        resourceManager.restoreRM();
+        ArrayList<Resource> cost = new ArrayList<>(3);
+        cost.add(ResourceFactory.createResource(ResourceType.COIN, 3));
+        cost.add(ResourceFactory.createResource(ResourceType.SHIELD, 2));
+        cost.add(ResourceFactory.createResource(ResourceType.ANY, 2));
+        resourceManager.canIAfford(cost, true);
+        return resourceManager.getBufferSize();
+    }
+
+    /**
+     * The resources are added to the empty depot and then removed, so the depot is empty again at the end.
+     */
+    @Benchmark
+    public int addDepotResourceAt() throws TooMuchResourceDepotException, InvalidOrganizationWarehouseException, NegativeResourceException {
+        warehouse.addDepotResourceAt(2, toAdd, true);
+        int stored = warehouse.howManyDoIHave(ResourceType.COIN);
+        warehouse.subDepotResourceAt(2, toSub, true);
+        return stored;
+    }
+
+    /**
+     * The shields are moved from the second depot to the third one and back on the next invocation.
+     */
+    @Benchmark
+    public ResourceType switchResourceFromDepotToDepot() throws TooMuchResourceDepotException, InvalidOrganizationWarehouseException, InvalidStateActionException {
+        resourceManager.switchResourceFromDepotToDepot(1, true, 2, true);
+        return resourceManager.getWarehouse().getDepot(2, true).getResourceType();
+    }
+}
@@ -199,6 +199,32 @@ public class CLIMessageHandler extends ClientMessageHandler {
         printCardSlots(message.getUsername());
     }
 
+    /**
+     * See {@link ClientMessageHandler#marketPreview(MarketPreview)}.
+     */
+    @Override
+    public void marketPreview(MarketPreview message) {
+        super.marketPreview(message);
+        for (int i = 0; i < message.getRows().size(); i++) {
+            printResourceLine("Row " + i + ": ", message.getRows().get(i));
+        }
+        for (int i = 0; i < message.getColumns().size(); i++) {
+            printResourceLine("Column " + i + ": ", message.getColumns().get(i));
+        }
+    }
+
+    /**
+     * See {@link ClientMessageHandler#arrangePreview(ArrangePreview)}.
+     */
+    @Override
+    public void arrangePreview(ArrangePreview message) {
+        super.arrangePreview(message);
+        printResourceLine("Depots: ", message.getStandardDepots());
+        if (!message.getLeaderDepots().isEmpty())
+            printResourceLine("Leader depots: ", message.getLeaderDepots());
+        printResourceLine("Discarded: ", message.getDiscarded());
+    }
+
     /**
      * See {@link ClientMessageHandler#bufferUpdate(BufferUpdate)}.
      */
@@ -353,7 +379,16 @@ public class CLIMessageHandler extends ClientMessageHandler {
      * @param resources to print
      * */
     private void printBuffer(ArrayList<ResourceData> resources){
-        StringBuilder resource= new StringBuilder("Buffer: ");
+        printResourceLine("Buffer: ", resources);
+    }
+
+    /**
+     * Print a line of resources after a title
+     * @param title to print before the resources
+     * @param resources to print
+     * */
+    private void printResourceLine(String title, ArrayList<ResourceData> resources){
+        StringBuilder resource= new StringBuilder(title);
         for(ResourceData r : resources){
             resource.append(r.toCli());
         }
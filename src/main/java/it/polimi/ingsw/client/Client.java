@@ -5,10 +5,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import it.polimi.ingsw.client.GUI.ClientGUI;
 import it.polimi.ingsw.client.GUI.GUIMessageHandler;
 import it.polimi.ingsw.client.data.*;
+import it.polimi.ingsw.message.clientMessage.ArrangePreview;
 import it.polimi.ingsw.message.clientMessage.ClientMessage;
 import it.polimi.ingsw.message.clientMessage.MainMenuMessage;
 import it.polimi.ingsw.message.serverMessage.ServerMessage;
 import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
@@ -16,6 +18,7 @@ import java.net.Socket;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class Client{
     private int portNumber;
@@ -30,7 +33,11 @@ public class Client{
     private String myName;
     private final ArrayList<ModelClient> models = new ArrayList<>();
     private MarketData marketData;
+    private ArrayList<ArrayList<ResourceData>> marketPreviewRows = new ArrayList<>();
+    private ArrayList<ArrayList<ResourceData>> marketPreviewColumns = new ArrayList<>();
+    private ArrangePreview arrangePreview;
     private DeckDevData deckDevData;
+    private LegalActionsData legalActions;
     public final String DATA_LAST_GAME = "MasterOfRenaissance_dataLastGame.txt";
 
     private final HashMap<String,String> argsMap = new HashMap<>();
@@ -70,17 +77,37 @@ public class Client{
         }
 
         try {
-            clientSocket = new Socket(ipHost, portNumber);
-            clientSocket.setSoTimeout(20000);
+            connect(ipHost, portNumber);
         } catch (IOException e) {
             System.out.println("Error during socket set up: " + e.getMessage());
             System.exit(0);
         }
+    }
+
+    /**
+     * Open the connection with the server and go back to the main menu
+     * @param ipHost address of the server
+     * @param portNumber port of the server
+     * @throws IOException if the server can't be reached
+     * */
+    public void connect(String ipHost, int portNumber) throws IOException {
+        this.portNumber = portNumber;
+        clientSocket = new Socket(ipHost, portNumber);
+        clientSocket.setSoTimeout(20000);
         state = ClientState.MAIN_MENU;
         out = new PrintWriter(clientSocket.getOutputStream(), true);
         in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
     }
 
+    /**
+     * Close the connection with the server, the server sees it as a disconnection
+     * @throws IOException if the socket can't be closed
+     * */
+    public void close() throws IOException {
+        if (clientSocket != null)
+            clientSocket.close();
+    }
+
     public static Client getInstance(){
         return clientInstance;
     }
@@ -160,10 +187,8 @@ public class Client{
      * Read from stream the messages from server
      * */
     public void readFromStream(){
-        String serializedMessage;
         try{
-            serializedMessage = in.readLine();
-            ClientMessage message = deserialize(serializedMessage);
+            ClientMessage message = readMessage();
             message.process(clientMessageHandler);
         } catch (Exception e) {
             PrintAssistant.instance.errorPrint("Server disconnected, " +
@@ -172,6 +197,18 @@ public class Client{
         }
     }
 
+    /**
+     * Read the next message from server, without processing it
+     * @return message read
+     * @throws IOException if the server is disconnected
+     * */
+    public ClientMessage readMessage() throws IOException {
+        String serializedMessage = in.readLine();
+        if (serializedMessage == null)
+            throw new EOFException("Server disconnected");
+        return deserialize(serializedMessage);
+    }
+
     /**
      * Return ClientMessage after deserialization
      * @param serializedMessage to deserialize
@@ -244,8 +281,9 @@ public class Client{
 
     public void setUpModel(ModelData model){
         ModelClient playerModel = getModelOf(model.getUsername());
-        playerModel.setFaithTrack(model.getFaithTrack());
         playerModel.setCurrentPosOnFaithTrack(model.getCurrentPosOnFaithTrack());
+        for (int bits = model.getPopeFavorAcquired(); bits != 0; bits &= bits - 1)
+            playerModel.popeFavorActivation(Integer.numberOfTrailingZeros(bits), false);
 
         playerModel.setStandardDepot(model.getStandardDepot());
         playerModel.setLeaderDepot(model.getLeaderDepot());
@@ -258,6 +296,14 @@ public class Client{
         playerModel.setLeaders(model.getLeaders());
     }
 
+    public ClientMessageHandler getClientMessageHandler() {
+        return clientMessageHandler;
+    }
+
+    public void setClientMessageHandler(ClientMessageHandler clientMessageHandler) {
+        this.clientMessageHandler = clientMessageHandler;
+    }
+
     public ClientState getState() {
         return state;
     }
@@ -285,6 +331,27 @@ public class Client{
         this.marketData = marketData;
     }
 
+    public ArrayList<ArrayList<ResourceData>> getMarketPreviewRows() {
+        return marketPreviewRows;
+    }
+
+    public ArrayList<ArrayList<ResourceData>> getMarketPreviewColumns() {
+        return marketPreviewColumns;
+    }
+
+    public void setMarketPreview(ArrayList<ArrayList<ResourceData>> rows, ArrayList<ArrayList<ResourceData>> columns) {
+        this.marketPreviewRows = rows;
+        this.marketPreviewColumns = columns;
+    }
+
+    public ArrangePreview getArrangePreview() {
+        return arrangePreview;
+    }
+
+    public void setArrangePreview(ArrangePreview arrangePreview) {
+        this.arrangePreview = arrangePreview;
+    }
+
     public DeckDevData getDeckDevData() {
         return deckDevData;
     }
@@ -293,11 +360,19 @@ public class Client{
         this.deckDevData = deckDevData;
     }
 
-    public void setFaithTrackData(ArrayList<ArrayList<FaithTrackData>> faithTrackData){
-        int i = 0;
+    public LegalActionsData getLegalActions() {
+        return legalActions;
+    }
+
+    public void setLegalActions(LegalActionsData legalActions) {
+        this.legalActions = legalActions;
+    }
+
+    public void setFaithTrackData(ArrayList<FaithTrackData> faithTrackData){
         for (ModelClient modelClient: models){
-            modelClient.setFaithTrack(faithTrackData.get(i));
-            i++;
+            modelClient.setFaithTrack(faithTrackData.stream()
+                    .map(FaithTrackData::new)
+                    .collect(Collectors.toCollection(ArrayList::new)));
         }
     }
 
@@ -19,11 +19,15 @@ public class ClientInput implements Runnable{
     private final static Map<String, Class<? extends Command>> commands = new HashMap<>() {
         {
             put("marble", MarbleCMD.class);
+            put("preview", PreviewCMD.class);
             put("endproduction", EndProductionCMD.class);
             put("strongbox", StrongboxCMD.class);
             put("endturn", EndTurnCMD.class);
             put("switch", SwitchCMD.class);
             put("depot", DepotCMD.class);
+            put("layout", LayoutCMD.class);
+            put("autopay", AutoPayCMD.class);
+            put("arrange", ArrangeCMD.class);
             put("discard", DiscardCMD.class);
             put("any", AnyCMD.class);
             put("quit", QuitCMD.class);
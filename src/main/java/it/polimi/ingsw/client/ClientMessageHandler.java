@@ -13,7 +13,22 @@ import java.io.FileWriter;
 import java.io.IOException;
 
 public abstract class ClientMessageHandler {
-    private final Client client = Client.getInstance();
+    private final Client client;
+
+    /**
+     * Create the handler of the messages for the client of this application
+     * */
+    public ClientMessageHandler(){
+        this(Client.getInstance());
+    }
+
+    /**
+     * Create the handler of the messages for a client, more clients can live in the same application
+     * @param client whose model is updated by the messages
+     * */
+    protected ClientMessageHandler(Client client){
+        this.client = client;
+    }
 
     /**
      * Handle ping pong message
@@ -73,7 +88,7 @@ public abstract class ClientMessageHandler {
      * */
     public void reconnect(ReconnectionMessage message) throws IOException {
 
-        File file = new File(Client.getInstance().DATA_LAST_GAME);
+        File file = new File(client.DATA_LAST_GAME);
         if (!file.exists()){
             boolean result = file.createNewFile();
             if (!result){
@@ -95,6 +110,7 @@ public abstract class ClientMessageHandler {
         client.setModels(message.getUsernames());
         client.setMarketData(message.getMarket());
         client.setDeckDevData(message.getDeckDev());
+        client.setFaithTrackData(message.getFaithTrack());
         client.setBaseProduction(message.getBaseProd());
         client.setInkwell();
         for (ModelData modelData : message.getModels()){
@@ -124,6 +140,15 @@ public abstract class ClientMessageHandler {
         }
     }
 
+    //LegalActionsUpdate message handler
+    /**
+     * Store the actions the player can do in this moment of the turn
+     * @param message to handle
+     * */
+    public void legalActionsUpdate(LegalActionsUpdate message){
+        client.setLegalActions(message.getLegalActions());
+    }
+
     //GameSetup message handler
     /**
      * Set up model data for all players
@@ -133,7 +158,7 @@ public abstract class ClientMessageHandler {
         client.setModels(message.getUsernames());
         client.setMarketData(message.getMarket());
         client.setDeckDevData(message.getDeckDev());
-        client.setFaithTrackData(message.getFaithTracks());
+        client.setFaithTrackData(message.getFaithTrack());
         client.setBaseProduction(message.getBaseProd());
         client.setInkwell();
     }
@@ -174,6 +199,18 @@ public abstract class ClientMessageHandler {
         }
     }
 
+    //WarehouseLayoutUpdate message handler
+    /**
+     * Update depots and strongbox in model data after a whole plan of placements
+     * @param message to handle
+     * */
+    public void warehouseLayoutUpdate(WarehouseLayoutUpdate message){
+        ModelClient model = client.getModelOf(message.getUsername());
+        model.setStandardDepot(message.getStandardDepots());
+        model.setLeaderDepot(message.getLeaderDepots());
+        model.setStrongbox(message.getStrongboxUpdated());
+    }
+
     //Strongbox message handler
     /**
      * Update strongbox in model data
@@ -217,6 +254,24 @@ public abstract class ClientMessageHandler {
         client.setMarketData(message.getMarket());
     }
 
+    //MarketPreview message handler
+    /**
+     * Store the preview of every row and column of the market
+     * @param message to handle
+     * */
+    public void marketPreview(MarketPreview message){
+        client.setMarketPreview(message.getRows(), message.getColumns());
+    }
+
+    //ArrangePreview message handler
+    /**
+     * Store the best arrangement of the warehouse for the resources of the buffer
+     * @param message to handle
+     * */
+    public void arrangePreview(ArrangePreview message){
+        client.setArrangePreview(message);
+    }
+
     //CardSlotUpdate message handler
     /**
      * Update card slots in model data
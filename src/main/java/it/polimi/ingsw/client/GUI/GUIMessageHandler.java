@@ -4,6 +4,7 @@ import it.polimi.ingsw.client.Client;
 import it.polimi.ingsw.client.ClientMessageHandler;
 import it.polimi.ingsw.client.ClientState;
 import it.polimi.ingsw.client.GUI.controller.*;
+import it.polimi.ingsw.client.data.ModelData;
 import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionMessage;
 import it.polimi.ingsw.message.bothArchitectureMessage.ReconnectionMessage;
 import it.polimi.ingsw.message.clientMessage.*;
@@ -379,6 +380,24 @@ public class GUIMessageHandler extends ClientMessageHandler {
             });
         }
     }
+    /**
+     * See {@link ClientMessageHandler#warehouseLayoutUpdate(WarehouseLayoutUpdate)}.
+     */
+    @Override
+    public void warehouseLayoutUpdate(WarehouseLayoutUpdate message) {
+        super.warehouseLayoutUpdate(message);
+        Platform.runLater(()->{
+            PersonalBoardController personalBoardController = (PersonalBoardController) ControllerHandler.getInstance().getController(Views.PERSONAL_BOARD);
+            if(message.getUsername().equals(personalBoardController.getCurrentShowed())) {
+                ModelData modelData = Client.getInstance().getModelOf(message.getUsername()).toModelData();
+                personalBoardController.resetStandardDepots();
+                personalBoardController.loadStandardDepots(modelData);
+                personalBoardController.resetLeaderDepots();
+                personalBoardController.loadLeaderDepots(modelData);
+                personalBoardController.loadStrongBox(modelData);
+            }
+        });
+    }
     /**
      * See {@link ClientMessageHandler#depotLeaderUpdate(DepotLeaderUpdate)}.
      */
@@ -397,11 +397,9 @@ public class PersonalBoardController extends Controller{
      * @param model the model of the player
      */
     public void loadFaithTrack(ModelData model){
-        ArrayList<FaithTrackData> faithTrackData = model.getFaithTrack();
         track.get(model.getCurrentPosOnFaithTrack()).setVisible(true);
-        ArrayList<FaithTrackData> popeFavor = faithTrackData.stream().filter(FaithTrackData::isPopeFavor).collect(Collectors.toCollection(ArrayList::new));
-        for (int i = 0; i < popeFavor.size(); i++) {
-            if (popeFavor.get(i).isAcquired()){
+        for (int i = 0; i < popeFavorsAcquired.size(); i++) {
+            if (model.isPopeFavorAcquired(i)){
                 popeFavorsAcquired.get(i).setVisible(true);
                 popeFavorsDiscard.get(i).setVisible(false);
             }
@@ -758,7 +758,23 @@ public class ModelClient {
      * Convert a modelClient to ModelData
      * */
     public ModelData toModelData(){
-        return new ModelData(username,faithTrack,currentPosOnFaithTrack,standardDepot,leaderDepot,maxStoreLeaderDepot,strongbox,cardSlots,leaders);
+        int popeFavorAcquired = 0;
+        int cellVP = 0;
+        int popeFavorVP = 0;
+        int num = 0;
+        for (FaithTrackData cell : faithTrack) {
+            if (cell.getNumberOfCell() <= currentPosOnFaithTrack && cell.getVictoryPoints() != -1)
+                cellVP = cell.getVictoryPoints();
+            if (cell.isPopeFavor()) {
+                if (cell.isAcquired()) {
+                    popeFavorAcquired |= 1 << num;
+                    popeFavorVP += cell.getVictoryPopeFavor();
+                }
+                num++;
+            }
+        }
+        int faithTrackVP = cellVP + popeFavorVP;
+        return new ModelData(username,currentPosOnFaithTrack,popeFavorAcquired,faithTrackVP,standardDepot,leaderDepot,maxStoreLeaderDepot,strongbox,cardSlots,leaders);
     }
 
     public boolean isInkwell() {
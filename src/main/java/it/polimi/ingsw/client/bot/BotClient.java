@@ -0,0 +1,567 @@
+package it.polimi.ingsw.client.bot;
+
+import it.polimi.ingsw.client.Client;
+import it.polimi.ingsw.client.ClientState;
+import it.polimi.ingsw.client.data.LegalActionsData;
+import it.polimi.ingsw.client.data.ResourceData;
+import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionMessage;
+import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionType;
+import it.polimi.ingsw.message.bothArchitectureMessage.PingPongMessage;
+import it.polimi.ingsw.message.bothArchitectureMessage.ReconnectionMessage;
+import it.polimi.ingsw.message.clientMessage.AnyConversionRequest;
+import it.polimi.ingsw.message.clientMessage.ClientMessage;
+import it.polimi.ingsw.message.clientMessage.ErrorMessage;
+import it.polimi.ingsw.message.clientMessage.ErrorType;
+import it.polimi.ingsw.message.clientMessage.WhiteMarbleConversionRequest;
+import it.polimi.ingsw.message.serverMessage.*;
+import it.polimi.ingsw.model.ActionType;
+import it.polimi.ingsw.model.resource.ResourceType;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * BotClient is a client without an interface: it has its own Client, so its own connection and its own
+ * ModelClient, and a BotMessageHandler that keeps the model updated like the CLI does. The set up of the match
+ * (number of players, username, leaders and initial resources) is played by the bot itself, the turns are played
+ * by a BotStrategy. Many bots can run in the same application, all the waits are scheduled on a shared executor.
+ */
+public class BotClient {
+    private static final ResourceType[] TYPES = {ResourceType.COIN, ResourceType.SHIELD,
+            ResourceType.STONE, ResourceType.SERVANT};
+    private static final long STALL_MILLIS = 5000;
+    private static final long RECONNECTION_DELAY_MILLIS = 500;
+    private static final int RECONNECTION_ATTEMPTS = 3;
+    private static final long ERROR_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 2000;
+
+    private final String name;
+    private final String address;
+    private final int port;
+    private final int numOfPlayers;
+    private final boolean creator;
+    private final BotStrategy strategy;
+    private final ScheduledExecutorService scheduler;
+    private final LoadReport report;
+    private final long thinkTime;
+    private final double churn;
+    private final AtomicBoolean away;
+    private final Random random;
+
+    private final Client client = new Client();
+    private final BotMessageHandler handler;
+    private final CountDownLatch joined = new CountDownLatch(1);
+    private final CountDownLatch ended = new CountDownLatch(1);
+    private final Object lock = new Object();
+
+    private volatile boolean connected = false;
+    private volatile boolean matchStarted = false;
+    private volatile boolean gameOver = false;
+    private volatile long lastActivity = System.nanoTime();
+    private int matchID = -1;
+    private int clientID = -1;
+    private int usernameAttempts = 0;
+    private int reconnectionAttempts = 0;
+    private int consecutiveErrors = 0;
+    private int decision = 0;
+    private int connection = 0;
+    private boolean churning = false;
+    private String pendingAction;
+    private long pendingSince;
+    private AnyConversionRequest anyConversionRequest;
+    private WhiteMarbleConversionRequest whiteMarbleConversionRequest;
+    private ScheduledFuture<?> watchdog;
+
+    /**
+     * Create a bot.
+     * @param name the username of the bot.
+     * @param address the address of the server.
+     * @param port the port of the server.
+     * @param numOfPlayers the number of players of the match, 1 for a single player match.
+     * @param creator true if the bot is the one that chooses the number of players of the match.
+     * @param strategy the way the bot plays its turns.
+     * @param scheduler the executor where the actions of the bot are scheduled.
+     * @param report where the bot records its measures.
+     * @param thinkTime the milliseconds the bot waits before every action.
+     * @param churn the probability that the bot disconnects and reconnects in the turn of another player.
+     * @param away shared by the bots of the same match, true while one of them is disconnected: if all the players
+     *             leave, the server closes the match.
+     * @param random the source of the delays and of the choices of the set up.
+     */
+    public BotClient(String name, String address, int port, int numOfPlayers, boolean creator, BotStrategy strategy,
+                     ScheduledExecutorService scheduler, LoadReport report, long thinkTime, double churn,
+                     AtomicBoolean away, Random random) {
+        this.name = name;
+        this.address = address;
+        this.port = port;
+        this.numOfPlayers = numOfPlayers;
+        this.creator = creator;
+        this.strategy = strategy;
+        this.scheduler = scheduler;
+        this.report = report;
+        this.thinkTime = thinkTime;
+        this.churn = numOfPlayers > 1 ? churn : 0;
+        this.away = away;
+        this.random = random;
+        this.handler = new BotMessageHandler(this);
+    }
+
+    /**
+     * Connect the bot to the server and ask to play a match.
+     * @throws IOException if the server can't be reached.
+     */
+    public void start() throws IOException {
+        open();
+        if (numOfPlayers == 1)
+            send(new SinglePlayerMessage());
+        else
+            send(new ConnectionMessage(ConnectionType.CONNECT, ""));
+        watchdog = scheduler.scheduleWithFixedDelay(this::checkStall, STALL_MILLIS, STALL_MILLIS / 5, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a new connection and start the thread that reads the messages of the server.
+     * @throws IOException if the server can't be reached.
+     */
+    private void open() throws IOException {
+        client.connect(address, port);
+        client.setClientMessageHandler(handler);
+        int opened;
+        synchronized (lock){
+            opened = ++connection;
+            connected = true;
+        }
+        Thread reader = new Thread(() -> readLoop(opened), "bot-" + name);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Read and process the messages of the server until the connection is closed. The first message after an
+     * action gives the latency of the action, the pings are not answers.
+     * @param opened the number of the connection read by this thread.
+     */
+    private void readLoop(int opened){
+        try {
+            while (isCurrent(opened)){
+                ClientMessage message = client.readMessage();
+                if (!(message instanceof PingPongMessage))
+                    answered();
+                message.process(handler);
+            }
+        } catch (Exception e) {
+            boolean lost;
+            synchronized (lock){
+                lost = opened == connection && !churning;
+                if (opened == connection)
+                    connected = false;
+            }
+            if (lost)
+                finish(false);
+        } finally {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads.isCurrentThreadCpuTimeSupported())
+                report.addBotCpuTime(threads.getCurrentThreadCpuTime());
+        }
+    }
+
+    /**
+     * Return true if the connection is still the one the bot is using.
+     * @param opened the number of the connection.
+     * @return true if no newer connection has been opened.
+     */
+    private boolean isCurrent(int opened){
+        synchronized (lock){
+            return opened == connection && connected;
+        }
+    }
+
+    /**
+     * Send a message to the server and remember when it was sent.
+     * @param message the message to send.
+     */
+    public void send(ServerMessage message){
+        synchronized (lock){
+            pendingAction = message.getClass().getSimpleName();
+            pendingSince = System.nanoTime();
+            lastActivity = pendingSince;
+        }
+        client.writeToStream(message);
+    }
+
+    /**
+     * Record the latency of the last action sent, if the server hasn't answered it yet.
+     */
+    private void answered(){
+        long now = System.nanoTime();
+        String action;
+        long since;
+        synchronized (lock){
+            lastActivity = now;
+            action = pendingAction;
+            since = pendingSince;
+            pendingAction = null;
+        }
+        if (action != null)
+            report.recordLatency(action, now - since);
+    }
+
+    /**
+     * The server asked how many players the match has.
+     */
+    void onNumberOfPlayerRequest(){
+        if (!creator)
+            System.out.println(name + " was asked the number of players of the match");
+        send(new ConnectionMessage(ConnectionType.NUM_OF_PLAYER, numOfPlayers));
+    }
+
+    /**
+     * The server asked the username: the name of the bot is used, with a suffix if it's already taken.
+     */
+    void onUsernameRequest(){
+        String username = usernameAttempts == 0 ? name : name + "_" + usernameAttempts;
+        usernameAttempts++;
+        client.setMyName(username);
+        send(new ConnectionMessage(ConnectionType.USERNAME, username));
+    }
+
+    /**
+     * The bot is in a match.
+     * @param matchID the id of the match.
+     * @param clientID the id the bot uses to reconnect.
+     */
+    void onJoin(int matchID, int clientID){
+        synchronized (lock){
+            this.matchID = matchID;
+            this.clientID = clientID;
+        }
+        joined.countDown();
+    }
+
+    /**
+     * The server accepted the reconnection of the bot.
+     */
+    void onRejoin(){
+        synchronized (lock){
+            if (churning)
+                away.set(false);
+            churning = false;
+        }
+        scheduleDecision();
+    }
+
+    /**
+     * The leaders have been dealt: the first two are discarded.
+     */
+    void onLeaderSetUp(){
+        send(new LeaderManage(0, true));
+        send(new LeaderManage(0, true));
+    }
+
+    /**
+     * All the players are ready and the first turn is starting.
+     */
+    void onMatchStart(){
+        matchStarted = true;
+    }
+
+    /**
+     * A new turn is starting: in the turn of another player the bot could leave and come back. In its own turn
+     * the bot waits the legal actions of the new turn.
+     * @param username the player of the turn.
+     */
+    void onNewTurn(String username){
+        if (matchStarted && !username.equals(client.getMyName()) && churn > 0 && random.nextDouble() < churn)
+            disconnect();
+    }
+
+    /**
+     * The legal actions have changed, so the last action worked: if it's the turn of the bot it plays again.
+     */
+    void onLegalActions(){
+        synchronized (lock){
+            consecutiveErrors = 0;
+        }
+        scheduleDecision();
+    }
+
+    /**
+     * The server sent an error: the bot is told to try something else.
+     * @param message the error.
+     */
+    void onError(ErrorMessage message){
+        if (message.getErrorType() == ErrorType.FAIL_RECONNECTION){
+            synchronized (lock){
+                if (churning && ++reconnectionAttempts < RECONNECTION_ATTEMPTS && !gameOver){
+                    scheduler.schedule(this::reconnect, RECONNECTION_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                    return;
+                }
+            }
+            finish(false);
+            return;
+        }
+        if (message.getErrorType() == ErrorType.INVALID_USERNAME && !matchStarted){
+            onUsernameRequest();
+            return;
+        }
+        report.error();
+        if (message.getErrorType() == ErrorType.NOT_YOUR_TURN)
+            return;
+        synchronized (lock){
+            consecutiveErrors++;
+        }
+        scheduleDecision();
+    }
+
+    /**
+     * The server asked to choose the type of some resources. In the set up of the match it's answered right away,
+     * in the game the strategy answers it. A second request can come with the same legal actions of the first one,
+     * so the bot doesn't wait for them if it can already answer.
+     * @param request the request of the server.
+     */
+    void onAnyConversionRequest(AnyConversionRequest request){
+        if (!matchStarted){
+            if (request.getNumOfAny() > 0){
+                ArrayList<ResourceData> resources = new ArrayList<>();
+                resources.add(new ResourceData(TYPES[random.nextInt(TYPES.length)], request.getNumOfAny()));
+                send(new AnyResponse(resources));
+            }
+            return;
+        }
+        synchronized (lock){
+            anyConversionRequest = request;
+        }
+        if (canAnswer(ActionType.ANY_RESPONSE))
+            scheduleDecision();
+    }
+
+    /**
+     * The server asked how to convert the white marbles, the strategy answers it like the requests of resources.
+     * @param request the request of the server.
+     */
+    void onWhiteMarbleConversionRequest(WhiteMarbleConversionRequest request){
+        synchronized (lock){
+            whiteMarbleConversionRequest = request;
+        }
+        if (canAnswer(ActionType.WHITE_MARBLE_CONVERSION))
+            scheduleDecision();
+    }
+
+    /**
+     * Return true if the last legal actions already allow to answer a request.
+     * @param action the answer.
+     * @return true if the answer is legal.
+     */
+    private boolean canAnswer(ActionType action){
+        LegalActionsData legalActions = client.getLegalActions();
+        return legalActions != null && legalActions.isLegal(action);
+    }
+
+    /**
+     * The game is over for all the players.
+     */
+    void onGameOver(){
+        gameOver = true;
+        finish(true);
+    }
+
+    /**
+     * Plan the next action after the think time, the older plans are dropped. After many errors in a row the bot
+     * waits more, so a server that keeps refusing its actions isn't flooded.
+     */
+    private void scheduleDecision(){
+        int planned;
+        long delay;
+        synchronized (lock){
+            planned = ++decision;
+            delay = thinkTime + Math.min(MAX_BACKOFF_MILLIS, consecutiveErrors * ERROR_BACKOFF_MILLIS);
+        }
+        scheduler.schedule(() -> decide(planned), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ask the strategy the next action and send it, if it's the turn of the bot and no newer plan exists.
+     * @param planned the number of the plan.
+     */
+    private void decide(int planned){
+        ServerMessage action;
+        synchronized (lock){
+            if (planned != decision || !isMyTurn())
+                return;
+            try {
+                action = strategy.nextAction(this);
+            } catch (RuntimeException e) {
+                System.out.println(name + " strategy error: " + e);
+                action = null;
+            }
+        }
+        if (action != null)
+            send(action);
+    }
+
+    /**
+     * Play again if in the turn of the bot the server hasn't sent anything for a while.
+     */
+    private void checkStall(){
+        if (ended.getCount() == 0){
+            if (watchdog != null) watchdog.cancel(false);
+            return;
+        }
+        if (isMyTurn() && System.nanoTime() - lastActivity > TimeUnit.MILLISECONDS.toNanos(STALL_MILLIS)){
+            lastActivity = System.nanoTime();
+            report.stall();
+            scheduleDecision();
+        }
+    }
+
+    /**
+     * Return true if the bot can play.
+     * @return true if the match is started, the bot is connected, it's its turn and the last legal actions are
+     * of the bot.
+     */
+    private boolean isMyTurn(){
+        LegalActionsData legalActions = client.getLegalActions();
+        return matchStarted && connected && !gameOver && client.getState() == ClientState.IN_GAME && legalActions != null
+                && legalActions.getUsername().equals(client.getMyName());
+    }
+
+    /**
+     * Leave the match, the bot comes back after a while.
+     */
+    private void disconnect(){
+        synchronized (lock){
+            if (churning || !connected || !away.compareAndSet(false, true))
+                return;
+            churning = true;
+            reconnectionAttempts = 0;
+            connected = false;
+        }
+        try {
+            client.close();
+        } catch (IOException ignored) {}
+        scheduler.schedule(this::reconnect, RECONNECTION_DELAY_MILLIS + random.nextInt((int) RECONNECTION_DELAY_MILLIS),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a new connection and ask to go back in the match.
+     */
+    private void reconnect(){
+        if (ended.getCount() == 0)
+            return;
+        int match;
+        int id;
+        synchronized (lock){
+            match = matchID;
+            id = clientID;
+        }
+        try {
+            client.close();
+            client.setLegalActions(null);
+            open();
+            report.reconnection();
+            send(new ReconnectionMessage(match, id));
+        } catch (IOException e) {
+            finish(false);
+        }
+    }
+
+    /**
+     * End the bot, its connection is closed.
+     * @param completed true if the bot got to the end of the game.
+     */
+    private void finish(boolean completed){
+        if (ended.getCount() == 0)
+            return;
+        synchronized (lock){
+            if (churning)
+                away.set(false);
+            churning = false;
+        }
+        if (!completed)
+            System.out.println(name + " left the match before the end");
+        ended.countDown();
+        connected = false;
+        try {
+            client.close();
+        } catch (IOException ignored) {}
+    }
+
+    /**
+     * Wait until the bot is in a match.
+     * @param timeout the maximum wait.
+     * @param unit the unit of the timeout.
+     * @return true if the bot is in a match.
+     * @throws InterruptedException if the wait is interrupted.
+     */
+    public boolean awaitJoined(long timeout, TimeUnit unit) throws InterruptedException {
+        return joined.await(timeout, unit) && ended.getCount() > 0;
+    }
+
+    /**
+     * Wait until the bot has ended.
+     * @param timeout the maximum wait.
+     * @param unit the unit of the timeout.
+     * @return true if the bot has ended.
+     * @throws InterruptedException if the wait is interrupted.
+     */
+    public boolean awaitEnd(long timeout, TimeUnit unit) throws InterruptedException {
+        return ended.await(timeout, unit);
+    }
+
+    /**
+     * Stop the bot, also if the match is not over.
+     */
+    public void stop(){
+        if (ended.getCount() > 0)
+            finish(false);
+        if (watchdog != null)
+            watchdog.cancel(false);
+    }
+
+    /**
+     * Return true if the bot saw the end of the game.
+     * @return true if the game is over.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public AnyConversionRequest getAnyConversionRequest() {
+        synchronized (lock){
+            return anyConversionRequest;
+        }
+    }
+
+    public WhiteMarbleConversionRequest getWhiteMarbleConversionRequest() {
+        synchronized (lock){
+            return whiteMarbleConversionRequest;
+        }
+    }
+
+    public int getConsecutiveErrors() {
+        synchronized (lock){
+            return consecutiveErrors;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package it.polimi.ingsw.client.bot;
+
+import it.polimi.ingsw.client.ClientMessageHandler;
+import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionMessage;
+import it.polimi.ingsw.message.bothArchitectureMessage.ReconnectionMessage;
+import it.polimi.ingsw.message.clientMessage.*;
+
+/**
+ * The message handler of a bot: the model of the client is updated like in the CLI and in the GUI,
+ * then the bot is told what happened instead of printing it.
+ */
+public class BotMessageHandler extends ClientMessageHandler {
+    private final BotClient bot;
+
+    /**
+     * Create the handler of a bot.
+     * @param bot the bot that receives the messages.
+     */
+    public BotMessageHandler(BotClient bot) {
+        super(bot.getClient());
+        this.bot = bot;
+    }
+
+    /**
+     * See {@link ClientMessageHandler#handlePingPong()}.
+     */
+    @Override
+    public void handlePingPong() {
+        if (bot.isConnected())
+            super.handlePingPong();
+    }
+
+    /**
+     * See {@link ClientMessageHandler#handleError(ErrorMessage)}.
+     */
+    @Override
+    public void handleError(ErrorMessage message) {
+        bot.onError(message);
+    }
+
+    /**
+     * See {@link ClientMessageHandler#connectNewUser(ConnectionMessage)}.
+     */
+    @Override
+    public void connectNewUser(ConnectionMessage message) {}
+
+    /**
+     * See {@link ClientMessageHandler#waitingPeople(ConnectionMessage)}.
+     */
+    @Override
+    public void waitingPeople(ConnectionMessage message) {}
+
+    /**
+     * See {@link ClientMessageHandler#username(ConnectionMessage)}.
+     */
+    @Override
+    public void username(ConnectionMessage message) {
+        bot.onUsernameRequest();
+    }
+
+    /**
+     * See {@link ClientMessageHandler#numberOfPlayer(ConnectionMessage)}.
+     */
+    @Override
+    public void numberOfPlayer(ConnectionMessage message) {
+        bot.onNumberOfPlayerRequest();
+    }
+
+    /**
+     * See {@link ClientMessageHandler#validReconnect(ConnectionMessage)}.
+     */
+    @Override
+    public void validReconnect(ConnectionMessage message) {
+        super.validReconnect(message);
+        bot.onRejoin();
+    }
+
+    /**
+     * See {@link ClientMessageHandler#connectInfo(ConnectionMessage)}.
+     */
+    @Override
+    public void connectInfo(ConnectionMessage message) {}
+
+    /**
+     * The ids to reconnect are kept by the bot, nothing is written on file.
+     * @param message to handle
+     */
+    @Override
+    public void reconnect(ReconnectionMessage message) {
+        bot.onJoin(message.getMatchID(), message.getClientID());
+    }
+
+    /**
+     * See {@link ClientMessageHandler#reconnectGameSetUp(ReconnectGameMessage)}.
+     */
+    @Override
+    public void reconnectGameSetUp(ReconnectGameMessage message) {
+        bot.getClient().clearModels();
+        super.reconnectGameSetUp(message);
+        bot.onRejoin();
+    }
+
+    /**
+     * See {@link ClientMessageHandler#mainMenu()}.
+     */
+    @Override
+    public void mainMenu() {}
+
+    /**
+     * See {@link ClientMessageHandler#newTurn(StarTurn)}.
+     */
+    @Override
+    public void newTurn(StarTurn message) {
+        super.newTurn(message);
+        bot.onNewTurn(message.getUsername());
+    }
+
+    /**
+     * See {@link ClientMessageHandler#legalActionsUpdate(LegalActionsUpdate)}.
+     */
+    @Override
+    public void legalActionsUpdate(LegalActionsUpdate message) {
+        super.legalActionsUpdate(message);
+        bot.onLegalActions();
+    }
+
+    /**
+     * See {@link ClientMessageHandler#leaderSetUp(LeaderSetUpMessage)}.
+     */
+    @Override
+    public void leaderSetUp(LeaderSetUpMessage message) {
+        super.leaderSetUp(message);
+        bot.onLeaderSetUp();
+    }
+
+    /**
+     * See {@link ClientMessageHandler#startGame()}.
+     */
+    @Override
+    public void startGame() {
+        bot.onMatchStart();
+    }
+
+    /**
+     * See {@link ClientMessageHandler#anyConversionRequest(AnyConversionRequest)}.
+     */
+    @Override
+    public void anyConversionRequest(AnyConversionRequest message) {
+        bot.onAnyConversionRequest(message);
+    }
+
+    /**
+     * See {@link ClientMessageHandler#bufferUpdate(BufferUpdate)}.
+     */
+    @Override
+    public void bufferUpdate(BufferUpdate message) {}
+
+    /**
+     * See {@link ClientMessageHandler#handleDepotPositioningRequest(DepotPositioningRequest)}.
+     */
+    @Override
+    public void handleDepotPositioningRequest(DepotPositioningRequest message) {}
+
+    /**
+     * See {@link ClientMessageHandler#handleWarehouseRemovingRequest(WarehouseRemovingRequest)}.
+     */
+    @Override
+    public void handleWarehouseRemovingRequest(WarehouseRemovingRequest message) {}
+
+    /**
+     * See {@link ClientMessageHandler#whiteMarbleConversion(WhiteMarbleConversionRequest)}.
+     */
+    @Override
+    public void whiteMarbleConversion(WhiteMarbleConversionRequest message) {
+        bot.onWhiteMarbleConversionRequest(message);
+    }
+
+    /**
+     * See {@link ClientMessageHandler#gameOver(GameOver)}.
+     */
+    @Override
+    public void gameOver(GameOver message) {
+        super.gameOver(message);
+        bot.onGameOver();
+    }
+
+    /**
+     * See {@link ClientMessageHandler#winningCondition()}.
+     */
+    @Override
+    public void winningCondition() {}
+
+    /**
+     * See {@link ClientMessageHandler#handleProductionSelectionCompleted()}.
+     */
+    @Override
+    public void handleProductionSelectionCompleted() {}
+}
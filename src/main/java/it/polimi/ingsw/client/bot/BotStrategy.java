@@ -0,0 +1,17 @@
+package it.polimi.ingsw.client.bot;
+
+import it.polimi.ingsw.message.serverMessage.ServerMessage;
+
+/**
+ * The way a bot plays its turns. The connection, the set up of the match and the reconnections are handled by
+ * the BotClient, the strategy is asked what to send only when it's the turn of the bot.
+ */
+public interface BotStrategy {
+
+    /**
+     * Choose the next message to send in the turn of the bot.
+     * @param bot the bot that has to play, with its model, the legal actions and the last requests of the server.
+     * @return the message to send, null to wait for the next update of the server.
+     */
+    ServerMessage nextAction(BotClient bot);
+}
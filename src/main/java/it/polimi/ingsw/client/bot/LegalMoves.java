@@ -0,0 +1,78 @@
+package it.polimi.ingsw.client.bot;
+
+import it.polimi.ingsw.client.data.LegalActionsData;
+import it.polimi.ingsw.message.serverMessage.BaseProduction;
+import it.polimi.ingsw.message.serverMessage.DevelopmentAction;
+import it.polimi.ingsw.message.serverMessage.LeaderManage;
+import it.polimi.ingsw.message.serverMessage.ProductionAction;
+import it.polimi.ingsw.message.serverMessage.ServerMessage;
+
+import java.util.ArrayList;
+
+/**
+ * LegalMoves turns the legal actions of a player in the messages a bot can send, so the bots of the clients and
+ * the ones of the headless matches choose among the same moves. Only the masks of LegalActionsData are read,
+ * a mask is empty when its action is not legal in the state of the player.
+ */
+public final class LegalMoves {
+
+    private LegalMoves() { }
+
+    /**
+     * Return the activations of the leaders that satisfy their requirements.
+     * @param legalActions the legal actions of the player.
+     * @return the activations, by index of the leader.
+     */
+    public static ArrayList<ServerMessage> leaderActivations(LegalActionsData legalActions){
+        ArrayList<ServerMessage> activations = new ArrayList<>();
+        for (int bits = legalActions.getActivatableLeaders(); bits != 0; bits &= bits - 1)
+            activations.add(new LeaderManage(Integer.numberOfTrailingZeros(bits), false));
+        return activations;
+    }
+
+    /**
+     * Return the purchases of the cards of the deck the player can afford, one for every card slot the card fits.
+     * @param legalActions the legal actions of the player.
+     * @return the purchases, by position in the deck and then by card slot.
+     */
+    public static ArrayList<ServerMessage> purchases(LegalActionsData legalActions){
+        ArrayList<ServerMessage> purchases = new ArrayList<>();
+        int columns = legalActions.getDeckColumns();
+        if (columns == 0)
+            return purchases;
+        for (int position = 0; position < legalActions.getValidSlots().length; position++){
+            if (!legalActions.canBuy(position / columns, position % columns))
+                continue;
+            for (int bits = legalActions.getValidSlots()[position]; bits != 0; bits &= bits - 1)
+                purchases.add(new DevelopmentAction(position / columns, position % columns,
+                        Integer.numberOfTrailingZeros(bits)));
+        }
+        return purchases;
+    }
+
+    /**
+     * Return the productions of the development cards and of the leaders the player can still add.
+     * @param legalActions the legal actions of the player.
+     * @return the productions of the card slots and then the ones of the leaders, without the base production.
+     */
+    public static ArrayList<ServerMessage> cardProductions(LegalActionsData legalActions){
+        ArrayList<ServerMessage> productions = new ArrayList<>();
+        for (int bits = legalActions.getUsableProductions(); bits != 0; bits &= bits - 1)
+            productions.add(new ProductionAction(Integer.numberOfTrailingZeros(bits), false));
+        for (int bits = legalActions.getUsableLeaderProductions(); bits != 0; bits &= bits - 1)
+            productions.add(new ProductionAction(Integer.numberOfTrailingZeros(bits), true));
+        return productions;
+    }
+
+    /**
+     * Return all the productions the player can still add: card slots, leaders and base production.
+     * @param legalActions the legal actions of the player.
+     * @return the productions, the base production is the last one.
+     */
+    public static ArrayList<ServerMessage> productions(LegalActionsData legalActions){
+        ArrayList<ServerMessage> productions = cardProductions(legalActions);
+        if (legalActions.isBaseProductionUsable())
+            productions.add(new BaseProduction());
+        return productions;
+    }
+}
@@ -0,0 +1,327 @@
+package it.polimi.ingsw.client.bot;
+
+import it.polimi.ingsw.server.Server;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LoadGenerator plays many matches at the same time against a server, every player is a BotClient that plays
+ * random legal actions. At the end it prints the matches per second, the latencies of the actions and, when the
+ * server runs in the same process, the CPU time, the heap used, the latency of the stages of the actions
+ * inside the server and the metrics of the server.
+ * The server CPU time is the CPU time of the process minus the one of the threads of the bots.
+ */
+public class LoadGenerator {
+    private static final long SAMPLE_MILLIS = 500;
+    private static final long JOIN_TIMEOUT_SECONDS = 30;
+    private static final long GAME_OVER_POLL_MILLIS = 200;
+
+    private final HashMap<String,String> argsMap = new HashMap<>();
+    private final LoadReport report = new LoadReport();
+    private final Semaphore lobby = new Semaphore(1, true);
+    private final AtomicInteger nextMatch = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+    private Server server;
+
+    private String address;
+    private int port;
+    private boolean local;
+    private int matches;
+    private int rounds;
+    private int[] players;
+    private long rampUp;
+    private long thinkTime;
+    private double churn;
+    private long timeout;
+    private long seed;
+
+    private long peakHeap = 0;
+    private long heapSum = 0;
+    private int heapSamples = 0;
+    private double cpuLoadSum = 0;
+    private int cpuLoadSamples = 0;
+
+    /**
+     * SetUp the argsMap for command line parameters.
+     */
+    private void setUpArgs(){
+        argsMap.put("-address", "127.0.0.1");
+        argsMap.put("-port", "2020");
+        argsMap.put("-local", "true");
+        argsMap.put("-matches", "10");
+        argsMap.put("-rounds", "1");
+        argsMap.put("-players", "1,2,3,4");
+        argsMap.put("-rampUp", "5000");
+        argsMap.put("-thinkTime", "0");
+        argsMap.put("-churn", "0");
+        argsMap.put("-timeout", "600");
+        argsMap.put("-seed", String.valueOf(System.nanoTime()));
+    }
+
+    /**
+     * Read the parameters from the command line.
+     * @param args the parameters from the command line.
+     */
+    private void setUpGenerator(String[] args){
+        setUpArgs();
+        for (int i = 0; i < args.length; i++) {
+            if (argsMap.containsKey(args[i])){
+                try {
+                    argsMap.replace(args[i], args[i + 1]);
+                    i++;
+                }catch (Exception e){
+                    System.out.println("Invalid param!");
+                    System.exit(0);
+                }
+            }else{
+                System.out.println("Invalid param!");
+                System.exit(0);
+            }
+        }
+
+        try {
+            address = argsMap.get("-address");
+            port = Integer.parseInt(argsMap.get("-port"));
+            local = Boolean.parseBoolean(argsMap.get("-local"));
+            matches = Integer.parseInt(argsMap.get("-matches"));
+            rounds = Integer.parseInt(argsMap.get("-rounds"));
+            String[] split = argsMap.get("-players").split(",");
+            players = new int[split.length];
+            for (int i = 0; i < split.length; i++) {
+                players[i] = Integer.parseInt(split[i].trim());
+                if (players[i] < 1 || players[i] > 4)
+                    throw new IllegalArgumentException();
+            }
+            rampUp = Long.parseLong(argsMap.get("-rampUp"));
+            thinkTime = Long.parseLong(argsMap.get("-thinkTime"));
+            churn = Double.parseDouble(argsMap.get("-churn"));
+            timeout = Long.parseLong(argsMap.get("-timeout"));
+            seed = Long.parseLong(argsMap.get("-seed"));
+            if (matches < 1 || rounds < 1 || rampUp < 0 || thinkTime < 0 || churn < 0 || churn > 1 || timeout < 1)
+                throw new IllegalArgumentException();
+        }catch (Exception e){
+            System.out.println("Invalid param to start the load generator!");
+            System.exit(0);
+        }
+    }
+
+    public static void main(String[] args) {
+        LoadGenerator generator = new LoadGenerator();
+        generator.setUpGenerator(args);
+        try {
+            generator.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Start the server if it's local, play all the matches and print the report.
+     * @throws InterruptedException if the wait of the matches is interrupted.
+     */
+    private void run() throws InterruptedException {
+        if (local && !startLocalServer())
+            return;
+
+        System.out.println("Load test: " + matches + " concurrent matches, " + rounds + " rounds, seed " + seed);
+        scheduler = Executors.newScheduledThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+                threadFactory("bot-scheduler-"));
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(threadFactory("load-sampler-"));
+        sampler.scheduleAtFixedRate(this::sample, 0, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+        ExecutorService runners = Executors.newFixedThreadPool(matches, threadFactory("load-runner-"));
+
+        long startCpu = processCpuTime();
+        long start = System.nanoTime();
+        for (int i = 0; i < matches; i++) {
+            long delay = matches > 1 ? rampUp * i / (matches - 1) : 0;
+            runners.submit(() -> {
+                try {
+                    Thread.sleep(delay);
+                    for (int round = 0; round < rounds; round++)
+                        playMatch();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        runners.shutdown();
+        runners.awaitTermination(timeout * rounds + rampUp / 1000 + 60, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+        long cpu = processCpuTime() - startCpu;
+        sampler.shutdownNow();
+
+        report.print(System.out, elapsed);
+        if (local && cpu >= 0){
+            long serverCpu = cpu - report.getBotCpuTime() - liveBotCpuTime();
+            System.out.printf("Server CPU: %s (%.1f%% of one core), process CPU load avg %.1f%%%n",
+                    LoadReport.seconds(serverCpu), 100.0 * serverCpu / elapsed,
+                    cpuLoadSamples > 0 ? 100 * cpuLoadSum / cpuLoadSamples : 0);
+            System.out.printf("Heap (server and bots): peak %.1f MB, avg %.1f MB%n",
+                    peakHeap / 1e6, heapSamples > 0 ? heapSum / 1e6 / heapSamples : 0);
+            server.getActionTracer().print(System.out);
+            server.getMetrics().getRegistry().print(System.out, "");
+        }else{
+            System.out.println("Server CPU: n/a, the server is not in this process");
+        }
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Play one match: the bots of a match with more players join the lobby one group at a time, so they end up
+     * in the same match.
+     * @throws InterruptedException if the wait of the match is interrupted.
+     */
+    private void playMatch() throws InterruptedException {
+        int id = nextMatch.getAndIncrement();
+        int numOfPlayers = players[id % players.length];
+        Random random = new Random(seed + id);
+        ArrayList<BotClient> bots = new ArrayList<>();
+        AtomicBoolean away = new AtomicBoolean();
+        for (int i = 0; i < numOfPlayers; i++) {
+            Random botRandom = new Random(random.nextLong());
+            bots.add(new BotClient("bot" + id + "_" + i, address, port, numOfPlayers, i == 0,
+                    new RandomLegalStrategy(new Random(botRandom.nextLong())),
+                    scheduler, report, thinkTime, churn, away, botRandom));
+        }
+
+        boolean joined = true;
+        if (numOfPlayers > 1)
+            lobby.acquire();
+        try {
+            joined = join(bots.get(0));
+            for (int i = 1; i < bots.size() && joined; i++)
+                bots.get(i).start();
+            for (int i = 1; i < bots.size() && joined; i++)
+                joined = bots.get(i).awaitJoined(JOIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (IOException e) {
+            System.out.println("Match " + id + " can't connect: " + e.getMessage());
+            joined = false;
+        } finally {
+            if (numOfPlayers > 1)
+                lobby.release();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+        for (BotClient bot : bots) {
+            if (!joined) break;
+            //a bot away when the game ends doesn't get the game over, the others don't wait for it
+            while (!bot.awaitEnd(GAME_OVER_POLL_MILLIS, TimeUnit.MILLISECONDS) && System.nanoTime() < deadline
+                    && bots.stream().noneMatch(BotClient::isGameOver));
+        }
+        report.matchEnded(joined && bots.stream().anyMatch(BotClient::isGameOver));
+        bots.forEach(BotClient::stop);
+    }
+
+    /**
+     * Start a bot and wait until it's in a match.
+     * @param bot the bot.
+     * @return true if the bot joined a match.
+     * @throws IOException if the server can't be reached.
+     * @throws InterruptedException if the wait is interrupted.
+     */
+    private boolean join(BotClient bot) throws IOException, InterruptedException {
+        bot.start();
+        return bot.awaitJoined(JOIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Start the server in this process and wait until it accepts connections.
+     * @return true if the server is ready.
+     * @throws InterruptedException if the wait is interrupted.
+     */
+    private boolean startLocalServer() throws InterruptedException {
+        server = new Server(new String[]{"-port", String.valueOf(port)});
+        Thread serverThread = new Thread(server::startServer, "server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+        for (int i = 0; i < 100; i++) {
+            try (Socket probe = new Socket(address, port)) {
+                return probe.isConnected();
+            } catch (IOException e) {
+                Thread.sleep(100);
+            }
+        }
+        System.out.println("The local server didn't start");
+        return false;
+    }
+
+    /**
+     * Sample the heap used and the CPU load of the process.
+     */
+    private synchronized void sample(){
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long heap = memory.getHeapMemoryUsage().getUsed();
+        peakHeap = Math.max(peakHeap, heap);
+        heapSum += heap;
+        heapSamples++;
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean){
+            double load = ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad();
+            if (load >= 0){
+                cpuLoadSum += load;
+                cpuLoadSamples++;
+            }
+        }
+    }
+
+    /**
+     * Return the CPU time used by the process.
+     * @return the CPU time in nanoseconds, -1 if it's not available.
+     */
+    private static long processCpuTime(){
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean)
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        return -1;
+    }
+
+    /**
+     * Return the CPU time used by the threads of the bots still alive, the ones ended are in the report.
+     * @return the CPU time in nanoseconds.
+     */
+    private static long liveBotCpuTime(){
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadCpuTimeSupported())
+            return 0;
+        long total = 0;
+        for (long threadID : threads.getAllThreadIds()) {
+            ThreadInfo info = threads.getThreadInfo(threadID);
+            if (info != null && (info.getThreadName().startsWith("bot") || info.getThreadName().startsWith("load-"))){
+                long time = threads.getThreadCpuTime(threadID);
+                if (time > 0) total += time;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Return a factory of daemon threads with a name.
+     * @param prefix the prefix of the names.
+     * @return the factory.
+     */
+    private static ThreadFactory threadFactory(String prefix){
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,186 @@
+package it.polimi.ingsw.client.bot;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoadReport collects what the bots measure during a load test: the latency of every action, from the moment the
+ * message is sent to the first message the server sends back, the CPU time spent by the threads of the bots and
+ * the events of the matches. It's shared by all the bots, so every method is thread safe.
+ */
+public class LoadReport {
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final Map<String, Latencies> latencies = new TreeMap<>();
+    private final LongAdder botCpuTime = new LongAdder();
+    private final AtomicInteger completedMatches = new AtomicInteger();
+    private final AtomicInteger failedMatches = new AtomicInteger();
+    private final AtomicInteger reconnections = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicInteger stalls = new AtomicInteger();
+
+    /**
+     * Record the latency of an action.
+     * @param action the name of the message sent.
+     * @param nanos the time between the message and the answer of the server, in nanoseconds.
+     */
+    public void recordLatency(String action, long nanos){
+        Latencies series;
+        synchronized (latencies){
+            series = latencies.computeIfAbsent(action, x -> new Latencies());
+        }
+        series.add(nanos);
+    }
+
+    /**
+     * Add the CPU time used by a thread of a bot.
+     * @param nanos the CPU time, in nanoseconds.
+     */
+    public void addBotCpuTime(long nanos){
+        if (nanos > 0) botCpuTime.add(nanos);
+    }
+
+    /**
+     * Return the CPU time used by the threads of the bots that are already ended.
+     * @return the CPU time, in nanoseconds.
+     */
+    public long getBotCpuTime(){
+        return botCpuTime.sum();
+    }
+
+    /**
+     * Count the end of a match.
+     * @param completed true if the game of the match got to the end.
+     */
+    public void matchEnded(boolean completed){
+        if (completed) completedMatches.incrementAndGet();
+        else failedMatches.incrementAndGet();
+    }
+
+    /**
+     * Count a reconnection of a bot.
+     */
+    public void reconnection(){
+        reconnections.incrementAndGet();
+    }
+
+    /**
+     * Count an error sent by the server to a bot.
+     */
+    public void error(){
+        errors.incrementAndGet();
+    }
+
+    /**
+     * Count a turn where the server didn't answer and the bot had to play again.
+     */
+    public void stall(){
+        stalls.incrementAndGet();
+    }
+
+    public int getCompletedMatches() {
+        return completedMatches.get();
+    }
+
+    public int getFailedMatches() {
+        return failedMatches.get();
+    }
+
+    /**
+     * Return the percentile of the latencies of an action.
+     * @param action the name of the message sent, null for all the actions.
+     * @param percentile the percentile, between 0 and 100.
+     * @return the latency in nanoseconds, 0 if the action was never sent.
+     */
+    public long percentile(String action, double percentile){
+        return sorted(action).percentile(percentile);
+    }
+
+    /**
+     * Print the matches per second, the percentiles of the latencies of every action and the events of the bots.
+     * @param out where the report is printed.
+     * @param elapsedNanos the duration of the test.
+     */
+    public void print(PrintStream out, long elapsedNanos){
+        double seconds = elapsedNanos / 1e9;
+        out.printf("Matches: %d completed, %d failed in %.1f s, %.3f matches/s%n",
+                completedMatches.get(), failedMatches.get(), seconds, completedMatches.get() / seconds);
+        out.printf("Bots: %d reconnections, %d errors, %d stalls%n", reconnections.get(), errors.get(), stalls.get());
+        out.printf("%-30s %8s %10s %10s %10s %10s%n", "action latency (ms)", "count", "p50", "p90", "p99", "max");
+        ArrayList<String> actions;
+        synchronized (latencies){
+            actions = new ArrayList<>(latencies.keySet());
+        }
+        for (String action : actions)
+            printLine(out, action, sorted(action));
+        printLine(out, "all", sorted(null));
+    }
+
+    /**
+     * Print the line of an action.
+     * @param out where the line is printed.
+     * @param action the name of the action.
+     * @param series the sorted latencies of the action.
+     */
+    private void printLine(PrintStream out, String action, Latencies series){
+        out.printf("%-30s %8d", action, series.size);
+        for (double percentile : PERCENTILES)
+            out.printf(" %10.3f", series.percentile(percentile) / 1e6);
+        out.printf(" %10.3f%n", series.percentile(100) / 1e6);
+    }
+
+    /**
+     * Return a sorted copy of the latencies of an action.
+     * @param action the name of the action, null for all the actions.
+     * @return the sorted latencies.
+     */
+    private Latencies sorted(String action){
+        Latencies result = new Latencies();
+        synchronized (latencies){
+            for (Map.Entry<String, Latencies> entry : latencies.entrySet()){
+                if (action == null || entry.getKey().equals(action))
+                    entry.getValue().copyTo(result);
+            }
+        }
+        Arrays.sort(result.values, 0, result.size);
+        return result;
+    }
+
+    /**
+     * Format a duration in seconds.
+     * @param nanos the duration in nanoseconds.
+     * @return the duration in seconds.
+     */
+    public static String seconds(long nanos){
+        return String.format("%.2f s", nanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * The latencies of an action, in a growing array of primitive values.
+     */
+    private static final class Latencies {
+        private long[] values = new long[64];
+        private int size = 0;
+
+        private synchronized void add(long nanos){
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = nanos;
+        }
+
+        private synchronized void copyTo(Latencies other){
+            for (int i = 0; i < size; i++) other.add(values[i]);
+        }
+
+        private long percentile(double percentile){
+            if (size == 0) return 0;
+            int index = (int) Math.ceil(percentile / 100 * size) - 1;
+            return values[Math.max(0, Math.min(size - 1, index))];
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package it.polimi.ingsw.client.bot;
+
+import it.polimi.ingsw.client.data.LegalActionsData;
+import it.polimi.ingsw.client.data.MarketData;
+import it.polimi.ingsw.client.data.ResourceData;
+import it.polimi.ingsw.message.clientMessage.AnyConversionRequest;
+import it.polimi.ingsw.message.clientMessage.WhiteMarbleConversionRequest;
+import it.polimi.ingsw.message.serverMessage.*;
+import it.polimi.ingsw.model.ActionType;
+import it.polimi.ingsw.model.personalBoard.resourceManager.PaymentPolicy;
+import it.polimi.ingsw.model.resource.ResourceType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * RandomLegalStrategy plays a random action among the ones the server says are legal.
+ * The requests of the server that stop the turn (conversions, resources to place or to pay) are answered first,
+ * the resources are placed and paid automatically. After some errors in a row the bot ends its turn as soon
+ * as it can, so a bot never gets stuck on an action the server keeps refusing.
+ */
+public class RandomLegalStrategy implements BotStrategy {
+    private static final ResourceType[] TYPES = {ResourceType.COIN, ResourceType.SHIELD,
+            ResourceType.STONE, ResourceType.SERVANT};
+    private static final int MAX_ERRORS = 3;
+
+    private final Random random;
+
+    /**
+     * Create a random strategy.
+     * @param random the source of the choices, a seeded one makes the bot play always the same way.
+     */
+    public RandomLegalStrategy(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * See {@link BotStrategy#nextAction(BotClient)}.
+     */
+    @Override
+    public synchronized ServerMessage nextAction(BotClient bot) {
+        LegalActionsData legalActions = bot.getClient().getLegalActions();
+        if (legalActions == null)
+            return null;
+
+        if (legalActions.isLegal(ActionType.ANY_RESPONSE) && bot.getAnyConversionRequest() != null)
+            return anyResponse(bot.getAnyConversionRequest(), bot.getConsecutiveErrors() > 0);
+        if (legalActions.isLegal(ActionType.WHITE_MARBLE_CONVERSION) && bot.getWhiteMarbleConversionRequest() != null)
+            return whiteMarbleResponse(bot.getWhiteMarbleConversionRequest());
+        if (legalActions.isLegal(ActionType.AUTO_ARRANGE))
+            return new AutoArrange();
+        if (legalActions.isLegal(ActionType.AUTO_PAYMENT))
+            return new AutoPayment(random.nextBoolean() ? PaymentPolicy.WAREHOUSE_FIRST : PaymentPolicy.STRONGBOX_FIRST);
+        if (legalActions.isLegal(ActionType.END_CARD_SELECTION))
+            return new EndProductionSelection();
+
+        boolean tooManyErrors = bot.getConsecutiveErrors() >= MAX_ERRORS;
+        if (legalActions.isLegal(ActionType.END_TURN) && (tooManyErrors || random.nextBoolean()))
+            return new EndTurn();
+        if (legalActions.isLegal(ActionType.MARKET_ACTION) && (tooManyErrors || bot.getConsecutiveErrors() > 0))
+            return marketAction(bot);
+
+        ArrayList<ServerMessage> actions = new ArrayList<>();
+        if (legalActions.isLegal(ActionType.MARKET_ACTION))
+            actions.add(marketAction(bot));
+        actions.addAll(LegalMoves.purchases(legalActions));
+        actions.addAll(LegalMoves.productions(legalActions));
+        actions.addAll(LegalMoves.leaderActivations(legalActions));
+        if (actions.isEmpty())
+            return legalActions.isLegal(ActionType.END_TURN) ? new EndTurn() : null;
+        return actions.get(random.nextInt(actions.size()));
+    }
+
+    /**
+     * Return a market action on a random row or column of the market the bot knows.
+     * @param bot the bot that has to play.
+     * @return the market action.
+     */
+    private ServerMessage marketAction(BotClient bot){
+        MarketData market = bot.getClient().getMarketData();
+        int rows = market != null ? market.getMarketTray().size() : 3;
+        int columns = market != null ? market.getMarketTray().get(0).size() : 4;
+        boolean row = random.nextBoolean();
+        return new MarketAction(random.nextInt(row ? rows : columns), row);
+    }
+
+    /**
+     * Answer a request of conversion of ANY: the resources offered are used first, then random types.
+     * @param request the request of the server.
+     * @param retry true if the last answer was refused, the resources offered are taken in a random order.
+     * @return the response.
+     */
+    private ServerMessage anyResponse(AnyConversionRequest request, boolean retry){
+        ArrayList<ResourceData> response = new ArrayList<>();
+        int left = request.getNumOfAny();
+        if (request.getOptionConversion() != null){
+            ArrayList<ResourceData> options = new ArrayList<>(request.getOptionConversion());
+            if (retry)
+                Collections.shuffle(options, random);
+            for (ResourceData option : options){
+                int taken = Math.min(left, option.getValue());
+                if (taken > 0 && option.getType() != ResourceType.ANY && option.getType() != ResourceType.FAITH){
+                    response.add(new ResourceData(option.getType(), taken));
+                    left -= taken;
+                }
+            }
+        }
+        if (left > 0)
+            response.add(new ResourceData(TYPES[random.nextInt(TYPES.length)], left));
+        return new AnyResponse(response);
+    }
+
+    /**
+     * Answer a request of conversion of the white marbles: all of them are converted by one of the leaders.
+     * @param request the request of the server.
+     * @return the response.
+     */
+    private ServerMessage whiteMarbleResponse(WhiteMarbleConversionRequest request){
+        ArrayList<Integer> leaders = new ArrayList<>(request.getListOfConversion().keySet());
+        int leader = leaders.isEmpty() ? 0 : leaders.get(random.nextInt(leaders.size()));
+        return new WhiteMarbleConversionResponse(leader, request.getNumOfWhiteMarbleDrew());
+    }
+}
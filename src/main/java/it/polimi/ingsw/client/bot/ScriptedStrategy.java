@@ -0,0 +1,44 @@
+package it.polimi.ingsw.client.bot;
+
+import it.polimi.ingsw.message.serverMessage.ServerMessage;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * ScriptedStrategy sends a fixed list of messages, one every time the bot has to play, and then goes on with
+ * another strategy. It's used to replay a known opening or a sequence that caused a problem.
+ */
+public class ScriptedStrategy implements BotStrategy {
+    private final Queue<ServerMessage> script;
+    private final BotStrategy fallback;
+
+    /**
+     * Create a scripted strategy.
+     * @param script the messages to send, in order.
+     * @param fallback the strategy used when the script is over.
+     */
+    public ScriptedStrategy(List<ServerMessage> script, BotStrategy fallback) {
+        this.script = new ArrayDeque<>(script);
+        this.fallback = fallback;
+    }
+
+    /**
+     * See {@link BotStrategy#nextAction(BotClient)}.
+     */
+    @Override
+    public synchronized ServerMessage nextAction(BotClient bot) {
+        if (!script.isEmpty())
+            return script.poll();
+        return fallback.nextAction(bot);
+    }
+
+    /**
+     * Return the number of messages of the script not sent yet.
+     * @return the number of messages left.
+     */
+    public synchronized int remaining() {
+        return script.size();
+    }
+}
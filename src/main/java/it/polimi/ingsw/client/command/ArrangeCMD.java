@@ -0,0 +1,63 @@
+package it.polimi.ingsw.client.command;
+
+import it.polimi.ingsw.client.Client;
+import it.polimi.ingsw.client.ClientInput;
+import it.polimi.ingsw.client.ClientState;
+import it.polimi.ingsw.client.PrintAssistant;
+import it.polimi.ingsw.message.serverMessage.ArrangePreviewRequest;
+import it.polimi.ingsw.message.serverMessage.AutoArrange;
+
+import java.util.ArrayList;
+
+public class ArrangeCMD implements Command{
+    private final String cmd="ARRANGE";
+    private final String param;
+    private final Client client;
+
+    public ArrangeCMD(String param, Client client) {
+        this.param = param;
+        this.client = client;
+    }
+
+    /**
+     * See {@link Command#doCommand}
+     * */
+    @Override
+    public void doCommand() {
+        if(CommandsUtility.clientStateNot(client, ClientState.IN_GAME)){
+            PrintAssistant.instance.invalidStateCommand(cmd);
+            return;
+        }
+        if(CommandsUtility.emptyString(param)){
+            client.writeToStream(new AutoArrange());
+        }
+        else if(param.trim().equals("preview")){
+            client.writeToStream(new ArrangePreviewRequest());
+        }
+        else{
+            PrintAssistant.instance.invalidParamCommand(cmd);
+        }
+    }
+
+    /**
+     * See {@link Command#help}
+     * */
+    @Override
+    public void help() {
+        ArrayList<String> rowHelp= new ArrayList<>();
+        rowHelp.add("HELP: "+cmd);
+        rowHelp.add("Write the command to put the resources taken from the market in your depots in the way that keeps the most of them,");
+        rowHelp.add("the resources that don't fit are discarded. Add preview to only see the arrangement");
+        rowHelp.add("ex: "+cmd.toLowerCase()+"");
+        rowHelp.add("ex: "+cmd.toLowerCase()+" preview");
+        PrintAssistant.instance.printfMultipleString(rowHelp);
+    }
+
+    /**
+     * See {@link Command#description()}
+     * */
+    @Override
+    public void description() {
+        PrintAssistant.instance.printf(PrintAssistant.instance.fitToWidth(cmd, ClientInput.MAX_CHAR_COMMAND)+"arrange automatically the resources taken from the market");
+    }
+}
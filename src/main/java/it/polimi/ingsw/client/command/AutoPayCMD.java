@@ -0,0 +1,66 @@
+package it.polimi.ingsw.client.command;
+
+import it.polimi.ingsw.client.Client;
+import it.polimi.ingsw.client.ClientInput;
+import it.polimi.ingsw.client.ClientState;
+import it.polimi.ingsw.client.PrintAssistant;
+import it.polimi.ingsw.message.serverMessage.AutoPayment;
+import it.polimi.ingsw.model.personalBoard.resourceManager.PaymentPolicy;
+
+import java.util.ArrayList;
+
+public class AutoPayCMD implements Command{
+    private final String cmd="AUTOPAY";
+    private final String param;
+    private final Client client;
+
+    public AutoPayCMD(String param, Client client) {
+        this.param = param;
+        this.client = client;
+    }
+
+    /**
+     * See {@link Command#doCommand}
+     * */
+    @Override
+    public void doCommand() {
+        if(CommandsUtility.clientStateNot(client, ClientState.IN_GAME)){
+            PrintAssistant.instance.invalidStateCommand(cmd);
+            return;
+        }
+        PaymentPolicy policy;
+        if(CommandsUtility.emptyString(param)){
+            policy = PaymentPolicy.WAREHOUSE_FIRST;
+        }
+        else if(param.trim().equals("strongbox")){
+            policy = PaymentPolicy.STRONGBOX_FIRST;
+        }
+        else{
+            PrintAssistant.instance.invalidParamCommand(cmd);
+            return;
+        }
+        client.writeToStream(new AutoPayment(policy));
+    }
+
+    /**
+     * See {@link Command#help}
+     * */
+    @Override
+    public void help() {
+        ArrayList<String> rowHelp= new ArrayList<>();
+        rowHelp.add("HELP: "+cmd);
+        rowHelp.add("Write the command to pay all the resources you have to remove at once.");
+        rowHelp.add("The resources are taken from the depots first, add strongbox to take them from the strongbox first");
+        rowHelp.add("ex: "+cmd.toLowerCase()+"");
+        rowHelp.add("ex: "+cmd.toLowerCase()+" strongbox");
+        PrintAssistant.instance.printfMultipleString(rowHelp);
+    }
+
+    /**
+     * See {@link Command#description()}
+     * */
+    @Override
+    public void description() {
+        PrintAssistant.instance.printf(PrintAssistant.instance.fitToWidth(cmd, ClientInput.MAX_CHAR_COMMAND)+"remove automatically the resources you have to pay");
+    }
+}
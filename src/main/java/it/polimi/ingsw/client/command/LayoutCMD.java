@@ -0,0 +1,100 @@
+package it.polimi.ingsw.client.command;
+
+import it.polimi.ingsw.client.Client;
+import it.polimi.ingsw.client.ClientInput;
+import it.polimi.ingsw.client.ClientState;
+import it.polimi.ingsw.client.PrintAssistant;
+import it.polimi.ingsw.client.data.ResourceData;
+import it.polimi.ingsw.client.data.ResourcePlacementData;
+import it.polimi.ingsw.message.serverMessage.WarehouseLayout;
+
+import java.util.ArrayList;
+
+public class LayoutCMD implements Command{
+    private final String cmd="LAYOUT";
+    private final String param;
+    private final Client client;
+
+    public LayoutCMD(String param, Client client) {
+        this.param = param;
+        this.client = client;
+    }
+
+    /**
+     * See {@link Command#doCommand}
+     * */
+    @Override
+    public void doCommand() {
+        if(CommandsUtility.clientStateNot(client, ClientState.IN_GAME)){
+            PrintAssistant.instance.invalidStateCommand(cmd);
+            return;
+        }
+        if(CommandsUtility.emptyString(param)){
+            PrintAssistant.instance.invalidParamCommand(cmd);
+            return;
+        }
+
+        ArrayList<ResourcePlacementData> placements = new ArrayList<>();
+        for(String step : param.split(",")){
+            String[] split=step.trim().split(" ");
+            if(split.length!=3 && split.length!=4){
+                PrintAssistant.instance.invalidParamCommand(cmd);
+                return;
+            }
+
+            ResourceData resource;
+            try{
+                resource= CommandsUtility.fromTypeAndValueToResource(split[0], split[1]);
+            }catch (CliException e){
+                PrintAssistant.instance.invalidParamCommand(cmd);
+                return;
+            }
+
+            if(split[2].equals("strongbox") && split.length==3){
+                placements.add(new ResourcePlacementData(resource, true, -1, false));
+                continue;
+            }
+            int indexDepot=CommandsUtility.stringToInt(split[2]);
+            if(CommandsUtility.isNotADepotIndex(indexDepot)){
+                PrintAssistant.instance.invalidParamCommand(cmd);
+                return;
+            }
+            indexDepot--;
+            boolean normalDepot=true;
+            if(split.length==4){
+                if(split[3].equals("leader")){
+                    normalDepot=false;
+                }
+                else{
+                    PrintAssistant.instance.invalidParamCommand(cmd);
+                    return;
+                }
+            }
+            placements.add(new ResourcePlacementData(resource, false, indexDepot, normalDepot));
+        }
+        client.writeToStream(new WarehouseLayout(placements));
+    }
+
+    /**
+     * See {@link Command#help}
+     * */
+    @Override
+    public void help() {
+        ArrayList<String> rowHelp= new ArrayList<>();
+        rowHelp.add("HELP: "+cmd);
+        rowHelp.add("Write the command followed by all the resources you want to place or remove, separated by a comma.");
+        rowHelp.add("Every resource is written like in the depot command, or followed by strongbox to remove it from the strongbox.");
+        rowHelp.add("All the resources are placed together: if one of them can't be placed nothing changes!");
+        rowHelp.add("ex: "+cmd.toLowerCase()+ " CO 2 2, SH 1 1");
+        rowHelp.add("ex: "+cmd.toLowerCase()+ " CO 2 1 leader, SE 3 strongbox");
+        PrintAssistant.instance.printfMultipleString(rowHelp);
+    }
+
+    /**
+     * See {@link Command#description()}
+     * */
+    @Override
+    public void description() {
+        PrintAssistant.instance.printf(PrintAssistant.instance.fitToWidth(cmd, ClientInput.MAX_CHAR_COMMAND)+"place or remove many resources of the depots and the strongbox at once");
+    }
+}
@@ -0,0 +1,58 @@
+package it.polimi.ingsw.client.command;
+
+import it.polimi.ingsw.client.Client;
+import it.polimi.ingsw.client.ClientInput;
+import it.polimi.ingsw.client.ClientState;
+import it.polimi.ingsw.client.PrintAssistant;
+import it.polimi.ingsw.message.serverMessage.MarketPreviewRequest;
+
+import java.util.ArrayList;
+
+public class PreviewCMD implements Command{
+    private final String cmd="PREVIEW";
+    private final String param;
+    private final Client client;
+
+    public PreviewCMD(String param, Client client) {
+        this.param = param;
+        this.client = client;
+    }
+
+    /**
+     * See {@link Command#doCommand}
+     * */
+    @Override
+    public void doCommand() {
+        if(CommandsUtility.clientStateNot(client, ClientState.IN_GAME)){
+            PrintAssistant.instance.invalidStateCommand(cmd);
+            return;
+        }
+        if(!CommandsUtility.emptyString(param)){
+            PrintAssistant.instance.invalidParamCommand(cmd);
+            return;
+        }
+        client.writeToStream(new MarketPreviewRequest());
+    }
+
+    /**
+     * See {@link Command#help}
+     * */
+    @Override
+    public void help() {
+        ArrayList<String> rowHelp= new ArrayList<>();
+        rowHelp.add("HELP: "+cmd);
+        rowHelp.add("Write the command during your turn, before taking resources from the market, to see");
+        rowHelp.add("what every row and column would give you, the white marbles are converted if you have");
+        rowHelp.add("only one leader with a marble effect.");
+        rowHelp.add("ex: "+cmd.toLowerCase()+"");
+        PrintAssistant.instance.printfMultipleString(rowHelp);
+    }
+
+    /**
+     * See {@link Command#description()}
+     * */
+    @Override
+    public void description() {
+        PrintAssistant.instance.printf(PrintAssistant.instance.fitToWidth(cmd, ClientInput.MAX_CHAR_COMMAND)+"to preview the resources of every row and column of the market");
+    }
+}
@@ -27,6 +27,11 @@ public class FaithTrackData {
         this.acquired = acquired;
     }
 
+    public FaithTrackData(FaithTrackData other) {
+        this(other.numberOfCell, other.victoryPoints, other.vaticanReport,
+                other.popeFavor, other.victoryPopeFavor, other.acquired);
+    }
+
     public int getNumberOfCell() {
         return numberOfCell;
     }
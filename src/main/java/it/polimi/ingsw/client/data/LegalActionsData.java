@@ -0,0 +1,174 @@
+package it.polimi.ingsw.client.data;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import it.polimi.ingsw.model.ActionType;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Objects;
+
+/**
+ * LegalActionsData is the compact form of the actions the current player can do, every set is a bit mask:
+ * the actions are indexed by the ordinal of ActionType, the deck positions by row * deckColumns + column,
+ * the card slots and the leaders by their index.
+ */
+public class LegalActionsData {
+    private final String username;
+    private final int actions;
+    private final int deckColumns;
+    private final int affordableDeck;
+    private final int[] validSlots;
+    private final int usableProductions;
+    private final boolean baseProductionUsable;
+    private final int usableLeaderProductions;
+    private final int activatableLeaders;
+
+    @JsonCreator
+    public LegalActionsData(@JsonProperty("username") String username,
+                            @JsonProperty("actions") int actions,
+                            @JsonProperty("deckColumns") int deckColumns,
+                            @JsonProperty("affordableDeck") int affordableDeck,
+                            @JsonProperty("validSlots") int[] validSlots,
+                            @JsonProperty("usableProductions") int usableProductions,
+                            @JsonProperty("baseProductionUsable") boolean baseProductionUsable,
+                            @JsonProperty("usableLeaderProductions") int usableLeaderProductions,
+                            @JsonProperty("activatableLeaders") int activatableLeaders) {
+        this.username = username;
+        this.actions = actions;
+        this.deckColumns = deckColumns;
+        this.affordableDeck = affordableDeck;
+        this.validSlots = validSlots;
+        this.usableProductions = usableProductions;
+        this.baseProductionUsable = baseProductionUsable;
+        this.usableLeaderProductions = usableLeaderProductions;
+        this.activatableLeaders = activatableLeaders;
+    }
+
+    /**
+     * Return the mask of a set of actions.
+     * @param actions the actions.
+     * @return the mask with the bit of every action set.
+     */
+    public static int toMask(EnumSet<ActionType> actions){
+        int mask = 0;
+        for (ActionType action : actions)
+            mask |= 1 << action.ordinal();
+        return mask;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getActions() {
+        return actions;
+    }
+
+    public int getDeckColumns() {
+        return deckColumns;
+    }
+
+    public int getAffordableDeck() {
+        return affordableDeck;
+    }
+
+    public int[] getValidSlots() {
+        return validSlots;
+    }
+
+    public int getUsableProductions() {
+        return usableProductions;
+    }
+
+    public boolean isBaseProductionUsable() {
+        return baseProductionUsable;
+    }
+
+    public int getUsableLeaderProductions() {
+        return usableLeaderProductions;
+    }
+
+    public int getActivatableLeaders() {
+        return activatableLeaders;
+    }
+
+    /**
+     * Return true if the action is legal.
+     * @param action the action.
+     * @return true if the action is legal.
+     */
+    public boolean isLegal(ActionType action){
+        return (actions & (1 << action.ordinal())) != 0;
+    }
+
+    /**
+     * Return true if the card of the deck can be bought and put in at least a card slot.
+     * @param row the row of the card.
+     * @param col the column of the card.
+     * @return true if the card can be bought.
+     */
+    public boolean canBuy(int row, int col){
+        int position = row * deckColumns + col;
+        return position >= 0 && position < validSlots.length
+                && (affordableDeck & (1 << position)) != 0 && validSlots[position] != 0;
+    }
+
+    /**
+     * Return true if the card of the deck can be put in the card slot.
+     * @param row the row of the card.
+     * @param col the column of the card.
+     * @param slot the index of the card slot.
+     * @return true if the card can be put in the card slot.
+     */
+    public boolean canBuyIn(int row, int col, int slot){
+        return canBuy(row, col) && (validSlots[row * deckColumns + col] & (1 << slot)) != 0;
+    }
+
+    /**
+     * Return true if the card in the card slot can produce.
+     * @param slot the index of the card slot.
+     * @return true if the card in the card slot can produce.
+     */
+    public boolean canProduce(int slot){
+        return (usableProductions & (1 << slot)) != 0;
+    }
+
+    /**
+     * Return true if the production of the leader can be used.
+     * @param leaderIndex the index of the leader.
+     * @return true if the production of the leader can be used.
+     */
+    public boolean canProduceLeader(int leaderIndex){
+        return (usableLeaderProductions & (1 << leaderIndex)) != 0;
+    }
+
+    /**
+     * Return true if the leader can be activated.
+     * @param leaderIndex the index of the leader.
+     * @return true if the leader can be activated.
+     */
+    public boolean canActivateLeader(int leaderIndex){
+        return (activatableLeaders & (1 << leaderIndex)) != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LegalActionsData that = (LegalActionsData) o;
+        return actions == that.actions && deckColumns == that.deckColumns && affordableDeck == that.affordableDeck
+                && usableProductions == that.usableProductions && baseProductionUsable == that.baseProductionUsable
+                && usableLeaderProductions == that.usableLeaderProductions
+                && activatableLeaders == that.activatableLeaders && Objects.equals(username, that.username)
+                && Arrays.equals(validSlots, that.validSlots);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(username, actions, deckColumns, affordableDeck, usableProductions,
+                baseProductionUsable, usableLeaderProductions, activatableLeaders);
+        result = 31 * result + Arrays.hashCode(validSlots);
+        return result;
+    }
+}
@@ -7,8 +7,9 @@ import java.util.ArrayList;
 
 public class ModelData {
     private final String username;
-    private final ArrayList<FaithTrackData> faithTrack;
     private final int currentPosOnFaithTrack;
+    private final int popeFavorAcquired;
+    private final int faithTrackVP;
     private final ArrayList<ResourceData> standardDepot;
     private final ArrayList<ResourceData> leaderDepot;
     private final ArrayList<Integer> maxStoreLeaderDepot;
@@ -17,14 +18,16 @@ public class ModelData {
     private final ArrayList<CardLeaderData> leaders;
 
     @JsonCreator
-    public ModelData(@JsonProperty("username") String username,@JsonProperty("faithTrack") ArrayList<FaithTrackData> faithTrack,
-                     @JsonProperty("currentPosOnFaithTrack")int currentPosOnFaithTrack, @JsonProperty("standardDepot") ArrayList<ResourceData> standardDepot,
+    public ModelData(@JsonProperty("username") String username,
+                     @JsonProperty("currentPosOnFaithTrack")int currentPosOnFaithTrack, @JsonProperty("popeFavorAcquired") int popeFavorAcquired,
+                     @JsonProperty("faithTrackVP") int faithTrackVP, @JsonProperty("standardDepot") ArrayList<ResourceData> standardDepot,
                      @JsonProperty("leaderDepot")ArrayList<ResourceData> leaderDepot, @JsonProperty("maxStoreLeaderDepot")ArrayList<Integer> maxStoreLeaderDepot,
                      @JsonProperty("strongbox")ArrayList<ResourceData> strongbox, @JsonProperty("cardSlots")ArrayList<ArrayList<CardDevData>> cardSlots,
                      @JsonProperty("leaders")ArrayList<CardLeaderData> leaders) {
         this.username = username;
-        this.faithTrack = faithTrack;
         this.currentPosOnFaithTrack = currentPosOnFaithTrack;
+        this.popeFavorAcquired = popeFavorAcquired;
+        this.faithTrackVP = faithTrackVP;
         this.standardDepot = standardDepot;
         this.leaderDepot = leaderDepot;
         this.maxStoreLeaderDepot = maxStoreLeaderDepot;
@@ -37,14 +40,27 @@ public class ModelData {
         return username;
     }
 
-    public ArrayList<FaithTrackData> getFaithTrack() {
-        return faithTrack;
-    }
-
     public int getCurrentPosOnFaithTrack() {
         return currentPosOnFaithTrack;
     }
 
+    public int getPopeFavorAcquired() {
+        return popeFavorAcquired;
+    }
+
+    public int getFaithTrackVP() {
+        return faithTrackVP;
+    }
+
+    /**
+     * Return true if the pope favor of a vatican report has been acquired.
+     * @param idVaticanReport the id of the vatican report.
+     * @return true if the pope favor has been acquired.
+     */
+    public boolean isPopeFavorAcquired(int idVaticanReport){
+        return (popeFavorAcquired & (1 << idVaticanReport)) != 0;
+    }
+
     public ArrayList<ResourceData> getStandardDepot() {
         return standardDepot;
     }
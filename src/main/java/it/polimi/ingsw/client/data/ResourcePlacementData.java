@@ -0,0 +1,38 @@
+package it.polimi.ingsw.client.data;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ResourcePlacementData {
+    private final ResourceData resource;
+    private final boolean strongbox;
+    private final int depotIndex;
+    private final boolean normalDepot;
+
+    @JsonCreator
+    public ResourcePlacementData(@JsonProperty("resource") ResourceData resource,
+                                 @JsonProperty("strongbox") boolean strongbox,
+                                 @JsonProperty("depotIndex") int depotIndex,
+                                 @JsonProperty("normalDepot") boolean normalDepot) {
+        this.resource = resource;
+        this.strongbox = strongbox;
+        this.depotIndex = depotIndex;
+        this.normalDepot = normalDepot;
+    }
+
+    public ResourceData getResource() {
+        return resource;
+    }
+
+    public boolean isStrongbox() {
+        return strongbox;
+    }
+
+    public int getDepotIndex() {
+        return depotIndex;
+    }
+
+    public boolean isNormalDepot() {
+        return normalDepot;
+    }
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import it.polimi.ingsw.client.data.*;
 import it.polimi.ingsw.exception.InvalidStateActionException;
 import it.polimi.ingsw.message.clientMessage.*;
+import it.polimi.ingsw.model.ActionType;
 import it.polimi.ingsw.model.GameMaster;
 import it.polimi.ingsw.model.PlayerState;
 import it.polimi.ingsw.model.card.Development;
@@ -14,16 +15,24 @@ import it.polimi.ingsw.model.personalBoard.PersonalBoard;
 import it.polimi.ingsw.model.personalBoard.cardManager.CardManager;
 import it.polimi.ingsw.model.personalBoard.faithTrack.FaithTrack;
 import it.polimi.ingsw.model.personalBoard.market.Market;
+import it.polimi.ingsw.model.personalBoard.resourceManager.PaymentPolicy;
 import it.polimi.ingsw.model.personalBoard.resourceManager.ResourceManager;
+import it.polimi.ingsw.model.personalBoard.resourceManager.ResourcePlacement;
+import it.polimi.ingsw.model.personalBoard.resourceManager.ResourceTransaction;
+import it.polimi.ingsw.model.personalBoard.resourceManager.WarehouseArrangement;
 import it.polimi.ingsw.model.resource.Resource;
+import it.polimi.ingsw.model.resource.ResourceBag;
 import it.polimi.ingsw.model.resource.ResourceFactory;
 import it.polimi.ingsw.model.resource.ResourceType;
 import it.polimi.ingsw.server.*;
+import it.polimi.ingsw.server.jfr.MatchSaveEvent;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.stream.Collectors;
 
 /**
  * Handle all the request that modify the game.
@@ -31,6 +40,7 @@ import java.util.ArrayList;
 public class Controller {
     private final GameMaster gameMaster;
     private final Match match;
+    private LegalActionsData lastLegalActions;
 
     /**
      * Construct a Controller of a specific match link to a specific GameMaster.
@@ -143,13 +153,22 @@ public class Controller {
      * @return true if is the player turn.
      */
     public boolean isYourTurn(String username){
-        if(!username.equals(getCurrentPlayer())){
+        if(!isCurrentPlayer(username)){
             sendErrorTo(ErrorType.NOT_YOUR_TURN.getMessage(), username);
             return false;
         }
         return true;
     }
 
+    /**
+     * Return true if is the player turn, like {@link #isYourTurn(String)} but without sending an error.
+     * @param username the username of the player.
+     * @return true if is the player turn.
+     */
+    public boolean isCurrentPlayer(String username){
+        return username.equals(getCurrentPlayer());
+    }
+
     //UTIL
     /**
      * Handle the request of next turn.
@@ -176,13 +195,31 @@ public class Controller {
         if (match.isReconnected(currentPlayer)){
             match.playerReturnInGame(currentPlayer);
             match.sendSinglePlayer(currentPlayer, reconnectGameMessage(currentPlayer));
+            lastLegalActions = null;
         }
 
         if(gameMaster.isGameEnded()){
             endGame();
         }else{
             saveMatchState();
+            sendLegalActions();
+        }
+    }
+
+    /**
+     * Send to the current player the actions they can do, only if they changed since the last time they were sent.
+     */
+    public synchronized void sendLegalActions(){
+        if (gameMaster.isGameEnded() || gameMaster.getPlayerState() == null || gameMaster.getCurrentPlayer() == null
+                || gameMaster.getCurrentPlayerPersonalBoard() == null){
+            return;
         }
+        LegalActionsData legalActions = gameMaster.toLegalActionsData();
+        if (legalActions.equals(lastLegalActions)){
+            return;
+        }
+        lastLegalActions = legalActions;
+        match.sendSinglePlayer(legalActions.getUsername(), new LegalActionsUpdate(legalActions));
     }
 
     /**
@@ -201,12 +238,14 @@ public class Controller {
         ArrayList<String> usernames = match.getUsernames();
         MarketData marketData = gameMaster.getMarket().toMarketData();
         DeckDevData deckDevData = gameMaster.toDeckDevData();
+        ArrayList<FaithTrackData> faithTrackData = gameMaster.toFaithTrackData();
         ArrayList<EffectData> baseProdData = gameMaster.toEffectDataBasePro();
         ArrayList<ModelData> models = new ArrayList<>();
         for (String username : usernames){
             models.add(modelData(username));
         }
-        return new ReconnectGameMessage(usernames,marketData,deckDevData,baseProdData,models, playerUsername);
+        return new ReconnectGameMessage(usernames,marketData,deckDevData,faithTrackData,baseProdData,models,
+                playerUsername);
     }
 
     /**
@@ -284,6 +323,31 @@ public class Controller {
         }
     }
 
+    /**
+     * Send to a player what every row and column of the market would give, converting the white marbles if the
+     * player has only one active marble effect. It's requested only by the current player before the market action,
+     * so the tray isn't shifted while it's read.
+     * @param username the username of the player.
+     */
+    public void marketPreview(String username){
+        ResourceBag conversion = gameMaster.getPlayerPersonalBoard(username).getCardManager().whiteMarbleConversion();
+        Market market = getMarket();
+        ResourceBag[] preview = market.createPreviewBuffer();
+        market.preview(conversion, preview);
+
+        ArrayList<ArrayList<ResourceData>> rows = new ArrayList<>();
+        ArrayList<ArrayList<ResourceData>> columns = new ArrayList<>();
+        int numRow = market.getNumRow();
+        for (int i = 0; i < preview.length; i++) {
+            ArrayList<ResourceData> line = preview[i].toResourceList().stream()
+                    .map(Resource::toClient)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            if (i < numRow) rows.add(line);
+            else columns.add(line);
+        }
+        match.sendSinglePlayer(username, new MarketPreview(rows, columns));
+    }
+
     /**
      * Handle the request of a conversion of white marble from a leader.
      * @param leaderIndex the index of the leader.
@@ -452,19 +516,17 @@ public class Controller {
      * @param resource the resource to subtract.
      */
     public void subToStrongbox(Resource resource){
-        ResourceManager resourceManager = getPlayerRM();
+        ResourceTransaction transaction = getPlayerRM().beginTransaction();
         try {
-            resourceManager.subToBuffer(resource);
+            getPlayerRM().checkPlayerState(ActionType.STRONGBOX_MODIFY);
+            transaction.subToBuffer(resource);
+            transaction.subToStrongbox(resource);
         } catch (Exception e) {
+            transaction.rollback();
             sendError(e.getMessage());
             return;
         }
-        try {
-            resourceManager.subToStrongbox(resource);
-        } catch (Exception e) {
-            resourceManager.addToBuffer(resource);
-            sendError(e.getMessage());
-        }
+        transaction.commit();
         controlBufferStatus();
     }
 
@@ -475,29 +537,93 @@ public class Controller {
      * @param isNormalDepot true if is a normal depot.
      */
     public void depotModify(Resource resource, int index, boolean isNormalDepot){
-        ResourceManager resourceManager = getPlayerRM();
-        try {
-            resourceManager.subToBuffer(resource);
-        } catch (Exception e) {
+        ResourceTransaction transaction = getPlayerRM().beginTransaction();
+        try{
+            transaction.subToBuffer(resource);
+            switch (getPlayerState()){
+                case MARKET_RESOURCE_POSITIONING:
+                    transaction.addToWarehouse(isNormalDepot, index, resource);
+                    break;
+                case BUY_DEV_RESOURCE_REMOVING:
+                case PRODUCTION_RESOURCE_REMOVING:
+                    transaction.subToWarehouse(isNormalDepot, index, resource);
+                    break;
+                default:
+                    transaction.rollback();
+                    sendError(ErrorType.INVALID_ACTION.getMessage());
+                    return;
+            }
+        }catch (Exception e){
+            transaction.rollback();
             sendError(e.getMessage());
             return;
         }
+        transaction.commit();
+        controlBufferStatus();
+    }
+
+    /**
+     * Handle the request of a whole plan of resources to add to the depots or to remove from depots and strongbox.
+     * @param plan the steps of the plan.
+     */
+    public void warehouseLayout(ArrayList<ResourcePlacement> plan){
+        ResourceManager resourceManager = getPlayerRM();
         try{
             switch (getPlayerState()){
                 case MARKET_RESOURCE_POSITIONING:
-                    resourceManager.addToWarehouse(isNormalDepot, index, resource);
+                    resourceManager.applyResourcePlan(plan, true);
                     break;
                 case BUY_DEV_RESOURCE_REMOVING:
                 case PRODUCTION_RESOURCE_REMOVING:
-                    resourceManager.subToWarehouse(isNormalDepot, index, resource);
+                    resourceManager.applyResourcePlan(plan, false);
                     break;
                 default:
                     sendError(ErrorType.INVALID_ACTION.getMessage());
-                    break;
+                    return;
             }
         }catch (Exception e){
-            resourceManager.addToBuffer(resource);
             sendError(e.getMessage());
+            return;
+        }
+        controlBufferStatus();
+    }
+
+    /**
+     * Handle the request of paying automatically all the resources to remove, in a single request.
+     * @param policy the order in which depots and strongbox are used.
+     */
+    public void autoPayment(PaymentPolicy policy){
+        try{
+            getPlayerRM().autoPay(policy);
+        }catch (Exception e){
+            sendError(e.getMessage());
+            return;
+        }
+        controlBufferStatus();
+    }
+
+    /**
+     * Send to the current player the arrangement of the warehouse that keeps the most resources of the buffer.
+     */
+    public void arrangePreview(){
+        WarehouseArrangement arrangement = getPlayerRM().previewArrangement();
+        ArrayList<ResourceData> discarded = arrangement.toDiscardedList().stream()
+                .map(Resource::toClient)
+                .collect(Collectors.toCollection(ArrayList::new));
+        match.sendSinglePlayer(getCurrentPlayer(), new ArrangePreview(arrangement.toStandardDepotData(),
+                arrangement.toLeaderDepotData(), discarded));
+    }
+
+    /**
+     * Handle the request of arranging the warehouse with the resources of the buffer in the best way, the
+     * resources that don't fit are discarded.
+     */
+    public void autoArrange(){
+        try{
+            getPlayerRM().autoArrange();
+        }catch (Exception e){
+            sendError(e.getMessage());
+            return;
         }
         controlBufferStatus();
     }
@@ -657,9 +783,11 @@ public class Controller {
 
     //--SAVE GAME
     /**
-     * Save the current state of the match.
+     * Save the current state of the match, if the server saves the matches.
      */
     public void saveMatchState(){
+        if (!match.getServer().isSaving())
+            return;
         if (!Files.isDirectory(Paths.get(Server.MATCH_SAVING_PATH))) {
             try {
                 Files.createDirectories(Paths.get(Server.MATCH_SAVING_PATH));
@@ -670,18 +798,32 @@ public class Controller {
         }
 
         String fileName = Server.MATCH_SAVING_PATH +"/"+ match.getMatchID()+ ".txt";
+        MatchSaveEvent event = new MatchSaveEvent();
+        event.begin();
+        long saveStart = System.nanoTime();
+        String serializedMatch = null;
         try {
             ObjectMapper mapper = new ObjectMapper();
             mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
             mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
             MatchData matchSave = new MatchData(match, gameMaster);
 
+            serializedMatch = mapper.writeValueAsString(matchSave);
             FileWriter file = new FileWriter(fileName);
-            file.write(mapper.writeValueAsString(matchSave));
+            file.write(serializedMatch);
             file.close();
+            event.saved = true;
         } catch (IOException e) {
             e.printStackTrace();
         }
+        match.getServer().getMetrics().recordSave(System.nanoTime() - saveStart);
+        event.end();
+        if (event.shouldCommit()){
+            event.matchID = match.getMatchID();
+            event.messageType = MatchData.class.getSimpleName();
+            event.payloadSize = serializedMatch != null ? serializedMatch.getBytes(StandardCharsets.UTF_8).length : 0;
+            event.commit();
+        }
     }
 
     //--cheat
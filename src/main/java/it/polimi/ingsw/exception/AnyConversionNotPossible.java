@@ -1,6 +1,6 @@
 package it.polimi.ingsw.exception;
 
-public class AnyConversionNotPossible extends Exception{
+public class AnyConversionNotPossible extends GameRuleException {
     public AnyConversionNotPossible(String message){
         super(message);
     }
@@ -1,5 +1,5 @@
 package it.polimi.ingsw.exception;
 
-public class CardAlreadyUsed extends Exception{
+public class CardAlreadyUsed extends GameRuleException {
     public CardAlreadyUsed(String message) { super(message); }
 }
@@ -1,6 +1,6 @@
 package it.polimi.ingsw.exception;
 
-public class CardWithHigherOrSameLevelAlreadyIn extends Exception{
+public class CardWithHigherOrSameLevelAlreadyIn extends GameRuleException {
     public CardWithHigherOrSameLevelAlreadyIn(String message) {
         super(message);
     }
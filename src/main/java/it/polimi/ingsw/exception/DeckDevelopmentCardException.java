@@ -1,6 +1,6 @@
 package it.polimi.ingsw.exception;
 
-public class DeckDevelopmentCardException extends Exception{
+public class DeckDevelopmentCardException extends GameRuleException {
     public DeckDevelopmentCardException(String message){
         super(message);
     }
@@ -0,0 +1,16 @@
+package it.polimi.ingsw.exception;
+
+/**
+ * GameRuleException is the base of the exceptions thrown when a player tries a move that the rules don't allow.
+ * They don't fill the stack trace and can't have suppressed exceptions, so an instance with a fixed message can be
+ * created once and thrown many times, and rejecting a move doesn't cost more than a branch.
+ */
+public abstract class GameRuleException extends Exception {
+    /**
+     * Construct a GameRuleException with a message and no stack trace.
+     * @param message the message sent to the player.
+     */
+    protected GameRuleException(String message) {
+        super(message, null, false, false);
+    }
+}
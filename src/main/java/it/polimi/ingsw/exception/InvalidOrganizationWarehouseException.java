@@ -1,6 +1,6 @@
 package it.polimi.ingsw.exception;
 
-public class InvalidOrganizationWarehouseException extends Exception {
+public class InvalidOrganizationWarehouseException extends GameRuleException {
     public InvalidOrganizationWarehouseException(String message) {
         super(message);
     }
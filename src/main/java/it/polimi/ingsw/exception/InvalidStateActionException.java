@@ -2,7 +2,12 @@ package it.polimi.ingsw.exception;
 
 import it.polimi.ingsw.message.clientMessage.ErrorType;
 
-public class InvalidStateActionException extends Exception{
+public class InvalidStateActionException extends GameRuleException {
+    /**
+     * Shared instance, the exception has always the same message and no stack trace.
+     */
+    public static final InvalidStateActionException INSTANCE = new InvalidStateActionException();
+
     public InvalidStateActionException() {
         super(ErrorType.INVALID_ACTION.getMessage());
     }
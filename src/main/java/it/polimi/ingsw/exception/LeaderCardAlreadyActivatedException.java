@@ -1,6 +1,6 @@
 package it.polimi.ingsw.exception;
 
-public class LeaderCardAlreadyActivatedException extends Exception{
+public class LeaderCardAlreadyActivatedException extends GameRuleException {
     public LeaderCardAlreadyActivatedException(String message){
         super(message);
     }
@@ -1,6 +1,6 @@
 package it.polimi.ingsw.exception;
 
-public class NegativeResourceException extends Exception{
+public class NegativeResourceException extends GameRuleException {
     public NegativeResourceException(String s) {
         super(s);
     }
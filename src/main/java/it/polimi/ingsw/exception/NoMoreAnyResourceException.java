@@ -1,6 +1,6 @@
 package it.polimi.ingsw.exception;
 
-public class NoMoreAnyResourceException extends Exception{
+public class NoMoreAnyResourceException extends GameRuleException {
     public NoMoreAnyResourceException(String message) {
         super(message);
     }
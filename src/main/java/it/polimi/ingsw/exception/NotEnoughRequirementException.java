@@ -1,6 +1,6 @@
 package it.polimi.ingsw.exception;
 
-public class NotEnoughRequirementException extends Exception{
+public class NotEnoughRequirementException extends GameRuleException {
     public NotEnoughRequirementException(String message){
         super(message);
     }
@@ -1,6 +1,6 @@
 package it.polimi.ingsw.exception;
 
-public class TooMuchResourceDepotException extends Exception {
+public class TooMuchResourceDepotException extends GameRuleException {
     public TooMuchResourceDepotException(String s) {
         super(s);
     }
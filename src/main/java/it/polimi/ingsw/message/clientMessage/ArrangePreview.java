@@ -0,0 +1,40 @@
+package it.polimi.ingsw.message.clientMessage;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import it.polimi.ingsw.client.ClientMessageHandler;
+import it.polimi.ingsw.client.data.ResourceData;
+
+import java.util.ArrayList;
+
+public class ArrangePreview implements ClientMessage{
+    private final ArrayList<ResourceData> standardDepots;
+    private final ArrayList<ResourceData> leaderDepots;
+    private final ArrayList<ResourceData> discarded;
+
+    @JsonCreator
+    public ArrangePreview(@JsonProperty("standardDepots") ArrayList<ResourceData> standardDepots,
+                          @JsonProperty("leaderDepots") ArrayList<ResourceData> leaderDepots,
+                          @JsonProperty("discarded") ArrayList<ResourceData> discarded) {
+        this.standardDepots = standardDepots;
+        this.leaderDepots = leaderDepots;
+        this.discarded = discarded;
+    }
+
+    public ArrayList<ResourceData> getStandardDepots() {
+        return standardDepots;
+    }
+
+    public ArrayList<ResourceData> getLeaderDepots() {
+        return leaderDepots;
+    }
+
+    public ArrayList<ResourceData> getDiscarded() {
+        return discarded;
+    }
+
+    @Override
+    public void process(ClientMessageHandler handler) {
+        handler.arrangePreview(this);
+    }
+}
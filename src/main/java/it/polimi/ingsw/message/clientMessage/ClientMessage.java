@@ -15,6 +15,7 @@ import it.polimi.ingsw.message.bothArchitectureMessage.*;
         @JsonSubTypes.Type(value = ReconnectionMessage.class, name = "ReconnectionMessage"),
 
         @JsonSubTypes.Type(value = AnyConversionRequest.class, name = "AnyConversionRequest"),
+        @JsonSubTypes.Type(value = ArrangePreview.class, name = "ArrangePreview"),
         @JsonSubTypes.Type(value = BufferUpdate.class, name = "BufferUpdate"),
         @JsonSubTypes.Type(value = CardSlotUpdate.class, name = "CardSlotUpdate"),
         @JsonSubTypes.Type(value = DepotLeaderUpdate.class, name = "DepotLeaderUpdate"),
@@ -27,7 +28,9 @@ import it.polimi.ingsw.message.bothArchitectureMessage.*;
         @JsonSubTypes.Type(value = LeaderActivate.class, name = "LeaderActivate"),
         @JsonSubTypes.Type(value = LeaderDiscard.class, name = "LeaderDiscard"),
         @JsonSubTypes.Type(value = LeaderSetUpMessage.class, name ="LeaderSetUpMessage"),
+        @JsonSubTypes.Type(value = LegalActionsUpdate.class, name = "LegalActionsUpdate"),
         @JsonSubTypes.Type(value = MainMenuMessage.class, name = "MainMenuMessage"),
+        @JsonSubTypes.Type(value = MarketPreview.class, name = "MarketPreview"),
         @JsonSubTypes.Type(value = MarketUpdate.class, name = "MarketUpdate"),
         @JsonSubTypes.Type(value = MatchStart.class, name = "MatchStart"),
         @JsonSubTypes.Type(value = PopeFavorActivated.class, name = "PopeFavorActivated"),
@@ -35,6 +38,7 @@ import it.polimi.ingsw.message.bothArchitectureMessage.*;
         @JsonSubTypes.Type(value = RemoveDeckDevelopmentCard.class, name = "RemoveDeckDevelopmentCard"),
         @JsonSubTypes.Type(value = StarTurn.class, name = "StarTurn"),
         @JsonSubTypes.Type(value = StrongboxUpdate.class, name = "StrongboxUpdate"),
+        @JsonSubTypes.Type(value = WarehouseLayoutUpdate.class, name = "WarehouseLayoutUpdate"),
         @JsonSubTypes.Type(value = WarehouseRemovingRequest.class, name = "WarehouseRemovingRequest"),
         @JsonSubTypes.Type(value = WhiteMarbleConversionRequest.class, name = "WhiteMarbleConverted"),
         @JsonSubTypes.Type(value = WinningCondition.class, name = "WinningCondition"),
@@ -0,0 +1,24 @@
+package it.polimi.ingsw.message.clientMessage;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import it.polimi.ingsw.client.ClientMessageHandler;
+import it.polimi.ingsw.client.data.LegalActionsData;
+
+public class LegalActionsUpdate implements ClientMessage{
+    private final LegalActionsData legalActions;
+
+    @JsonCreator
+    public LegalActionsUpdate(@JsonProperty("legalActions") LegalActionsData legalActions) {
+        this.legalActions = legalActions;
+    }
+
+    public LegalActionsData getLegalActions() {
+        return legalActions;
+    }
+
+    @Override
+    public void process(ClientMessageHandler handler) {
+        handler.legalActionsUpdate(this);
+    }
+}
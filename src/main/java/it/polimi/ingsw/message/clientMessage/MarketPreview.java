@@ -0,0 +1,33 @@
+package it.polimi.ingsw.message.clientMessage;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import it.polimi.ingsw.client.ClientMessageHandler;
+import it.polimi.ingsw.client.data.ResourceData;
+
+import java.util.ArrayList;
+
+public class MarketPreview implements ClientMessage{
+    private final ArrayList<ArrayList<ResourceData>> rows;
+    private final ArrayList<ArrayList<ResourceData>> columns;
+
+    @JsonCreator
+    public MarketPreview(@JsonProperty("rows") ArrayList<ArrayList<ResourceData>> rows,
+                         @JsonProperty("columns") ArrayList<ArrayList<ResourceData>> columns) {
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    public ArrayList<ArrayList<ResourceData>> getRows() {
+        return rows;
+    }
+
+    public ArrayList<ArrayList<ResourceData>> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public void process(ClientMessageHandler handler) {
+        handler.marketPreview(this);
+    }
+}
@@ -14,6 +14,7 @@ public class ReconnectGameMessage implements ClientMessage{
     private final ArrayList<String> usernames;
     private final MarketData market;
     private final DeckDevData deckDev;
+    private final ArrayList<FaithTrackData> faithTrack;
     private final ArrayList<EffectData> baseProd;
     private final ArrayList<ModelData> models;
     //player username
@@ -24,12 +25,14 @@ public class ReconnectGameMessage implements ClientMessage{
     public ReconnectGameMessage(@JsonProperty("usernames") ArrayList<String> usernames,
                                 @JsonProperty("market")MarketData market,
                                 @JsonProperty("deckDev")DeckDevData deckDev,
+                                @JsonProperty("faithTrack")ArrayList<FaithTrackData> faithTrack,
                                 @JsonProperty("baseProd")ArrayList<EffectData> baseProd,
                                 @JsonProperty("models")ArrayList<ModelData> models,
                                 @JsonProperty("playerUsername") String playerUsername) {
         this.usernames = usernames;
         this.market = market;
         this.deckDev = deckDev;
+        this.faithTrack = faithTrack;
         this.baseProd = baseProd;
         this.models = models;
         this.playerUsername = playerUsername;
@@ -47,6 +50,8 @@ public class ReconnectGameMessage implements ClientMessage{
         return deckDev;
     }
 
+    public ArrayList<FaithTrackData> getFaithTrack() { return faithTrack; }
+
     public ArrayList<EffectData> getBaseProd() {
         return baseProd;
     }
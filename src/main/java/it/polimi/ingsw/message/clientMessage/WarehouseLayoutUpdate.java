@@ -0,0 +1,46 @@
+package it.polimi.ingsw.message.clientMessage;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import it.polimi.ingsw.client.ClientMessageHandler;
+import it.polimi.ingsw.client.data.ResourceData;
+import java.util.ArrayList;
+
+public class WarehouseLayoutUpdate implements ClientMessage{
+    private final ArrayList<ResourceData> standardDepots;
+    private final ArrayList<ResourceData> leaderDepots;
+    private final ArrayList<ResourceData> strongboxUpdated;
+    private final String username;
+
+    @JsonCreator
+    public WarehouseLayoutUpdate(@JsonProperty("standardDepots") ArrayList<ResourceData> standardDepots,
+                                 @JsonProperty("leaderDepots") ArrayList<ResourceData> leaderDepots,
+                                 @JsonProperty("strongboxUpdated") ArrayList<ResourceData> strongboxUpdated,
+                                 @JsonProperty("username") String username) {
+        this.standardDepots = standardDepots;
+        this.leaderDepots = leaderDepots;
+        this.strongboxUpdated = strongboxUpdated;
+        this.username = username;
+    }
+
+    public ArrayList<ResourceData> getStandardDepots() {
+        return standardDepots;
+    }
+
+    public ArrayList<ResourceData> getLeaderDepots() {
+        return leaderDepots;
+    }
+
+    public ArrayList<ResourceData> getStrongboxUpdated() {
+        return strongboxUpdated;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public void process(ClientMessageHandler handler) {
+        handler.warehouseLayoutUpdate(this);
+    }
+}
@@ -0,0 +1,16 @@
+package it.polimi.ingsw.message.serverMessage;
+
+import it.polimi.ingsw.server.ServerMessageHandler;
+
+public class ArrangePreviewRequest implements ServerMessage{
+
+    @Override
+    public void process(ServerMessageHandler handler) {
+        handler.handleArrangePreview();
+    }
+
+    @Override
+    public String toString() {
+        return " - Arrange Preview Request";
+    }
+}
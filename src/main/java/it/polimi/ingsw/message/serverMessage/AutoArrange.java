@@ -0,0 +1,18 @@
+package it.polimi.ingsw.message.serverMessage;
+
+import it.polimi.ingsw.server.ServerMessageHandler;
+
+public class AutoArrange implements ServerMessage {
+
+    @Override
+    public void process(ServerMessageHandler handler) {
+        handler.handleAutoArrange();
+
+        handler.getVirtualClient().ifPresent(x->x.addToLog(this));
+    }
+
+    @Override
+    public String toString() {
+        return " - Auto Arrange";
+    }
+}
@@ -0,0 +1,31 @@
+package it.polimi.ingsw.message.serverMessage;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import it.polimi.ingsw.model.personalBoard.resourceManager.PaymentPolicy;
+import it.polimi.ingsw.server.ServerMessageHandler;
+
+public class AutoPayment implements ServerMessage {
+    private final PaymentPolicy policy;
+
+    @JsonCreator
+    public AutoPayment(@JsonProperty("policy") PaymentPolicy policy) {
+        this.policy = policy;
+    }
+
+    public PaymentPolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public void process(ServerMessageHandler handler) {
+        handler.handleAutoPayment(this);
+
+        handler.getVirtualClient().ifPresent(x->x.addToLog(this));
+    }
+
+    @Override
+    public String toString() {
+        return " - Auto Payment";
+    }
+}
@@ -0,0 +1,16 @@
+package it.polimi.ingsw.message.serverMessage;
+
+import it.polimi.ingsw.server.ServerMessageHandler;
+
+public class MarketPreviewRequest implements ServerMessage{
+
+    @Override
+    public void process(ServerMessageHandler handler) {
+        handler.handleMarketPreview();
+    }
+
+    @Override
+    public String toString() {
+        return " - Market Preview Request";
+    }
+}
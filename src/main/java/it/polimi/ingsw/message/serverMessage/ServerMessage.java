@@ -14,6 +14,9 @@ import it.polimi.ingsw.server.ServerMessageHandler;
         @JsonSubTypes.Type(value = ReconnectionMessage.class, name = "ReconnectionMessage"),
 
         @JsonSubTypes.Type(value = AnyResponse.class, name = "AnyResponse"),
+        @JsonSubTypes.Type(value = ArrangePreviewRequest.class, name = "ArrangePreviewRequest"),
+        @JsonSubTypes.Type(value = AutoArrange.class, name = "AutoArrange"),
+        @JsonSubTypes.Type(value = AutoPayment.class, name = "AutoPayment"),
         @JsonSubTypes.Type(value = BaseProduction.class, name = "BaseProduction"),
         @JsonSubTypes.Type(value = DepotModify.class, name = "DepotModify"),
         @JsonSubTypes.Type(value = DepotSwitch.class, name = "DepotSwitch"),
@@ -23,10 +26,12 @@ import it.polimi.ingsw.server.ServerMessageHandler;
         @JsonSubTypes.Type(value = EndTurn.class, name = "EndTurn"),
         @JsonSubTypes.Type(value = LeaderManage.class, name = "LeaderManage"),
         @JsonSubTypes.Type(value = MarketAction.class, name = "MarketAction"),
+        @JsonSubTypes.Type(value = MarketPreviewRequest.class, name = "MarketPreviewRequest"),
         @JsonSubTypes.Type(value = ProductionAction.class, name = "ProductionAction"),
         @JsonSubTypes.Type(value = QuitGame.class, name = "QuitGame"),
         @JsonSubTypes.Type(value = SinglePlayerMessage.class, name = "SinglePlayerMessage"),
         @JsonSubTypes.Type(value = StrongboxModify.class, name = "StrongboxModify"),
+        @JsonSubTypes.Type(value = WarehouseLayout.class, name = "WarehouseLayout"),
         @JsonSubTypes.Type(value = WhiteMarbleConversionResponse.class, name = "WhiteMarbleConversionResponse")
 })
 
@@ -0,0 +1,33 @@
+package it.polimi.ingsw.message.serverMessage;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import it.polimi.ingsw.client.data.ResourcePlacementData;
+import it.polimi.ingsw.server.ServerMessageHandler;
+
+import java.util.ArrayList;
+
+public class WarehouseLayout implements ServerMessage {
+    private final ArrayList<ResourcePlacementData> placements;
+
+    @JsonCreator
+    public WarehouseLayout(@JsonProperty("placements") ArrayList<ResourcePlacementData> placements) {
+        this.placements = placements;
+    }
+
+    public ArrayList<ResourcePlacementData> getPlacements() {
+        return placements;
+    }
+
+    @Override
+    public void process(ServerMessageHandler handler) {
+        handler.handleWarehouseLayout(this);
+
+        handler.getVirtualClient().ifPresent(x->x.addToLog(this));
+    }
+
+    @Override
+    public String toString() {
+        return " - Warehouse Layout";
+    }
+}
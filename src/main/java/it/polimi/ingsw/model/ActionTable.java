@@ -0,0 +1,213 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.server.HandlerState;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ActionTable is the table of the legal actions: for every action it keeps the handler states in which the
+ * client can request it and, for the actions done during the turn, the player states in which it is allowed.
+ * Every check is a lookup in an EnumSet, so it doesn't allocate and doesn't depend on the number of states.
+ */
+public final class ActionTable {
+    private static final Map<ActionType, Rule> RULES = new EnumMap<>(ActionType.class);
+
+    static {
+        //CONNECTION
+        rule(ActionType.FIRST_CONTACT, EnumSet.of(HandlerState.FIRST_CONTACT));
+        rule(ActionType.SINGLE_PLAYER, EnumSet.of(HandlerState.FIRST_CONTACT));
+        rule(ActionType.MATCH_CREATION, EnumSet.of(HandlerState.NUM_OF_PLAYER));
+        rule(ActionType.USERNAME_INPUT, EnumSet.of(HandlerState.USERNAME));
+
+        //UTIL
+        turnRule(ActionType.END_TURN, EnumSet.of(PlayerState.LEADER_MANAGE_AFTER));
+
+        //LEADER
+        turnRule(ActionType.LEADER_MANAGE, EnumSet.of(PlayerState.LEADER_MANAGE_BEFORE,
+                PlayerState.LEADER_MANAGE_AFTER), HandlerState.LEADER_SETUP);
+
+        //MARKET
+        turnRule(ActionType.MARKET_ACTION, EnumSet.of(PlayerState.LEADER_MANAGE_BEFORE));
+        turnRule(ActionType.MARKET_PREVIEW, EnumSet.of(PlayerState.LEADER_MANAGE_BEFORE));
+        turnRule(ActionType.WHITE_MARBLE_CONVERSION, EnumSet.of(PlayerState.WHITE_MARBLE_CONVERSION));
+        turnRule(ActionType.DISCARD_MARKET_RESOURCES, EnumSet.of(PlayerState.MARKET_RESOURCE_POSITIONING));
+
+        //BUY DEVELOPMENT
+        turnRule(ActionType.DEVELOPMENT_ACTION, EnumSet.of(PlayerState.LEADER_MANAGE_BEFORE));
+
+        //PRODUCTION
+        turnRule(ActionType.PRODUCTION, EnumSet.of(PlayerState.LEADER_MANAGE_BEFORE, PlayerState.PRODUCTION_ACTION));
+        turnRule(ActionType.LEADER_PRODUCTION, EnumSet.of(PlayerState.LEADER_MANAGE_BEFORE,
+                PlayerState.WHITE_MARBLE_CONVERSION,
+                PlayerState.PRODUCTION_ACTION,
+                PlayerState.LEADER_MANAGE_AFTER));
+        turnRule(ActionType.BASE_PRODUCTION, EnumSet.of(PlayerState.LEADER_MANAGE_BEFORE,
+                PlayerState.PRODUCTION_ACTION));
+        turnRule(ActionType.END_CARD_SELECTION, EnumSet.of(PlayerState.PRODUCTION_ACTION));
+
+        //ANY
+        turnRule(ActionType.ANY_RESPONSE, EnumSet.of(PlayerState.ANY_BUY_DEV_CONVERSION,
+                PlayerState.ANY_PRODUCE_COST_CONVERSION,
+                PlayerState.ANY_PRODUCE_PROFIT_CONVERSION), HandlerState.RESOURCE_SETUP);
+
+        //WAREHOUSE
+        turnRule(ActionType.STRONGBOX_MODIFY, EnumSet.of(PlayerState.BUY_DEV_RESOURCE_REMOVING,
+                PlayerState.PRODUCTION_RESOURCE_REMOVING));
+        turnRule(ActionType.DEPOT_MODIFY, EnumSet.of(PlayerState.MARKET_RESOURCE_POSITIONING,
+                PlayerState.BUY_DEV_RESOURCE_REMOVING,
+                PlayerState.PRODUCTION_RESOURCE_REMOVING));
+        turnRule(ActionType.DEPOT_SWITCH, EnumSet.of(PlayerState.BUY_DEV_RESOURCE_REMOVING,
+                PlayerState.PRODUCTION_RESOURCE_REMOVING,
+                PlayerState.MARKET_RESOURCE_POSITIONING));
+        turnRule(ActionType.WAREHOUSE_LAYOUT, EnumSet.of(PlayerState.MARKET_RESOURCE_POSITIONING,
+                PlayerState.BUY_DEV_RESOURCE_REMOVING,
+                PlayerState.PRODUCTION_RESOURCE_REMOVING));
+        turnRule(ActionType.AUTO_PAYMENT, EnumSet.of(PlayerState.BUY_DEV_RESOURCE_REMOVING,
+                PlayerState.PRODUCTION_RESOURCE_REMOVING));
+        turnRule(ActionType.ARRANGE_PREVIEW, EnumSet.of(PlayerState.MARKET_RESOURCE_POSITIONING));
+        turnRule(ActionType.AUTO_ARRANGE, EnumSet.of(PlayerState.MARKET_RESOURCE_POSITIONING));
+
+        for (ActionType action : ActionType.values()){
+            if (!RULES.containsKey(action))
+                throw new ExceptionInInitializerError("No rule for the action " + action);
+        }
+    }
+
+    private ActionTable() {}
+
+    /**
+     * Add the rule of an action that doesn't depend on the turn.
+     * @param action the action.
+     * @param handlerStates the handler states in which the action is allowed.
+     */
+    private static void rule(ActionType action, EnumSet<HandlerState> handlerStates){
+        RULES.put(action, new Rule(handlerStates, EnumSet.noneOf(PlayerState.class), false));
+    }
+
+    /**
+     * Add the rule of an action done by the current player during the match.
+     * @param action the action.
+     * @param playerStates the player states in which the action is allowed.
+     * @param setUpStates the handler states of the set up in which the action is allowed too.
+     */
+    private static void turnRule(ActionType action, EnumSet<PlayerState> playerStates, HandlerState... setUpStates){
+        EnumSet<HandlerState> handlerStates = EnumSet.of(HandlerState.IN_MATCH, setUpStates);
+        RULES.put(action, new Rule(handlerStates, playerStates, true));
+    }
+
+    /**
+     * Return true if the action is allowed in the handler state, without checking the player state.
+     * @param action the action.
+     * @param handlerState the state of the client connection.
+     * @return true if the action is allowed in the handler state.
+     */
+    public static boolean isAllowed(ActionType action, HandlerState handlerState){
+        return RULES.get(action).handlerStates.contains(handlerState);
+    }
+
+    /**
+     * Return true if the current player can do the action in the player state.
+     * @param action the action.
+     * @param playerState the state of the current player.
+     * @return true if the action is allowed in the player state.
+     */
+    public static boolean isAllowed(ActionType action, PlayerState playerState){
+        Rule rule = RULES.get(action);
+        return !rule.turnOnly || rule.playerStates.contains(playerState);
+    }
+
+    /**
+     * Return true if the action is allowed in the handler state and, during the match, in the player state.
+     * @param action the action.
+     * @param handlerState the state of the client connection.
+     * @param playerState the state of the current player.
+     * @return true if the action is allowed.
+     */
+    public static boolean isAllowed(ActionType action, HandlerState handlerState, PlayerState playerState){
+        return isAllowed(action, handlerState) &&
+                (handlerState != HandlerState.IN_MATCH || isAllowed(action, playerState));
+    }
+
+    /**
+     * Return true if during the match the action can be requested only by the current player.
+     * @param action the action.
+     * @return true if the action can be requested only during the turn of the player.
+     */
+    public static boolean requiresTurn(ActionType action){
+        return RULES.get(action).turnOnly;
+    }
+
+    /**
+     * Return the handler states in which the action is allowed.
+     * @param action the action.
+     * @return an unmodifiable set of handler states.
+     */
+    public static Set<HandlerState> getHandlerStates(ActionType action){
+        return Collections.unmodifiableSet(RULES.get(action).handlerStates);
+    }
+
+    /**
+     * Return the player states in which the action is allowed, empty if the action doesn't depend on the turn.
+     * @param action the action.
+     * @return an unmodifiable set of player states.
+     */
+    public static Set<PlayerState> getPlayerStates(ActionType action){
+        return Collections.unmodifiableSet(RULES.get(action).playerStates);
+    }
+
+    /**
+     * Return all the actions that a client can request.
+     * @param handlerState the state of the client connection.
+     * @param playerState the state of the current player.
+     * @param isYourTurn true if the client is the current player.
+     * @return the set of the allowed actions.
+     */
+    public static EnumSet<ActionType> legalActions(HandlerState handlerState, PlayerState playerState, boolean isYourTurn){
+        EnumSet<ActionType> actions = EnumSet.noneOf(ActionType.class);
+        for (Map.Entry<ActionType, Rule> entry : RULES.entrySet()){
+            Rule rule = entry.getValue();
+            if (!rule.handlerStates.contains(handlerState))
+                continue;
+            if (handlerState == HandlerState.IN_MATCH && rule.turnOnly &&
+                    (!isYourTurn || !rule.playerStates.contains(playerState)))
+                continue;
+            actions.add(entry.getKey());
+        }
+        return actions;
+    }
+
+    /**
+     * Return a string with a line for every action and the states in which it is allowed.
+     * @return a string that describe the table.
+     */
+    public static String dump(){
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<ActionType, Rule> entry : RULES.entrySet()){
+            Rule rule = entry.getValue();
+            builder.append(entry.getKey())
+                    .append(": handler=").append(rule.handlerStates)
+                    .append(" player=").append(rule.turnOnly ? rule.playerStates.toString() : "ANY")
+                    .append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The states in which an action is allowed.
+     */
+    private static final class Rule {
+        private final EnumSet<HandlerState> handlerStates;
+        private final EnumSet<PlayerState> playerStates;
+        private final boolean turnOnly;
+
+        private Rule(EnumSet<HandlerState> handlerStates, EnumSet<PlayerState> playerStates, boolean turnOnly) {
+            this.handlerStates = handlerStates;
+            this.playerStates = playerStates;
+            this.turnOnly = turnOnly;
+        }
+    }
+}
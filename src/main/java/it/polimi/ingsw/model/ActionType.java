@@ -0,0 +1,46 @@
+package it.polimi.ingsw.model;
+
+/**
+ * The actions a client can request to the server, one for every message whose legality depends on the state of the
+ * client connection or on the state of the player.
+ */
+public enum ActionType {
+    //CONNECTION
+    FIRST_CONTACT,
+    SINGLE_PLAYER,
+    MATCH_CREATION,
+    USERNAME_INPUT,
+
+    //UTIL
+    END_TURN,
+
+    //LEADER
+    LEADER_MANAGE,
+
+    //MARKET
+    MARKET_ACTION,
+    MARKET_PREVIEW,
+    WHITE_MARBLE_CONVERSION,
+    DISCARD_MARKET_RESOURCES,
+
+    //BUY DEVELOPMENT
+    DEVELOPMENT_ACTION,
+
+    //PRODUCTION
+    PRODUCTION,
+    LEADER_PRODUCTION,
+    BASE_PRODUCTION,
+    END_CARD_SELECTION,
+
+    //ANY
+    ANY_RESPONSE,
+
+    //WAREHOUSE
+    STRONGBOX_MODIFY,
+    DEPOT_MODIFY,
+    DEPOT_SWITCH,
+    WAREHOUSE_LAYOUT,
+    AUTO_PAYMENT,
+    ARRANGE_PREVIEW,
+    AUTO_ARRANGE
+}
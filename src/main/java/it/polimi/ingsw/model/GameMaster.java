@@ -5,14 +5,18 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import it.polimi.ingsw.client.data.DeckDevData;
 import it.polimi.ingsw.client.data.EffectData;
+import it.polimi.ingsw.client.data.FaithTrackData;
+import it.polimi.ingsw.client.data.LegalActionsData;
 import it.polimi.ingsw.client.data.ModelData;
 import it.polimi.ingsw.exception.InvalidStateActionException;
 import it.polimi.ingsw.model.personalBoard.faithTrack.FaithTrack;
+import it.polimi.ingsw.model.personalBoard.faithTrack.FaithTrackLayout;
 import it.polimi.ingsw.model.personalBoard.resourceManager.ResourceManager;
 import it.polimi.ingsw.observer.*;
 import it.polimi.ingsw.exception.DeckDevelopmentCardException;
 import it.polimi.ingsw.model.card.Color;
 import it.polimi.ingsw.model.card.Development;
+import it.polimi.ingsw.model.card.DevelopmentDeck;
 import it.polimi.ingsw.model.card.Leader;
 import it.polimi.ingsw.model.personalBoard.PersonalBoard;
 import it.polimi.ingsw.model.personalBoard.cardManager.CardManager;
@@ -20,12 +24,12 @@ import it.polimi.ingsw.model.personalBoard.market.Market;
 import it.polimi.ingsw.model.token.LorenzoIlMagnifico;
 import it.polimi.ingsw.model.token.Token;
 import it.polimi.ingsw.observer.Observable;
+import it.polimi.ingsw.server.HandlerState;
 import it.polimi.ingsw.server.VirtualClient;
 
 import java.io.IOException;
 import java.util.*;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  * GameMaster class manage all the action during a game.
@@ -43,31 +47,49 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
     private String currentPlayer = null;
     private int numberOfPlayer;
     private final ArrayList<String> playersTurn = new ArrayList<>();
-    private ArrayList<ArrayList<ArrayList<Development>>> deckDevelopment;
+    private DevelopmentDeck deckDevelopment;
     private int vaticanReportReached = 0;
     private int leaderAtStart;
     private boolean isLastTurn = false;
     private boolean gameEnded = false;
     private String baseProductionSerialized;
-    private String faithTrackSerialized;
+    private long seed;
+    private int tokenShuffles = 0;
+    @JsonIgnore
+    private FaithTrackLayout faithTrackLayout;
 
     @JsonCreator
     public GameMaster() {
     }
 
+    /**
+     * Construct a GameMaster for the match with a random seed.
+     * See {@link #GameMaster(GameSetting, ArrayList, long)}.
+     * @param gameSetting the class that represent the game parameter.
+     * @throws IOException when there are problems opening Json files when loading game information.
+     */
+    public GameMaster(GameSetting gameSetting, ArrayList<String> players) throws IOException{
+        this(gameSetting, players, new Random().nextLong());
+    }
+
     /**
      * Construct a GameMaster for the match. It creates a new Market, deck of Leader and deck of Development card,
      * moreover if it is a single player game instantiate LorenzoIlMagnifico as a Player.
+     * Every shuffle of the match comes from the seed, so the same seed and players in the same order give the same
+     * match.
      * @param gameSetting the class that represent the game parameter.
+     * @param seed the seed of the random generator of the match.
      * @throws IOException when there are problems opening Json files when loading game information.
      */
-    public GameMaster(GameSetting gameSetting, ArrayList<String> players) throws IOException{
+    public GameMaster(GameSetting gameSetting, ArrayList<String> players, long seed) throws IOException{
         this.numberOfPlayer = players.size();
+        this.seed = seed;
+        Random random = new Random(seed);
         //game loading
-        loadGameSetting(gameSetting);
+        loadGameSetting(gameSetting, random);
 
         //setting up  players
-        Collections.shuffle(players);
+        Collections.shuffle(players, random);
         for (String player: players){
             addPlayer(player);
             playersTurn.add(player);
@@ -82,27 +104,29 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
     /**
      * Load the game data from the gameSetting.
      * @param gameSetting the game data.
+     * @param random the random generator of the match.
      * @throws JsonProcessingException if some error occurs in serialization.
      */
-    private void loadGameSetting(GameSetting gameSetting) throws JsonProcessingException {
+    private void loadGameSetting(GameSetting gameSetting, Random random) throws JsonProcessingException {
         ObjectMapper mapper = new ObjectMapper();
         mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
 
 
         baseProductionSerialized = mapper.writeValueAsString(gameSetting.getBaseProduction());
-        faithTrackSerialized = mapper.writeValueAsString(gameSetting.getFaithTrack());
+        faithTrackLayout = gameSetting.getFaithTrackLayout();
 
-        deckDevelopment = gameSetting.getDeckDevelopment();
-        deckDevelopment.stream().flatMap(ArrayList::stream).forEach(Collections::shuffle);
+        deckDevelopment = new DevelopmentDeck(gameSetting.getDeckDevelopment());
+        deckDevelopment.shuffle(random);
 
         deckLeader = gameSetting.getDeckLeader();
-        Collections.shuffle(deckLeader);
+        Collections.shuffle(deckLeader, random);
 
         market = gameSetting.getMarket();
+        market.shuffle(random);
         market.attachGameMasterObserver(this);
 
         deckToken = gameSetting.getDeckToken();
-        Collections.shuffle(deckToken);
+        Collections.shuffle(deckToken, random);
 
         leaderAtStart = gameSetting.getLeaderAtStart();
         numberOfPlayer = gameSetting.getNumberOfPlayer();
@@ -113,8 +137,8 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
      * Change the current player in the game when a new turn starts.
      */
     public void nextPlayer() throws InvalidStateActionException {
-        if(currentPlayer != null && !isPlayerInState(PlayerState.LEADER_MANAGE_AFTER)) {
-            throw new InvalidStateActionException();
+        if(currentPlayer != null && !isActionAllowed(ActionType.END_TURN)) {
+            throw InvalidStateActionException.INSTANCE;
         }
 
 
@@ -141,33 +165,38 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
     }
 
     /**
-     * Compute the game winner.
+     * Compute the game winner. The ties of victory points are broken by the number of resources: the players with the
+     * same points get 0.1 more for every tied player with less resources, so every score of the ranking is different.
      */
     private void gameOver(){
         this.gameEnded = true;
         Map<Float, String> points= new HashMap<>();
-        //ArrayList<Integer> pointsAlreadyToken=new ArrayList<>();
-        float victoryPoints;
-        for (String user : playersTurn){
-            PersonalBoard pb=playersPersonalBoard.get(user);
-            victoryPoints=(float)(pb.getCardManager().getVictoryPointsCard()+
-                    pb.getFaithTrack().allVP() +
-                    pb.getResourceManager().getVictoryPointsResource());
-            while(points.containsKey(victoryPoints)){
-                if(pb.getResourceManager().howManyDoIHave()>playersPersonalBoard.get(points.get(victoryPoints)).getResourceManager().howManyDoIHave()){
-                    victoryPoints+=0.1f;
-                }
-                else{
-                    victoryPoints-=0.1f;
-                }
-            }
-            points.put(victoryPoints, user);
+        List<String> ranking = new ArrayList<>(playersTurn);
+        ranking.sort(Comparator.comparingInt(this::getVictoryPoints)
+                .thenComparingInt(x -> playersPersonalBoard.get(x).getResourceManager().howManyDoIHave()));
+        int tied = 0;
+        for (int i = 0; i < ranking.size(); i++){
+            int victoryPoints = getVictoryPoints(ranking.get(i));
+            tied = (i > 0 && getVictoryPoints(ranking.get(i - 1)) == victoryPoints) ? tied + 1 : 0;
+            points.put(victoryPoints + tied * 0.1f, ranking.get(i));
         }
 
         notifyAllObservers(x->x.weHaveAWinner(points));
     }
 
 
+    /**
+     * Return the victory points of a player: cards, faith track and resources.
+     * @param username the player username.
+     * @return the victory points of the player.
+     */
+    public int getVictoryPoints(String username){
+        PersonalBoard pb=playersPersonalBoard.get(username);
+        return pb.getCardManager().getVictoryPointsCard()+
+                pb.getFaithTrack().allVP() +
+                pb.getResourceManager().getVictoryPointsResource();
+    }
+
     /**
      * Return the number of players still active in game.
      * @return the number of players still active in game.
@@ -200,6 +229,47 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
         return market;
     }
 
+    /**
+     * Return the seed of the random generator of the match.
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Return the players in the order of their turns, LorenzoIlMagnifico is the last one in a single player game.
+     * @return the usernames of the players.
+     */
+    public List<String> getPlayersTurn() {
+        return Collections.unmodifiableList(playersTurn);
+    }
+
+    /**
+     * Return the id of the next vatican report.
+     * @return the id of the next vatican report.
+     */
+    public int getVaticanReportReached() {
+        return vaticanReportReached;
+    }
+
+    /**
+     * Return true if the current round is the last one.
+     * @return true if the current round is the last one.
+     */
+    @JsonIgnore
+    public boolean isLastTurn() {
+        return isLastTurn;
+    }
+
+    /**
+     * Return the number of times the deck of tokens has been shuffled.
+     * @return the number of shuffles of the deck of tokens.
+     */
+    public int getTokenShuffles() {
+        return tokenShuffles;
+    }
+
     /**
      * Return the current player.
      * @return the current player.
@@ -217,7 +287,7 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
         ObjectMapper mapper = new ObjectMapper();
         mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
 
-        FaithTrack playerFaithTrack = mapper.readValue(faithTrackSerialized, FaithTrack.class);
+        FaithTrack playerFaithTrack = new FaithTrack(faithTrackLayout);
 
         ResourceManager playerResourceManager = new ResourceManager();
 
@@ -317,30 +387,15 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
      * @throws IndexOutOfBoundsException if the coordinates are out of the matrix bounds.
      */
     public Development getDeckDevelopmentCard(int row, int column) throws DeckDevelopmentCardException, IndexOutOfBoundsException {
-        if(deckDevelopment.get(row).get(column).isEmpty()){
+        Development development = deckDevelopment.peek(row, column);
+        if(development == null){
             throw new DeckDevelopmentCardException("No development card at selection (Row: "+row+" Column: "+column+")");
         }
-        Development development = deckDevelopment.get(row).get(column).get(0);
         development.attachCardToUser(playersPersonalBoard.get(currentPlayer), market);
 
         return development;
     }
 
-    /**
-     * Remove the development card in the specific position of the development deck.
-     * @param row the row selected.
-     * @param column the column selected.
-     * @throws DeckDevelopmentCardException if the block of cards selected is empty.
-     * @throws IndexOutOfBoundsException if the coordinates are out of the matrix bounds.
-     */
-    private void removeDeckDevelopmentCard(int row, int column) throws DeckDevelopmentCardException, IndexOutOfBoundsException{
-        if(deckDevelopment.get(row).get(column).isEmpty()){
-            throw new DeckDevelopmentCardException("No development card at selection (Row: " + row +
-                    " Column: " + column + ")");
-        }
-        deckDevelopment.get(row).get(column).remove(0);
-    }
-
 
     /**
      * Draws the token from the deckToken on the top, puts it back in the bottom and then  applies its effect.
@@ -367,6 +422,14 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
         return deckLeader.size();
     }
 
+    /**
+     * Return the deck of tokens, the first one is the next drawn.
+     * @return the deck of tokens, empty if the game is not a single player one.
+     */
+    public List<Token> getDeckToken() {
+        return deckToken != null ? Collections.unmodifiableList(deckToken) : Collections.emptyList();
+    }
+
     /**
      * Return the size of the deck of token if exist else it return 0.
      * @return the size of the deck of token if exist else it return 0.
@@ -377,7 +440,7 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
      * Return the deck of development cards.
      * @return the deck of development cards.
      */
-    public ArrayList<ArrayList<ArrayList<Development>>> getDeckDevelopment() {
+    public DevelopmentDeck getDeckDevelopment() {
         return deckDevelopment;
     }
 
@@ -386,13 +449,49 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
      * @return a GameDevData based on the deck of development cards.
      */
     public DeckDevData toDeckDevData(){
-        return new DeckDevData(deckDevelopment.stream()
-                .map(row -> row.stream()
-                        .map(singleDeck -> singleDeck.stream()
-                                .map(Development::toCardDevData)
-                        .collect(Collectors.toCollection(ArrayList::new)))
-                    .collect(Collectors.toCollection(ArrayList::new)))
-                .collect(Collectors.toCollection(ArrayList::new)));
+        return deckDevelopment.toDeckDevData();
+    }
+
+    /**
+     * Return the actions the current player can do in the current state, computed without changing the state
+     * of the player or of the cards of the deck: the cost of a card is checked against the managers of the player.
+     * @return a LegalActionsData of the current player.
+     */
+    public LegalActionsData toLegalActionsData(){
+        PersonalBoard personalBoard = playersPersonalBoard.get(currentPlayer);
+        CardManager cardManager = personalBoard.getCardManager();
+        EnumSet<ActionType> actions = ActionTable.legalActions(HandlerState.IN_MATCH, playerState, true);
+
+        int affordableDeck = 0;
+        int[] validSlots = new int[deckDevelopment.getRows() * deckDevelopment.getColumns()];
+        if (actions.contains(ActionType.DEVELOPMENT_ACTION)){
+            for (int row = 0; row < deckDevelopment.getRows(); row++){
+                for (int col = 0; col < deckDevelopment.getColumns(); col++){
+                    Development development = deckDevelopment.peek(row, col);
+                    if (development == null)
+                        continue;
+                    int position = row * deckDevelopment.getColumns() + col;
+                    validSlots[position] = cardManager.insertableSlots(development);
+                    if (development.areRequirementsSatisfiedBy(personalBoard.getResourceManager(), cardManager))
+                        affordableDeck |= 1 << position;
+                }
+            }
+        }
+
+        boolean production = actions.contains(ActionType.PRODUCTION);
+        boolean baseProduction = actions.contains(ActionType.BASE_PRODUCTION);
+        boolean leaderProduction = actions.contains(ActionType.LEADER_PRODUCTION);
+        boolean leaderManage = actions.contains(ActionType.LEADER_MANAGE);
+
+        return new LegalActionsData(currentPlayer,
+                LegalActionsData.toMask(actions),
+                deckDevelopment.getColumns(),
+                affordableDeck,
+                validSlots,
+                production ? cardManager.usableProductions() : 0,
+                baseProduction && cardManager.baseProductionUsable(),
+                leaderProduction ? cardManager.usableLeaderProductions() : 0,
+                leaderManage ? cardManager.activatableLeaders() : 0);
     }
 
     /**
@@ -411,6 +510,14 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
         return null;
     }
 
+    /**
+     * Return an ArrayList of FaithTrackData based on the layout of the faith track, the same for all the players.
+     * @return an ArrayList of FaithTrackData with no pope favor acquired.
+     */
+    public ArrayList<FaithTrackData> toFaithTrackData(){
+        return playersPersonalBoard.get(currentPlayer).getFaithTrack().getLayout().toFaithTrackData();
+    }
+
     /**
      * Return the player turn position.
      * @param username the player username.
@@ -440,26 +547,6 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
         });
     }
 
-    /**
-     * Return true if there's a column empty in the deck of development cards.
-     * @return true if there's a column empty in the deck of development cards.
-     */
-    private boolean isDeckDevColEmpty(){
-        for (int i = 0; i < deckDevelopment.get(0).size(); i++){
-            boolean isColEmpty = true;
-            for (ArrayList<ArrayList<Development>> arrayLists : deckDevelopment) {
-                if (!arrayLists.get(i).isEmpty()) {
-                    isColEmpty = false;
-                    break;
-                }
-            }
-            if (isColEmpty){
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Return the player state.
      * @return  the player state.
@@ -521,21 +608,17 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
      */
     @Override
     public void discardDevelopmentSinglePlayer(Color color, int num) {
-        int rowReached = 0;
         int colorColumn = color.getColumnDeckDevelopment();
         int numDiscarded = 0;
 
-        while(numDiscarded < num && rowReached < deckDevelopment.size()){
-            try{
-                removeDeckDevelopmentCard(rowReached, colorColumn);
-                int finalRowReached = rowReached;
-                notifyAllObservers(x -> x.removeDeckDevelopmentSinglePlayer(finalRowReached, colorColumn));
+        for (int row = 0; row < deckDevelopment.getRows() && numDiscarded < num; row++){
+            while (numDiscarded < num && deckDevelopment.pop(row, colorColumn) != null){
+                int finalRow = row;
+                notifyAllObservers(x -> x.removeDeckDevelopmentSinglePlayer(finalRow, colorColumn));
                 numDiscarded++;
-            }catch (DeckDevelopmentCardException e){
-                rowReached++;
             }
         }
-        if (isDeckDevColEmpty()){
+        if (deckDevelopment.hasEmptyColumn()){
             winningCondition();
         }
     }
@@ -545,7 +628,10 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
      */
     @Override
     public void shuffleToken() {
-        Collections.shuffle(this.deckToken);
+        //every shuffle has its own generator from the seed, so it doesn't depend on the shuffles of a previous run
+        //of the server when the match is loaded
+        tokenShuffles++;
+        Collections.shuffle(this.deckToken, new Random(seed ^ tokenShuffles * 0x9E3779B97F4A7C15L));
     }
 
     /**
@@ -562,8 +648,8 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
     @Override
     public void onDeckDevelopmentCardRemove(int row, int col) {
         try {
-            removeDeckDevelopmentCard(row, col);
-        } catch (Exception ignored) {
+            deckDevelopment.pop(row, col);
+        } catch (IndexOutOfBoundsException ignored) {
         }
     }
 
@@ -580,7 +666,19 @@ public class GameMaster implements GameMasterObserver,Observable<ModelObserver>,
      */
     @Override
     public boolean isPlayerInState(PlayerState... states) {
-        return Arrays.stream(states).anyMatch(x -> x == playerState);
+        for (PlayerState state : states){
+            if (state == playerState)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * See {@link GameMasterObserver#isActionAllowed(ActionType)}.
+     */
+    @Override
+    public boolean isActionAllowed(ActionType action) {
+        return ActionTable.isAllowed(action, playerState);
     }
 
     /**
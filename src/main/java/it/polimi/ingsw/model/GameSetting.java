@@ -8,6 +8,7 @@ import it.polimi.ingsw.exception.JsonFileModificationError;
 import it.polimi.ingsw.model.card.Development;
 import it.polimi.ingsw.model.card.Leader;
 import it.polimi.ingsw.model.personalBoard.faithTrack.FaithTrack;
+import it.polimi.ingsw.model.personalBoard.faithTrack.FaithTrackLayout;
 import it.polimi.ingsw.model.personalBoard.market.Market;
 import it.polimi.ingsw.model.token.Token;
 import java.io.IOException;
@@ -25,7 +26,7 @@ public class GameSetting {
     private  Development baseProduction;
     private ArrayList<ArrayList<ArrayList<Development>>> deckDevelopment;
     private LinkedList<Leader> deckLeader;
-    private FaithTrack faithTrack;
+    private FaithTrackLayout faithTrackLayout;
     private Market market;
     private LinkedList<Token> deckToken = new LinkedList<>();
     private int leaderAtStart;
@@ -75,12 +76,11 @@ public class GameSetting {
 
 
     /**
-     * Creates the faith track from the json file.
+     * Load the shared faith track layout from the json file.
      * @throws IOException if there's some error during the reading of a json file.
      */
     private void createDefaultFaithTrack() throws IOException {
-        InputStream inputStream = getClass().getResourceAsStream("/json/FaithTrack.json");
-        faithTrack = mapper.readValue(inputStream, FaithTrack.class);
+        faithTrackLayout = FaithTrackLayout.getDefault();
     }
 
     /**
@@ -197,7 +197,15 @@ public class GameSetting {
      * @return the faith track.
      */
     public FaithTrack getFaithTrack() {
-        return faithTrack;
+        return new FaithTrack(faithTrackLayout);
+    }
+
+    /**
+     * Return the shared layout of the faith track.
+     * @return the faith track layout.
+     */
+    public FaithTrackLayout getFaithTrackLayout() {
+        return faithTrackLayout;
     }
 
     /**
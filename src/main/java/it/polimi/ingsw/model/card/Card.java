@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonSubTypes;
 import it.polimi.ingsw.client.data.EffectData;
 import it.polimi.ingsw.exception.NotEnoughRequirementException;
 import it.polimi.ingsw.model.PlayerState;
+import it.polimi.ingsw.model.card.Effect.Activation.ProductionEffect;
 import it.polimi.ingsw.model.card.Effect.Effect;
 import it.polimi.ingsw.model.card.requirement.Requirement;
 import it.polimi.ingsw.model.personalBoard.PersonalBoard;
@@ -60,6 +61,12 @@ public  abstract class Card {
      */
     public abstract void checkRequirements() throws NotEnoughRequirementException;
 
+    /**
+     * Return true if all requirements of the card are satisfied, without changing the state of the player.
+     * @return true if all requirements are satisfied.
+     */
+    public abstract boolean areRequirementsSatisfied();
+
 
     /**
      * Activate all Creation effects.
@@ -84,6 +91,23 @@ public  abstract class Card {
         }
     }
 
+    /**
+     * Return true if the card has a production and the player can afford all of its costs, without changing
+     * the state of the player.
+     * @return true if the card can be used to produce.
+     */
+    public boolean canProduce(){
+        boolean hasProduction = false;
+        for (Effect effect: onActivationEffects){
+            if (effect instanceof ProductionEffect){
+                if (!((ProductionEffect) effect).canProduce())
+                    return false;
+                hasProduction = true;
+            }
+        }
+        return hasProduction;
+    }
+
     /**
      * Attach all the player Managers and the Market so that the card will be able to perform its effects.
      * @param personalBoard the player's Personal Board.
@@ -153,6 +177,14 @@ public  abstract class Card {
         return id;
     }
 
+    /**
+     * Return an ArrayList with all the card's requirements.
+     * @return an ArrayList with all the card's requirements.
+     */
+    public ArrayList<Requirement> getRequirements() {
+        return requirements;
+    }
+
     /**
      * Return an ArrayList with all the card's Activation Effects.
      * @return an ArrayList with all the card's Activation Effects.
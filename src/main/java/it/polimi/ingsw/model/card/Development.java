@@ -7,6 +7,8 @@ import it.polimi.ingsw.client.data.ResourceData;
 import it.polimi.ingsw.exception.NotEnoughRequirementException;
 import it.polimi.ingsw.model.card.Effect.Effect;
 import it.polimi.ingsw.model.card.requirement.Requirement;
+import it.polimi.ingsw.model.personalBoard.cardManager.CardManager;
+import it.polimi.ingsw.model.personalBoard.resourceManager.ResourceManager;
 import java.util.ArrayList;
 
 
@@ -78,4 +80,29 @@ public class Development extends  Card{
             req.checkRequirement(true);
         }
     }
+
+    /**
+     * See {@link Card#areRequirementsSatisfied()}.
+     */
+    public boolean areRequirementsSatisfied() {
+        for(Requirement req: requirements){
+            if (!req.isSatisfied(true))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Return true if a player with these managers can buy the card, without attaching the card to the player.
+     * @param resourceManager the resource manager of the player.
+     * @param cardManager the card manager of the player.
+     * @return true if the requirements are satisfied, discounts included.
+     */
+    public boolean areRequirementsSatisfiedBy(ResourceManager resourceManager, CardManager cardManager) {
+        for(Requirement req: requirements){
+            if (!req.isSatisfiedBy(resourceManager, cardManager, true))
+                return false;
+        }
+        return true;
+    }
 }
@@ -0,0 +1,263 @@
+package it.polimi.ingsw.model.card;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import it.polimi.ingsw.client.data.CardDevData;
+import it.polimi.ingsw.client.data.DeckDevData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * DevelopmentDeck is the grid of blocks of development cards. Every block is a stack of indexes into the array of
+ * cards with a pointer to its top, so drawing a card doesn't shift the block, and the number of cards left of every
+ * color is kept to know in constant time if a column is empty.
+ * The cards are never modified by the deck, so a copy shares them and only duplicates the arrays of indexes.
+ */
+public class DevelopmentDeck {
+    private final int rows;
+    private final int columns;
+    private final int depth;
+    private final Development[] cards;
+    private final int[] stacks;
+    private final int[] heights;
+    private final int[] remainingPerColumn;
+    private int emptyColumns;
+
+    /**
+     * Construct a deck from the blocks of cards, the first card of every block is the top one.
+     * @param deck the blocks of cards indexed by row and column.
+     */
+    public DevelopmentDeck(List<? extends List<? extends List<Development>>> deck) {
+        rows = deck.size();
+        columns = deck.get(0).size();
+        depth = deck.stream().flatMap(List::stream).mapToInt(List::size).max().orElse(0);
+        cards = new Development[rows * columns * depth];
+        stacks = new int[rows * columns * depth];
+        heights = new int[rows * columns];
+        remainingPerColumn = new int[columns];
+
+        int index = 0;
+        for (int row = 0; row < rows; row++){
+            for (int col = 0; col < columns; col++){
+                List<Development> block = deck.get(row).get(col);
+                int cell = cellOf(row, col);
+                //the top of the block is the last slot of the stack
+                for (int k = block.size() - 1; k >= 0; k--){
+                    cards[index] = block.get(k);
+                    stacks[cell * depth + heights[cell]] = index;
+                    heights[cell]++;
+                    index++;
+                }
+                remainingPerColumn[col] += block.size();
+            }
+        }
+        for (int remaining : remainingPerColumn){
+            if (remaining == 0) emptyColumns++;
+        }
+    }
+
+    /**
+     * Construct a deck from its saved status.
+     * @param rows the number of rows.
+     * @param columns the number of columns.
+     * @param depth the maximum number of cards of a block.
+     * @param cards all the cards of the deck.
+     * @param stacks the indexes of the cards of every block, from the bottom to the top.
+     * @param heights the number of cards left in every block.
+     * @param remainingPerColumn the number of cards left in every column.
+     * @param emptyColumns the number of empty columns.
+     */
+    @JsonCreator
+    public DevelopmentDeck(@JsonProperty("rows") int rows,
+                           @JsonProperty("columns") int columns,
+                           @JsonProperty("depth") int depth,
+                           @JsonProperty("cards") Development[] cards,
+                           @JsonProperty("stacks") int[] stacks,
+                           @JsonProperty("heights") int[] heights,
+                           @JsonProperty("remainingPerColumn") int[] remainingPerColumn,
+                           @JsonProperty("emptyColumns") int emptyColumns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.depth = depth;
+        this.cards = cards;
+        this.stacks = stacks;
+        this.heights = heights;
+        this.remainingPerColumn = remainingPerColumn;
+        this.emptyColumns = emptyColumns;
+    }
+
+    /**
+     * Construct a copy of another deck, sharing its cards.
+     * @param other the deck to copy.
+     */
+    private DevelopmentDeck(DevelopmentDeck other) {
+        this(other.rows, other.columns, other.depth, other.cards, other.stacks.clone(), other.heights.clone(),
+                other.remainingPerColumn.clone(), other.emptyColumns);
+    }
+
+    /**
+     * Return a copy of the deck, the cards are shared and only the status of the blocks is duplicated.
+     * @return a copy of the deck.
+     */
+    public DevelopmentDeck copy(){
+        return new DevelopmentDeck(this);
+    }
+
+    /**
+     * Shuffle every block of cards.
+     * @param random the random generator used to shuffle.
+     */
+    public void shuffle(Random random){
+        for (int cell = 0; cell < heights.length; cell++){
+            int base = cell * depth;
+            for (int i = heights[cell] - 1; i > 0; i--){
+                int j = random.nextInt(i + 1);
+                int tmp = stacks[base + i];
+                stacks[base + i] = stacks[base + j];
+                stacks[base + j] = tmp;
+            }
+        }
+    }
+
+    /**
+     * Return the number of rows.
+     * @return the number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Return the number of columns.
+     * @return the number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Return the maximum number of cards of a block.
+     * @return the maximum number of cards of a block.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Return the number of cards left in a block.
+     * @param row the row of the block.
+     * @param column the column of the block.
+     * @return the number of cards left in the block.
+     * @throws IndexOutOfBoundsException if the coordinates are out of the matrix bounds.
+     */
+    public int size(int row, int column) throws IndexOutOfBoundsException {
+        return heights[cellOf(row, column)];
+    }
+
+    /**
+     * Return a card of a block.
+     * @param row the row of the block.
+     * @param column the column of the block.
+     * @param position the position of the card in the block, 0 is the bottom one.
+     * @return the card at that position.
+     * @throws IndexOutOfBoundsException if the coordinates are out of the matrix bounds or the block has less cards.
+     */
+    public Development get(int row, int column, int position) throws IndexOutOfBoundsException {
+        int cell = cellOf(row, column);
+        if (position < 0 || position >= heights[cell])
+            throw new IndexOutOfBoundsException("No card at position " + position);
+        return cards[stacks[cell * depth + position]];
+    }
+
+    /**
+     * Return true if a block has no cards left.
+     * @param row the row of the block.
+     * @param column the column of the block.
+     * @return true if the block is empty.
+     * @throws IndexOutOfBoundsException if the coordinates are out of the matrix bounds.
+     */
+    public boolean isEmpty(int row, int column) throws IndexOutOfBoundsException {
+        return size(row, column) == 0;
+    }
+
+    /**
+     * Return the card on the top of a block, null if the block is empty.
+     * @param row the row of the block.
+     * @param column the column of the block.
+     * @return the card on the top of the block.
+     * @throws IndexOutOfBoundsException if the coordinates are out of the matrix bounds.
+     */
+    public Development peek(int row, int column) throws IndexOutOfBoundsException {
+        int cell = cellOf(row, column);
+        return heights[cell] == 0 ? null : cards[stacks[cell * depth + heights[cell] - 1]];
+    }
+
+    /**
+     * Remove the card on the top of a block.
+     * @param row the row of the block.
+     * @param column the column of the block.
+     * @return the card removed, null if the block is empty.
+     * @throws IndexOutOfBoundsException if the coordinates are out of the matrix bounds.
+     */
+    public Development pop(int row, int column) throws IndexOutOfBoundsException {
+        Development development = peek(row, column);
+        if (development != null){
+            heights[cellOf(row, column)]--;
+            remainingPerColumn[column]--;
+            if (remainingPerColumn[column] == 0) emptyColumns++;
+        }
+        return development;
+    }
+
+    /**
+     * Return the number of cards left in a column.
+     * @param column the column.
+     * @return the number of cards left in the column.
+     */
+    public int remaining(int column){
+        return remainingPerColumn[column];
+    }
+
+    /**
+     * Return true if there's a column with no cards left.
+     * @return true if there's an empty column.
+     */
+    public boolean hasEmptyColumn(){
+        return emptyColumns > 0;
+    }
+
+    /**
+     * Return a DeckDevData based on the cards left in the deck, the first card of every block is the top one.
+     * @return a DeckDevData based on the deck.
+     */
+    public DeckDevData toDeckDevData(){
+        ArrayList<ArrayList<ArrayList<CardDevData>>> deck = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++){
+            ArrayList<ArrayList<CardDevData>> rowData = new ArrayList<>(columns);
+            for (int col = 0; col < columns; col++){
+                int cell = cellOf(row, col);
+                ArrayList<CardDevData> block = new ArrayList<>(heights[cell]);
+                for (int k = heights[cell] - 1; k >= 0; k--)
+                    block.add(cards[stacks[cell * depth + k]].toCardDevData());
+                rowData.add(block);
+            }
+            deck.add(rowData);
+        }
+        return new DeckDevData(deck);
+    }
+
+    /**
+     * Return the index of a block.
+     * @param row the row of the block.
+     * @param column the column of the block.
+     * @return the index of the block.
+     * @throws IndexOutOfBoundsException if the coordinates are out of the matrix bounds.
+     */
+    private int cellOf(int row, int column) throws IndexOutOfBoundsException {
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            throw new IndexOutOfBoundsException("No block at (Row: " + row + " Column: " + column + ")");
+        return row * columns + column;
+    }
+}
@@ -38,6 +38,22 @@ public class ProductionEffect implements Effect {
         this.resourceAcquired = resourceAcquired;
     }
 
+    /**
+     * Return the resources the production costs.
+     * @return the resources the production costs.
+     */
+    public ArrayList<Resource> getResourceCost() {
+        return resourceCost;
+    }
+
+    /**
+     * Return the resources the production gives.
+     * @return the resources the production gives.
+     */
+    public ArrayList<Resource> getResourceAcquired() {
+        return resourceAcquired;
+    }
+
 
     /**
      * Checks if the player has enough resource for the production, if it does
@@ -62,6 +78,14 @@ public class ProductionEffect implements Effect {
         }
     }
 
+    /**
+     * Return true if the player has enough resources for the production, without changing the state of the player.
+     * @return true if the player can afford the resource cost.
+     */
+    public boolean canProduce() {
+        return resourceManager.canAfford(resourceCost, false);
+    }
+
     /**
      * See {@link Effect#attachMarket(Market)}.
      */
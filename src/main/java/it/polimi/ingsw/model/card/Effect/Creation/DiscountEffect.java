@@ -34,6 +34,14 @@ public class DiscountEffect implements Effect {
         this.discounts = discounts;
     }
 
+    /**
+     * Return the discounts given by the effect.
+     * @return the discounts given by the effect.
+     */
+    public ArrayList<Resource> getDiscounts() {
+        return discounts;
+    }
+
     /**
      * Pass all the discounts to the resource manager.
      * @param playerState the state of the turn, in this case must be of type CREATION_STATE.
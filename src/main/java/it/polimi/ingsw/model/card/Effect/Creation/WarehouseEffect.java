@@ -34,6 +34,14 @@ public class WarehouseEffect  implements Effect {
         this.depots = depots;
     }
 
+    /**
+     * Return the depots created by the effect, the value of every resource is the capacity of its depot.
+     * @return the depots created by the effect, the value of every resource is the capacity of its depot.
+     */
+    public ArrayList<Resource> getDepots() {
+        return depots;
+    }
+
     /**
      * Creates a new locked depot (lockDepot = true) for all the resources in depots.
      * @param playerState the state of the turn, in this case must be of type CREATION_STATE.
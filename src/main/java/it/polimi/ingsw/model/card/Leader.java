@@ -43,6 +43,17 @@ public class Leader extends Card{
         }
     }
 
+    /**
+     * See {@link Card#areRequirementsSatisfied()}.
+     */
+    public boolean areRequirementsSatisfied() {
+        for(Requirement req: requirements) {
+            if (!req.isSatisfied(false))
+                return false;
+        }
+        return true;
+    }
+
     /**
      * Return true if the card is active.
      * @return true if the card is active.
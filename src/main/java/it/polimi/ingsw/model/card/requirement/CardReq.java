@@ -39,6 +39,30 @@ public class CardReq implements Requirement {
         this.numRequired = numRequired;
     }
 
+    /**
+     * Return the color of the cards required.
+     * @return the color of the cards required.
+     */
+    public Color getColor() {
+        return color;
+    }
+
+    /**
+     * Return the level of the cards required, 0 for any level.
+     * @return the level of the cards required, 0 for any level.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Return the number of cards required.
+     * @return the number of cards required.
+     */
+    public int getNumRequired() {
+        return numRequired;
+    }
+
     /**
      * Control if the player has enough cards with a specific color and level.
      * @param discount doesn't matter if it is true or false.
@@ -50,6 +74,22 @@ public class CardReq implements Requirement {
         cardManager.doIHaveDev(numRequired, color, level);
     }
 
+    /**
+     * See {@link Requirement#isSatisfied(boolean)}.
+     */
+    @Override
+    public boolean isSatisfied(boolean discount) {
+        return isSatisfiedBy(null, cardManager, discount);
+    }
+
+    /**
+     * See {@link Requirement#isSatisfiedBy(ResourceManager, CardManager, boolean)}.
+     */
+    @Override
+    public boolean isSatisfiedBy(ResourceManager resourceManager, CardManager cardManager, boolean discount) {
+        return cardManager.hasDev(numRequired, color, level);
+    }
+
 
     /**
      * See {@link Requirement#attachResourceManager(ResourceManager)}.
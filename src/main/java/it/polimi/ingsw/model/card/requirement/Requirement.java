@@ -32,6 +32,23 @@ public interface Requirement {
      */
     void checkRequirement(boolean discount) throws NotEnoughRequirementException;
 
+    /**
+     * Return true if the player can afford it, without changing the state of the player.
+     * @param discount true if you want to consider the leader discount effect.
+     * @return true if the requirement is satisfied.
+     */
+    boolean isSatisfied(boolean discount);
+
+    /**
+     * Return true if a player with these managers can afford it, without attaching the managers to the requirement
+     * and without changing the state of the player.
+     * @param resourceManager the resource manager of the player.
+     * @param cardManager the card manager of the player.
+     * @param discount true if you want to consider the leader discount effect.
+     * @return true if the requirement is satisfied.
+     */
+    boolean isSatisfiedBy(ResourceManager resourceManager, CardManager cardManager, boolean discount);
+
     /**
      * Attach the resource manager of the player.
      * @param resourceManager the resource manager of the player.
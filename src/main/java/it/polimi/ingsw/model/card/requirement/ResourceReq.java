@@ -32,6 +32,14 @@ public class ResourceReq implements Requirement {
         this.resourceReq = resourceReq;
     }
 
+    /**
+     * Return the resources required.
+     * @return the resources required.
+     */
+    public ArrayList<Resource> getResourceReq() {
+        return resourceReq;
+    }
+
     /**
      * Control if the player has enough resources.
      * @param discount true if you want to consider the leader discount effect.
@@ -46,6 +54,22 @@ public class ResourceReq implements Requirement {
         resourceManager.canIAfford(newResources, discount);
     }
 
+    /**
+     * See {@link Requirement#isSatisfied(boolean)}.
+     */
+    @Override
+    public boolean isSatisfied(boolean discount) {
+        return isSatisfiedBy(resourceManager, null, discount);
+    }
+
+    /**
+     * See {@link Requirement#isSatisfiedBy(ResourceManager, CardManager, boolean)}.
+     */
+    @Override
+    public boolean isSatisfiedBy(ResourceManager resourceManager, CardManager cardManager, boolean discount) {
+        return resourceManager.canAfford(resourceReq, discount);
+    }
+
     /**
      * See {@link Requirement#attachResourceManager(ResourceManager)}.
      */
@@ -0,0 +1,1189 @@
+package it.polimi.ingsw.model.forward;
+
+import it.polimi.ingsw.model.GameMaster;
+import it.polimi.ingsw.model.PlayerState;
+import it.polimi.ingsw.model.card.DevelopmentDeck;
+import it.polimi.ingsw.model.card.Leader;
+import it.polimi.ingsw.model.personalBoard.PersonalBoard;
+import it.polimi.ingsw.model.personalBoard.cardManager.CardManager;
+import it.polimi.ingsw.model.personalBoard.cardManager.CardSlot;
+import it.polimi.ingsw.model.personalBoard.resourceManager.Depot;
+import it.polimi.ingsw.model.personalBoard.resourceManager.ResourceManager;
+import it.polimi.ingsw.model.personalBoard.resourceManager.Warehouse;
+import it.polimi.ingsw.model.resource.ResourceType;
+import it.polimi.ingsw.model.token.Token;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static it.polimi.ingsw.model.forward.ForwardRules.*;
+
+/**
+ * CompactState is the whole state of a match in a single array of ints: the market, the blocks of the deck, the
+ * tokens and, for every seat, the faith track, the depots, the strongbox, the card slots and the leaders. Copying a
+ * state is a single array copy, and {@link #apply(int)} plays an action on it following the rules of the
+ * GameMaster without observers, messages or allocations, so a search can simulate millions of actions.
+ *
+ * The actions are the turns as the players play them, not the single messages: the resources from the market are
+ * arranged as {@link it.polimi.ingsw.model.personalBoard.resourceManager.WarehouseArrangement} does, the costs are
+ * paid emptying the warehouse first, and the ANY of a production cost are paid with the resources the player has
+ * the most of. The token shuffles of a single player game are the ones of the GameMaster with the same seed.
+ */
+public class CompactState {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private final ForwardRules rules;
+    private final int[] data;
+
+    //the buffers of the forward model, they are not part of the state
+    private final int[] total = new int[TYPES];
+    private final int[] cost = new int[RESOURCES];
+    private final int[] gain = new int[RESOURCES];
+    private final int[] owned = new int[TYPES];
+    private final int[] available = new int[TYPES];
+    private final int[] leaderCapacity = new int[TYPES];
+    private final int[] capacity = new int[TYPES];
+    private final int[] choice;
+    private final int[] bestChoice;
+    private final int[] tokenBuffer;
+    private int mostKept;
+    private int bestKept;
+    private int bestUnchanged;
+    private long generator;
+
+    /**
+     * Construct an empty state.
+     * @param rules the rules of the match.
+     */
+    public CompactState(ForwardRules rules) {
+        this.rules = rules;
+        data = new int[rules.size];
+        choice = new int[rules.normalCapacity.length];
+        bestChoice = new int[rules.normalCapacity.length];
+        tokenBuffer = new int[rules.tokens];
+    }
+
+    /**
+     * Build the state of a match between two turns or at the start of a turn.
+     * @param rules the rules of the match.
+     * @param gameMaster the game master of the match.
+     * @return the state of the match.
+     * @throws IllegalStateException if the match hasn't started or the current player is in the middle of an action.
+     * @throws IllegalArgumentException if the rules are not the ones of the match.
+     */
+    public static CompactState fromGameMaster(ForwardRules rules, GameMaster gameMaster) {
+        List<String> players = gameMaster.getPlayersTurn();
+        if (players.size() != rules.seats)
+            throw new IllegalArgumentException("The rules are for " + rules.seats + " seats");
+        if (gameMaster.getCurrentPlayer() == null)
+            throw new IllegalStateException("The match hasn't started");
+        CompactState state = new CompactState(rules);
+        int[] data = state.data;
+
+        PlayerState playerState = gameMaster.getPlayerState();
+        if (gameMaster.isGameEnded())
+            data[PHASE] = PHASE_ENDED;
+        else if (playerState == PlayerState.LEADER_MANAGE_BEFORE)
+            data[PHASE] = PHASE_BEFORE;
+        else if (playerState == PlayerState.LEADER_MANAGE_AFTER)
+            data[PHASE] = PHASE_AFTER;
+        else
+            throw new IllegalStateException("The current player is in the middle of an action: " + playerState);
+        data[CURRENT] = players.indexOf(gameMaster.getCurrentPlayer());
+        data[LAST_TURN] = gameMaster.isLastTurn() ? 1 : 0;
+        data[VATICAN] = gameMaster.getVaticanReportReached();
+        data[SEED_HIGH] = (int) (gameMaster.getSeed() >>> 32);
+        data[SEED_LOW] = (int) gameMaster.getSeed();
+        data[SHUFFLES] = gameMaster.getTokenShuffles();
+
+        byte[] tray = new byte[rules.rows * rules.columns];
+        gameMaster.getMarket().copyTray(tray);
+        for (int i = 0; i < tray.length; i++)
+            data[rules.market + i] = tray[i];
+        data[MARBLE_TO_INSERT] = gameMaster.getMarket().getMarbleToInsert();
+
+        DevelopmentDeck deck = gameMaster.getDeckDevelopment();
+        for (int row = 0; row < rules.rows; row++){
+            for (int col = 0; col < rules.columns; col++){
+                int cell = row * rules.columns + col;
+                data[rules.deckHeights + cell] = deck.size(row, col);
+                for (int k = 0; k < deck.size(row, col); k++)
+                    data[rules.deckStacks + cell * rules.depth + k] = deck.get(row, col, k).getId();
+            }
+        }
+
+        List<Token> tokens = gameMaster.getDeckToken();
+        for (int i = 0; i < tokens.size(); i++)
+            data[rules.tokenDeck + i] = encodeToken(tokens.get(i));
+
+        for (int seat = 0; seat < rules.seats; seat++)
+            state.loadSeat(seat, gameMaster.getPlayerPersonalBoard(players.get(seat)));
+        return state;
+    }
+
+    /**
+     * Copy the personal board of a player in its seat.
+     * @param seat the seat of the player.
+     * @param personalBoard the personal board of the player.
+     */
+    private void loadSeat(int seat, PersonalBoard personalBoard){
+        int base = seatOf(seat);
+        data[base + FAITH_POSITION] = personalBoard.getFaithTrack().getCurrentPositionOnTrack();
+        data[base + FAITH_VP] = personalBoard.getFaithTrack().getVictoryPoints();
+        data[base + POPE_VP] = personalBoard.getFaithTrack().getPopeFavorVP();
+
+        ResourceManager resourceManager = personalBoard.getResourceManager();
+        Warehouse warehouse = resourceManager.getWarehouse();
+        for (int i = 0; i < rules.normalCapacity.length; i++){
+            Depot depot = warehouse.getDepot(i, true);
+            boolean empty = depot.getResourceValue() == 0;
+            data[base + DEPOT_TYPE + i] = empty ? NONE : depot.getResourceType().ordinal();
+            data[base + rules.depotAmount + i] = empty ? 0 : depot.getResourceValue();
+        }
+        if (warehouse.howManyDepots(false) > rules.maxLeaderDepots)
+            throw new IllegalArgumentException("The rules allow " + rules.maxLeaderDepots + " leader depots");
+        data[base + LEADER_DEPOTS] = warehouse.howManyDepots(false);
+        for (int k = 0; k < warehouse.howManyDepots(false); k++){
+            Depot depot = warehouse.getDepot(k, false);
+            int index = base + rules.leaderDepot + k * 3;
+            data[index] = depot.getResourceType().ordinal();
+            data[index + 1] = depot.getMaxStorable();
+            data[index + 2] = depot.getResourceValue();
+        }
+        for (ResourceType type : ResourceType.values()){
+            if (type.ordinal() < TYPES)
+                data[base + STRONGBOX + type.ordinal()] = resourceManager.getStrongbox().howManyDoIHave(type);
+        }
+
+        CardManager cardManager = personalBoard.getCardManager();
+        for (int i = 0; i < rules.slots; i++){
+            CardSlot cardSlot = cardManager.getCardSlot(i);
+            data[base + rules.slotHeight + i] = cardSlot.getLvReached();
+            for (int k = 0; k < cardSlot.getLvReached(); k++){
+                int id = cardSlot.getDevelopment(k).getId();
+                data[base + rules.slotCards + i * SLOT_LEVELS + k] = id;
+                countDevelopment(base, id);
+            }
+        }
+        List<Leader> leaders = cardManager.getLeaders();
+        if (leaders.size() > rules.leaderSlots)
+            throw new IllegalArgumentException("The rules allow " + rules.leaderSlots + " leaders");
+        for (int i = 0; i < rules.leaderSlots; i++){
+            if (i >= leaders.size()){
+                data[base + rules.leaders + i] = NONE;
+                continue;
+            }
+            int id = leaders.get(i).getId();
+            data[base + rules.leaders + i] = id;
+            if (leaders.get(i).isActive()){
+                data[base + ACTIVE] |= 1 << i;
+                for (int t = 0; t < TYPES; t++)
+                    data[base + DISCOUNT + t] += rules.leaderDiscount[id * TYPES + t];
+            }
+        }
+    }
+
+    /**
+     * Return a copy of the state, sharing its rules.
+     * @return a copy of the state.
+     */
+    public CompactState copy(){
+        CompactState copy = new CompactState(rules);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrite the state with another one of the same match, without allocating anything.
+     * @param other the state to copy.
+     */
+    public void copyFrom(CompactState other){
+        System.arraycopy(other.data, 0, data, 0, data.length);
+    }
+
+    /**
+     * Return the rules of the match.
+     * @return the rules of the match.
+     */
+    public ForwardRules getRules() {
+        return rules;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+    //ACTIONS
+
+    /**
+     * Write the legal actions of the current player in an array.
+     * @param actions the array, at least {@link ForwardRules#getActionCount()} long.
+     * @return the number of legal actions written.
+     */
+    public int legalActions(int[] actions){
+        int count = 0;
+        int phase = data[PHASE];
+        if (phase == PHASE_ENDED)
+            return 0;
+        if (phase == PHASE_AFTER)
+            actions[count++] = END_TURN;
+        int seat = data[CURRENT];
+        //the checks of the leaders, the cards and the productions share the resources of the player
+        totals(seat);
+        for (int i = 0; i < rules.leaderSlots; i++){
+            if (canActivate(seat, i))
+                actions[count++] = rules.activateBase + i;
+        }
+        for (int i = 0; i < rules.leaderSlots; i++){
+            if (canDiscard(seat, i))
+                actions[count++] = rules.discardBase + i;
+        }
+        if (phase != PHASE_BEFORE)
+            return count;
+        for (int line = 0; line < rules.lines; line++){
+            for (int white = 0; white < rules.whiteChoices; white++){
+                if (canMarket(seat, line, white))
+                    actions[count++] = rules.marketBase + line * rules.whiteChoices + white;
+            }
+        }
+        for (int cell = 0; cell < rules.rows * rules.columns; cell++){
+            int id = topOf(cell);
+            //the price is checked once for all the slots
+            boolean checked = false;
+            for (int slot = 0; slot < rules.slots && id != NONE; slot++){
+                if (!fits(seat, id, slot))
+                    continue;
+                if (!checked && !canPay(seat, id))
+                    break;
+                checked = true;
+                actions[count++] = rules.buyBase + cell * rules.slots + slot;
+            }
+        }
+        int usable = usableProductions(seat);
+        for (int mask = usable; mask != 0; mask = (mask - 1) & usable){
+            if (!sumProduction(seat, mask))
+                continue;
+            int profits = gain[ANY] > 0 ? TYPES : 1;
+            for (int type = 0; type < profits; type++)
+                actions[count++] = rules.produceBase + mask * TYPES + type;
+        }
+        return count;
+    }
+
+    /**
+     * Play an action of the current player.
+     * @param action the action.
+     * @return true if the action has been played, false if it's not legal and the state is unchanged.
+     */
+    public boolean apply(int action){
+        int phase = data[PHASE];
+        int seat = data[CURRENT];
+        if (phase == PHASE_ENDED || action < 0 || action >= rules.actionCount)
+            return false;
+        if (action == END_TURN){
+            if (phase != PHASE_AFTER)
+                return false;
+            endTurn();
+            return true;
+        }
+        totals(seat);
+        if (action < rules.discardBase){
+            int leader = action - rules.activateBase;
+            if (!canActivate(seat, leader))
+                return false;
+            activate(seat, leader);
+            return true;
+        }
+        if (action < rules.marketBase){
+            int leader = action - rules.discardBase;
+            if (!canDiscard(seat, leader))
+                return false;
+            data[seatOf(seat) + rules.leaders + leader] = NONE;
+            movePlayer(seat, 1);
+            return true;
+        }
+        if (phase != PHASE_BEFORE)
+            return false;
+        if (action < rules.buyBase){
+            int line = (action - rules.marketBase) / rules.whiteChoices;
+            int white = (action - rules.marketBase) % rules.whiteChoices;
+            if (!canMarket(seat, line, white))
+                return false;
+            market(seat, line, white);
+        }else if (action < rules.produceBase){
+            int cell = (action - rules.buyBase) / rules.slots;
+            int slot = (action - rules.buyBase) % rules.slots;
+            if (!canBuy(seat, cell, slot))
+                return false;
+            buy(seat, cell, slot);
+        }else{
+            int mask = (action - rules.produceBase) / TYPES;
+            int anyProfit = (action - rules.produceBase) % TYPES;
+            if ((mask & ~usableProductions(seat)) != 0 || mask == 0 || !sumProduction(seat, mask)
+                    || (gain[ANY] == 0 && anyProfit != 0))
+                return false;
+            produce(seat, anyProfit);
+        }
+        data[PHASE] = PHASE_AFTER;
+        return true;
+    }
+
+    /**
+     * Pass the turn to the next player, in a single player game LorenzoIlMagnifico draws a token first.
+     */
+    private void endTurn(){
+        if (rules.lorenzo != NONE){
+            drawToken();
+            data[CURRENT] = 0;
+        }else{
+            data[CURRENT] = (data[CURRENT] + 1) % rules.numberOfPlayer;
+        }
+        data[PHASE] = data[LAST_TURN] == 1 && data[CURRENT] == 0 ? PHASE_ENDED : PHASE_BEFORE;
+    }
+
+    /**
+     * Return true if a leader can be activated.
+     * The resources of the player must be in total.
+     * @param seat the seat of the player.
+     * @param leader the index of the leader.
+     * @return true if the leader is in the hand, not active and its requirements are satisfied.
+     */
+    private boolean canActivate(int seat, int leader){
+        int base = seatOf(seat);
+        int id = data[base + rules.leaders + leader];
+        if (id == NONE || (data[base + ACTIVE] & (1 << leader)) != 0)
+            return false;
+        for (int i = 0; i < COLORS * LEVELS; i++){
+            if (rules.leaderCardReq[id * COLORS * LEVELS + i] > data[base + rules.devOwned + i])
+                return false;
+        }
+        for (int t = 0; t < TYPES; t++){
+            if (rules.leaderResourceReq[id * TYPES + t] > total[t])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Activate a leader and apply its creation effects.
+     * @param seat the seat of the player.
+     * @param leader the index of the leader.
+     */
+    private void activate(int seat, int leader){
+        int base = seatOf(seat);
+        int id = data[base + rules.leaders + leader];
+        data[base + ACTIVE] |= 1 << leader;
+        for (int t = 0; t < TYPES; t++)
+            data[base + DISCOUNT + t] += rules.leaderDiscount[id * TYPES + t];
+        for (int k = 0; k < rules.leaderDepotCount[id]; k++){
+            int index = base + rules.leaderDepot + data[base + LEADER_DEPOTS] * 3;
+            data[index] = rules.leaderDepots[(id * rules.depotsPerLeader + k) * 2];
+            data[index + 1] = rules.leaderDepots[(id * rules.depotsPerLeader + k) * 2 + 1];
+            data[index + 2] = 0;
+            data[base + LEADER_DEPOTS]++;
+        }
+    }
+
+    /**
+     * Return true if a leader can be discarded.
+     * @param seat the seat of the player.
+     * @param leader the index of the leader.
+     * @return true if the leader is in the hand and not active.
+     */
+    private boolean canDiscard(int seat, int leader){
+        int base = seatOf(seat);
+        return data[base + rules.leaders + leader] != NONE && (data[base + ACTIVE] & (1 << leader)) == 0;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+    //MARKET
+
+    /**
+     * Return true if the marble can be inserted in a line with that choice of the leader for the white marbles.
+     * The choice must be 0 unless the player has more leaders that convert the white marbles and the line has some.
+     * @param seat the seat of the player.
+     * @param line the line of the market.
+     * @param white the index of the leader that converts the white marbles.
+     * @return true if the action is legal.
+     */
+    private boolean canMarket(int seat, int line, int white){
+        if (line >= rules.lines)
+            return false;
+        if (marbleEffects(seat) < 2 || whitesIn(line) == 0)
+            return white == 0;
+        int base = seatOf(seat);
+        int id = data[base + rules.leaders + white];
+        return id != NONE && (data[base + ACTIVE] & (1 << white)) != 0 && rules.leaderMarbles[id] > 0;
+    }
+
+    /**
+     * Return the number of marble effects of the active leaders of a player.
+     * @param seat the seat of the player.
+     * @return the number of marble effects.
+     */
+    private int marbleEffects(int seat){
+        int base = seatOf(seat);
+        int effects = 0;
+        for (int i = 0; i < rules.leaderSlots; i++){
+            int id = data[base + rules.leaders + i];
+            if (id != NONE && (data[base + ACTIVE] & (1 << i)) != 0)
+                effects += rules.leaderMarbles[id];
+        }
+        return effects;
+    }
+
+    /**
+     * Return the number of white marbles of a line.
+     * @param line the line of the market.
+     * @return the number of white marbles.
+     */
+    private int whitesIn(int line){
+        int whites = 0;
+        int first = line < rules.rows ? line * rules.columns : line - rules.rows;
+        int step = line < rules.rows ? 1 : rules.columns;
+        int length = line < rules.rows ? rules.columns : rules.rows;
+        for (int i = 0; i < length; i++){
+            if (rules.marbleResource[data[rules.market + first + i * step]] == NONE)
+                whites++;
+        }
+        return whites;
+    }
+
+    /**
+     * Insert the marble in a line, arrange the resources in the warehouse, give a faith point to the other players
+     * for every resource discarded and then move the player by the faith drawn.
+     * @param seat the seat of the player.
+     * @param line the line of the market.
+     * @param white the index of the leader that converts the white marbles.
+     */
+    private void market(int seat, int line, int white){
+        Arrays.fill(gain, 0);
+        int first = line < rules.rows ? line * rules.columns : line - rules.rows;
+        int step = line < rules.rows ? 1 : rules.columns;
+        int length = line < rules.rows ? rules.columns : rules.rows;
+        int whites = 0;
+        for (int i = 0; i < length; i++){
+            int resource = rules.marbleResource[data[rules.market + first + i * step]];
+            if (resource == NONE) whites++;
+            else gain[resource]++;
+        }
+        //the line slides towards its start and the marble to insert enters at its end
+        int out = data[rules.market + first];
+        for (int i = 0; i < length - 1; i++)
+            data[rules.market + first + i * step] = data[rules.market + first + (i + 1) * step];
+        data[rules.market + first + (length - 1) * step] = data[MARBLE_TO_INSERT];
+        data[MARBLE_TO_INSERT] = out;
+
+        int effects = marbleEffects(seat);
+        if (whites > 0 && effects > 0){
+            int base = seatOf(seat);
+            int converter = white;
+            if (effects == 1){
+                for (int i = 0; i < rules.leaderSlots; i++){
+                    int id = data[base + rules.leaders + i];
+                    if (id != NONE && (data[base + ACTIVE] & (1 << i)) != 0 && rules.leaderMarbles[id] > 0)
+                        converter = i;
+                }
+            }
+            int id = data[base + rules.leaders + converter];
+            for (int r = 0; r < RESOURCES; r++)
+                gain[r] += rules.leaderMarble[id * RESOURCES + r] * whites;
+        }
+        int faith = gain[FAITH];
+        int discarded = arrange(seat);
+        discardResources(seat, discarded);
+        movePlayer(seat, faith);
+    }
+
+    /**
+     * Arrange the warehouse of a player with the concrete resources of gain, as WarehouseArrangement.best does: every
+     * choice of the types of the normal depots is tried, the ones that can't store the resources already owned are
+     * rejected, and the one that keeps the most resources changing fewer depots wins. The leader depots are filled
+     * first.
+     * @param seat the seat of the player.
+     * @return the number of resources of gain discarded.
+     */
+    private int arrange(int seat){
+        int base = seatOf(seat);
+        Arrays.fill(owned, 0);
+        Arrays.fill(leaderCapacity, 0);
+        for (int i = 0; i < rules.normalCapacity.length; i++){
+            int type = data[base + DEPOT_TYPE + i];
+            if (type != NONE) owned[type] += data[base + rules.depotAmount + i];
+        }
+        for (int k = 0; k < data[base + LEADER_DEPOTS]; k++){
+            int index = base + rules.leaderDepot + k * 3;
+            owned[data[index]] += data[index + 2];
+            leaderCapacity[data[index]] += data[index + 1];
+        }
+        mostKept = 0;
+        for (int t = 0; t < TYPES; t++){
+            available[t] = owned[t] + gain[t];
+            mostKept += available[t];
+        }
+        bestKept = -1;
+        bestUnchanged = -1;
+        //the current types are the only choice with every depot unchanged, so trying them first doesn't change
+        //the result, and when they keep everything no other choice can be better
+        for (int i = 0; i < choice.length; i++)
+            choice[i] = data[base + DEPOT_TYPE + i];
+        evaluate(choice.length);
+        visit(base, 0, 0, 0);
+
+        //available becomes what is left to place
+        for (int k = 0; k < data[base + LEADER_DEPOTS]; k++){
+            int index = base + rules.leaderDepot + k * 3;
+            int value = Math.min(available[data[index]], data[index + 1]);
+            available[data[index]] -= value;
+            data[index + 2] = value;
+        }
+        for (int i = 0; i < bestChoice.length; i++){
+            int type = bestChoice[i];
+            int value = type == NONE ? 0 : Math.min(available[type], rules.normalCapacity[i]);
+            if (value == 0){
+                data[base + DEPOT_TYPE + i] = NONE;
+                data[base + rules.depotAmount + i] = 0;
+            }else{
+                available[type] -= value;
+                data[base + DEPOT_TYPE + i] = type;
+                data[base + rules.depotAmount + i] = value;
+            }
+        }
+        int discarded = 0;
+        for (int t = 0; t < TYPES; t++)
+            discarded += Math.min(available[t], gain[t]);
+        return discarded;
+    }
+
+    /**
+     * Give a type to a normal depot and go on with the next one, evaluating the choice when all depots have a type.
+     * The choices that can't keep more resources or change fewer depots than the best one are skipped.
+     * @param base the index of the seat.
+     * @param depot the depot.
+     * @param usedTypes the types already given, a bit for every type.
+     * @param unchanged the number of depots before this one that keep their type.
+     */
+    private void visit(int base, int depot, int usedTypes, int unchanged){
+        if (bestKept == mostKept && unchanged + choice.length - depot <= bestUnchanged)
+            return;
+        if (depot == choice.length){
+            evaluate(unchanged);
+            return;
+        }
+        int current = data[base + DEPOT_TYPE + depot];
+        choice[depot] = NONE;
+        visit(base, depot + 1, usedTypes, current == NONE ? unchanged + 1 : unchanged);
+        for (int t = 0; t < TYPES; t++){
+            if ((usedTypes & (1 << t)) != 0 || available[t] == 0)
+                continue;
+            choice[depot] = t;
+            visit(base, depot + 1, usedTypes | (1 << t), current == t ? unchanged + 1 : unchanged);
+        }
+    }
+
+    /**
+     * Keep the choice if it stores all the resources already owned and it's better than the best one.
+     * @param unchanged the number of depots that keep their type.
+     */
+    private void evaluate(int unchanged){
+        System.arraycopy(leaderCapacity, 0, capacity, 0, TYPES);
+        for (int i = 0; i < choice.length; i++){
+            if (choice[i] != NONE) capacity[choice[i]] += rules.normalCapacity[i];
+        }
+        int kept = 0;
+        for (int t = 0; t < TYPES; t++){
+            if (capacity[t] < owned[t]) return;
+            kept += Math.min(capacity[t], available[t]);
+        }
+        if (kept > bestKept || (kept == bestKept && unchanged > bestUnchanged)){
+            bestKept = kept;
+            bestUnchanged = unchanged;
+            System.arraycopy(choice, 0, bestChoice, 0, choice.length);
+        }
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+    //DEVELOPMENT CARDS
+
+    /**
+     * Return true if the card on the top of a block can be bought and placed in a slot.
+     * The resources of the player must be in total.
+     * @param seat the seat of the player.
+     * @param cell the block of the deck, row * columns + column.
+     * @param slot the card slot.
+     * @return true if the block has a card of the next level of the slot and the player can pay it.
+     */
+    private boolean canBuy(int seat, int cell, int slot){
+        int id = topOf(cell);
+        return id != NONE && fits(seat, id, slot) && canPay(seat, id);
+    }
+
+    /**
+     * Return the card on the top of a block.
+     * @param cell the block of the deck.
+     * @return the id of the card, -1 if the block is empty.
+     */
+    private int topOf(int cell){
+        int height = data[rules.deckHeights + cell];
+        return height == 0 ? NONE : data[rules.deckStacks + cell * rules.depth + height - 1];
+    }
+
+    /**
+     * Return true if a card is of the next level of a slot.
+     * @param seat the seat of the player.
+     * @param id the id of the card.
+     * @param slot the card slot.
+     * @return true if the card can be placed in the slot.
+     */
+    private boolean fits(int seat, int id, int slot){
+        return rules.devLevel[id] == data[seatOf(seat) + rules.slotHeight + slot] + 1;
+    }
+
+    /**
+     * Return true if a player can pay a card with the discounts of the leaders.
+     * The resources of the player must be in total.
+     * @param seat the seat of the player.
+     * @param id the id of the card.
+     * @return true if the player owns the resources of the cost.
+     */
+    private boolean canPay(int seat, int id){
+        int base = seatOf(seat);
+        for (int t = 0; t < TYPES; t++){
+            int price = Math.max(rules.devCost[id * TYPES + t] - data[base + DISCOUNT + t], 0);
+            if (price > total[t])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Buy the card on the top of a block and place it in a slot.
+     * @param seat the seat of the player.
+     * @param cell the block of the deck.
+     * @param slot the card slot.
+     */
+    private void buy(int seat, int cell, int slot){
+        int base = seatOf(seat);
+        int height = data[rules.deckHeights + cell];
+        int id = data[rules.deckStacks + cell * rules.depth + height - 1];
+        for (int t = 0; t < TYPES; t++)
+            pay(base, t, Math.max(rules.devCost[id * TYPES + t] - data[base + DISCOUNT + t], 0));
+        int level = data[base + rules.slotHeight + slot];
+        data[base + rules.slotCards + slot * SLOT_LEVELS + level] = id;
+        data[base + rules.slotHeight + slot] = level + 1;
+        countDevelopment(base, id);
+        data[rules.deckHeights + cell] = height - 1;
+        //no id is left above the top of a block, so the same match always has the same state
+        data[rules.deckStacks + cell * rules.depth + height - 1] = 0;
+        if (data[base + rules.devOwned + ANY_COLOR * LEVELS] == 7)
+            data[LAST_TURN] = 1;
+    }
+
+    /**
+     * Count a development card in the cards owned by a player.
+     * @param base the index of the seat.
+     * @param id the id of the card.
+     */
+    private void countDevelopment(int base, int id){
+        int color = rules.devColor[id];
+        int level = rules.devLevel[id];
+        data[base + rules.devOwned + color * LEVELS + level]++;
+        data[base + rules.devOwned + color * LEVELS]++;
+        data[base + rules.devOwned + ANY_COLOR * LEVELS + level]++;
+        data[base + rules.devOwned + ANY_COLOR * LEVELS]++;
+        data[base + DEV_VP] += rules.devVP[id];
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+    //PRODUCTION
+
+    /**
+     * Return the productions a player has: the cards on the top of the slots, the base production and the active
+     * leaders with a production.
+     * @param seat the seat of the player.
+     * @return the productions as a mask.
+     */
+    private int usableProductions(int seat){
+        int base = seatOf(seat);
+        int mask = 0;
+        for (int i = 0; i < rules.slots; i++){
+            if (data[base + rules.slotHeight + i] > 0)
+                mask |= 1 << i;
+        }
+        mask |= 1 << rules.slots;
+        for (int i = 0; i < rules.leaderSlots; i++){
+            int id = data[base + rules.leaders + i];
+            if (id != NONE && (data[base + ACTIVE] & (1 << i)) != 0 && rules.leaderProduces[id])
+                mask |= 1 << (rules.slots + BASE_PRODUCTIONS + i);
+        }
+        return mask;
+    }
+
+    /**
+     * Sum the cost and the profit of some productions in cost and gain and check that the player can pay them.
+     * The resources of the player must be in total.
+     * @param seat the seat of the player.
+     * @param mask the productions.
+     * @return true if the player owns the resources of the cost.
+     */
+    private boolean sumProduction(int seat, int mask){
+        int base = seatOf(seat);
+        Arrays.fill(cost, 0);
+        Arrays.fill(gain, 0);
+        for (int i = 0; i < rules.slots; i++){
+            if ((mask & (1 << i)) == 0)
+                continue;
+            int top = data[base + rules.slotCards + i * SLOT_LEVELS + data[base + rules.slotHeight + i] - 1];
+            addProduction(rules.devProduction, top * RESOURCES * 2);
+        }
+        if ((mask & (1 << rules.slots)) != 0)
+            addProduction(rules.baseProduction, 0);
+        for (int i = 0; i < rules.leaderSlots; i++){
+            if ((mask & (1 << (rules.slots + BASE_PRODUCTIONS + i))) != 0)
+                addProduction(rules.leaderProduction, data[base + rules.leaders + i] * RESOURCES * 2);
+        }
+        int extra = 0;
+        for (int t = 0; t < TYPES; t++){
+            if (cost[t] > total[t])
+                return false;
+            extra += total[t] - cost[t];
+        }
+        return extra >= cost[ANY];
+    }
+
+    /**
+     * Add a production to cost and gain.
+     * @param table the table of the production.
+     * @param offset the index of the production in the table.
+     */
+    private void addProduction(int[] table, int offset){
+        for (int r = 0; r < RESOURCES; r++){
+            cost[r] += table[offset + r];
+            gain[r] += table[offset + RESOURCES + r];
+        }
+    }
+
+    /**
+     * Pay the productions summed by sumProduction, put their profit in the strongbox and move the player by their
+     * faith.
+     * @param seat the seat of the player.
+     * @param anyProfit the resource given for every ANY of the profit.
+     */
+    private void produce(int seat, int anyProfit){
+        int base = seatOf(seat);
+        //every ANY of the cost is paid with the resource the player has the most of
+        for (int k = 0; k < cost[ANY]; k++){
+            int most = 0;
+            for (int t = 1; t < TYPES; t++){
+                if (total[t] - cost[t] > total[most] - cost[most])
+                    most = t;
+            }
+            cost[most]++;
+        }
+        for (int t = 0; t < TYPES; t++){
+            pay(base, t, cost[t]);
+            data[base + STRONGBOX + t] += gain[t];
+        }
+        data[base + STRONGBOX + anyProfit] += gain[ANY];
+        movePlayer(seat, gain[FAITH]);
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+    //RESOURCES
+
+    /**
+     * Compute in total the resources a player owns.
+     * @param seat the seat of the player.
+     */
+    private void totals(int seat){
+        int base = seatOf(seat);
+        for (int t = 0; t < TYPES; t++)
+            total[t] = data[base + STRONGBOX + t];
+        for (int i = 0; i < rules.normalCapacity.length; i++){
+            int type = data[base + DEPOT_TYPE + i];
+            if (type != NONE) total[type] += data[base + rules.depotAmount + i];
+        }
+        for (int k = 0; k < data[base + LEADER_DEPOTS]; k++){
+            int index = base + rules.leaderDepot + k * 3;
+            total[data[index]] += data[index + 2];
+        }
+    }
+
+    /**
+     * Pay some resources of a type taking them from the normal depots, then from the leader depots and finally from
+     * the strongbox, as {@link it.polimi.ingsw.model.personalBoard.resourceManager.PaymentPolicy#WAREHOUSE_FIRST}.
+     * @param base the index of the seat.
+     * @param type the type of the resources.
+     * @param needed the number of resources.
+     */
+    private void pay(int base, int type, int needed){
+        for (int i = 0; i < rules.normalCapacity.length && needed > 0; i++){
+            if (data[base + DEPOT_TYPE + i] != type)
+                continue;
+            int taken = Math.min(needed, data[base + rules.depotAmount + i]);
+            data[base + rules.depotAmount + i] -= taken;
+            if (data[base + rules.depotAmount + i] == 0)
+                data[base + DEPOT_TYPE + i] = NONE;
+            needed -= taken;
+        }
+        for (int k = 0; k < data[base + LEADER_DEPOTS] && needed > 0; k++){
+            int index = base + rules.leaderDepot + k * 3;
+            if (data[index] != type)
+                continue;
+            int taken = Math.min(needed, data[index + 2]);
+            data[index + 2] -= taken;
+            needed -= taken;
+        }
+        data[base + STRONGBOX + type] -= needed;
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+    //FAITH TRACK AND TOKENS
+
+    /**
+     * Move a player forward on the faith track, doing the action of every cell reached.
+     * @param seat the seat of the player.
+     * @param positions the number of positions.
+     */
+    private void movePlayer(int seat, int positions){
+        int base = seatOf(seat);
+        for (int i = 0; i < positions && data[base + FAITH_POSITION] < rules.trackEnd; i++){
+            increasePosition(base);
+            cellAction(base);
+        }
+    }
+
+    /**
+     * Move a player one position forward, reaching the end of the track starts the last round.
+     * @param base the index of the seat.
+     */
+    private void increasePosition(int base){
+        if (data[base + FAITH_POSITION] < rules.trackEnd){
+            data[base + FAITH_POSITION]++;
+            if (data[base + FAITH_POSITION] == rules.trackEnd)
+                data[LAST_TURN] = 1;
+        }
+    }
+
+    /**
+     * Do the action of the cell of a player: take its victory points and start its vatican report.
+     * @param base the index of the seat.
+     */
+    private void cellAction(int base){
+        int position = data[base + FAITH_POSITION];
+        if (rules.cellVP[position] != NONE)
+            data[base + FAITH_VP] = rules.cellVP[position];
+        int report = rules.popeSpace[position];
+        if (report != NONE && data[VATICAN] == report){
+            for (int seat = 0; seat < rules.seats; seat++){
+                int other = seatOf(seat);
+                if (rules.reportOf[data[other + FAITH_POSITION]] == report)
+                    data[other + POPE_VP] += rules.popeFavorVP[report];
+            }
+            data[VATICAN]++;
+        }
+    }
+
+    /**
+     * Give a faith point to every other player for every resource discarded.
+     * @param seat the seat of the player who discards.
+     * @param numResources the number of resources discarded.
+     */
+    private void discardResources(int seat, int numResources){
+        for (int i = 0; i < numResources; i++){
+            for (int other = 0; other < rules.seats; other++){
+                if (other != seat) increasePosition(seatOf(other));
+            }
+            for (int other = 0; other < rules.seats; other++){
+                if (other != seat) cellAction(seatOf(other));
+            }
+        }
+    }
+
+    /**
+     * Draw the token on the top of the deck, put it back in the bottom and apply it.
+     */
+    private void drawToken(){
+        if (rules.tokens == 0)
+            return;
+        int token = data[rules.tokenDeck];
+        System.arraycopy(data, rules.tokenDeck + 1, data, rules.tokenDeck, rules.tokens - 1);
+        data[rules.tokenDeck + rules.tokens - 1] = token;
+        int first = token >>> 9;
+        int second = (token >>> 1) & 0xFF;
+        if ((token & 1) == TOKEN_CARD){
+            discardDevelopment(first, second);
+        }else{
+            movePlayer(rules.lorenzo, first);
+            if (second == 1)
+                shuffleTokens();
+        }
+    }
+
+    /**
+     * Discard the cards of a column starting from the first row, an empty column starts the last round.
+     * @param column the column of the deck.
+     * @param num the number of cards.
+     */
+    private void discardDevelopment(int column, int num){
+        for (int row = 0; row < rules.rows && num > 0; row++){
+            int cell = row * rules.columns + column;
+            while (num > 0 && data[rules.deckHeights + cell] > 0){
+                data[rules.deckHeights + cell]--;
+                data[rules.deckStacks + cell * rules.depth + data[rules.deckHeights + cell]] = 0;
+                num--;
+            }
+        }
+        for (int col = 0; col < rules.columns; col++){
+            int remaining = 0;
+            for (int row = 0; row < rules.rows; row++)
+                remaining += data[rules.deckHeights + row * rules.columns + col];
+            if (remaining == 0)
+                data[LAST_TURN] = 1;
+        }
+    }
+
+    /**
+     * Shuffle the tokens as GameMaster.shuffleToken does: Collections.shuffle with a java.util.Random seeded from the
+     * seed of the match and the number of shuffles, reproduced here so nothing is allocated.
+     */
+    private void shuffleTokens(){
+        data[SHUFFLES]++;
+        System.arraycopy(data, rules.tokenDeck, tokenBuffer, 0, rules.tokens);
+        long seed = (long) data[SEED_HIGH] << 32 | (data[SEED_LOW] & 0xFFFFFFFFL);
+        generator = (seed ^ data[SHUFFLES] * GOLDEN_GAMMA ^ MULTIPLIER) & MASK;
+        for (int i = rules.tokens; i > 1; i--){
+            int j = nextInt(i);
+            int tmp = tokenBuffer[i - 1];
+            tokenBuffer[i - 1] = tokenBuffer[j];
+            tokenBuffer[j] = tmp;
+        }
+        System.arraycopy(tokenBuffer, 0, data, rules.tokenDeck, rules.tokens);
+    }
+
+    /**
+     * Return the next int of the generator, the same of java.util.Random.nextInt(bound).
+     * @param bound the upper bound, excluded.
+     * @return a number between 0 and bound.
+     */
+    private int nextInt(int bound){
+        int r = next31();
+        int m = bound - 1;
+        if ((bound & m) == 0)
+            return (int) ((bound * (long) r) >> 31);
+        for (int u = r; u - (r = u % bound) + m < 0; u = next31());
+        return r;
+    }
+
+    /**
+     * Advance the generator and return its 31 highest bits.
+     * @return the next 31 random bits.
+     */
+    private int next31(){
+        generator = (generator * MULTIPLIER + ADDEND) & MASK;
+        return (int) (generator >>> 17);
+    }
+
+    //--------------------------------------------------------------------------------------------------------------
+    //GETTERS
+
+    /**
+     * Return the index of the first field of a seat.
+     * @param seat the seat.
+     * @return the index of the seat in data.
+     */
+    private int seatOf(int seat){
+        return rules.seatBase + seat * rules.seatSize;
+    }
+
+    /**
+     * Return the seat of the current player.
+     * @return the seat of the current player.
+     */
+    public int getCurrentSeat(){
+        return data[CURRENT];
+    }
+
+    /**
+     * Return true if the game is over.
+     * @return true if the game is over.
+     */
+    public boolean isEnded(){
+        return data[PHASE] == PHASE_ENDED;
+    }
+
+    /**
+     * Return true if the current player has already done the main action of the turn.
+     * @return true if only the leaders can be managed before the end of the turn.
+     */
+    public boolean isMainActionDone(){
+        return data[PHASE] == PHASE_AFTER;
+    }
+
+    /**
+     * Return true if the current round is the last one.
+     * @return true if the current round is the last one.
+     */
+    public boolean isLastTurn(){
+        return data[LAST_TURN] == 1;
+    }
+
+    /**
+     * Return the position of a player on the faith track.
+     * @param seat the seat of the player.
+     * @return the position on the faith track.
+     */
+    public int getFaithPosition(int seat){
+        return data[seatOf(seat) + FAITH_POSITION];
+    }
+
+    /**
+     * Return the victory points of the faith track of a player, pope favors included.
+     * @param seat the seat of the player.
+     * @return the victory points of the faith track.
+     */
+    public int getFaithVP(int seat){
+        return data[seatOf(seat) + FAITH_VP] + data[seatOf(seat) + POPE_VP];
+    }
+
+    /**
+     * Return how many resources of a type a player owns, in the warehouse and in the strongbox.
+     * @param seat the seat of the player.
+     * @param type a concrete resource type.
+     * @return the number of resources.
+     */
+    public int howManyDoIHave(int seat, ResourceType type){
+        totals(seat);
+        return total[type.ordinal()];
+    }
+
+    /**
+     * Return how many resources of a type are in the strongbox of a player.
+     * @param seat the seat of the player.
+     * @param type a concrete resource type.
+     * @return the number of resources.
+     */
+    public int getStrongbox(int seat, ResourceType type){
+        return data[seatOf(seat) + STRONGBOX + type.ordinal()];
+    }
+
+    /**
+     * Return the type of a normal depot of a player.
+     * @param seat the seat of the player.
+     * @param depot the index of the depot.
+     * @return the type of the resources of the depot, null if it's empty.
+     */
+    public ResourceType getDepotType(int seat, int depot){
+        int type = data[seatOf(seat) + DEPOT_TYPE + depot];
+        return type == NONE ? null : ResourceType.values()[type];
+    }
+
+    /**
+     * Return the number of resources in a normal depot of a player.
+     * @param seat the seat of the player.
+     * @param depot the index of the depot.
+     * @return the number of resources.
+     */
+    public int getDepotAmount(int seat, int depot){
+        return data[seatOf(seat) + rules.depotAmount + depot];
+    }
+
+    /**
+     * Return the number of development cards of a player.
+     * @param seat the seat of the player.
+     * @return the number of development cards.
+     */
+    public int getDevelopmentCount(int seat){
+        return data[seatOf(seat) + rules.devOwned + ANY_COLOR * LEVELS];
+    }
+
+    /**
+     * Return the number of cards left in a block of the deck.
+     * @param row the row of the block.
+     * @param column the column of the block.
+     * @return the number of cards.
+     */
+    public int getDeckSize(int row, int column){
+        return data[rules.deckHeights + row * rules.columns + column];
+    }
+
+    /**
+     * Return a marble of the market tray.
+     * @param row the row of the marble.
+     * @param column the column of the marble.
+     * @return the ordinal of the ColorData of the marble.
+     */
+    public int getMarble(int row, int column){
+        return data[rules.market + row * rules.columns + column];
+    }
+
+    /**
+     * Return the marble that will be inserted in the market tray.
+     * @return the ordinal of the ColorData of the marble.
+     */
+    public int getMarbleToInsert(){
+        return data[MARBLE_TO_INSERT];
+    }
+
+    /**
+     * Return the victory points of a player as GameMaster counts them at the end of the game: the development
+     * cards, the active leaders, the faith track and a point every five resources.
+     * @param seat the seat of the player.
+     * @return the victory points.
+     */
+    public int getScore(int seat){
+        int base = seatOf(seat);
+        int score = data[base + DEV_VP] + getFaithVP(seat);
+        for (int i = 0; i < rules.leaderSlots; i++){
+            int id = data[base + rules.leaders + i];
+            if (id != NONE && (data[base + ACTIVE] & (1 << i)) != 0)
+                score += rules.leaderVP[id];
+        }
+        totals(seat);
+        return score + (total[0] + total[1] + total[2] + total[3]) / 5;
+    }
+
+    /**
+     * Return the seat with the most victory points, a tie is won by the player with more resources and then by the
+     * first seat.
+     * @return the seat of the winner.
+     */
+    public int getWinner(){
+        int winner = 0;
+        int winnerScore = getScore(0);
+        int winnerResources = resourcesOf(0);
+        for (int seat = 1; seat < rules.seats; seat++){
+            int score = getScore(seat);
+            int resources = resourcesOf(seat);
+            if (score > winnerScore || (score == winnerScore && resources > winnerResources)){
+                winner = seat;
+                winnerScore = score;
+                winnerResources = resources;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * Return the number of resources of a player.
+     * @param seat the seat of the player.
+     * @return the number of resources.
+     */
+    private int resourcesOf(int seat){
+        totals(seat);
+        return total[0] + total[1] + total[2] + total[3];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompactState that = (CompactState) o;
+        return rules == that.rules && Arrays.equals(data, that.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+}
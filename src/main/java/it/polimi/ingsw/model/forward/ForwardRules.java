@@ -0,0 +1,501 @@
+package it.polimi.ingsw.model.forward;
+
+import it.polimi.ingsw.client.data.ColorData;
+import it.polimi.ingsw.model.GameMaster;
+import it.polimi.ingsw.model.card.Card;
+import it.polimi.ingsw.model.card.Color;
+import it.polimi.ingsw.model.card.Development;
+import it.polimi.ingsw.model.card.DevelopmentDeck;
+import it.polimi.ingsw.model.card.Effect.Activation.MarbleEffect;
+import it.polimi.ingsw.model.card.Effect.Activation.ProductionEffect;
+import it.polimi.ingsw.model.card.Effect.Creation.DiscountEffect;
+import it.polimi.ingsw.model.card.Effect.Creation.WarehouseEffect;
+import it.polimi.ingsw.model.card.Effect.Effect;
+import it.polimi.ingsw.model.card.Leader;
+import it.polimi.ingsw.model.card.requirement.CardReq;
+import it.polimi.ingsw.model.card.requirement.Requirement;
+import it.polimi.ingsw.model.card.requirement.ResourceReq;
+import it.polimi.ingsw.model.personalBoard.PersonalBoard;
+import it.polimi.ingsw.model.personalBoard.cardManager.CardManager;
+import it.polimi.ingsw.model.personalBoard.cardManager.CardSlot;
+import it.polimi.ingsw.model.personalBoard.faithTrack.Cell;
+import it.polimi.ingsw.model.personalBoard.faithTrack.FaithTrackLayout;
+import it.polimi.ingsw.model.personalBoard.faithTrack.NormalCell;
+import it.polimi.ingsw.model.personalBoard.faithTrack.PopeSpaceCell;
+import it.polimi.ingsw.model.personalBoard.market.Market;
+import it.polimi.ingsw.model.personalBoard.resourceManager.Warehouse;
+import it.polimi.ingsw.model.resource.Resource;
+import it.polimi.ingsw.model.resource.ResourceType;
+import it.polimi.ingsw.model.token.CardToken;
+import it.polimi.ingsw.model.token.PositionToken;
+import it.polimi.ingsw.model.token.Token;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ForwardRules is everything of a match that doesn't change while it's played: the cards, the faith track, the
+ * marbles, the layout of a {@link CompactState} and the encoding of its actions. The tables are indexed by the id
+ * of the cards, so a state only stores ids and all the states of a search share the same rules.
+ *
+ * An action is an int: {@link #END_TURN}, the activation or the discard of a leader, a line of the market, a card of
+ * the deck with its slot, or a set of productions with the resource of their ANY profits. The encoders of this class
+ * build them and {@link #describe(int)} turns them back into text.
+ */
+public class ForwardRules {
+    static final int NONE = -1;
+    static final int TYPES = 4;
+    static final int FAITH = ResourceType.FAITH.ordinal();
+    static final int ANY = ResourceType.ANY.ordinal();
+    static final int RESOURCES = ResourceType.values().length;
+    static final int COLORS = Color.values().length;
+    static final int ANY_COLOR = Color.ANY.ordinal();
+    static final int LEVELS = 4;
+    static final int SLOT_LEVELS = LEVELS - 1;
+    static final int BASE_PRODUCTIONS = 1;
+
+    static final int TOKEN_CARD = 0;
+    static final int TOKEN_MOVE = 1;
+
+    //the globals of a state
+    static final int CURRENT = 0;
+    static final int PHASE = 1;
+    static final int LAST_TURN = 2;
+    static final int VATICAN = 3;
+    static final int SEED_HIGH = 4;
+    static final int SEED_LOW = 5;
+    static final int SHUFFLES = 6;
+    static final int MARBLE_TO_INSERT = 7;
+    static final int GLOBALS = 8;
+
+    static final int PHASE_BEFORE = 0;
+    static final int PHASE_AFTER = 1;
+    static final int PHASE_ENDED = 2;
+
+    //the fields of a seat
+    static final int FAITH_POSITION = 0;
+    static final int FAITH_VP = 1;
+    static final int POPE_VP = 2;
+    static final int DEV_VP = 3;
+    static final int LEADER_DEPOTS = 4;
+    static final int ACTIVE = 5;
+    static final int STRONGBOX = 6;
+    static final int DISCOUNT = STRONGBOX + TYPES;
+    static final int DEPOT_TYPE = DISCOUNT + TYPES;
+
+    public static final int END_TURN = 0;
+
+    final int numberOfPlayer;
+    final int seats;
+    final int lorenzo;
+    final int rows;
+    final int columns;
+    final int depth;
+    final int lines;
+    final int tokens;
+    final int leaderSlots;
+    final int maxLeaderDepots;
+    final int slots;
+    final int[] normalCapacity;
+    final int[] marbleResource;
+
+    final int trackEnd;
+    final int[] cellVP;
+    final int[] popeSpace;
+    final int[] reportOf;
+    final int[] popeFavorVP;
+
+    final int[] devLevel;
+    final int[] devColor;
+    final int[] devVP;
+    final int[] devCost;
+    final int[] devProduction;
+    final int[] baseProduction;
+
+    final int[] leaderVP;
+    final int[] leaderCardReq;
+    final int[] leaderResourceReq;
+    final int[] leaderDiscount;
+    final int[] leaderDepotCount;
+    final int depotsPerLeader;
+    final int[] leaderDepots;
+    final int[] leaderMarbles;
+    final int[] leaderMarble;
+    final boolean[] leaderProduces;
+    final int[] leaderProduction;
+
+    final int market;
+    final int deckHeights;
+    final int deckStacks;
+    final int tokenDeck;
+    final int seatBase;
+    final int depotAmount;
+    final int leaderDepot;
+    final int slotHeight;
+    final int slotCards;
+    final int devOwned;
+    final int leaders;
+    final int seatSize;
+    final int size;
+
+    final int activateBase;
+    final int discardBase;
+    final int marketBase;
+    final int whiteChoices;
+    final int buyBase;
+    final int produceBase;
+    final int productions;
+    final int actionCount;
+
+    /**
+     * Construct the rules of a match. The cards are the ones of the deck and of the boards of the players, so the
+     * rules can be built at any time of the match, and every state of the match can then use them.
+     * @param gameMaster the game master of the match.
+     */
+    public ForwardRules(GameMaster gameMaster) {
+        List<String> players = gameMaster.getPlayersTurn();
+        numberOfPlayer = gameMaster.getNumberOfPlayer();
+        seats = players.size();
+        lorenzo = numberOfPlayer == 1 ? players.indexOf(GameMaster.getNameLorenzo()) : NONE;
+
+        Market gameMarket = gameMaster.getMarket();
+        rows = gameMarket.getNumRow();
+        columns = gameMarket.getNumCol();
+        lines = rows + columns;
+        marbleResource = new int[ColorData.values().length];
+        for (byte marble = 0; marble < marbleResource.length; marble++){
+            ResourceType type = Market.resourceOf(marble);
+            marbleResource[marble] = type == null ? NONE : type.ordinal();
+        }
+
+        DevelopmentDeck deck = gameMaster.getDeckDevelopment();
+        depth = deck.getDepth();
+        tokens = gameMaster.getDeckToken().size();
+
+        PersonalBoard firstBoard = gameMaster.getPlayerPersonalBoard(players.get(0));
+        Warehouse warehouse = firstBoard.getResourceManager().getWarehouse();
+        normalCapacity = new int[warehouse.howManyDepots(true)];
+        for (int i = 0; i < normalCapacity.length; i++)
+            normalCapacity[i] = warehouse.getDepot(i, true).getMaxStorable();
+        slots = firstBoard.getCardManager().howManyCardSlots();
+
+        FaithTrackLayout layout = firstBoard.getFaithTrack().getLayout();
+        trackEnd = layout.size() - 1;
+        cellVP = new int[layout.size()];
+        popeSpace = new int[layout.size()];
+        reportOf = new int[layout.size()];
+        for (int i = 0; i < layout.size(); i++){
+            Cell cell = layout.getCell(i);
+            int victoryPoints = cell.toData().getVictoryPoints();
+            //a normal cell and a pope space without points don't change the points of the player
+            cellVP[i] = cell instanceof NormalCell || victoryPoints == -1 ? NONE : victoryPoints;
+            popeSpace[i] = cell instanceof PopeSpaceCell ? cell.getIdVaticanReport() : NONE;
+            reportOf[i] = cell.getIdVaticanReport();
+        }
+        popeFavorVP = new int[layout.numberOfVaticanReports()];
+        for (int i = 0; i < popeFavorVP.length; i++)
+            popeFavorVP[i] = layout.getPopeFavorVP(i);
+
+        //every development card of the match, in the deck and in the slots
+        ArrayList<Development> developments = new ArrayList<>();
+        ArrayList<Leader> allLeaders = new ArrayList<>();
+        int mostLeaders = 0;
+        for (int row = 0; row < deck.getRows(); row++){
+            for (int col = 0; col < deck.getColumns(); col++){
+                for (int k = 0; k < deck.size(row, col); k++)
+                    developments.add(deck.get(row, col, k));
+            }
+        }
+        for (String player : players){
+            CardManager cardManager = gameMaster.getPlayerPersonalBoard(player).getCardManager();
+            for (int i = 0; i < cardManager.howManyCardSlots(); i++){
+                CardSlot cardSlot = cardManager.getCardSlot(i);
+                for (int k = 0; k < cardSlot.getLvReached(); k++)
+                    developments.add(cardSlot.getDevelopment(k));
+            }
+            allLeaders.addAll(cardManager.getLeaders());
+            mostLeaders = Math.max(mostLeaders, cardManager.getLeaders().size());
+        }
+        leaderSlots = mostLeaders;
+
+        int devIds = developments.stream().mapToInt(Card::getId).max().orElse(0) + 1;
+        devLevel = new int[devIds];
+        devColor = new int[devIds];
+        devVP = new int[devIds];
+        devCost = new int[devIds * TYPES];
+        devProduction = new int[devIds * RESOURCES * 2];
+        for (Development development : developments){
+            int id = development.getId();
+            devLevel[id] = development.getLevel();
+            devColor[id] = development.getColor().ordinal();
+            devVP[id] = development.getVictoryPoints();
+            for (Requirement requirement : development.getRequirements()){
+                if (requirement instanceof ResourceReq)
+                    addResources(((ResourceReq) requirement).getResourceReq(), devCost, id * TYPES);
+            }
+            addProduction(development.getOnActivationEffects(), devProduction, id * RESOURCES * 2);
+        }
+        baseProduction = new int[RESOURCES * 2];
+        addProduction(firstBoard.getCardManager().getBaseProduction().getOnActivationEffects(), baseProduction, 0);
+
+        int leaderIds = allLeaders.stream().mapToInt(Card::getId).max().orElse(0) + 1;
+        int mostDepots = 0;
+        for (Leader leader : allLeaders){
+            int depots = 0;
+            for (Effect effect : leader.getOnCreationEffect()){
+                if (effect instanceof WarehouseEffect)
+                    depots += ((WarehouseEffect) effect).getDepots().size();
+            }
+            mostDepots = Math.max(mostDepots, depots);
+        }
+        depotsPerLeader = mostDepots;
+        maxLeaderDepots = leaderSlots * depotsPerLeader;
+        leaderVP = new int[leaderIds];
+        leaderCardReq = new int[leaderIds * COLORS * LEVELS];
+        leaderResourceReq = new int[leaderIds * TYPES];
+        leaderDiscount = new int[leaderIds * TYPES];
+        leaderDepotCount = new int[leaderIds];
+        leaderDepots = new int[leaderIds * Math.max(depotsPerLeader, 1) * 2];
+        leaderMarbles = new int[leaderIds];
+        leaderMarble = new int[leaderIds * RESOURCES];
+        leaderProduces = new boolean[leaderIds];
+        leaderProduction = new int[leaderIds * RESOURCES * 2];
+        for (Leader leader : allLeaders)
+            addLeader(leader);
+
+        //the layout of a state
+        market = GLOBALS;
+        deckHeights = market + rows * columns;
+        deckStacks = deckHeights + rows * columns;
+        tokenDeck = deckStacks + rows * columns * depth;
+        seatBase = tokenDeck + tokens;
+        depotAmount = DEPOT_TYPE + normalCapacity.length;
+        leaderDepot = depotAmount + normalCapacity.length;
+        slotHeight = leaderDepot + maxLeaderDepots * 3;
+        slotCards = slotHeight + slots;
+        devOwned = slotCards + slots * SLOT_LEVELS;
+        leaders = devOwned + COLORS * LEVELS;
+        seatSize = leaders + leaderSlots;
+        size = seatBase + seats * seatSize;
+
+        //the encoding of the actions
+        activateBase = END_TURN + 1;
+        discardBase = activateBase + leaderSlots;
+        marketBase = discardBase + leaderSlots;
+        whiteChoices = Math.max(leaderSlots, 1);
+        buyBase = marketBase + lines * whiteChoices;
+        produceBase = buyBase + rows * columns * slots;
+        productions = slots + BASE_PRODUCTIONS + leaderSlots;
+        actionCount = produceBase + (1 << productions) * TYPES;
+    }
+
+    /**
+     * Fill the tables of a leader.
+     * @param leader the leader.
+     */
+    private void addLeader(Leader leader){
+        int id = leader.getId();
+        leaderVP[id] = leader.getVictoryPoints();
+        for (Requirement requirement : leader.getRequirements()){
+            if (requirement instanceof CardReq){
+                CardReq cardReq = (CardReq) requirement;
+                int index = (id * COLORS + cardReq.getColor().ordinal()) * LEVELS + cardReq.getLevel();
+                //every requirement is checked on its own, so two requirements of the same cards don't add up
+                leaderCardReq[index] = Math.max(leaderCardReq[index], cardReq.getNumRequired());
+            } else if (requirement instanceof ResourceReq){
+                addResources(((ResourceReq) requirement).getResourceReq(), leaderResourceReq, id * TYPES);
+            }
+        }
+        for (Effect effect : leader.getOnCreationEffect()){
+            if (effect instanceof DiscountEffect){
+                addResources(((DiscountEffect) effect).getDiscounts(), leaderDiscount, id * TYPES);
+            } else if (effect instanceof WarehouseEffect){
+                for (Resource depot : ((WarehouseEffect) effect).getDepots()){
+                    int k = (id * depotsPerLeader + leaderDepotCount[id]) * 2;
+                    leaderDepots[k] = depot.getType().ordinal();
+                    leaderDepots[k + 1] = depot.getValue();
+                    leaderDepotCount[id]++;
+                }
+            }
+        }
+        for (Effect effect : leader.getOnActivationEffects()){
+            if (effect instanceof MarbleEffect){
+                leaderMarbles[id]++;
+                for (Resource resource : ((MarbleEffect) effect).getTransformIn())
+                    leaderMarble[id * RESOURCES + resource.getType().ordinal()] += resource.getValue();
+            }
+        }
+        leaderProduces[id] = addProduction(leader.getOnActivationEffects(), leaderProduction, id * RESOURCES * 2);
+    }
+
+    /**
+     * Add the concrete resources of a list to a table.
+     * @param resources the resources.
+     * @param table the table.
+     * @param offset the index of the first concrete resource in the table.
+     */
+    private static void addResources(List<Resource> resources, int[] table, int offset){
+        for (Resource resource : resources){
+            if (resource.getType().ordinal() < TYPES)
+                table[offset + resource.getType().ordinal()] += resource.getValue();
+        }
+    }
+
+    /**
+     * Add the cost and the profit of the production effects of a card to a table, the cost comes first and both
+     * are indexed by the ordinal of the resource, ANY and FAITH included.
+     * @param effects the activation effects of the card.
+     * @param table the table.
+     * @param offset the index of the cost in the table.
+     * @return true if the card has a production effect.
+     */
+    private static boolean addProduction(List<Effect> effects, int[] table, int offset){
+        boolean produces = false;
+        for (Effect effect : effects){
+            if (effect instanceof ProductionEffect){
+                produces = true;
+                for (Resource resource : ((ProductionEffect) effect).getResourceCost())
+                    table[offset + resource.getType().ordinal()] += resource.getValue();
+                for (Resource resource : ((ProductionEffect) effect).getResourceAcquired())
+                    table[offset + RESOURCES + resource.getType().ordinal()] += resource.getValue();
+            }
+        }
+        return produces;
+    }
+
+    /**
+     * Return the code of a token: its kind in the lowest bit, then its two parameters.
+     * @param token the token.
+     * @return the code of the token.
+     * @throws IllegalArgumentException if the token is unknown.
+     */
+    static int encodeToken(Token token){
+        if (token instanceof CardToken){
+            CardToken cardToken = (CardToken) token;
+            return (cardToken.getCardColor().getColumnDeckDevelopment() << 9 | cardToken.getNumDiscard() << 1) | TOKEN_CARD;
+        } else if (token instanceof PositionToken){
+            PositionToken positionToken = (PositionToken) token;
+            return (positionToken.getPosition() << 9 | (positionToken.isShuffle() ? 1 : 0) << 1) | TOKEN_MOVE;
+        }
+        throw new IllegalArgumentException("Unknown token " + token);
+    }
+
+    /**
+     * Return the number of actions, every action is between 0 and this number.
+     * @return the number of actions.
+     */
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    /**
+     * Return the number of seats, LorenzoIlMagnifico has the last one in a single player game.
+     * @return the number of seats.
+     */
+    public int getSeats() {
+        return seats;
+    }
+
+    /**
+     * Return the seat of LorenzoIlMagnifico.
+     * @return the seat of LorenzoIlMagnifico, -1 if the game is not a single player one.
+     */
+    public int getLorenzoSeat() {
+        return lorenzo;
+    }
+
+    /**
+     * Return the action that activates a leader.
+     * @param leader the index of the leader in the hand the player had when the state was built.
+     * @return the action.
+     */
+    public int activateLeader(int leader){
+        return activateBase + leader;
+    }
+
+    /**
+     * Return the action that discards a leader.
+     * @param leader the index of the leader in the hand the player had when the state was built.
+     * @return the action.
+     */
+    public int discardLeader(int leader){
+        return discardBase + leader;
+    }
+
+    /**
+     * Return the action that inserts the marble in a line of the market. With two active leaders that convert the
+     * white marbles, all the white marbles drawn are converted by the leader chosen.
+     * @param line the line, the rows come first followed by the columns.
+     * @param whiteLeader the index of the leader that converts the white marbles, 0 if there's no choice.
+     * @return the action.
+     */
+    public int market(int line, int whiteLeader){
+        return marketBase + line * whiteChoices + whiteLeader;
+    }
+
+    /**
+     * Return the action that buys the card on the top of a block of the deck.
+     * @param row the row of the block.
+     * @param column the column of the block.
+     * @param slot the slot where the card is placed.
+     * @return the action.
+     */
+    public int buy(int row, int column, int slot){
+        return buyBase + (row * columns + column) * slots + slot;
+    }
+
+    /**
+     * Return the action that activates some productions together.
+     * @param mask the productions: a bit for every card slot, then the base production, then a bit for every leader.
+     * @param anyProfit the resource given for every ANY the productions give, COIN if they give no ANY.
+     * @return the action.
+     */
+    public int produce(int mask, ResourceType anyProfit){
+        return produceBase + mask * TYPES + anyProfit.ordinal();
+    }
+
+    /**
+     * Return the bit of the base production in the mask of a production action.
+     * @return the bit of the base production.
+     */
+    public int baseProductionBit(){
+        return 1 << slots;
+    }
+
+    /**
+     * Return the bit of a leader in the mask of a production action.
+     * @param leader the index of the leader.
+     * @return the bit of the leader.
+     */
+    public int leaderProductionBit(int leader){
+        return 1 << (slots + BASE_PRODUCTIONS + leader);
+    }
+
+    /**
+     * Return a description of an action.
+     * @param action the action.
+     * @return the description.
+     */
+    public String describe(int action){
+        if (action == END_TURN)
+            return "END_TURN";
+        if (action < discardBase)
+            return "ACTIVATE_LEADER " + (action - activateBase);
+        if (action < marketBase)
+            return "DISCARD_LEADER " + (action - discardBase);
+        if (action < buyBase){
+            int line = (action - marketBase) / whiteChoices;
+            String target = line < rows ? "row " + line : "column " + (line - rows);
+            return "MARKET " + target + " white to leader " + (action - marketBase) % whiteChoices;
+        }
+        if (action < produceBase){
+            int cell = (action - buyBase) / slots;
+            return "BUY row " + cell / columns + " column " + cell % columns + " slot " + (action - buyBase) % slots;
+        }
+        if (action < actionCount){
+            int mask = (action - produceBase) / TYPES;
+            return "PRODUCE " + Integer.toBinaryString(mask) + " any " + ResourceType.values()[(action - produceBase) % TYPES];
+        }
+        return "INVALID " + action;
+    }
+}
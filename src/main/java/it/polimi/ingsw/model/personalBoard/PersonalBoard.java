@@ -117,8 +117,9 @@ public class PersonalBoard {
      * @return a ModelData of the player based on his personal board.
      */
     public ModelData toClient(boolean isCurrentPlayer){
-        ArrayList<FaithTrackData> playerFaithTrack = getFaithTrack().toFaithTrackData();
         int playerCurrentPos = getFaithTrack().getCurrentPositionOnTrack();
+        int popeFavorAcquired = getFaithTrack().getPopeFavorAcquired();
+        int faithTrackVP = getFaithTrack().allVP();
         ArrayList<ResourceData> standardDepots = getResourceManager().getWarehouse().toStandardDepotData();
         ArrayList<ResourceData> leaderDepots = getResourceManager().getWarehouse().toLeaderDepotData();
         ArrayList<Integer> maxStorageLeaderDepots = getResourceManager().getWarehouse().toLeaderDepotMax();
@@ -132,7 +133,7 @@ public class PersonalBoard {
                     .collect(Collectors.toCollection(ArrayList::new));
         }
 
-        return new ModelData(username,playerFaithTrack,playerCurrentPos,
+        return new ModelData(username,playerCurrentPos,popeFavorAcquired,faithTrackVP,
                 standardDepots,leaderDepots,maxStorageLeaderDepots,
                 strongbox,cardSlots,leadersData);
     }
@@ -7,22 +7,27 @@ import it.polimi.ingsw.client.data.CardDevData;
 import it.polimi.ingsw.client.data.CardLeaderData;
 import it.polimi.ingsw.client.data.ResourceData;
 import it.polimi.ingsw.exception.*;
+import it.polimi.ingsw.model.ActionType;
 import it.polimi.ingsw.model.PlayerState;
-import it.polimi.ingsw.model.card.Card;
 import it.polimi.ingsw.model.card.Color;
 import it.polimi.ingsw.model.card.Development;
+import it.polimi.ingsw.model.card.Effect.Effect;
 import it.polimi.ingsw.model.card.Effect.Activation.MarbleEffect;
 import it.polimi.ingsw.model.card.Effect.Activation.ProductionEffect;
 import it.polimi.ingsw.model.card.Leader;
 import it.polimi.ingsw.model.personalBoard.PersonalBoard;
 import it.polimi.ingsw.model.personalBoard.market.Market;
 import it.polimi.ingsw.model.resource.Resource;
+import it.polimi.ingsw.model.resource.ResourceBag;
 import it.polimi.ingsw.observer.CardManagerObserver;
 import it.polimi.ingsw.observer.GameMasterObservable;
 import it.polimi.ingsw.observer.GameMasterObserver;
 import it.polimi.ingsw.observer.Observable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -32,6 +37,19 @@ import java.util.stream.Collectors;
  * Card Manager is a class that manage all the player's action with a card.
  */
 public class CardManager extends GameMasterObservable implements Observable<CardManagerObserver> {
+    private static final LeaderCardAlreadyActivatedException DISCARD_ACTIVE_LEADER =
+            new LeaderCardAlreadyActivatedException("Can't discard a activated leader!");
+    private static final LeaderCardAlreadyActivatedException LEADER_ALREADY_ACTIVE =
+            new LeaderCardAlreadyActivatedException("Leader card is already activated");
+    private static final CardAlreadyUsed LEADER_ALREADY_USED = new CardAlreadyUsed("Leader already used");
+    private static final CardAlreadyUsed CARD_ALREADY_USED = new CardAlreadyUsed("Card already used");
+    private static final CardAlreadyUsed BASE_PRODUCTION_ALREADY_USED =
+            new CardAlreadyUsed("Base Production already used");
+    private static final NotEnoughRequirementException NOT_ENOUGH_CARDS =
+            new NotEnoughRequirementException("You don't have enough card requirement");
+    private static final int MAX_LEVEL = 3;
+    private static final int ANY_COLOR = Color.ANY.ordinal();
+
     @JsonIgnore
     List<CardManagerObserver> cardManagerObserverList = new ArrayList<>();
 
@@ -43,6 +61,18 @@ public class CardManager extends GameMasterObservable implements Observable<Card
     private int indexCardSlotBuffer;
     private int rowDeckBuffer;
     private int colDeckBuffer;
+    @JsonIgnore
+    private int marbleEffectCount;
+    @JsonIgnore
+    private int productionEffectCount;
+    @JsonIgnore
+    private Map<Integer, ArrayList<ResourceData>> marbleEffectMap = Collections.emptyMap();
+    @JsonIgnore
+    private final ResourceBag whiteMarbleConversion = new ResourceBag();
+    @JsonIgnore
+    private final int[][] devOwned = new int[Color.values().length][MAX_LEVEL + 1];
+    @JsonIgnore
+    private int devVictoryPoints;
 
     /**
      * Construct a Card Manager with a specific base production.
@@ -56,6 +86,32 @@ public class CardManager extends GameMasterObservable implements Observable<Card
         }
     }
 
+    /**
+     * Return a card slot of the player.
+     * @param index the index of the card slot.
+     * @return the card slot.
+     * @throws IndexOutOfBoundsException if the card slot doesn't exist.
+     */
+    public CardSlot getCardSlot(int index) throws IndexOutOfBoundsException {
+        return cardSlots.get(index);
+    }
+
+    /**
+     * Return the number of card slots of the player.
+     * @return the number of card slots.
+     */
+    public int howManyCardSlots(){
+        return cardSlots.size();
+    }
+
+    /**
+     * Return the base production of the player.
+     * @return the base production of the player.
+     */
+    public Development getBaseProduction() {
+        return baseProduction;
+    }
+
     /**
      * Return the ArrayList that contains all the leader cards.
      * @return the ArrayList that contains all the leader cards.
@@ -80,11 +136,15 @@ public class CardManager extends GameMasterObservable implements Observable<Card
     public void restoreCardsManagerReference(PersonalBoard personalBoard, Market market){
         baseProduction.attachCardToUser(personalBoard, market);
         leaders.forEach(x -> x.attachCardToUser(personalBoard, market));
+        Arrays.stream(devOwned).forEach(x -> Arrays.fill(x, 0));
+        devVictoryPoints = 0;
         for (CardSlot cs: cardSlots){
             for (int i = 0; i < cs.getLvReached(); i++){
                 cs.getDevelopment(i).attachCardToUser(personalBoard, market);
+                countDevelopment(cs.getDevelopment(i));
             }
         }
+        updateEffectIndexes();
     }
 
     /**
@@ -93,6 +153,7 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      */
     public void addLeader(Leader leader){
         leaders.add(leader);
+        updateEffectIndexes();
     }
 
     /**
@@ -103,16 +164,17 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * @throws LeaderCardAlreadyActivatedException if the leader is active.
      */
     public void discardLeader(int leaderIndex) throws IndexOutOfBoundsException, InvalidStateActionException, LeaderCardAlreadyActivatedException {
-        checkPlayerState(PlayerState.LEADER_MANAGE_BEFORE, PlayerState.LEADER_MANAGE_AFTER);
+        checkPlayerState(ActionType.LEADER_MANAGE);
 
         Leader leaderToDiscard = leaders.get(leaderIndex);
 
         if (!leaderToDiscard.isActive()){
             leaders.remove(leaderIndex);
+            updateEffectIndexes();
             notifyGameMaster(GameMasterObserver::discardLeader);
             notifyAllObservers(x -> x.leaderDiscard(leaderIndex));
         }else{
-            throw new LeaderCardAlreadyActivatedException("Can't discard a activated leader!");
+            throw DISCARD_ACTIVE_LEADER;
         }
     }
 
@@ -123,6 +185,7 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      */
     public void discardLeaderSetUp(int leaderIndex) throws IndexOutOfBoundsException{
         leaders.remove(leaderIndex);
+        updateEffectIndexes();
         notifyAllObservers(x -> x.leaderDiscard(leaderIndex));
     }
 
@@ -135,11 +198,11 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * @throws InvalidStateActionException if the player is in an invalid state for the action.
      */
     public void activateLeader(int leaderIndex) throws IndexOutOfBoundsException, LeaderCardAlreadyActivatedException, NotEnoughRequirementException, InvalidStateActionException {
-        checkPlayerState(PlayerState.LEADER_MANAGE_BEFORE, PlayerState.LEADER_MANAGE_AFTER);
+        checkPlayerState(ActionType.LEADER_MANAGE);
 
         Leader leader = leaders.get(leaderIndex);
         if (leader.isActive()){
-            throw new LeaderCardAlreadyActivatedException("Leader card is already activated");
+            throw LEADER_ALREADY_ACTIVE;
         }
         leader.checkRequirements();
         leader.doCreationEffects();
@@ -153,6 +216,7 @@ public class CardManager extends GameMasterObservable implements Observable<Card
         leaders.add(i, leader);
 
         leader.setActive();
+        updateEffectIndexes();
 
         notifyAllObservers(x -> x.leaderActivated(leaders));
     }
@@ -166,7 +230,7 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * @throws InvalidStateActionException if the player is in an invalid state for the action.
      */
     public void addDevCardTo(Development development, int indexCardSlot) throws CardWithHigherOrSameLevelAlreadyIn, IndexOutOfBoundsException, InvalidStateActionException {
-        checkPlayerState(PlayerState.LEADER_MANAGE_BEFORE);
+        checkPlayerState(ActionType.DEVELOPMENT_ACTION);
 
         cardSlots.get(indexCardSlot).insertCard(development);
         indexCardSlotBuffer = indexCardSlot;
@@ -187,7 +251,9 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * Add a development card to card slot.
      */
     public void emptyCardSlotBuffer(){
-        cardSlots.get(indexCardSlotBuffer).emptyBuffer();
+        Development added = cardSlots.get(indexCardSlotBuffer).emptyBuffer();
+        if (added != null)
+            countDevelopment(added);
         notifyGameMaster(x -> x.onPlayerStateChange(PlayerState.LEADER_MANAGE_AFTER));
         notifyGameMaster(x -> x.onDeckDevelopmentCardRemove(rowDeckBuffer, colDeckBuffer));
         notifyAllObservers(x -> x.cardSlotUpdate(indexCardSlotBuffer, rowDeckBuffer, colDeckBuffer));
@@ -206,14 +272,11 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * @throws InvalidStateActionException if the player is in an invalid state for the action.
      */
     public void activateLeaderEffect(int leaderIndex, PlayerState playerState) throws IndexOutOfBoundsException, CardAlreadyUsed, NotEnoughRequirementException, InvalidStateActionException {
-        checkPlayerState(PlayerState.LEADER_MANAGE_BEFORE,
-                PlayerState.WHITE_MARBLE_CONVERSION,
-                PlayerState.PRODUCTION_ACTION,
-                PlayerState.LEADER_MANAGE_AFTER);
+        checkPlayerState(ActionType.LEADER_PRODUCTION);
 
         Leader leader = leaders.get(leaderIndex);
         if (leadersUsed.contains(leader))
-            throw new CardAlreadyUsed("Leader already used");
+            throw LEADER_ALREADY_USED;
         leader.doActivationEffects(playerState);
         leadersUsed.add(leader);
     }
@@ -226,7 +289,7 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * @throws NotEnoughRequirementException if the player doesn't have enough resources/cards to satisfy the requirements.
      */
     public void activateLeaderInfinite(int leaderIndex, PlayerState playerState) throws InvalidStateActionException, NotEnoughRequirementException {
-        checkPlayerState(PlayerState.WHITE_MARBLE_CONVERSION);
+        checkPlayerState(ActionType.WHITE_MARBLE_CONVERSION);
         Leader leader = leaders.get(leaderIndex);
         leader.doActivationEffects(playerState);
     }
@@ -240,11 +303,11 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * @throws  InvalidStateActionException if the player is in an invalid state for the action.
      */
     public void developmentProduce(int indexCardSlot) throws CardAlreadyUsed, IndexOutOfBoundsException, NotEnoughRequirementException, InvalidStateActionException {
-        checkPlayerState(PlayerState.LEADER_MANAGE_BEFORE, PlayerState.PRODUCTION_ACTION);
+        checkPlayerState(ActionType.PRODUCTION);
 
         Development development = cardSlots.get(indexCardSlot).getLastInsertedCard();
         if (devCardsUsed.contains(development))
-            throw new CardAlreadyUsed("Card already used");
+            throw CARD_ALREADY_USED;
 
         development.doActivationEffects(PlayerState.PRODUCTION_ACTION);
         devCardsUsed.add(development);
@@ -257,10 +320,10 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * @throws InvalidStateActionException if the player is in an invalid state for the action.
      */
     public void baseProductionProduce() throws CardAlreadyUsed, NotEnoughRequirementException, InvalidStateActionException {
-        checkPlayerState(PlayerState.LEADER_MANAGE_BEFORE, PlayerState.PRODUCTION_ACTION);
+        checkPlayerState(ActionType.BASE_PRODUCTION);
 
         if (devCardsUsed.contains(baseProduction))
-            throw new CardAlreadyUsed("Base Production already used");
+            throw BASE_PRODUCTION_ALREADY_USED;
 
         baseProduction.doActivationEffects(PlayerState.PRODUCTION_ACTION);
         devCardsUsed.add(baseProduction);
@@ -275,18 +338,102 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * @throws NotEnoughRequirementException if the player doesn't have enough resources/cards to satisfy the requirements.
      */
     public void doIHaveDev(int howMany, Color color, int level) throws NotEnoughRequirementException {
-        int count = 0;
-        for (CardSlot cardSlot: cardSlots){
-            for (int i = 0; i < cardSlot.getLvReached(); i++){
-                 Development dev = cardSlot.getDevelopment(i);
-                 if (level <= 0 || dev.getLevel() == level){
-                     if (color == Color.ANY || dev.getColor() == color) count ++;
-                 }
-                 if (count >= howMany)
-                     return;
-            }
+        if (!hasDev(howMany, color, level))
+            throw NOT_ENOUGH_CARDS;
+    }
+
+    /**
+     * Return true if we have in our cards slot a specific number of card with a defined color and level.
+     * @param howMany the number of card with this propriety.
+     * @param color the color of those cards, ANY if not specified.
+     * @param level the level of those cards.
+     * @return true if the player owns enough cards.
+     */
+    public boolean hasDev(int howMany, Color color, int level){
+        int count = level > MAX_LEVEL ? 0 : devOwned[color.ordinal()][Math.max(level, 0)];
+        return count >= howMany;
+    }
+
+    /**
+     * Return the card slots in which a development card can be inserted, the bit i is set if the card slot i is valid.
+     * @param development the card to insert.
+     * @return the mask of the valid card slots.
+     */
+    public int insertableSlots(Development development){
+        int mask = 0;
+        for (int i = 0; i < cardSlots.size(); i++){
+            if (cardSlots.get(i).canInsert(development))
+                mask |= 1 << i;
         }
-        throw new NotEnoughRequirementException("You don't have enough card requirement");
+        return mask;
+    }
+
+    /**
+     * Return the card slots whose card can produce in this turn, the bit i is set if the card slot i can be used.
+     * @return the mask of the usable card slots.
+     */
+    public int usableProductions(){
+        int mask = 0;
+        for (int i = 0; i < cardSlots.size(); i++){
+            if (cardSlots.get(i).getLvReached() == 0)
+                continue;
+            Development development = cardSlots.get(i).getLastInsertedCard();
+            if (!devCardsUsed.contains(development) && development.canProduce())
+                mask |= 1 << i;
+        }
+        return mask;
+    }
+
+    /**
+     * Return true if the base production can be used in this turn.
+     * @return true if the base production can be used.
+     */
+    public boolean baseProductionUsable(){
+        return !devCardsUsed.contains(baseProduction) && baseProduction.canProduce();
+    }
+
+    /**
+     * Return the active leaders whose production can be used in this turn, the bit i is set if the leader i can be used.
+     * @return the mask of the usable leader productions.
+     */
+    public int usableLeaderProductions(){
+        int mask = 0;
+        if (productionEffectCount == 0)
+            return mask;
+        for (int i = 0; i < leaders.size(); i++){
+            Leader leader = leaders.get(i);
+            if (leader.isActive() && !leadersUsed.contains(leader) && leader.canProduce())
+                mask |= 1 << i;
+        }
+        return mask;
+    }
+
+    /**
+     * Return the leaders that can be activated, the bit i is set if the leader i satisfies its requirements.
+     * @return the mask of the activatable leaders.
+     */
+    public int activatableLeaders(){
+        int mask = 0;
+        for (int i = 0; i < leaders.size(); i++){
+            Leader leader = leaders.get(i);
+            if (!leader.isActive() && leader.areRequirementsSatisfied())
+                mask |= 1 << i;
+        }
+        return mask;
+    }
+
+    /**
+     * Add a development card to the matrix of the cards owned, the ANY row and the level 0 column hold the totals.
+     * @param development the card added to a card slot.
+     */
+    private void countDevelopment(Development development){
+        int color = development.getColor().ordinal();
+        int level = development.getLevel();
+        devOwned[color][level]++;
+        devOwned[color][0]++;
+        devOwned[ANY_COLOR][level]++;
+        devOwned[ANY_COLOR][0]++;
+        devVictoryPoints += development.getVictoryPoints();
     }
 
     /**
@@ -294,7 +441,7 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * @return how many card the player own.
      */
     private int howManyCardDoIOwn(){
-        return cardSlots.stream().mapToInt(CardSlot::getLvReached).sum();
+        return devOwned[ANY_COLOR][0];
     }
 
     /**
@@ -302,27 +449,51 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * @return the sum af all victory points of all the cards.
      */
     public int getVictoryPointsCard(){
-        int vp;
-        vp=cardSlots.stream().mapToInt(CardSlot::getVictoryPoint).sum();
-        vp+=leaders.stream().filter(Leader::isActive).mapToInt(Leader::getVictoryPoints).sum();
+        int vp = devVictoryPoints;
+        for (Leader leader : leaders){
+            if (leader.isActive())
+                vp += leader.getVictoryPoints();
+        }
         return vp;
     }
 
+    /**
+     * Rebuild the indexes of the effects of the active leaders, it must be called every time the leaders change.
+     */
+    private void updateEffectIndexes(){
+        marbleEffectCount = 0;
+        productionEffectCount = 0;
+        whiteMarbleConversion.clear();
+        Map<Integer, ArrayList<ResourceData>> marbleEffects = new HashMap<>();
+
+        for (int i = 0; i < leaders.size(); i++){
+            Leader leader = leaders.get(i);
+            if (!leader.isActive())
+                continue;
+            for (Effect effect : leader.getOnActivationEffects()){
+                if (effect instanceof MarbleEffect){
+                    marbleEffectCount++;
+                    ArrayList<Resource> transformIn = ((MarbleEffect) effect).getTransformIn();
+                    ArrayList<ResourceData> resourceData = marbleEffects.computeIfAbsent(i, x -> new ArrayList<>());
+                    transformIn.forEach(x -> resourceData.add(x.toClient()));
+                    if (marbleEffectCount == 1)
+                        whiteMarbleConversion.addAll(transformIn);
+                } else if (effect instanceof ProductionEffect){
+                    productionEffectCount++;
+                }
+            }
+        }
+        if (marbleEffectCount != 1)
+            whiteMarbleConversion.clear();
+        marbleEffectMap = Collections.unmodifiableMap(marbleEffects);
+    }
+
     /**
      * Return a map that contains all the marble effects.
      * @return a map that contains all the marble effects.
      */
     public Map<Integer, ArrayList<ResourceData>> mapOfMarbleEffect(){
-        return leaders.stream()
-                .filter(Leader::isActive)
-                .filter(x -> x.getOnActivationEffects().stream().anyMatch(effect -> effect instanceof MarbleEffect))
-                .collect(Collectors.toMap(leaders::indexOf,
-                        x -> x.getOnActivationEffects().stream()
-                                .filter(y -> y instanceof MarbleEffect)
-                                .map(effect -> (MarbleEffect) effect)
-                                .map(MarbleEffect::getTransformIn)
-                                .flatMap(y -> y.stream().map(Resource::toClient))
-                                .collect(Collectors.toCollection(ArrayList::new))));
+        return marbleEffectMap;
     }
 
     /**
@@ -330,13 +501,16 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * @return the number of marble effects.
      */
     public int howManyMarbleEffects(){
-        return  leaders.stream()
-                .filter(Leader::isActive)
-                .map(Card::getOnActivationEffects)
-                .flatMap(ArrayList::stream)
-                .filter(x -> x instanceof MarbleEffect)
-                .mapToInt(x -> 1)
-                .sum();
+        return marbleEffectCount;
+    }
+
+    /**
+     * Return the resources given by each white marble when there's only one active marble effect, so the
+     * conversion doesn't need to be chosen by the player. The bag is shared and must not be modified.
+     * @return the resources of the only marble effect, an empty bag if there are zero or more marble effects.
+     */
+    public ResourceBag whiteMarbleConversion(){
+        return whiteMarbleConversion;
     }
 
     /**
@@ -344,13 +518,7 @@ public class CardManager extends GameMasterObservable implements Observable<Card
      * @return the number of production effects.
      */
     public int howManyProductionEffects(){
-        return leaders.stream()
-                .filter(Leader::isActive)
-                .map(Card::getOnActivationEffects)
-                .flatMap(ArrayList::stream)
-                .filter(x -> x instanceof ProductionEffect)
-                .mapToInt(x -> 1)
-                .sum();
+        return productionEffectCount;
     }
 
     /**
@@ -11,6 +11,8 @@ import java.util.stream.Collectors;
  * Card Slot defines a card slot in which a player can insert Development cards.
  */
 public class CardSlot {
+    private static final CardWithHigherOrSameLevelAlreadyIn LEVEL_ALREADY_IN =
+            new CardWithHigherOrSameLevelAlreadyIn("This card slot already contain that lv or higher!");
     private final ArrayList<Development> developments = new ArrayList<>();
     private Development buffer = null;
 
@@ -28,20 +30,32 @@ public class CardSlot {
      * @throws  CardWithHigherOrSameLevelAlreadyIn if the card level is already in the card slot.
      */
     public void insertCard(Development newCard) throws CardWithHigherOrSameLevelAlreadyIn {
-        if(developments.size() + 1 != newCard.getLevel()){
-            throw new CardWithHigherOrSameLevelAlreadyIn("This card slot already contain that lv or higher!");
+        if(!canInsert(newCard)){
+            throw LEVEL_ALREADY_IN;
         }
         buffer= newCard;
     }
 
+    /**
+     * Return true if the card can be inserted in the card slot.
+     * @param newCard the card to insert.
+     * @return true if the level of the card is the next level of the card slot.
+     */
+    public boolean canInsert(Development newCard){
+        return developments.size() + 1 == newCard.getLevel();
+    }
+
     /**
      * Add the card in buffer in the card slot and empty the buffer.
+     * @return the card added, null if the buffer was empty.
      */
-    public void emptyBuffer(){
+    public Development emptyBuffer(){
+        Development added = buffer;
         if (buffer != null){
             developments.add(buffer);
             buffer = null;
         }
+        return added;
     }
 
     /**
@@ -9,6 +9,7 @@ import it.polimi.ingsw.observer.GameMasterObservable;
 import it.polimi.ingsw.observer.GameMasterObserver;
 import it.polimi.ingsw.observer.Observable;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
@@ -20,46 +21,52 @@ public class FaithTrack extends GameMasterObservable  implements Observable<Fait
     @JsonIgnore
     List<FaithTrackObserver> faithTrackObserverList = new ArrayList<>();
     @JsonIgnore
-    private final ArrayList<Boolean> popeFavorAcquired = new ArrayList<>();
+    private final FaithTrackLayout layout;
 
     private int victoryPoints;
     private int popeFavorVP;
     private int currentPositionOnTrack;
-    private final ArrayList<Integer> popeFavor;
-    private final ArrayList<Cell> track;
-
+    private int popeFavorAcquired;
 
+    /**
+     * Construct a faith track at the start of the given layout.
+     * @param layout the shared layout of the track.
+     */
+    public FaithTrack(FaithTrackLayout layout) {
+        this.layout = layout;
+    }
 
     /**
-     * Construct a faith track in a state based on parameters.
+     * Construct a faith track in a state based on parameters. If the cells of the track are not given
+     * the default layout is used.
      * @param victoryPoints victory points acquired by the player due to victory cells.
      * @param popeFavorVP victory points acquired by the player due to pope favors-
      * @param currentPositionOnTrack current position of the player on the track
+     * @param popeFavorAcquired the bits of the pope favor acquired, indexed by vatican report id.
      * @param popeFavor victory points of each pope favor.
      * @param track cells of the track.
+     * @throws IOException if the default layout can't be loaded.
      */
     @JsonCreator
     public FaithTrack(@JsonProperty("victoryPoints") int victoryPoints,
                       @JsonProperty("popeFavorVP") int popeFavorVP,
                       @JsonProperty("currentPositionOnTrack") int currentPositionOnTrack,
+                      @JsonProperty("popeFavorAcquired") int popeFavorAcquired,
                       @JsonProperty("popeFavor") ArrayList<Integer> popeFavor,
-                      @JsonProperty("track") ArrayList<Cell> track) {
+                      @JsonProperty("track") ArrayList<Cell> track) throws IOException {
+        this.layout = track == null ? FaithTrackLayout.getDefault() : new FaithTrackLayout(popeFavor, track);
         this.victoryPoints = victoryPoints;
         this.popeFavorVP = popeFavorVP;
         this.currentPositionOnTrack = currentPositionOnTrack;
-        this.popeFavor = popeFavor;
-        this.track = track;
-
-        initializePopeFavorAcquired();
+        this.popeFavorAcquired = popeFavorAcquired;
     }
 
     /**
-     * Set all the pope favor acquired to false.
+     * Return the shared layout of the track.
+     * @return the layout of the track.
      */
-    private void initializePopeFavorAcquired(){
-        for (int i = 0; i < popeFavor.size(); i++) {
-            popeFavorAcquired.add(false);
-        }
+    public FaithTrackLayout getLayout() {
+        return layout;
     }
 
     /**
@@ -106,7 +113,7 @@ public class FaithTrack extends GameMasterObservable  implements Observable<Fait
         for (int i = 0; i < positions; i++) {
             if(!hasReachedEnd()){
                 increasePlayerPosition();
-                track.get(currentPositionOnTrack).doAction(this);
+                layout.getCell(currentPositionOnTrack).doAction(this);
             }
         }
     }
@@ -129,14 +136,14 @@ public class FaithTrack extends GameMasterObservable  implements Observable<Fait
      * @return true if the player has reached the end of the track.
      */
     private boolean hasReachedEnd(){
-        return currentPositionOnTrack == track.size() - 1;
+        return currentPositionOnTrack == layout.size() - 1;
     }
 
     /**
      * Activate the effect of cell in the current position of the player.
      */
     public void doCurrentCellAction(){
-        track.get(currentPositionOnTrack).doAction(this);
+        layout.getCell(currentPositionOnTrack).doAction(this);
     }
 
     /**
@@ -144,9 +151,9 @@ public class FaithTrack extends GameMasterObservable  implements Observable<Fait
      * @param idVaticanReport the id of the Vatican Report activated.
      */
     public void popeFavorActivated(int idVaticanReport){
-        if(track.get(currentPositionOnTrack).isInVaticanReport(idVaticanReport)){
-            popeFavorVP += popeFavor.get(idVaticanReport);
-            popeFavorAcquired.set(idVaticanReport, true);
+        if(layout.getCell(currentPositionOnTrack).isInVaticanReport(idVaticanReport)){
+            popeFavorVP += layout.getPopeFavorVP(idVaticanReport);
+            popeFavorAcquired |= 1 << idVaticanReport;
             notifyAllObservers(x -> x.popeFavorReached(idVaticanReport, false));
         }else{
             notifyAllObservers(x -> x.popeFavorReached(idVaticanReport, true));
@@ -158,28 +165,25 @@ public class FaithTrack extends GameMasterObservable  implements Observable<Fait
      * @return a ArrayList of FaithTrackData based on the current state of the market.
      */
     public ArrayList<FaithTrackData> toFaithTrackData(){
-        ArrayList<FaithTrackData> faithTrackData = new ArrayList<>();
-        int index = 0;
-
-        for (Cell cell : track){
-            FaithTrackData cellDataRaw = cell.toData();
-
-            boolean isAcquired = false;
-            int popeSpaceVP = 0;
-            if (cellDataRaw.isPopeFavor()) {
-                isAcquired = popeFavorAcquired.get(cell.getIdVaticanReport());
-                popeSpaceVP = popeFavor.get(cell.getIdVaticanReport());
-            }
-
-            FaithTrackData cellData = new FaithTrackData(index,cellDataRaw.getVictoryPoints(),
-                    cellDataRaw.isVaticanReport(),cellDataRaw.isPopeFavor(),popeSpaceVP, isAcquired);
-            faithTrackData.add(cellData);
-            index++;
-        }
+        return layout.toFaithTrackData(popeFavorAcquired);
+    }
 
-        return faithTrackData;
+    /**
+     * Return the bits of the pope favor acquired, indexed by vatican report id.
+     * @return the bits of the pope favor acquired.
+     */
+    public int getPopeFavorAcquired() {
+        return popeFavorAcquired;
     }
 
+    /**
+     * Return true if the pope favor of a vatican report has been acquired.
+     * @param idVaticanReport the id of the vatican report.
+     * @return true if the pope favor has been acquired.
+     */
+    public boolean isPopeFavorAcquired(int idVaticanReport){
+        return (popeFavorAcquired & (1 << idVaticanReport)) != 0;
+    }
 
     @Override
     public void attachObserver(FaithTrackObserver observer) {
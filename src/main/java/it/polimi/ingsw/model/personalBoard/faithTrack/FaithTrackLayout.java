@@ -0,0 +1,123 @@
+package it.polimi.ingsw.model.personalBoard.faithTrack;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.polimi.ingsw.client.data.FaithTrackData;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Static layout of the faith track: cells, vatican reports and pope favor victory points.
+ * It is immutable, so a single instance is shared by the faith tracks of all the players of all the matches.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FaithTrackLayout {
+    private static FaithTrackLayout defaultLayout;
+
+    private final List<Integer> popeFavor;
+    private final List<Cell> track;
+
+    /**
+     * Construct a faith track layout.
+     * @param popeFavor victory points of each pope favor.
+     * @param track cells of the track.
+     */
+    @JsonCreator
+    public FaithTrackLayout(@JsonProperty("popeFavor") List<Integer> popeFavor,
+                            @JsonProperty("track") List<Cell> track) {
+        this.popeFavor = Collections.unmodifiableList(new ArrayList<>(popeFavor));
+        this.track = Collections.unmodifiableList(new ArrayList<>(track));
+    }
+
+    /**
+     * Return the layout of the default faith track, loading it from the json file the first time.
+     * @return the layout of the default faith track.
+     * @throws IOException if there's some error during the reading of the json file.
+     */
+    public static synchronized FaithTrackLayout getDefault() throws IOException {
+        if (defaultLayout == null) {
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+            InputStream inputStream = FaithTrackLayout.class.getResourceAsStream("/json/FaithTrack.json");
+            defaultLayout = mapper.readValue(inputStream, FaithTrackLayout.class);
+        }
+        return defaultLayout;
+    }
+
+    /**
+     * Return the cell at a specific position.
+     * @param position the position of the cell.
+     * @return the cell at the position.
+     */
+    public Cell getCell(int position) {
+        return track.get(position);
+    }
+
+    /**
+     * Return the number of cells of the track.
+     * @return the number of cells.
+     */
+    public int size() {
+        return track.size();
+    }
+
+    /**
+     * Return the number of vatican reports of the track.
+     * @return the number of vatican reports.
+     */
+    public int numberOfVaticanReports() {
+        return popeFavor.size();
+    }
+
+    /**
+     * Return the victory points of the pope favor of a vatican report.
+     * @param idVaticanReport the id of the vatican report.
+     * @return the victory points of the pope favor.
+     */
+    public int getPopeFavorVP(int idVaticanReport) {
+        return popeFavor.get(idVaticanReport);
+    }
+
+    /**
+     * Return a ArrayList of FaithTrackData of the layout, with no pope favor acquired.
+     * @return a ArrayList of FaithTrackData of the layout.
+     */
+    public ArrayList<FaithTrackData> toFaithTrackData(){
+        return toFaithTrackData(0);
+    }
+
+    /**
+     * Return a ArrayList of FaithTrackData of the layout.
+     * @param popeFavorAcquired the bits of the pope favor acquired, indexed by vatican report id.
+     * @return a ArrayList of FaithTrackData of the layout.
+     */
+    ArrayList<FaithTrackData> toFaithTrackData(int popeFavorAcquired){
+        ArrayList<FaithTrackData> faithTrackData = new ArrayList<>(track.size());
+        int index = 0;
+
+        for (Cell cell : track){
+            FaithTrackData cellDataRaw = cell.toData();
+
+            boolean isAcquired = false;
+            int popeSpaceVP = 0;
+            if (cellDataRaw.isPopeFavor()) {
+                isAcquired = (popeFavorAcquired & (1 << cell.getIdVaticanReport())) != 0;
+                popeSpaceVP = popeFavor.get(cell.getIdVaticanReport());
+            }
+
+            faithTrackData.add(new FaithTrackData(index,cellDataRaw.getVictoryPoints(),
+                    cellDataRaw.isVaticanReport(),cellDataRaw.isPopeFavor(),popeSpaceVP, isAcquired));
+            index++;
+        }
+
+        return faithTrackData;
+    }
+}
@@ -0,0 +1,52 @@
+package it.polimi.ingsw.model.personalBoard.market;
+
+import it.polimi.ingsw.client.data.ColorData;
+import it.polimi.ingsw.model.resource.ResourceType;
+
+/**
+ * Lookup tables used by the market to encode a marble as the byte ordinal of its ColorData and to
+ * resolve the effect of a marble without calling {@link Marble#doMarbleAction(Market)}.
+ */
+final class MarbleTable {
+    static final ColorData[] COLORS = ColorData.values();
+    static final byte WHITE = encode(ColorData.WHITE);
+
+    private static final ResourceType[] RESOURCES = new ResourceType[COLORS.length];
+
+    static {
+        RESOURCES[ColorData.RED.ordinal()] = ResourceType.FAITH;
+        RESOURCES[ColorData.BLUE.ordinal()] = ResourceType.SHIELD;
+        RESOURCES[ColorData.GREY.ordinal()] = ResourceType.STONE;
+        RESOURCES[ColorData.YELLOW.ordinal()] = ResourceType.COIN;
+        RESOURCES[ColorData.PURPLE.ordinal()] = ResourceType.SERVANT;
+    }
+
+    private MarbleTable() {}
+
+    /**
+     * Return the code of a color.
+     * @param color the color of the marble.
+     * @return the code of the color.
+     */
+    static byte encode(ColorData color){
+        return (byte) color.ordinal();
+    }
+
+    /**
+     * Return the code of a marble.
+     * @param marble the marble to encode.
+     * @return the code of the marble.
+     */
+    static byte encode(Marble marble){
+        return encode(marble.getColorData());
+    }
+
+    /**
+     * Return the resource given by a marble, null if the marble is white.
+     * @param code the code of the marble.
+     * @return the resource type given by the marble.
+     */
+    static ResourceType resourceOf(byte code){
+        return RESOURCES[code];
+    }
+}
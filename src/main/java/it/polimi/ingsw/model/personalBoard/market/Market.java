@@ -6,11 +6,13 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import it.polimi.ingsw.client.data.ColorData;
 import it.polimi.ingsw.client.data.MarketData;
 import it.polimi.ingsw.exception.InvalidStateActionException;
+import it.polimi.ingsw.model.ActionType;
 import it.polimi.ingsw.model.PlayerState;
 import it.polimi.ingsw.exception.WrongMarketDimensionException;
 import it.polimi.ingsw.exception.WrongMarblesNumberException;
 import it.polimi.ingsw.model.resource.Resource;
-import it.polimi.ingsw.model.resource.ResourceFactory;
+import it.polimi.ingsw.model.resource.ResourceBag;
+import it.polimi.ingsw.model.resource.ResourceType;
 import it.polimi.ingsw.observer.GameMasterObservable;
 import it.polimi.ingsw.observer.MarketObserver;
 import it.polimi.ingsw.observer.Observable;
@@ -18,9 +20,10 @@ import it.polimi.ingsw.observer.Observable;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  * Game Market in which a player can insert a marble in the marketTray to acquire resources.
@@ -31,11 +34,11 @@ public class Market extends GameMasterObservable implements Observable<MarketObs
 
     private final int numCol;
     private final int numRow;
-    private final ArrayList<ArrayList<Marble>> marketTray;
-    private Marble marbleToInsert;
+    private final byte[] marketTray;
+    private byte marbleToInsert;
     private int numOfWhiteMarbleDrew = 0;
     private int whiteMarbleToTransform = 0;
-    private final ArrayList<Resource> resourcesToSend = new ArrayList<>();
+    private final ResourceBag resourcesToSend = new ResourceBag();
     private final ArrayList<Marble> allMarbles;
 
 
@@ -70,20 +73,32 @@ public class Market extends GameMasterObservable implements Observable<MarketObs
 
         // shuffle the marbles
         Collections.shuffle(allMarbles);
+        this.marketTray = new byte[numRow * numCol];
+        fillTray();
+    }
 
-        // setup of the market tray using the shuffled array of marble
-        this.marketTray = new ArrayList<>();
+    /**
+     * Shuffle all the marbles again and put them in the market tray, the game uses it to draw the market from the
+     * random generator of the match. The marbles are sorted by color first, so the tray depends only on the
+     * generator and not on the shuffle of the constructor.
+     * @param random the random generator used to shuffle.
+     */
+    public void shuffle(Random random){
+        allMarbles.sort(Comparator.comparingInt(MarbleTable::encode));
+        Collections.shuffle(allMarbles, random);
+        fillTray();
+    }
 
-        for (int i = 0; i < numRow; i++) {
-            ArrayList<Marble> marketCol = new ArrayList<>();
-            for (int j = 0; j < numCol; j++) {
-                marketCol.add(allMarbles.get(i*numCol + j));
-            }
-            marketTray.add(marketCol);
+    /**
+     * Put the marbles in the market tray in the order of allMarbles, row by row, the last one is the marble to insert.
+     */
+    private void fillTray(){
+        for (int i = 0; i < marketTray.length; i++) {
+            marketTray[i] = MarbleTable.encode(allMarbles.get(i));
         }
 
         // set the marble to insert with the last marble
-        this.marbleToInsert = this.allMarbles.get(numCol*numRow);
+        this.marbleToInsert = MarbleTable.encode(this.allMarbles.get(numCol*numRow));
     }
 
     /**
@@ -91,11 +106,19 @@ public class Market extends GameMasterObservable implements Observable<MarketObs
      * @param resource resource that need to be added.
      */
     public void addInResourcesToSend(Resource resource) {
-        if(resourcesToSend.contains(resource)){
-            resourcesToSend.get(resourcesToSend.indexOf(resource)).addValue(resource.getValue());
-        }else {
-            resourcesToSend.add(resource);
-        }
+        resourcesToSend.add(resource);
+    }
+
+    /**
+     * Apply the effect of a marble: a white marble increases the number of white marbles drew, any other
+     * marble adds its resource in the array that will be send to the resource manager.
+     * @param marble the code of the marble.
+     */
+    private void applyMarble(byte marble){
+        if (marble == MarbleTable.WHITE)
+            numOfWhiteMarbleDrew++;
+        else
+            resourcesToSend.add(MarbleTable.resourceOf(marble), 1);
     }
 
     /**
@@ -119,15 +142,18 @@ public class Market extends GameMasterObservable implements Observable<MarketObs
      * @throws IndexOutOfBoundsException if the selected row does not exist.
      */
     public void insertMarbleInRow(int row) throws IndexOutOfBoundsException, InvalidStateActionException {
-        checkPlayerState(PlayerState.LEADER_MANAGE_BEFORE);
+        checkPlayerState(ActionType.MARKET_ACTION);
+        if (row < 0 || row >= numRow)
+            throw new IndexOutOfBoundsException("Row " + row + " does not exist");
 
-        for (Marble marble : marketTray.get(row)) {
-            marble.doMarbleAction(this);
+        int first = row * numCol;
+        for (int i = first; i < first + numCol; i++) {
+            applyMarble(marketTray[i]);
         }
 
-        Marble tempMarble = marketTray.get(row).get(0);
-        marketTray.get(row).remove(0);
-        marketTray.get(row).add(numCol - 1 , marbleToInsert);
+        byte tempMarble = marketTray[first];
+        System.arraycopy(marketTray, first + 1, marketTray, first, numCol - 1);
+        marketTray[first + numCol - 1] = marbleToInsert;
         marbleToInsert = tempMarble;
 
         notifyMarketChange();
@@ -140,23 +166,108 @@ public class Market extends GameMasterObservable implements Observable<MarketObs
      * @throws IndexOutOfBoundsException if the selected column does not exist.
      */
     public void insertMarbleInCol(int col) throws IndexOutOfBoundsException, InvalidStateActionException {
-        checkPlayerState(PlayerState.LEADER_MANAGE_BEFORE);
+        checkPlayerState(ActionType.MARKET_ACTION);
+        if (col < 0 || col >= numCol)
+            throw new IndexOutOfBoundsException("Column " + col + " does not exist");
 
-        for (int i = 0; i < numRow; i++) {
-            marketTray.get(i).get(col).doMarbleAction(this);
+        int last = (numRow - 1) * numCol + col;
+        for (int i = col; i <= last; i += numCol) {
+            applyMarble(marketTray[i]);
         }
-        Marble tempMarble = marketTray.get(0).get(col);
-        for (int i = 0; i < numRow - 1; i++) {
-            marketTray.get(i).remove(col);
-            marketTray.get(i).add(col,marketTray.get(i+1).get(col));
+
+        byte tempMarble = marketTray[col];
+        for (int i = col; i < last; i += numCol) {
+            marketTray[i] = marketTray[i + numCol];
         }
-        marketTray.get(numRow - 1).remove(col);
-        marketTray.get(numRow - 1).add(col, marbleToInsert);
+        marketTray[last] = marbleToInsert;
         marbleToInsert = tempMarble;
 
         notifyMarketChange();
     }
 
+    /**
+     * Return the number of rows of the market tray.
+     * @return the number of rows.
+     */
+    public int getNumRow() {
+        return numRow;
+    }
+
+    /**
+     * Return the number of columns of the market tray.
+     * @return the number of columns.
+     */
+    public int getNumCol() {
+        return numCol;
+    }
+
+    /**
+     * Copy the marbles of the market tray, row after row, in an array.
+     * @param tray the array of numRow * numCol marbles, every marble is the ordinal of its ColorData.
+     */
+    public void copyTray(byte[] tray){
+        System.arraycopy(marketTray, 0, tray, 0, marketTray.length);
+    }
+
+    /**
+     * Return the marble that will be inserted in the market tray.
+     * @return the ordinal of the ColorData of the marble.
+     */
+    public byte getMarbleToInsert() {
+        return marbleToInsert;
+    }
+
+    /**
+     * Return the resource given by a marble.
+     * @param marble the ordinal of the ColorData of the marble.
+     * @return the resource of the marble, null for the white marble.
+     */
+    public static ResourceType resourceOf(byte marble){
+        return MarbleTable.resourceOf(marble);
+    }
+
+    /**
+     * Return a new array of bags big enough to hold the preview of every row and column of the market.
+     * @return an array of numRow + numCol empty bags.
+     */
+    public ResourceBag[] createPreviewBuffer(){
+        ResourceBag[] preview = new ResourceBag[numRow + numCol];
+        for (int i = 0; i < preview.length; i++) {
+            preview[i] = new ResourceBag();
+        }
+        return preview;
+    }
+
+    /**
+     * Fill preview with the resources that inserting the marble in every row and column would give, without
+     * changing the market. The rows come first, followed by the columns. Every white marble gives the resources in
+     * whiteMarbleConversion if it isn't empty, otherwise it is counted as an ANY.
+     * @param whiteMarbleConversion the resources given by a white marble.
+     * @param preview the bags to fill, created by {@link #createPreviewBuffer()}.
+     */
+    public void preview(ResourceBag whiteMarbleConversion, ResourceBag[] preview){
+        boolean convertWhite = whiteMarbleConversion.sum() > 0;
+        for (ResourceBag line : preview) {
+            line.clear();
+        }
+        for (int i = 0; i < numRow; i++) {
+            for (int j = 0; j < numCol; j++) {
+                byte marble = marketTray[i * numCol + j];
+                if (marble != MarbleTable.WHITE) {
+                    ResourceType type = MarbleTable.resourceOf(marble);
+                    preview[i].add(type, 1);
+                    preview[numRow + j].add(type, 1);
+                } else if (convertWhite) {
+                    preview[i].addAll(whiteMarbleConversion);
+                    preview[numRow + j].addAll(whiteMarbleConversion);
+                } else {
+                    preview[i].add(ResourceType.ANY, 1);
+                    preview[numRow + j].add(ResourceType.ANY, 1);
+                }
+            }
+        }
+    }
+
     /**
      * This method is called after every market action of the player to notify all observers about that change.
      */
@@ -164,7 +275,8 @@ public class Market extends GameMasterObservable implements Observable<MarketObs
         if (getWhiteMarbleDrew() > 0){
             notifyGameMaster(x -> x.onPlayerStateChange(PlayerState.WHITE_MARBLE_CONVERSION));
         }
-        notifyAllObservers(x -> x.marketTrayChange(marketTray, marbleToInsert));
+        MarketData marketData = toMarketData();
+        notifyAllObservers(x -> x.marketTrayChange(marketData));
     }
 
     /**
@@ -172,9 +284,7 @@ public class Market extends GameMasterObservable implements Observable<MarketObs
      * @return the array in which the resources are stored.
      */
     public ArrayList<Resource> getResourceToSend(){
-        return resourcesToSend.stream()
-                .map(res -> ResourceFactory.createResource(res.getType(), res.getValue()))
-                .collect(Collectors.toCollection(ArrayList::new));
+        return resourcesToSend.toResourceList();
     }
 
     /**
@@ -186,7 +296,7 @@ public class Market extends GameMasterObservable implements Observable<MarketObs
     }
 
     public void setWhiteMarbleToTransform(int whiteMarbleToTransform) throws InvalidStateActionException {
-        checkPlayerState(PlayerState.WHITE_MARBLE_CONVERSION);
+        checkPlayerState(ActionType.WHITE_MARBLE_CONVERSION);
 
         int delta = numOfWhiteMarbleDrew - whiteMarbleToTransform;
         //control that we don't exceed setting leader white marble assignment
@@ -219,10 +329,15 @@ public class Market extends GameMasterObservable implements Observable<MarketObs
      * @return a MarketData object based on the current state of the market.
      */
     public MarketData toMarketData(){
-        ArrayList<ArrayList<ColorData>> marketTrayColor = marketTray.stream()
-                .map(row -> row.stream().map(Marble::getColorData).collect(Collectors.toCollection(ArrayList::new)))
-                .collect(Collectors.toCollection(ArrayList::new));
-        ColorData marbleToInsertColor = marbleToInsert.getColorData();
+        ArrayList<ArrayList<ColorData>> marketTrayColor = new ArrayList<>(numRow);
+        for (int i = 0; i < numRow; i++) {
+            ArrayList<ColorData> marketRow = new ArrayList<>(numCol);
+            for (int j = 0; j < numCol; j++) {
+                marketRow.add(MarbleTable.COLORS[marketTray[i * numCol + j]]);
+            }
+            marketTrayColor.add(marketRow);
+        }
+        ColorData marbleToInsertColor = MarbleTable.COLORS[marbleToInsert];
 
         return new MarketData(marketTrayColor,marbleToInsertColor,numRow,numCol);
     }
@@ -12,6 +12,15 @@ import it.polimi.ingsw.model.resource.ResourceType;
 /**
  * Depot is the class where we store the data and manage the resource of a single depot*/
 public class Depot {
+    private static final TooMuchResourceDepotException TOO_MUCH_RESOURCES =
+            new TooMuchResourceDepotException("You tried to put more resources than possible");
+    private static final TooMuchResourceDepotException TOO_MUCH_IN_DEPOT =
+            new TooMuchResourceDepotException("Adding too much res in this depot");
+    private static final NegativeResourceException NO_RESOURCE = new NegativeResourceException("No resource here!");
+    private static final InvalidOrganizationWarehouseException DIFFERENT_TYPE =
+            new InvalidOrganizationWarehouseException("You try to sub a resource type different from his own");
+    private static final NegativeResourceException SUB_TOO_MUCH =
+            new NegativeResourceException("You can't sub more resources than are present");
     private Resource resource;
     private final boolean lockDepot;
     private final int maxStorable;
@@ -51,6 +60,41 @@ public class Depot {
         this.lockDepot = false;
     }
 
+    /**
+     * Constructor of a copy of another depot, the resource is copied too
+     * @param other the depot to copy
+     * */
+    private Depot(Depot other) {
+        this.resource = ResourceFactory.createResource(other.getResourceType(), other.getResourceValue());
+        this.maxStorable = other.maxStorable;
+        this.lockDepot = other.lockDepot;
+    }
+
+    /**
+     * Return a copy of the depot, used to stage the changes of the warehouse
+     * @return a copy of the depot
+     * */
+    Depot copy(){
+        return new Depot(this);
+    }
+
+    /**
+     * Return true if the other depot stores the same type and value of resource
+     * @param other the depot to compare
+     * @return true if the depots store the same resource
+     * */
+    boolean sameResourceOf(Depot other){
+        return getResourceType() == other.getResourceType() && getResourceValue() == other.getResourceValue();
+    }
+
+    /**
+     * Copy the resource of another depot in the curr depot, without any check because it was already done on the other one
+     * @param other the depot to copy
+     * */
+    void copyResourceFrom(Depot other){
+        resource = ResourceFactory.createResource(other.getResourceType(), other.getResourceValue());
+    }
+
     /**
      * Set resource of curr Depot
      * @param resource to set the curr depot at
@@ -64,7 +108,7 @@ public class Depot {
         }
 
         if(resource.getValue()>maxStorable){
-            throw new TooMuchResourceDepotException("You tried to put more resources than possible");
+            throw TOO_MUCH_RESOURCES;
         }
         this.resource = resource;
     }
@@ -112,7 +156,7 @@ public class Depot {
      */
     public void addResource(Resource newRes) throws TooMuchResourceDepotException{
         if (newRes.getValue() + resource.getValue() > maxStorable){
-            throw new TooMuchResourceDepotException("Adding too much res in this depot");
+            throw TOO_MUCH_IN_DEPOT;
         }
         if (resource.getType() == ResourceType.ANY){
             resource = newRes;
@@ -130,14 +174,14 @@ public class Depot {
      */
     public void subResource(Resource newRes) throws NegativeResourceException, InvalidOrganizationWarehouseException {
         if(resource.getType() == ResourceType.ANY || (lockDepot && resource.getValue() == 0)){
-            throw new NegativeResourceException("No resource here!");
+            throw NO_RESOURCE;
         }
         if(resource.getType() != newRes.getType()){
-            throw new InvalidOrganizationWarehouseException("You try to sub a resource type different from his own");
+            throw DIFFERENT_TYPE;
         }
         int delta = resource.getValue() - newRes.getValue();
         if(delta < 0){
-            throw new NegativeResourceException("You can't sub more resources than are present");
+            throw SUB_TOO_MUCH;
         }else{
             if (delta == 0){
                 setEmptyResource();
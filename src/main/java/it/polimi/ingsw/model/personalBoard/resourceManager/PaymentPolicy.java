@@ -0,0 +1,15 @@
+package it.polimi.ingsw.model.personalBoard.resourceManager;
+
+/**
+ * PaymentPolicy defines from where the resources are taken first when a cost is paid automatically.
+ */
+public enum PaymentPolicy {
+    /**
+     * Empty the normal depots, then the leader depots and finally the strongbox.
+     */
+    WAREHOUSE_FIRST,
+    /**
+     * Take from the strongbox, then from the normal depots and finally from the leader depots.
+     */
+    STRONGBOX_FIRST
+}
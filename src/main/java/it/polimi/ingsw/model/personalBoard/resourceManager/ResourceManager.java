@@ -2,31 +2,42 @@ package it.polimi.ingsw.model.personalBoard.resourceManager;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import it.polimi.ingsw.model.ActionType;
 import it.polimi.ingsw.model.PlayerState;
 import it.polimi.ingsw.observer.*;
 import it.polimi.ingsw.exception.*;
 import it.polimi.ingsw.model.resource.Resource;
+import it.polimi.ingsw.model.resource.ResourceBag;
 import it.polimi.ingsw.model.resource.ResourceFactory;
 import it.polimi.ingsw.model.resource.ResourceType;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.function.Consumer;
 
 /**ResourceManager is the class that manage all the action where a resource is used*/
 public class ResourceManager extends GameMasterObservable implements Observable<ResourceManagerObserver> {
+    static final NegativeResourceException NOT_IN_BUFFER =
+            new NegativeResourceException("Resource not present in buffer");
+    private static final AnyConversionNotPossible ANY_OR_FAITH_IN_RESPONSE =
+            new AnyConversionNotPossible("Your response contains any or faith, please try again");
+    private static final NegativeResourceException NOT_ENOUGH_TO_PAY =
+            new NegativeResourceException("You don't have enough resources to pay the buffer");
+    private static final NegativeResourceException INVALID_PLACEMENT =
+            new NegativeResourceException("Every resource of the plan must be a concrete resource with a positive value");
     @JsonIgnore
     List<ResourceManagerObserver> resourceManagerObserverList = new ArrayList<>();
 
     private final Warehouse currWarehouse;
     private final Strongbox strongbox;
-    private final ArrayList<Resource> resourcesBuffer = new ArrayList<>();
-    private final ArrayList<Resource> discounts=new ArrayList<>();
-    private final ArrayList<Resource> resourcesToProduce=new ArrayList<>();
+    private final ResourceBag resourcesBuffer = new ResourceBag();
+    private final ResourceBag discounts=new ResourceBag();
+    private final ResourceBag resourcesToProduce=new ResourceBag();
     private int faithPoint=0;
     private int anyRequired =0;
     private int anyToProduce = 0;
-    private final ArrayList<Resource> myResources = new ArrayList<>();
-    private final ArrayList<Resource> myDiscounts = new ArrayList<>();
+    private final ResourceBag myResources = new ResourceBag();
+    private final ResourceBag myDiscounts = new ResourceBag();
 
     @JsonCreator
     public ResourceManager(){
@@ -85,7 +96,7 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * Sum all my resources and save it in myResources array
      * */
     private void restoreMyResources(ArrayList<Resource> tempBuffer){
-        tempBuffer.forEach(x -> myResources.get(myResources.indexOf(x)).addValue(x.getValue()));
+        tempBuffer.forEach(myResources::add);
     }
 
     /**
@@ -96,7 +107,7 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * */
     public void convertAnyRequirement(ArrayList<Resource> resources, boolean isFromBuyDevelopment) throws AnyConversionNotPossible {
         if(containsAnyOrFaith(resources)){
-            throw new AnyConversionNotPossible("Your response contains any or faith, please try again");
+            throw ANY_OR_FAITH_IN_RESPONSE;
         }
         int numOfConversion = resources.stream().mapToInt(Resource::getValue).sum();
         if (numOfConversion != anyRequired) {
@@ -106,23 +117,16 @@ public class ResourceManager extends GameMasterObservable implements Observable<
 
         ArrayList<Resource> tempBuffer = new ArrayList<>();
         for(Resource res: resources){
-            if (myResources.contains(res)){
-                try{
-                    myResources.get(myResources.indexOf(res)).subValue(res.getValue());
-                    tempBuffer.add(res);
-                    anyRequired -= res.getValue();
-
-                }catch (NegativeResourceException e){
-                    restoreMyResources(tempBuffer);
-                    anyRequired += tempBuffer.stream().mapToInt(Resource::getValue).sum();
-                    throw new AnyConversionNotPossible("You can't convert this any, you don't have " +
-                            "enough " + res.getType().getDisplayName() + ". Please try again!");
-                }
-            }else{
+            try{
+                myResources.sub(res);
+                tempBuffer.add(res);
+                anyRequired -= res.getValue();
+
+            }catch (NegativeResourceException e){
                 restoreMyResources(tempBuffer);
                 anyRequired += tempBuffer.stream().mapToInt(Resource::getValue).sum();
-                throw new AnyConversionNotPossible("You can't convert this any, you don't own "
-                        + res.getType().getDisplayName() + ". Please try again!");
+                throw new AnyConversionNotPossible("You can't convert this any, you don't have " +
+                        "enough " + res.getType().getDisplayName() + ". Please try again!");
             }
         }
         tempBuffer.forEach(this::addToBuffer);
@@ -130,7 +134,7 @@ public class ResourceManager extends GameMasterObservable implements Observable<
         if (anyRequired == 0){
             if (isFromBuyDevelopment){
                 notifyGameMaster(x -> x.onPlayerStateChange(PlayerState.BUY_DEV_RESOURCE_REMOVING));
-                notifyAllObservers(x->x.warehouseRemovingRequest(resourcesBuffer));
+                notifyAllObservers(x->x.warehouseRemovingRequest(resourcesBuffer.toResourceList()));
             }else{
                 if(anyToProduce > 0){
                     notifyGameMaster(x -> x.onPlayerStateChange(PlayerState.ANY_PRODUCE_PROFIT_CONVERSION));
@@ -152,7 +156,7 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * */
     public void convertAnyProductionProfit(ArrayList<Resource> resources) throws AnyConversionNotPossible {
         if(containsAnyOrFaith(resources)){
-            throw new AnyConversionNotPossible("Your response contains  any or faith, please try again");
+            throw ANY_OR_FAITH_IN_RESPONSE;
         }
         int numOfConversion = resources.stream().mapToInt(Resource::getValue).sum();
         if (anyToProduce != numOfConversion){
@@ -160,13 +164,7 @@ public class ResourceManager extends GameMasterObservable implements Observable<
                     "resources inserted");
         }
 
-        for (Resource res: resources){
-            if(resourcesToProduce.contains(res)){
-                resourcesToProduce.get(resourcesToProduce.indexOf(res)).addValue(res.getValue());
-            }else{
-                resourcesToProduce.add(res);
-            }
-        }
+        resourcesToProduce.addAll(resources);
         anyToProduce -= numOfConversion;
 
         if(anyToProduce == 0){
@@ -190,7 +188,7 @@ public class ResourceManager extends GameMasterObservable implements Observable<
         fromResourceToConcreteResource(resourcesSent, false, false,
                 true);
         resourcesSent.forEach(this::addToBuffer);
-        notifyAllObservers(x -> x.depotPositioningRequest(resourcesBuffer));
+        notifyAllObservers(x -> x.depotPositioningRequest(resourcesBuffer.toResourceList()));
         notifyGameMaster(x -> x.onPlayerStateChange(PlayerState.MARKET_RESOURCE_POSITIONING));
     }
 
@@ -199,7 +197,7 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * Add all the resource store in resourcesToProduce to the strongbox
     */
     public void doProduction(){
-        resourcesToProduce.forEach(this::addToStrongbox);
+        resourcesToProduce.toResourceList().forEach(this::addToStrongbox);
         notifyAllObservers(x -> x.strongboxUpdate(strongbox.getResources()));
     }
 
@@ -208,8 +206,8 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * @throws InvalidStateActionException if u can't the production phase right now
      * */
     public void stopProduction() throws InvalidStateActionException {
-        checkPlayerState(PlayerState.PRODUCTION_ACTION);
-        notifyAllObservers(x -> x.warehouseRemovingRequest(resourcesBuffer));
+        checkPlayerState(ActionType.END_CARD_SELECTION);
+        notifyAllObservers(x -> x.warehouseRemovingRequest(resourcesBuffer.toResourceList()));
         notifyGameMaster(x -> x.onPlayerStateChange(PlayerState.PRODUCTION_RESOURCE_REMOVING));
     }
 
@@ -227,11 +225,11 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * @throws InvalidStateActionException if u can't do it right now
      * */
     public void subToStrongbox(Resource resource) throws NegativeResourceException, InvalidStateActionException {
-        checkPlayerState(PlayerState.BUY_DEV_RESOURCE_REMOVING,
-                PlayerState.PRODUCTION_RESOURCE_REMOVING);
+        checkPlayerState(ActionType.STRONGBOX_MODIFY);
 
-        strongbox.subResource(resource);
-        notifyAllObservers(x -> x.strongboxUpdate(strongbox.getResources()));
+        ResourceTransaction transaction = beginTransaction();
+        transaction.subToStrongbox(resource);
+        transaction.commit();
         sendBufferUpdate();
     }
 
@@ -243,8 +241,9 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * @throws TooMuchResourceDepotException if i'm trying to add too much resource to that depot
      * @throws InvalidOrganizationWarehouseException if i'm trying to add a resource to one depot when there's another one with the same type*/
     public void addToWarehouse(boolean isNormalDepot, int index, Resource resource) throws TooMuchResourceDepotException, InvalidOrganizationWarehouseException {
-        currWarehouse.addDepotResourceAt(index, resource, isNormalDepot);
-        sendDepotUpdate(isNormalDepot, index);
+        ResourceTransaction transaction = beginTransaction();
+        transaction.addToWarehouse(isNormalDepot, index, resource);
+        transaction.commit();
         sendBufferUpdate();
     }
 
@@ -256,40 +255,169 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * @throws InvalidOrganizationWarehouseException if i'm trying to add a resource to one depot when there's other one with the same type
      * @throws NegativeResourceException if the value of the resource in depot goes under 0*/
     public void subToWarehouse(boolean isNormalDepot, int index, Resource resource) throws InvalidOrganizationWarehouseException, NegativeResourceException {
-        currWarehouse.subDepotResourceAt(index, resource, isNormalDepot);
-        sendDepotUpdate(isNormalDepot, index);
+        ResourceTransaction transaction = beginTransaction();
+        transaction.subToWarehouse(isNormalDepot, index, resource);
+        transaction.commit();
         sendBufferUpdate();
     }
 
 
     /**
-     * Semi switch is called when u try to switch from a leader depot with some resources to a depot with the same resource
-     * @param fromDepot from where i want to move
-     * @param toDepot where i want to put the resources
-     * @param res resource to switch
-     * @throws TooMuchResourceDepotException if there is too many resources in one depot at the end
-     * @return true if possible, false otherwise
-     * */
-    private boolean semiSwitch(Depot fromDepot,Depot toDepot, Resource res) throws TooMuchResourceDepotException {
-        if (res.getType() == toDepot.getResourceType()){
-            int available = toDepot.getMaxStorable() - toDepot.getResourceValue();
-            if (available > 0){
-                Resource resToAdd = ResourceFactory.createResource(res.getType(),available);
-                if (available >= res.getValue()){
-                    toDepot.addResource(res);
-                }else {
-                    toDepot.addResource(resToAdd);
-                }
-                try {
-                    fromDepot.subResource(resToAdd);
-                    return true;
-                } catch (NegativeResourceException | InvalidOrganizationWarehouseException e) {
-                    fromDepot.setEmptyResource();
-                    return true;
-                }
+     * Apply a whole plan of placements of the resources in the buffer: the plan is checked against the buffer in
+     * one pass, then every step is staged in a {@link ResourceTransaction} that is committed only if all the steps
+     * succeed, so on failure the warehouse, the strongbox and the buffer are left as they were and nothing is sent
+     * @param plan the steps of the plan
+     * @param isAdding true if the resources are put in the depots, false if they are taken from the depots and the strongbox
+     * @throws InvalidStateActionException if u can't do it right now
+     * @throws NegativeResourceException if the plan needs more resources than the buffer or a depot has
+     * @throws TooMuchResourceDepotException if adding too much res in a depot
+     * @throws InvalidOrganizationWarehouseException if the plan breaks the organization of the warehouse
+     * */
+    public void applyResourcePlan(List<ResourcePlacement> plan, boolean isAdding) throws InvalidStateActionException, NegativeResourceException, TooMuchResourceDepotException, InvalidOrganizationWarehouseException {
+        ResourceBag planned = new ResourceBag();
+        boolean usesDepot = false;
+        boolean usesStrongbox = false;
+        for (ResourcePlacement placement : plan){
+            Resource res = placement.getResource();
+            if (res.getValue() <= 0 || res.getType() == ResourceType.ANY || res.getType() == ResourceType.FAITH)
+                throw INVALID_PLACEMENT;
+            planned.add(res);
+            usesDepot |= !placement.isStrongbox();
+            usesStrongbox |= placement.isStrongbox();
+        }
+        if (usesDepot) checkPlayerState(ActionType.DEPOT_MODIFY);
+        if (usesStrongbox){
+            if (isAdding) throw InvalidStateActionException.INSTANCE;
+            checkPlayerState(ActionType.STRONGBOX_MODIFY);
+        }
+        for (Resource res : planned.toResourceList()){
+            if (res.getValue() > resourcesBuffer.get(res.getType()))
+                throw NOT_IN_BUFFER;
+        }
+
+        ResourceTransaction transaction = beginTransaction();
+        for (ResourcePlacement placement : plan){
+            transaction.subToBuffer(placement.getResource());
+            if (placement.isStrongbox())
+                transaction.subToStrongbox(placement.getResource());
+            else if (isAdding)
+                transaction.addToWarehouse(placement.isNormalDepot(), placement.getDepotIndex(), placement.getResource());
+            else
+                transaction.subToWarehouse(placement.isNormalDepot(), placement.getDepotIndex(), placement.getResource());
+        }
+        transaction.commit();
+    }
+
+    /**
+     * Compute a plan that removes all the resources in the buffer from the depots and the strongbox, following
+     * the policy to decide from where the resources are taken first. Nothing is changed
+     * @param policy the order in which depots and strongbox are used
+     * @return the steps of the plan
+     * @throws NegativeResourceException if the depots and the strongbox don't have enough resources
+     * */
+    public ArrayList<ResourcePlacement> paymentPlan(PaymentPolicy policy) throws NegativeResourceException {
+        ArrayList<ResourcePlacement> plan = new ArrayList<>();
+        for (Resource res : resourcesBuffer.toResourceList()){
+            int needed = res.getValue();
+            if (policy == PaymentPolicy.STRONGBOX_FIRST)
+                needed = payFromStrongbox(plan, res.getType(), needed);
+            needed = payFromDepots(plan, res.getType(), needed, true);
+            needed = payFromDepots(plan, res.getType(), needed, false);
+            if (policy == PaymentPolicy.WAREHOUSE_FIRST)
+                needed = payFromStrongbox(plan, res.getType(), needed);
+            if (needed > 0)
+                throw NOT_ENOUGH_TO_PAY;
+        }
+        return plan;
+    }
+
+    /**
+     * Pay automatically all the resources in the buffer, applying the plan given by {@link #paymentPlan(PaymentPolicy)}
+     * @param policy the order in which depots and strongbox are used
+     * @throws InvalidStateActionException if u can't do it right now
+     * @throws NegativeResourceException if the depots and the strongbox don't have enough resources
+     * @throws TooMuchResourceDepotException never, the plan only removes resources
+     * @throws InvalidOrganizationWarehouseException never, the plan only removes resources of the same type of the depot
+     * */
+    public void autoPay(PaymentPolicy policy) throws InvalidStateActionException, NegativeResourceException, TooMuchResourceDepotException, InvalidOrganizationWarehouseException {
+        applyResourcePlan(paymentPlan(policy), false);
+    }
+
+    /**
+     * Compute the arrangement of the warehouse that keeps the most resources of the buffer. Nothing is changed
+     * @return the best arrangement of the warehouse
+     * */
+    public WarehouseArrangement previewArrangement(){
+        return WarehouseArrangement.best(currWarehouse, resourcesBuffer);
+    }
+
+    /**
+     * Arrange the warehouse following {@link #previewArrangement()}: the resources of the buffer that don't fit
+     * are discarded and the buffer is emptied. The new layout is staged in a {@link ResourceTransaction}, so the
+     * observers get only the depots that changed, and nothing changes if the layout doesn't fit the warehouse
+     * @throws InvalidStateActionException if u can't do it right now
+     * @throws TooMuchResourceDepotException if the arrangement puts too much res in a depot
+     * @throws InvalidOrganizationWarehouseException if the arrangement breaks the organization of the warehouse
+     * */
+    public void autoArrange() throws InvalidStateActionException, TooMuchResourceDepotException, InvalidOrganizationWarehouseException {
+        checkPlayerState(ActionType.AUTO_ARRANGE);
+        WarehouseArrangement arrangement = previewArrangement();
+
+        ResourceTransaction transaction = beginTransaction();
+        for (boolean isNormalDepot : new boolean[]{false, true}){
+            for (int i = 0; i < currWarehouse.howManyDepots(isNormalDepot); i++)
+                transaction.emptyDepot(isNormalDepot, i);
+        }
+        for (boolean isNormalDepot : new boolean[]{false, true}){
+            for (int i = 0; i < arrangement.howManyDepots(isNormalDepot); i++){
+                Resource res = arrangement.getDepot(i, isNormalDepot);
+                if (res.getValue() > 0)
+                    transaction.addToWarehouse(isNormalDepot, i, res);
             }
         }
-        return false;
+        transaction.clearBuffer();
+        transaction.commit();
+
+        int discarded = arrangement.howManyDiscarded();
+        notifyGameMaster(x -> x.discardResources(discarded));
+    }
+
+    /**
+     * Add to a payment plan the resources taken from the depots of a kind
+     * @param plan the plan to fill
+     * @param type the type of resource to pay
+     * @param needed how many resources are still to pay
+     * @param isNormalDepot true for the normal depots, false for the leader depots
+     * @return how many resources are still to pay
+     * */
+    private int payFromDepots(ArrayList<ResourcePlacement> plan, ResourceType type, int needed, boolean isNormalDepot){
+        for (int i = 0; i < currWarehouse.howManyDepots(isNormalDepot) && needed > 0; i++){
+            Depot depot = currWarehouse.getDepot(i, isNormalDepot);
+            if (depot.getResourceType() != type)
+                continue;
+            int taken = Math.min(needed, depot.getResourceValue());
+            if (taken > 0){
+                plan.add(new ResourcePlacement(ResourceFactory.createResource(type, taken), i, isNormalDepot));
+                needed -= taken;
+            }
+        }
+        return needed;
+    }
+
+    /**
+     * Add to a payment plan the resources taken from the strongbox
+     * @param plan the plan to fill
+     * @param type the type of resource to pay
+     * @param needed how many resources are still to pay
+     * @return how many resources are still to pay
+     * */
+    private int payFromStrongbox(ArrayList<ResourcePlacement> plan, ResourceType type, int needed){
+        int taken = Math.min(needed, strongbox.howManyDoIHave(type));
+        if (taken > 0){
+            plan.add(new ResourcePlacement(ResourceFactory.createResource(type, taken)));
+            needed -= taken;
+        }
+        return needed;
     }
 
     /**
@@ -304,58 +432,19 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * */
     public void switchResourceFromDepotToDepot(int fromIndex, boolean isFromNormalDepot,
                                                int toIndex, boolean isToNormalDepot) throws TooMuchResourceDepotException, InvalidOrganizationWarehouseException, InvalidStateActionException {
-        checkPlayerState(PlayerState.BUY_DEV_RESOURCE_REMOVING,
-                PlayerState.PRODUCTION_RESOURCE_REMOVING,
-                PlayerState.MARKET_RESOURCE_POSITIONING);
-
-        boolean semiSwitchDone = false;
-        if (!isFromNormalDepot){
-            Resource res = currWarehouse.getDepot(fromIndex, false).getResource();
-            semiSwitchDone = semiSwitch(currWarehouse.getDepot(fromIndex, false), currWarehouse.getDepot(toIndex, true), res);
-        }else if (!isToNormalDepot){
-            Resource res = currWarehouse.getDepot(fromIndex, true).getResource();
-            semiSwitchDone = semiSwitch(currWarehouse.getDepot(fromIndex, true), currWarehouse.getDepot(toIndex, false), res);
-        }
+        checkPlayerState(ActionType.DEPOT_SWITCH);
 
-        if (semiSwitchDone){
-            sendDepotUpdate(isFromNormalDepot, fromIndex);
-            sendDepotUpdate(isToNormalDepot, toIndex);
-            return;
-        }
-
-        Resource from = currWarehouse.popResourceFromDepotAt(fromIndex, isFromNormalDepot);
-        Resource to = currWarehouse.popResourceFromDepotAt(toIndex, isToNormalDepot);
-
-        try{
-            if(from.getType() != ResourceType.ANY && !(!isFromNormalDepot && from.getValue() == 0)){
-                currWarehouse.addDepotResourceAt(toIndex, from, isToNormalDepot);
-            }
-
-            if(to.getType() != ResourceType.ANY && !(!isToNormalDepot && to.getValue() == 0)){
-                currWarehouse.addDepotResourceAt(fromIndex, to, isFromNormalDepot);
-            }
-        }
-        catch(Exception e){
-            currWarehouse.restoreDepot(fromIndex, isFromNormalDepot);
-            currWarehouse.addDepotResourceAt(fromIndex, from, isFromNormalDepot);
-
-            currWarehouse.restoreDepot(toIndex, isToNormalDepot);
-            currWarehouse.addDepotResourceAt(toIndex, to, isToNormalDepot);
-            throw e;
-        }
-
-        sendDepotUpdate(isFromNormalDepot, fromIndex);
-        sendDepotUpdate(isToNormalDepot, toIndex);
+        ResourceTransaction transaction = beginTransaction();
+        transaction.switchDepots(fromIndex, isFromNormalDepot, toIndex, isToNormalDepot);
+        transaction.commit();
     }
 
     /**
-     * Send depot update to all observers, making sure all the player can see the update
-     * @param index of depot i want to update
-     * @param isNormalDepot true if normal, false if leader
+     * Start a transaction over the warehouse, the strongbox and the buffer, see {@link ResourceTransaction}
+     * @return a new transaction
      * */
-    private void sendDepotUpdate(boolean isNormalDepot, int index){
-        Depot depot = currWarehouse.getDepot(index, isNormalDepot);
-        notifyAllObservers(x -> x.depotUpdate(depot.getResource(),index, isNormalDepot));
+    public ResourceTransaction beginTransaction(){
+        return new ResourceTransaction(this, currWarehouse, strongbox, resourcesBuffer);
     }
 
     /**
@@ -363,33 +452,24 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * @param res I want to add from the buffer
      */
     public void addToBuffer(Resource res){
-        if(resourcesBuffer.contains(res)){
-            resourcesBuffer.get(resourcesBuffer.indexOf(res)).addValue(res.getValue());
-        }
-        else{
-            resourcesBuffer.add(res);
-        }
+        resourcesBuffer.add(res);
     }
 
     /**
      * Used to remove a resource value from the buffer in resource manager
      * @param resource I want to remove from the buffer
-     * @throws NegativeResourceException if resource will go under value 0*/
-    public void subToBuffer(Resource resource) throws Exception {
-        if(resourcesBuffer.contains(resource)){
-            int resourceIndex = resourcesBuffer.indexOf(resource);
-            int delta = resourcesBuffer.get(resourceIndex).getValue() - resource.getValue();
-            resourcesBuffer.get(resourceIndex).subValue(resource.getValue());
-            if (delta == 0)
-                resourcesBuffer.remove(resourceIndex);
+     * @throws NegativeResourceException if the resource is not in the buffer or if it will go under value 0*/
+    public void subToBuffer(Resource resource) throws NegativeResourceException {
+        if(resourcesBuffer.contains(resource.getType())){
+            resourcesBuffer.sub(resource);
         }else{
-            throw new Exception("Resource not present in buffer");
+            throw NOT_IN_BUFFER;
         }
 
     }
 
     public int getBufferSize(){
-        return resourcesBuffer.stream().mapToInt(Resource::getValue).sum();
+        return resourcesBuffer.sum();
     }
 
     /**
@@ -399,13 +479,7 @@ public class ResourceManager extends GameMasterObservable implements Observable<
     public void addToResourcesToProduce(ArrayList<Resource> resources) {
         fromResourceToConcreteResource(resources, false, true,
                 true);
-        for (Resource res: resources){
-            if(resourcesToProduce.contains(res)){
-                resourcesToProduce.get(resourcesToProduce.indexOf(res)).addValue(res.getValue());
-            }else{
-                resourcesToProduce.add(res);
-            }
-        }
+        resourcesToProduce.addAll(resources);
 
         if(anyRequired == 0 && anyToProduce == 0){
             notifyGameMaster(x -> x.onPlayerStateChange(PlayerState.PRODUCTION_ACTION));
@@ -421,20 +495,13 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * @param res you want to have a discount with
      * */
     private void discount(Resource res){
-        int valueDiscount;
-        if(myDiscounts.contains(res)){
+        int valueDiscount = Math.min(myDiscounts.get(res.getType()), res.getValue());
+        if(valueDiscount > 0){
             try{
-                valueDiscount = myDiscounts.get(myDiscounts.indexOf(res)).getValue();
                 res.subValue(valueDiscount);
-                myDiscounts.remove(res);
-            }catch(NegativeResourceException e){
-                valueDiscount = res.getValue();
-                res.setValueToZero();
-                try {
-                    myDiscounts.get(myDiscounts.indexOf(res)).subValue(valueDiscount);
-                } catch (Exception ignored) {
-                    //it will never happen because res.getValue is less than the first valueDiscount
-                }
+                myDiscounts.sub(res.getType(), valueDiscount);
+            }catch(NegativeResourceException ignored){
+                //it will never happen because valueDiscount is the minimum of the two values
             }
         }
     }
@@ -447,33 +514,29 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * */
     public void canIAfford(ArrayList<Resource> resources, boolean checkDiscount) throws NotEnoughRequirementException {
         int extraRes = numberOfResource() - numberOfResourceInBuffer();
+        int anyBefore = anyRequired;
         fromResourceToConcreteResource(resources, true, false, false);
 
         ArrayList<Resource> tempBuffer = new ArrayList<>();
         for(Resource res : resources){
-            if (myResources.contains(res)){
-                if(checkDiscount) discount(res);
-                try {
-                    myResources.get(myResources.indexOf(res)).subValue(res.getValue());
-                    tempBuffer.add(res);
-                    extraRes -=  res.getValue();
-                } catch (NegativeResourceException e) {
-                    restoreMyResources(tempBuffer);
-                    throw new NotEnoughRequirementException("You don't have enough " + res.getType());
-
-                }
-            }
-            else{
+            if(checkDiscount) discount(res);
+            try {
+                myResources.sub(res);
+                tempBuffer.add(res);
+                extraRes -=  res.getValue();
+            } catch (NegativeResourceException e) {
                 restoreMyResources(tempBuffer);
-                throw new NotEnoughRequirementException("You don't have " + res.getType());
+                anyRequired = anyBefore;
+                throw new NotEnoughRequirementException("You don't have enough " + res.getType());
             }
-
         }
 
-        int numOfDiscountNotUsed =  myDiscounts.stream().mapToInt(Resource::getValue).sum();
+        //the discounts pay the any only when buying a card, they don't apply to the productions
+        int numOfDiscountNotUsed = checkDiscount ? myDiscounts.sum() : 0;
 
         if(extraRes + numOfDiscountNotUsed < anyRequired){
             restoreMyResources(tempBuffer);
+            anyRequired = anyBefore;
             throw new NotEnoughRequirementException("You don't have enough resources to try to " +
                     "transform the any resources required in your card");
         }
@@ -482,7 +545,7 @@ public class ResourceManager extends GameMasterObservable implements Observable<
         if(anyRequired == 0){
             if (checkDiscount){
                 notifyGameMaster(x -> x.onPlayerStateChange(PlayerState.BUY_DEV_RESOURCE_REMOVING));
-                notifyAllObservers(x-> x.warehouseRemovingRequest(resourcesBuffer));
+                notifyAllObservers(x-> x.warehouseRemovingRequest(resourcesBuffer.toResourceList()));
             }else{
                 notifyAllObservers(ResourceManagerObserver::productionCardSelectionCompleted);
             }
@@ -492,23 +555,49 @@ public class ResourceManager extends GameMasterObservable implements Observable<
             }else{
                 notifyGameMaster(x -> x.onPlayerStateChange(PlayerState.ANY_PRODUCE_COST_CONVERSION));
             }
-            notifyAllObservers(x -> x.anyRequirementConversionRequest(myResources, myDiscounts, anyRequired));
+            notifyAllObservers(x -> x.anyRequirementConversionRequest(myResources.toConcreteResourceList(),
+                    myDiscounts.toResourceList(), anyRequired));
         }
 
 
     }
 
     /**
-     * Store all the resource i own (strongbox + warehouse) in myResources arrayList
+     * Compute if u can afford some resources like {@link #canIAfford(ArrayList, boolean)} does, but without
+     * changing the buffer, the resources and the discounts of the turn
+     * @param resources i would like to be able to afford
+     * @param checkDiscount if u want you resource to be discounted
+     * @return true if u can afford the resources
      * */
-    private void allMyResources(){
-        myResources.clear();
-        ArrayList<Resource> resources = ResourceFactory.createAllConcreteResource();
-        for(Resource res : resources){
-            res.addValue(currWarehouse.howManyDoIHave(res.getType()));
-            res.addValue(strongbox.howManyDoIHave(res.getType()));
-            myResources.add(res);
+    public boolean canAfford(Collection<Resource> resources, boolean checkDiscount){
+        int extraRes = numberOfResource() - numberOfResourceInBuffer();
+        int any = anyRequired;
+        ResourceBag needed = new ResourceBag();
+        for (Resource res : resources){
+            if (res.getType() == ResourceType.ANY) any += res.getValue();
+            else if (res.getType() != ResourceType.FAITH) needed.add(res);
         }
+
+        int numOfDiscountNotUsed = checkDiscount ? myDiscounts.sum() : 0;
+        for (Resource res : needed.toResourceList()){
+            int value = res.getValue();
+            if (checkDiscount){
+                int valueDiscount = Math.min(myDiscounts.get(res.getType()), value);
+                value -= valueDiscount;
+                numOfDiscountNotUsed -= valueDiscount;
+            }
+            if (myResources.get(res.getType()) < value) return false;
+            extraRes -= value;
+        }
+        return extraRes + numOfDiscountNotUsed >= any;
+    }
+
+    /**
+     * Store all the resource i own (strongbox + warehouse) in myResources
+     * */
+    private void allMyResources(){
+        myResources.copyFrom(currWarehouse.getTotals());
+        myResources.addAll(strongbox.getTotals());
     }
 
     /**
@@ -516,18 +605,14 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * @return the number of resources i own
      * */
     public int howManyDoIHave(){
-        allMyResources();
-        return myResources.stream().mapToInt(Resource::getValue).sum();
+        return numberOfResource();
     }
 
     /**
      * Store all the discounts i own
      * */
     private void allMyDiscounts(){
-        myDiscounts.clear();
-        for (Resource discount: discounts){
-            myDiscounts.add(ResourceFactory.createResource(discount.getType(), discount.getValue()));
-        }
+        myDiscounts.copyFrom(discounts);
     }
 
     /**
@@ -535,13 +620,7 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * @return the value of resources i own
      * */
     private int numberOfResource(){
-        int value=0;
-        ArrayList<Resource> resources = ResourceFactory.createAllConcreteResource();
-        for(Resource res : resources){
-            value += currWarehouse.howManyDoIHave(res.getType());
-            value += strongbox.howManyDoIHave(res.getType());
-        }
-        return value;
+        return currWarehouse.getTotals().sum() + strongbox.getTotals().sum();
     }
 
     /**
@@ -549,14 +628,14 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * @return the value of resources i own in resourcesBuffer
      * */
     private int numberOfResourceInBuffer(){
-        return resourcesBuffer.stream().mapToInt(Resource::getValue).sum();
+        return resourcesBuffer.sum();
     }
 
     /**
      * Discard resources that you don't want to place
      * */
     public void discardResourcesFromMarket() throws InvalidStateActionException {
-        checkPlayerState(PlayerState.MARKET_RESOURCE_POSITIONING);
+        checkPlayerState(ActionType.DISCARD_MARKET_RESOURCES);
 
         notifyGameMaster(x -> x.discardResources(numberOfResourceInBuffer()));
         resourcesBuffer.clear();
@@ -567,15 +646,14 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * Notify observes the update of the buffer
      * */
     public void sendBufferUpdate(){
-        notifyAllObservers(x -> x.bufferUpdate(resourcesBuffer));
+        notifyAllObservers(x -> x.bufferUpdate(resourcesBuffer.toResourceList()));
     }
 
     /**
      * Return the number of VP from resources
      * */
     public int getVictoryPointsResource(){
-        int numRes = myResources.stream().mapToInt(Resource::getValue).sum();
-        return Math.floorDiv(numRes, 5);
+        return Math.floorDiv(numberOfResource(), 5);
     }
 
     /**Add a depot as a leaderDepot in the warehouse
@@ -604,14 +682,7 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * @param cardDiscounts that i have "discount"
      * */
     public void addDiscount(ArrayList<Resource> cardDiscounts) {
-        for(Resource dis : cardDiscounts){
-            if(discounts.contains(dis)){
-                discounts.get(discounts.indexOf(dis)).addValue(dis.getValue());
-            }
-            else{
-                discounts.add(dis);
-            }
-        }
+        discounts.addAll(cardDiscounts);
     }
 
     /**
@@ -621,11 +692,9 @@ public class ResourceManager extends GameMasterObservable implements Observable<
      * */
     public void removeDiscount(ArrayList<Resource> cardDiscounts){
         for(Resource dis: cardDiscounts){
-            if (discounts.contains(dis)){
-                try {
-                    discounts.get(discounts.indexOf(dis)).subValue(dis.getValue());
-                } catch (Exception ignored) {
-                }
+            try {
+                discounts.sub(dis);
+            } catch (NegativeResourceException ignored) {
             }
         }
     }
@@ -645,6 +714,20 @@ public class ResourceManager extends GameMasterObservable implements Observable<
         return anyRequired;
     }
 
+    /**
+     * Return the number of any still to choose as profit of the productions
+     * */
+    public int getAnyToProduce() {
+        return anyToProduce;
+    }
+
+    /**
+     * Return a copy of the resources still available to pay in this action
+     * */
+    public ResourceBag getAvailableResources() {
+        return myResources.copy();
+    }
+
     /**
      * Return the strongbox of curr player
      */
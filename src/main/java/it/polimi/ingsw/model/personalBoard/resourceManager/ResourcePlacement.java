@@ -0,0 +1,71 @@
+package it.polimi.ingsw.model.personalBoard.resourceManager;
+
+import it.polimi.ingsw.model.resource.Resource;
+import it.polimi.ingsw.model.resource.ResourceFactory;
+
+/**
+ * ResourcePlacement is a single step of a plan of resources moved between the buffer and the warehouse or
+ * the strongbox: where a resource of the buffer is put, or from where a resource of the buffer is taken.
+ */
+public class ResourcePlacement {
+    private final Resource resource;
+    private final boolean strongbox;
+    private final int depotIndex;
+    private final boolean normalDepot;
+
+    /**
+     * Construct a placement into or from a depot.
+     * @param resource the resource to move.
+     * @param depotIndex the index of the depot.
+     * @param normalDepot true if it's not a leader depot.
+     */
+    public ResourcePlacement(Resource resource, int depotIndex, boolean normalDepot) {
+        this.resource = resource;
+        this.strongbox = false;
+        this.depotIndex = depotIndex;
+        this.normalDepot = normalDepot;
+    }
+
+    /**
+     * Construct a placement from the strongbox.
+     * @param resource the resource to move.
+     */
+    public ResourcePlacement(Resource resource) {
+        this.resource = resource;
+        this.strongbox = true;
+        this.depotIndex = -1;
+        this.normalDepot = false;
+    }
+
+    /**
+     * Return a copy of the resource to move, so the depots never share it with the plan.
+     * @return a copy of the resource to move.
+     */
+    public Resource getResource() {
+        return ResourceFactory.createResource(resource.getType(), resource.getValue());
+    }
+
+    /**
+     * Return true if the resource is taken from the strongbox.
+     * @return true if the placement refers to the strongbox.
+     */
+    public boolean isStrongbox() {
+        return strongbox;
+    }
+
+    /**
+     * Return the index of the depot.
+     * @return the index of the depot, -1 for the strongbox.
+     */
+    public int getDepotIndex() {
+        return depotIndex;
+    }
+
+    /**
+     * Return true if it's not a leader depot.
+     * @return true if it's not a leader depot.
+     */
+    public boolean isNormalDepot() {
+        return normalDepot;
+    }
+}
@@ -0,0 +1,255 @@
+package it.polimi.ingsw.model.personalBoard.resourceManager;
+
+import it.polimi.ingsw.exception.InvalidOrganizationWarehouseException;
+import it.polimi.ingsw.exception.NegativeResourceException;
+import it.polimi.ingsw.exception.TooMuchResourceDepotException;
+import it.polimi.ingsw.model.resource.Resource;
+import it.polimi.ingsw.model.resource.ResourceBag;
+import it.polimi.ingsw.model.resource.ResourceFactory;
+import it.polimi.ingsw.model.resource.ResourceType;
+
+import java.util.ArrayList;
+
+/**
+ * ResourceTransaction stages the changes of the warehouse, the strongbox and the buffer of a ResourceManager.
+ * Every part is copied the first time it's changed, so the ResourceManager is left untouched until the commit,
+ * that copies back only the parts that really changed and notifies the observers once with the final difference.
+ * Dropping a transaction without committing it is the rollback: nothing has to be undone and nothing is sent.
+ */
+public class ResourceTransaction {
+    private final ResourceManager resourceManager;
+    private final Warehouse warehouse;
+    private final Strongbox strongbox;
+    private final ResourceBag buffer;
+    private Warehouse stagedWarehouse;
+    private Strongbox stagedStrongbox;
+    private ResourceBag stagedBuffer;
+    private boolean closed = false;
+
+    ResourceTransaction(ResourceManager resourceManager, Warehouse warehouse, Strongbox strongbox, ResourceBag buffer) {
+        this.resourceManager = resourceManager;
+        this.warehouse = warehouse;
+        this.strongbox = strongbox;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Return the staged warehouse, copying it the first time
+     * @return the staged warehouse
+     * */
+    private Warehouse stagedWarehouse(){
+        checkOpen();
+        if (stagedWarehouse == null) stagedWarehouse = warehouse.copy();
+        return stagedWarehouse;
+    }
+
+    /**
+     * Return the staged strongbox, copying it the first time
+     * @return the staged strongbox
+     * */
+    private Strongbox stagedStrongbox(){
+        checkOpen();
+        if (stagedStrongbox == null) stagedStrongbox = strongbox.copy();
+        return stagedStrongbox;
+    }
+
+    /**
+     * Return the staged buffer, copying it the first time
+     * @return the staged buffer
+     * */
+    private ResourceBag stagedBuffer(){
+        checkOpen();
+        if (stagedBuffer == null) stagedBuffer = buffer.copy();
+        return stagedBuffer;
+    }
+
+    /**
+     * Check that the transaction wasn't committed or rolled back yet
+     * @throws IllegalStateException if the transaction is closed
+     * */
+    private void checkOpen(){
+        if (closed) throw new IllegalStateException("The transaction is already closed");
+    }
+
+    /**
+     * Add a resource to the staged buffer
+     * @param resource to add
+     * */
+    public void addToBuffer(Resource resource){
+        stagedBuffer().add(resource);
+    }
+
+    /**
+     * Remove a resource from the staged buffer
+     * @param resource to remove
+     * @throws NegativeResourceException if the resource is not in the buffer or if it will go under value 0
+     * */
+    public void subToBuffer(Resource resource) throws NegativeResourceException {
+        if (!stagedBuffer().contains(resource.getType()))
+            throw ResourceManager.NOT_IN_BUFFER;
+        stagedBuffer.sub(resource);
+    }
+
+    /**
+     * Empty the staged buffer
+     * */
+    public void clearBuffer(){
+        stagedBuffer().clear();
+    }
+
+    /**
+     * Empty a depot of the staged warehouse
+     * @param isNormalDepot true for default false for leaderDepots
+     * @param index of the depot
+     * */
+    public void emptyDepot(boolean isNormalDepot, int index){
+        stagedWarehouse().restoreDepot(index, isNormalDepot);
+    }
+
+    /**
+     * Add a resource to a depot of the staged warehouse
+     * @param isNormalDepot true for default false for leaderDepots
+     * @param index of the depot
+     * @param resource to add, it's copied so the caller can keep using it
+     * @throws TooMuchResourceDepotException if adding too much res in the depot
+     * @throws InvalidOrganizationWarehouseException if the resource can't be stored in the depot
+     * */
+    public void addToWarehouse(boolean isNormalDepot, int index, Resource resource) throws TooMuchResourceDepotException, InvalidOrganizationWarehouseException {
+        stagedWarehouse().addDepotResourceAt(index, copyOf(resource), isNormalDepot);
+    }
+
+    /**
+     * Subtract a resource from a depot of the staged warehouse
+     * @param isNormalDepot true for default false for leaderDepots
+     * @param index of the depot
+     * @param resource to subtract
+     * @throws NegativeResourceException if the value of the resource in depot goes under 0
+     * @throws InvalidOrganizationWarehouseException if the depot stores another type
+     * */
+    public void subToWarehouse(boolean isNormalDepot, int index, Resource resource) throws NegativeResourceException, InvalidOrganizationWarehouseException {
+        stagedWarehouse().subDepotResourceAt(index, copyOf(resource), isNormalDepot);
+    }
+
+    /**
+     * Subtract a resource from the staged strongbox
+     * @param resource to subtract
+     * @throws NegativeResourceException if u try to subtract more than you own
+     * */
+    public void subToStrongbox(Resource resource) throws NegativeResourceException {
+        stagedStrongbox().subResource(resource);
+    }
+
+    /**
+     * Switch the resources of two depots of the staged warehouse
+     * @param fromIndex from where i want to move
+     * @param isFromNormalDepot true if normal, false if leader
+     * @param toIndex where i want to put the resources
+     * @param isToNormalDepot true if normal, false if leader
+     * @throws TooMuchResourceDepotException if there is too many resources in one depot at the end
+     * @throws InvalidOrganizationWarehouseException if u can't do the switch u are asking for
+     * */
+    public void switchDepots(int fromIndex, boolean isFromNormalDepot, int toIndex, boolean isToNormalDepot) throws TooMuchResourceDepotException, InvalidOrganizationWarehouseException {
+        Warehouse staged = stagedWarehouse();
+        if (!isFromNormalDepot || !isToNormalDepot){
+            Depot fromDepot = staged.getDepot(fromIndex, isFromNormalDepot);
+            Depot toDepot = staged.getDepot(toIndex, isToNormalDepot);
+            if (isFromNormalDepot != isToNormalDepot && semiSwitch(fromDepot, toDepot, fromDepot.getResource()))
+                return;
+        }
+
+        Resource from = staged.popResourceFromDepotAt(fromIndex, isFromNormalDepot);
+        Resource to = staged.popResourceFromDepotAt(toIndex, isToNormalDepot);
+        if (from.getType() != ResourceType.ANY && !(!isFromNormalDepot && from.getValue() == 0))
+            staged.addDepotResourceAt(toIndex, from, isToNormalDepot);
+        if (to.getType() != ResourceType.ANY && !(!isToNormalDepot && to.getValue() == 0))
+            staged.addDepotResourceAt(fromIndex, to, isFromNormalDepot);
+    }
+
+    /**
+     * Semi switch moves the resources between a leader depot and a normal depot storing the same type, as many as fit
+     * @param fromDepot from where i want to move
+     * @param toDepot where i want to put the resources
+     * @param res resource to switch
+     * @return true if the resources were moved, false otherwise
+     * @throws TooMuchResourceDepotException if there is too many resources in one depot at the end
+     * */
+    private boolean semiSwitch(Depot fromDepot, Depot toDepot, Resource res) throws TooMuchResourceDepotException {
+        if (res.getType() != toDepot.getResourceType())
+            return false;
+        int available = toDepot.getMaxStorable() - toDepot.getResourceValue();
+        if (available <= 0)
+            return false;
+        int moved = Math.min(available, res.getValue());
+        toDepot.addResource(ResourceFactory.createResource(res.getType(), moved));
+        try {
+            fromDepot.subResource(ResourceFactory.createResource(res.getType(), moved));
+        } catch (NegativeResourceException | InvalidOrganizationWarehouseException e) {
+            fromDepot.setEmptyResource();
+        }
+        return true;
+    }
+
+    /**
+     * Copy back in the ResourceManager the staged parts that changed and notify the observers only of them: a single
+     * depot is sent on its own, more depots are sent with the strongbox in one update of the whole warehouse
+     * */
+    public void commit(){
+        checkOpen();
+        closed = true;
+
+        ArrayList<Depot> changedDepots = new ArrayList<>();
+        ArrayList<Integer> changedIndexes = new ArrayList<>();
+        ArrayList<Boolean> changedKinds = new ArrayList<>();
+        if (stagedWarehouse != null){
+            for (boolean isNormalDepot : new boolean[]{true, false}){
+                for (int i = 0; i < warehouse.howManyDepots(isNormalDepot); i++){
+                    if (!warehouse.getDepot(i, isNormalDepot).sameResourceOf(stagedWarehouse.getDepot(i, isNormalDepot))){
+                        changedDepots.add(warehouse.getDepot(i, isNormalDepot));
+                        changedIndexes.add(i);
+                        changedKinds.add(isNormalDepot);
+                    }
+                }
+            }
+        }
+        boolean strongboxChanged = stagedStrongbox != null && !strongbox.getTotals().equals(stagedStrongbox.getTotals());
+        boolean bufferChanged = stagedBuffer != null && !buffer.equals(stagedBuffer);
+
+        if (!changedDepots.isEmpty()) warehouse.copyFrom(stagedWarehouse);
+        if (strongboxChanged) strongbox.copyFrom(stagedStrongbox);
+        if (bufferChanged) buffer.copyFrom(stagedBuffer);
+
+        if (changedDepots.size() > 1){
+            resourceManager.notifyAllObservers(x -> x.warehouseLayoutUpdate(warehouse, strongbox.getResources()));
+        }else{
+            if (!changedDepots.isEmpty()){
+                Resource resource = changedDepots.get(0).getResource();
+                int index = changedIndexes.get(0);
+                boolean isNormalDepot = changedKinds.get(0);
+                resourceManager.notifyAllObservers(x -> x.depotUpdate(resource, index, isNormalDepot));
+            }
+            if (strongboxChanged)
+                resourceManager.notifyAllObservers(x -> x.strongboxUpdate(strongbox.getResources()));
+        }
+        if (bufferChanged)
+            resourceManager.sendBufferUpdate();
+    }
+
+    /**
+     * Drop all the staged changes, nothing is sent to the observers
+     * */
+    public void rollback(){
+        closed = true;
+        stagedWarehouse = null;
+        stagedStrongbox = null;
+        stagedBuffer = null;
+    }
+
+    /**
+     * Return a copy of the resource, because an empty depot keeps the resource it receives
+     * @param resource to copy
+     * @return a copy of the resource
+     * */
+    private static Resource copyOf(Resource resource){
+        return ResourceFactory.createResource(resource.getType(), resource.getValue());
+    }
+}
@@ -4,7 +4,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import it.polimi.ingsw.client.data.ResourceData;
 import it.polimi.ingsw.exception.NegativeResourceException;
 import it.polimi.ingsw.model.resource.Resource;
-import it.polimi.ingsw.model.resource.ResourceFactory;
+import it.polimi.ingsw.model.resource.ResourceBag;
 import it.polimi.ingsw.model.resource.ResourceType;
 
 import java.util.ArrayList;
@@ -14,7 +14,7 @@ import java.util.ArrayList;
 public class Strongbox{
 
 
-    private final ArrayList<Resource> resources;
+    private final ResourceBag resources;
 
 
     /**
@@ -22,7 +22,25 @@ public class Strongbox{
      * */
     @JsonCreator
     public Strongbox() {
-        resources=ResourceFactory.createAllConcreteResource();
+        resources=new ResourceBag();
+    }
+
+    /**
+     * Return a copy of the strongbox, used to stage its changes
+     * @return a copy of the strongbox
+     * */
+    Strongbox copy(){
+        Strongbox copy = new Strongbox();
+        copy.resources.copyFrom(resources);
+        return copy;
+    }
+
+    /**
+     * Copy the resources of another strongbox in this one
+     * @param other the strongbox to copy
+     * */
+    void copyFrom(Strongbox other){
+        resources.copyFrom(other.resources);
     }
 
     /**
@@ -30,7 +48,7 @@ public class Strongbox{
      * @param resource to add to the existing one
      * */
     public void addResource(Resource resource){
-        resources.get(resources.indexOf(resource)).addValue(resource.getValue());
+        resources.add(resource);
     }
 
     /**
@@ -39,27 +57,39 @@ public class Strongbox{
      * @throws NegativeResourceException if trying to sub more than Strongbox own
      * */
     public void subResource(Resource resource) throws NegativeResourceException {
-        resources.get(resources.indexOf(resource)).subValue(resource.getValue());
+        resources.sub(resource);
     }
 
     /**
      * Return the value that i own of that specific ResourceType
      * @param resourceType i want to find*/
     public int howManyDoIHave(ResourceType resourceType){
-        return resources.get(resources.indexOf(ResourceFactory.createResource(resourceType, 0))).getValue();
+        return resources.get(resourceType);
     }
 
-    public ArrayList<Resource> getResources() {
+    /**
+     * Return the total of every type of resource stored in the strongbox
+     * @return the totals of the strongbox
+     * */
+    ResourceBag getTotals(){
         return resources;
     }
 
+    /**
+     * Return all the concrete resources of the strongbox, even the ones with value 0
+     * @return the arrayList of the resources of the strongbox
+     * */
+    public ArrayList<Resource> getResources() {
+        return resources.toConcreteResourceList();
+    }
+
     /**
      * Return the array of resourceData read to be sent
      * @return the arrayList of ResourceData to sent
      * */
     public ArrayList<ResourceData> toStrongboxData(){
         ArrayList<ResourceData> strongboxData = new ArrayList<>();
-        for (Resource resource: resources)
+        for (Resource resource: getResources())
             strongboxData.add(resource.toClient());
         return strongboxData;
     }
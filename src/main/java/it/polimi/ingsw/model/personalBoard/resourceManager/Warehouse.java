@@ -6,6 +6,7 @@ import it.polimi.ingsw.exception.InvalidOrganizationWarehouseException;
 import it.polimi.ingsw.exception.NegativeResourceException;
 import it.polimi.ingsw.exception.TooMuchResourceDepotException;
 import it.polimi.ingsw.model.resource.Resource;
+import it.polimi.ingsw.model.resource.ResourceBag;
 import it.polimi.ingsw.model.resource.ResourceType;
 import java.util.ArrayList;
 import java.util.OptionalInt;
@@ -13,8 +14,11 @@ import java.util.OptionalInt;
  * Warehouse class represent the depot storage in the personal board
  * */
 public class Warehouse{
+    private static final InvalidOrganizationWarehouseException DIFFERENT_TYPE =
+            new InvalidOrganizationWarehouseException("You try to add a resource type different from his own");
     private ArrayList<Depot> depots = new ArrayList<>();
     private ArrayList<Depot> depotsLeader = new ArrayList<>();
+    private final ResourceBag totals = new ResourceBag();
 
     /**
      * Main constructor of warehouse, create all his depots
@@ -32,6 +36,33 @@ public class Warehouse{
     public Warehouse(ArrayList<Depot> depots, ArrayList<Depot> depotsLeader){
         this.depots=depots;
         this.depotsLeader=depotsLeader;
+        depots.forEach(x -> totals.add(x.getResource()));
+        depotsLeader.forEach(x -> totals.add(x.getResource()));
+    }
+
+    /**
+     * Return a copy of the warehouse with a copy of every depot, used to stage its changes
+     * @return a copy of the warehouse
+     * */
+    Warehouse copy(){
+        ArrayList<Depot> depotsCopy = new ArrayList<>(depots.size());
+        ArrayList<Depot> depotsLeaderCopy = new ArrayList<>(depotsLeader.size());
+        depots.forEach(x -> depotsCopy.add(x.copy()));
+        depotsLeader.forEach(x -> depotsLeaderCopy.add(x.copy()));
+        return new Warehouse(depotsCopy, depotsLeaderCopy);
+    }
+
+    /**
+     * Copy the resources of every depot of a copy of this warehouse, the depots are kept because the leaders
+     * share their depots with the warehouse
+     * @param other a copy of this warehouse
+     * */
+    void copyFrom(Warehouse other){
+        for (int i = 0; i < depots.size(); i++)
+            depots.get(i).copyResourceFrom(other.depots.get(i));
+        for (int i = 0; i < depotsLeader.size(); i++)
+            depotsLeader.get(i).copyResourceFrom(other.depotsLeader.get(i));
+        totals.copyFrom(other.totals);
     }
 
     /**
@@ -40,6 +71,7 @@ public class Warehouse{
      */
     public void addDepotLeader(Depot depot){
         depotsLeader.add(depot);
+        totals.add(depot.getResource());
     }
 
     /**
@@ -52,7 +84,7 @@ public class Warehouse{
                 .filter(x -> x.getResourceType() == depotToRemove.getResourceType() &&
                         x.getMaxStorable() == depotToRemove.getMaxStorable())
                 .mapToInt(depotsLeader::indexOf).findFirst();
-        index.ifPresent(depotsLeader::remove);
+        index.ifPresent(x -> uncount(depotsLeader.remove(x)));
     }
 
     /**
@@ -67,13 +99,14 @@ public class Warehouse{
         Depot depot = getDepot(indexDepot, isNormalDepot);
 
         if(depot.getResourceType()!=resource.getType() && depot.getResourceType() != ResourceType.ANY){
-            throw new InvalidOrganizationWarehouseException("You try to add a resource type different from his own");
+            throw DIFFERENT_TYPE;
         }
         if(isNormalDepot && (depot.getResourceType() == ResourceType.ANY) && doIHaveADepotWith(resource.getType())){
             throw new InvalidOrganizationWarehouseException("You can't add " + resource.getType() +" because you " +
                     "have those already stored in another depot");
         }
         depot.addResource(resource);
+        totals.add(resource);
     }
 
 
@@ -89,6 +122,7 @@ public class Warehouse{
      * */
     public void subDepotResourceAt(int indexDepot, Resource resource, boolean isNormalDepot) throws NegativeResourceException, IndexOutOfBoundsException, InvalidOrganizationWarehouseException {
         getDepot(indexDepot, isNormalDepot).subResource(resource);
+        totals.sub(resource);
     }
 
     /**
@@ -119,6 +153,7 @@ public class Warehouse{
         else depot = depotsLeader.get(indexDepot);
 
         Resource resource = depot.getResource();
+        uncount(depot);
         depot.setEmptyResource();
         return resource;
     }
@@ -128,18 +163,14 @@ public class Warehouse{
      * @param resourceType i want to find
      * @return the value of resourceType i own*/
     public int howManyDoIHave(ResourceType resourceType){
-        int num=0;
-        for(Depot dep:depots){
-            if(dep.getResourceType()==resourceType){
-                num+=dep.getResourceValue();
-            }
-        }
-        for(Depot dep : depotsLeader){
-            if(dep.getResourceType()==resourceType){
-                num+=dep.getResourceValue();
-            }
-        }
-        return num;
+        return totals.get(resourceType);
+    }
+
+    /**
+     * Return the total of every type of resource stored in the warehouse(Leader + Normal), kept up to date on every change
+     * @return the totals of the warehouse*/
+    ResourceBag getTotals(){
+        return totals;
     }
 
     /**
@@ -149,9 +180,22 @@ public class Warehouse{
      * */
     public void restoreDepot(int depotIndex, boolean isNormalDepot){
         Depot depot = getDepot(depotIndex, isNormalDepot);
+        uncount(depot);
         depot.setEmptyResource();
     }
 
+    /**
+     * Remove the resources stored in a depot from the totals of the warehouse
+     * @param depot the depot that is going to be emptied or removed
+     * */
+    private void uncount(Depot depot){
+        try {
+            totals.sub(depot.getResource());
+        } catch (NegativeResourceException ignored) {
+            //it will never happen because the totals always include the resources of every depot
+        }
+    }
+
     /**
      * Return a normal depot
      * @param index of the depot i want
@@ -174,6 +218,15 @@ public class Warehouse{
     }
 
 
+    /**
+     * Return the number of depots
+     * @param isNormalDepot true if normal, false if leader
+     * @return the number of depots of that kind
+     * */
+    public int howManyDepots(boolean isNormalDepot){
+        return isNormalDepot ? depots.size() : depotsLeader.size();
+    }
+
     /**
      * Return a depot
      * @param index of he depot i want
@@ -0,0 +1,261 @@
+package it.polimi.ingsw.model.personalBoard.resourceManager;
+
+import it.polimi.ingsw.client.data.ResourceData;
+import it.polimi.ingsw.model.resource.Resource;
+import it.polimi.ingsw.model.resource.ResourceBag;
+import it.polimi.ingsw.model.resource.ResourceFactory;
+import it.polimi.ingsw.model.resource.ResourceType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * WarehouseArrangement is the arrangement of the warehouse that keeps the most resources when the resources of the
+ * buffer have to be placed: every way of giving a different type (or nothing) to the normal depots is tried, the
+ * leader depots keep their type, and the resources already stored are never discarded.
+ * Among the arrangements that keep the same number of resources, the one that changes fewer normal depots is chosen.
+ */
+public class WarehouseArrangement {
+    private static final ResourceType[] TYPES = {ResourceType.COIN, ResourceType.SHIELD,
+            ResourceType.STONE, ResourceType.SERVANT};
+    private static final int EMPTY = -1;
+
+    private final Resource[] normalDepots;
+    private final Resource[] leaderDepots;
+    private final ResourceBag kept;
+    private final ResourceBag discarded;
+
+    private WarehouseArrangement(Resource[] normalDepots, Resource[] leaderDepots, ResourceBag kept, ResourceBag discarded) {
+        this.normalDepots = normalDepots;
+        this.leaderDepots = leaderDepots;
+        this.kept = kept;
+        this.discarded = discarded;
+    }
+
+    /**
+     * Find the arrangement of the warehouse that keeps the most resources of the buffer, without changing anything.
+     * @param warehouse the warehouse of the player.
+     * @param buffer the resources to place.
+     * @return the best arrangement.
+     */
+    public static WarehouseArrangement best(Warehouse warehouse, ResourceBag buffer){
+        int normals = warehouse.howManyDepots(true);
+        int[] capacities = new int[normals];
+        int[] currentTypes = new int[normals];
+        for (int i = 0; i < normals; i++){
+            Depot depot = warehouse.getDepot(i, true);
+            capacities[i] = depot.getMaxStorable();
+            currentTypes[i] = indexOf(depot.getResourceType());
+        }
+
+        int[] owned = new int[TYPES.length];
+        int[] available = new int[TYPES.length];
+        int[] leaderCapacity = new int[TYPES.length];
+        for (int t = 0; t < TYPES.length; t++){
+            owned[t] = warehouse.howManyDoIHave(TYPES[t]);
+            available[t] = owned[t] + buffer.get(TYPES[t]);
+        }
+        for (Depot depot : warehouse.getDepotsLeader()){
+            int t = indexOf(depot.getResourceType());
+            if (t != EMPTY) leaderCapacity[t] += depot.getMaxStorable();
+        }
+
+        Search search = new Search(capacities, currentTypes, owned, available, leaderCapacity);
+        search.visit(0, 0, new int[normals]);
+        return build(warehouse, search.bestChoice, available, buffer);
+    }
+
+    /**
+     * Fill the depots following the types chosen for the normal depots: the leader depots are filled first.
+     * @param warehouse the warehouse of the player.
+     * @param choice the index of the type of every normal depot, EMPTY if it has no type.
+     * @param available the resources of every type between warehouse and buffer.
+     * @param buffer the resources to place.
+     * @return the arrangement.
+     */
+    private static WarehouseArrangement build(Warehouse warehouse, int[] choice, int[] available, ResourceBag buffer){
+        int[] left = available.clone();
+        ArrayList<Depot> leaders = warehouse.getDepotsLeader();
+        Resource[] leaderDepots = new Resource[leaders.size()];
+        for (int j = 0; j < leaders.size(); j++){
+            Depot depot = leaders.get(j);
+            int t = indexOf(depot.getResourceType());
+            int value = t == EMPTY ? 0 : Math.min(left[t], depot.getMaxStorable());
+            if (t != EMPTY) left[t] -= value;
+            leaderDepots[j] = ResourceFactory.createResource(depot.getResourceType(), value);
+        }
+
+        Resource[] normalDepots = new Resource[choice.length];
+        for (int i = 0; i < choice.length; i++){
+            int t = choice[i];
+            int value = t == EMPTY ? 0 : Math.min(left[t], warehouse.getDepot(i, true).getMaxStorable());
+            if (value == 0){
+                normalDepots[i] = ResourceFactory.createResource(ResourceType.ANY, 0);
+            }else{
+                left[t] -= value;
+                normalDepots[i] = ResourceFactory.createResource(TYPES[t], value);
+            }
+        }
+
+        ResourceBag kept = new ResourceBag();
+        ResourceBag discarded = new ResourceBag();
+        for (int t = 0; t < TYPES.length; t++){
+            kept.add(TYPES[t], available[t] - left[t]);
+            discarded.add(TYPES[t], Math.min(left[t], buffer.get(TYPES[t])));
+        }
+        return new WarehouseArrangement(normalDepots, leaderDepots, kept, discarded);
+    }
+
+    /**
+     * Return the index of a concrete type.
+     * @param type the type of resource.
+     * @return the index of the type, EMPTY if it's not a concrete type.
+     */
+    private static int indexOf(ResourceType type){
+        for (int t = 0; t < TYPES.length; t++){
+            if (TYPES[t] == type) return t;
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Return the resource of a depot in the arrangement, ANY with value 0 if the normal depot is empty.
+     * @param index the index of the depot.
+     * @param isNormalDepot true if normal, false if leader.
+     * @return a copy of the resource of the depot.
+     */
+    public Resource getDepot(int index, boolean isNormalDepot){
+        Resource resource = isNormalDepot ? normalDepots[index] : leaderDepots[index];
+        return ResourceFactory.createResource(resource.getType(), resource.getValue());
+    }
+
+    /**
+     * Return the number of depots in the arrangement.
+     * @param isNormalDepot true if normal, false if leader.
+     * @return the number of depots of that kind.
+     */
+    public int howManyDepots(boolean isNormalDepot){
+        return isNormalDepot ? normalDepots.length : leaderDepots.length;
+    }
+
+    /**
+     * Return how many resources of a type are stored in the arrangement.
+     * @param type the type of resource.
+     * @return how many resources of the type are kept.
+     */
+    public int howManyKept(ResourceType type){
+        return kept.get(type);
+    }
+
+    /**
+     * Return the number of resources of the buffer that don't fit in the arrangement.
+     * @return the number of discarded resources.
+     */
+    public int howManyDiscarded(){
+        return discarded.sum();
+    }
+
+    /**
+     * Return the resources of the buffer that don't fit in the arrangement.
+     * @return the list of discarded resources.
+     */
+    public ArrayList<Resource> toDiscardedList(){
+        return discarded.toResourceList();
+    }
+
+    /**
+     * Return the normal depots of the arrangement as ResourceData.
+     * @return the normal depots as ResourceData.
+     */
+    public ArrayList<ResourceData> toStandardDepotData(){
+        return toData(normalDepots);
+    }
+
+    /**
+     * Return the leader depots of the arrangement as ResourceData.
+     * @return the leader depots as ResourceData.
+     */
+    public ArrayList<ResourceData> toLeaderDepotData(){
+        return toData(leaderDepots);
+    }
+
+    /**
+     * Convert the depots to ResourceData.
+     * @param depots the depots to convert.
+     * @return the depots as ResourceData.
+     */
+    private static ArrayList<ResourceData> toData(Resource[] depots){
+        ArrayList<ResourceData> data = new ArrayList<>(depots.length);
+        Arrays.stream(depots).forEach(x -> data.add(x.toClient()));
+        return data;
+    }
+
+    /**
+     * The exhaustive search over the types of the normal depots.
+     */
+    private static final class Search {
+        private final int[] capacities;
+        private final int[] currentTypes;
+        private final int[] owned;
+        private final int[] available;
+        private final int[] leaderCapacity;
+        private int[] bestChoice;
+        private int bestKept = -1;
+        private int bestUnchanged = -1;
+
+        private Search(int[] capacities, int[] currentTypes, int[] owned, int[] available, int[] leaderCapacity) {
+            this.capacities = capacities;
+            this.currentTypes = currentTypes;
+            this.owned = owned;
+            this.available = available;
+            this.leaderCapacity = leaderCapacity;
+            this.bestChoice = currentTypes.clone();
+        }
+
+        /**
+         * Give a type to the depot and go on with the next one, evaluating the choice when all depots have a type.
+         * @param depot the index of the normal depot.
+         * @param usedTypes the mask of the types already given to a normal depot.
+         * @param choice the types chosen so far.
+         */
+        private void visit(int depot, int usedTypes, int[] choice){
+            if (depot == choice.length){
+                evaluate(choice);
+                return;
+            }
+            choice[depot] = EMPTY;
+            visit(depot + 1, usedTypes, choice);
+            for (int t = 0; t < TYPES.length; t++){
+                if ((usedTypes & (1 << t)) != 0 || available[t] == 0)
+                    continue;
+                choice[depot] = t;
+                visit(depot + 1, usedTypes | (1 << t), choice);
+            }
+        }
+
+        /**
+         * Keep the choice if it stores all the resources already owned and it's better than the best one.
+         * @param choice the type of every normal depot.
+         */
+        private void evaluate(int[] choice){
+            int[] capacity = leaderCapacity.clone();
+            for (int i = 0; i < choice.length; i++){
+                if (choice[i] != EMPTY) capacity[choice[i]] += capacities[i];
+            }
+            int kept = 0;
+            for (int t = 0; t < TYPES.length; t++){
+                if (capacity[t] < owned[t]) return;
+                kept += Math.min(capacity[t], available[t]);
+            }
+            int unchanged = 0;
+            for (int i = 0; i < choice.length; i++){
+                if (choice[i] == currentTypes[i]) unchanged++;
+            }
+            if (kept > bestKept || (kept == bestKept && unchanged > bestUnchanged)){
+                bestKept = kept;
+                bestUnchanged = unchanged;
+                bestChoice = choice.clone();
+            }
+        }
+    }
+}
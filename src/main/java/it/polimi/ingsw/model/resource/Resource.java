@@ -9,6 +9,8 @@ import it.polimi.ingsw.exception.NegativeResourceException;
  * Resource define the a resource entity.
  */
 public class Resource {
+    private static final NegativeResourceException UNDERESTIMATE =
+            new NegativeResourceException("Trying to underestimate resource value");
     private final ResourceType type;
     private int value;
 
@@ -47,7 +49,7 @@ public class Resource {
     public void subValue(int value) throws NegativeResourceException {
         int valueAbs = Math.abs(value);
         if (this.value - valueAbs < 0){
-            throw new NegativeResourceException("Trying to underestimate resource value");
+            throw UNDERESTIMATE;
         }
         this.value -= valueAbs;
     }
@@ -0,0 +1,213 @@
+package it.polimi.ingsw.model.resource;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import it.polimi.ingsw.exception.NegativeResourceException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * ResourceBag is a multiset of resources that keeps the amount of every type in an array indexed by
+ * {@link ResourceType#ordinal()}, so add, sub, contains and sum don't allocate nor scan lists.
+ */
+public class ResourceBag {
+    private static final NegativeResourceException UNDERESTIMATE =
+            new NegativeResourceException("Trying to underestimate resource value");
+    private static final ResourceType[] TYPES = ResourceType.values();
+    private static final ResourceType[] CONCRETE_TYPES = {ResourceType.COIN, ResourceType.SHIELD,
+            ResourceType.SERVANT, ResourceType.STONE};
+
+    private final int[] amounts;
+
+    /**
+     * Construct an empty bag.
+     */
+    public ResourceBag() {
+        amounts = new int[TYPES.length];
+    }
+
+    /**
+     * Construct a bag with the given amounts.
+     * @param amounts the amount of every type, indexed by ordinal.
+     */
+    @JsonCreator
+    public ResourceBag(@JsonProperty("amounts") int[] amounts) {
+        this.amounts = amounts == null ? new int[TYPES.length] : Arrays.copyOf(amounts, TYPES.length);
+    }
+
+    /**
+     * Return a bag with the sum of the resources in the collection.
+     * @param resources the resources to add.
+     * @return a bag with the sum of the resources.
+     */
+    public static ResourceBag of(Collection<Resource> resources){
+        ResourceBag bag = new ResourceBag();
+        bag.addAll(resources);
+        return bag;
+    }
+
+    /**
+     * Return the amount of a type.
+     * @param type the type of the resource.
+     * @return the amount of the type.
+     */
+    public int get(ResourceType type){
+        return amounts[type.ordinal()];
+    }
+
+    /**
+     * Return true if the bag contains at least one resource of a type.
+     * @param type the type of the resource.
+     * @return true if the amount of the type is greater than 0.
+     */
+    public boolean contains(ResourceType type){
+        return amounts[type.ordinal()] > 0;
+    }
+
+    /**
+     * Add value to the amount of a type.
+     * @param type the type of the resource.
+     * @param value the value to add.
+     */
+    public void add(ResourceType type, int value){
+        amounts[type.ordinal()] += Math.abs(value);
+    }
+
+    /**
+     * Add a resource to the bag.
+     * @param resource the resource to add.
+     */
+    public void add(Resource resource){
+        add(resource.getType(), resource.getValue());
+    }
+
+    /**
+     * Add all the resources of a collection to the bag.
+     * @param resources the resources to add.
+     */
+    public void addAll(Collection<Resource> resources){
+        for (Resource resource : resources)
+            add(resource);
+    }
+
+    /**
+     * Add all the resources of another bag to the bag.
+     * @param other the bag to add.
+     */
+    public void addAll(ResourceBag other){
+        for (int i = 0; i < amounts.length; i++)
+            amounts[i] += other.amounts[i];
+    }
+
+    /**
+     * Subtract value to the amount of a type.
+     * @param type the type of the resource.
+     * @param value the value to subtract.
+     * @throws NegativeResourceException if the amount will be < 0.
+     */
+    public void sub(ResourceType type, int value) throws NegativeResourceException {
+        int valueAbs = Math.abs(value);
+        if (amounts[type.ordinal()] - valueAbs < 0){
+            throw UNDERESTIMATE;
+        }
+        amounts[type.ordinal()] -= valueAbs;
+    }
+
+    /**
+     * Subtract a resource to the bag.
+     * @param resource the resource to subtract.
+     * @throws NegativeResourceException if the amount will be < 0.
+     */
+    public void sub(Resource resource) throws NegativeResourceException {
+        sub(resource.getType(), resource.getValue());
+    }
+
+    /**
+     * Set the amount of a type to 0.
+     * @param type the type of the resource.
+     */
+    public void remove(ResourceType type){
+        amounts[type.ordinal()] = 0;
+    }
+
+    /**
+     * Return the sum of the amounts of all the types.
+     * @return the sum of the amounts.
+     */
+    public int sum(){
+        int sum = 0;
+        for (int amount : amounts)
+            sum += amount;
+        return sum;
+    }
+
+    /**
+     * Set all the amounts to 0.
+     */
+    public void clear(){
+        Arrays.fill(amounts, 0);
+    }
+
+    /**
+     * Copy the amounts of another bag in this bag.
+     * @param other the bag to copy.
+     */
+    public void copyFrom(ResourceBag other){
+        System.arraycopy(other.amounts, 0, amounts, 0, amounts.length);
+    }
+
+    /**
+     * Return a new bag with the same amounts of this bag.
+     * @return a copy of the bag.
+     */
+    public ResourceBag copy(){
+        return new ResourceBag(amounts);
+    }
+
+    /**
+     * Return an ArrayList with a Resource for every type contained in the bag.
+     * @return an ArrayList with the resources contained in the bag.
+     */
+    public ArrayList<Resource> toResourceList(){
+        ArrayList<Resource> resources = new ArrayList<>();
+        for (ResourceType type : TYPES){
+            if (amounts[type.ordinal()] > 0)
+                resources.add(ResourceFactory.createResource(type, amounts[type.ordinal()]));
+        }
+        return resources;
+    }
+
+    /**
+     * Return an ArrayList with all the concrete resources, COIN, SHIELD, SERVANT and STONE, even if their amount is 0.
+     * @return an ArrayList with all the concrete resources.
+     */
+    public ArrayList<Resource> toConcreteResourceList(){
+        ArrayList<Resource> resources = new ArrayList<>();
+        for (ResourceType type : CONCRETE_TYPES)
+            resources.add(ResourceFactory.createResource(type, amounts[type.ordinal()]));
+        return resources;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(amounts, ((ResourceBag) o).amounts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(amounts);
+    }
+
+    /**
+     * Return a string that describe the bag.
+     * @return a string that describe the bag.
+     */
+    @Override
+    public String toString() {
+        return toResourceList().toString();
+    }
+}
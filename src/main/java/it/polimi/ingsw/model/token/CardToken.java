@@ -23,6 +23,22 @@ public class CardToken implements Token{
         this.numDiscard = numDiscard;
     }
 
+    /**
+     * Return the color of the cards discarded.
+     * @return the color of the cards discarded.
+     */
+    public Color getCardColor() {
+        return cardColor;
+    }
+
+    /**
+     * Return the number of cards discarded.
+     * @return the number of cards discarded.
+     */
+    public int getNumDiscard() {
+        return numDiscard;
+    }
+
     /**
      * Discard the cards in the deck development.
      * @param lorenzoIlMagnifico is a class that can perform LorenzoIlMagnifico's actions.
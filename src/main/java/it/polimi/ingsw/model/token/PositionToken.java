@@ -1,6 +1,7 @@
 package it.polimi.ingsw.model.token;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -22,6 +23,23 @@ public class PositionToken implements Token {
         this.isShuffle = isShuffle;
     }
 
+    /**
+     * Return the number of positions LorenzoIlMagnifico moves forward.
+     * @return the number of positions LorenzoIlMagnifico moves forward.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Return true if the token shuffles the deck of tokens.
+     * @return true if the token shuffles the deck of tokens.
+     */
+    @JsonIgnore
+    public boolean isShuffle() {
+        return isShuffle;
+    }
+
     /**
      * Increase LorenzoIlMagnifico position on faith track and shuffle the token's deck is isShuffle is true.
      * @param lorenzoIlMagnifico is a class that can perform LorenzoIlMagnifico's actions.
@@ -2,7 +2,8 @@ package it.polimi.ingsw.observer;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import it.polimi.ingsw.exception.InvalidStateActionException;
-import it.polimi.ingsw.model.PlayerState;
+import it.polimi.ingsw.model.ActionTable;
+import it.polimi.ingsw.model.ActionType;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
@@ -30,14 +31,14 @@ public abstract class GameMasterObservable {
     }
 
     /**
-     * Check if the player's state is any of states.
-     * @param states the states to check.
-     * @throws InvalidStateActionException if the player is not in any states.
+     * Check if the player's state allows the action, see {@link ActionTable}.
+     * @param action the action to check.
+     * @throws InvalidStateActionException if the action is not allowed in the player's state.
      */
-    public void checkPlayerState(PlayerState... states) throws InvalidStateActionException {
+    public void checkPlayerState(ActionType action) throws InvalidStateActionException {
         for(GameMasterObserver gm: gameMasterObserverList){
-            if(!gm.isPlayerInState(states)){
-                throw new InvalidStateActionException();
+            if(!gm.isActionAllowed(action)){
+                throw InvalidStateActionException.INSTANCE;
             }
         }
     }
@@ -1,5 +1,6 @@
 package it.polimi.ingsw.observer;
 
+import it.polimi.ingsw.model.ActionType;
 import it.polimi.ingsw.model.PlayerState;
 
 /**
@@ -53,4 +54,11 @@ public interface GameMasterObserver {
      * @return true if the player is in any of the states in state.
      */
     boolean isPlayerInState(PlayerState... state);
+
+    /**
+     * Return true if the player state allows the action.
+     * @param action the action to check.
+     * @return true if the player state allows the action.
+     */
+    boolean isActionAllowed(ActionType action);
 }
@@ -1,8 +1,6 @@
 package it.polimi.ingsw.observer;
 
-import it.polimi.ingsw.model.personalBoard.market.Marble;
-
-import java.util.ArrayList;
+import it.polimi.ingsw.client.data.MarketData;
 
 /**
  * A class can implement the MarketObserver interface when it wants to be informed of changes in observable objects.
@@ -10,8 +8,7 @@ import java.util.ArrayList;
 public interface MarketObserver {
     /**
      * Get an update from the market when the market tray is changed.
-     * @param marketTray the marketTray of the market.
-     * @param lastMarble the new marble to insert.
+     * @param marketData the new state of the market.
      */
-    void marketTrayChange(ArrayList<ArrayList<Marble>> marketTray, Marble lastMarble);
+    void marketTrayChange(MarketData marketData);
 }
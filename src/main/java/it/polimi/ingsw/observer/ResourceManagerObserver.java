@@ -1,6 +1,7 @@
 package it.polimi.ingsw.observer;
 
 import it.polimi.ingsw.model.personalBoard.resourceManager.Depot;
+import it.polimi.ingsw.model.personalBoard.resourceManager.Warehouse;
 import it.polimi.ingsw.model.resource.Resource;
 
 import java.util.ArrayList;
@@ -59,6 +60,13 @@ public interface ResourceManagerObserver {
      */
     void depotUpdate(Resource depotUpdated, int index, boolean isNormalDepot);
 
+    /**
+     * Get an update from the ResourceManager when a whole plan of placements changed the warehouse and the strongbox.
+     * @param warehouse the updated warehouse.
+     * @param strongboxUpdated the updated strongbox.
+     */
+    void warehouseLayoutUpdate(Warehouse warehouse, ArrayList<Resource> strongboxUpdated);
+
     /**
      * Get an update from the ResourceManager when a leader depot is changed.
      * @param depots the depots of the leader.
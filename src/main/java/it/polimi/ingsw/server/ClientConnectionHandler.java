@@ -9,10 +9,22 @@ import it.polimi.ingsw.message.clientMessage.ClientMessage;
 import it.polimi.ingsw.message.clientMessage.ErrorMessage;
 import it.polimi.ingsw.message.clientMessage.ErrorType;
 import it.polimi.ingsw.message.serverMessage.ServerMessage;
+import it.polimi.ingsw.server.jfr.MessageProcessEvent;
+import it.polimi.ingsw.server.jfr.MessageReadEvent;
+import it.polimi.ingsw.server.jfr.MessageWriteEvent;
+import it.polimi.ingsw.server.metrics.CountingInputStream;
+import it.polimi.ingsw.server.metrics.CountingOutputStream;
+import it.polimi.ingsw.server.metrics.ServerMetrics;
+import it.polimi.ingsw.server.trace.ActionTrace;
+import it.polimi.ingsw.server.trace.ActionTracer;
+import it.polimi.ingsw.server.trace.TimestampInputStream;
+import it.polimi.ingsw.server.trace.TraceStage;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.Scanner;
 import java.util.concurrent.TimeUnit;
@@ -22,12 +34,15 @@ import java.util.concurrent.TimeUnit;
  */
 public class ClientConnectionHandler implements Runnable {
     private final Socket socket;
+    private final TimestampInputStream input;
     private final Scanner in;
     private final PrintWriter out;
 
     private final Object streamLock = new Object();
 
     private final ObjectMapper mapper = new ObjectMapper();
+    private final ActionTracer tracer;
+    private final ServerMetrics metrics;
 
     private boolean exit = false;
 
@@ -45,8 +60,30 @@ public class ClientConnectionHandler implements Runnable {
         mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
         this.socket = socket;
         this.clientID = clientID;
-        in = new Scanner(socket.getInputStream());
-        out = new PrintWriter(socket.getOutputStream());
+        metrics = server.getMetrics();
+        input = new TimestampInputStream(new CountingInputStream(socket.getInputStream(), metrics.getBytesIn()));
+        in = new Scanner(input);
+        out = new PrintWriter(new CountingOutputStream(socket.getOutputStream(), metrics.getBytesOut()));
+        tracer = server.getActionTracer();
+        serverMessageHandler = new ServerMessageHandler(server,this);
+    }
+
+    /**
+     * Construct a Client Connection Handler without a socket, that writes the messages to a stream and receives
+     * them from {@link #handleMessage}. It's used to replay the captures of the matches.
+     * @param server the reference of the Server.
+     * @param clientID the id of the client.
+     * @param output the stream where the messages to the client are written.
+     */
+    public ClientConnectionHandler(Server server, int clientID, OutputStream output) {
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        this.socket = null;
+        this.clientID = clientID;
+        metrics = server.getMetrics();
+        input = null;
+        in = null;
+        out = new PrintWriter(new CountingOutputStream(output, metrics.getBytesOut()));
+        tracer = server.getActionTracer();
         serverMessageHandler = new ServerMessageHandler(server,this);
     }
 
@@ -127,33 +164,148 @@ public class ClientConnectionHandler implements Runnable {
      * @param message the message sent.
      */
     public void writeToStream(ClientMessage message){
+        MessageWriteEvent event = new MessageWriteEvent();
+        event.begin();
+        ActionTrace.enter(TraceStage.ENCODE);
+        long encodeStart = System.nanoTime();
+        Optional<String> serializedMessage = Optional.ofNullable(serialize(message));
+        metrics.recordEncode(System.nanoTime() - encodeStart);
+        metrics.messageOut(message.getClass().getSimpleName());
+        ActionTrace.next(TraceStage.WRITE);
+        metrics.getPendingWrites().inc();
         synchronized (streamLock) {
-            Optional<String> serializedMessage = Optional.ofNullable(serialize(message));
+            metrics.getPendingWrites().dec();
             serializedMessage.ifPresentOrElse(out::println,
                     () -> out.println("Error in serialization"));
             out.flush();
         }
+        ActionTrace.exit();
+        ActionTrace.written();
+        event.end();
+        if (event.shouldCommit()){
+            event.matchID = getMatchID();
+            event.player = getPlayerName();
+            event.messageType = message.getClass().getSimpleName();
+            event.payloadSize = serializedMessage.map(x -> x.getBytes(StandardCharsets.UTF_8).length).orElse(0);
+            event.commit();
+        }
     }
 
     /**
-     * Read the messages from the client.
+     * Read the messages from the client, every message is traced from its arrival to the last message the server
+     * writes because of it.
      */
     public void readFromStream(){
-        String serializedMessage;
         try {
-            serializedMessage = in.nextLine();
-
-            Optional<ServerMessage> message = Optional.
-                    ofNullable(deserialize(serializedMessage));
-
-            message.ifPresentOrElse(
-                    x -> x.process(serverMessageHandler),
-                    () -> writeToStream(new ErrorMessage(ErrorType.INVALID_MESSAGE)));
+            long readStart = System.nanoTime();
+            String serializedMessage = in.nextLine();
+            handleMessage(serializedMessage, Math.max(readStart, input.getLastRead()));
         }catch (Exception e){
+            ActionTrace.discard();
+            getMatch().flatMap(Match::getCapture).ifPresent(x -> x.recordDisconnection(getPlayerName()));
             serverMessageHandler.handleDisconnection();
         }
     }
 
+    /**
+     * Handle a message of the client: it's captured if the match of the client is captured, deserialized,
+     * processed and followed by the legal actions of the current player.
+     * @param serializedMessage the message as the client sent it.
+     * @param arrival the monotonic time the message arrived, from System.nanoTime.
+     */
+    public void handleMessage(String serializedMessage, long arrival){
+        ActionTrace trace = ActionTrace.start(arrival);
+        MessageReadEvent event = new MessageReadEvent();
+        event.begin();
+        getMatch().flatMap(Match::getCapture).ifPresent(x -> x.recordMessage(getPlayerName(), serializedMessage));
+        ActionTrace.next(TraceStage.DECODE);
+
+        long decodeStart = System.nanoTime();
+        Optional<ServerMessage> message = Optional.
+                ofNullable(deserialize(serializedMessage));
+        metrics.recordDecode(System.nanoTime() - decodeStart);
+        String messageType = message.map(x -> x.getClass().getSimpleName()).orElse("InvalidMessage");
+        metrics.messageIn(messageType);
+        ActionTrace.next(TraceStage.PROCESS);
+
+        message.ifPresentOrElse(
+                x -> {
+                    process(x, messageType, serializedMessage);
+                    ActionTrace.next(TraceStage.LEGAL_ACTIONS);
+                    serverMessageHandler.sendLegalActions();
+                },
+                () -> writeToStream(new ErrorMessage(ErrorType.INVALID_MESSAGE)));
+        event.end();
+        if (event.shouldCommit()){
+            event.matchID = getMatchID();
+            event.player = getPlayerName();
+            event.messageType = messageType;
+            event.payloadSize = serializedMessage.getBytes(StandardCharsets.UTF_8).length;
+            event.commit();
+        }
+        endTrace(trace, message, messageType);
+    }
+
+    /**
+     * Process a message of the client inside a MessageProcessEvent.
+     * @param message the message.
+     * @param messageType the type of the message.
+     * @param serializedMessage the message as it was read.
+     */
+    private void process(ServerMessage message, String messageType, String serializedMessage){
+        MessageProcessEvent event = new MessageProcessEvent();
+        event.begin();
+        message.process(serverMessageHandler);
+        event.end();
+        if (event.shouldCommit()){
+            event.matchID = getMatchID();
+            event.player = getPlayerName();
+            event.messageType = messageType;
+            event.payloadSize = serializedMessage.getBytes(StandardCharsets.UTF_8).length;
+            event.commit();
+        }
+    }
+
+    /**
+     * Tag the trace of a message with the match, the player and the type of the message and record it. The pings
+     * are not actions of the player, so they are dropped.
+     * @param trace the trace of the message.
+     * @param message the message, empty if it was not valid.
+     * @param messageType the type of the message.
+     */
+    private void endTrace(ActionTrace trace, Optional<ServerMessage> message, String messageType){
+        if (message.isPresent() && message.get() instanceof PingPongMessage){
+            ActionTrace.discard();
+            return;
+        }
+        trace.setTags(getMatchID(), getPlayerName(), messageType);
+        tracer.end(trace);
+    }
+
+    /**
+     * Return the match of the client.
+     * @return an Optional of the match, empty if the client is not in a match.
+     */
+    private Optional<Match> getMatch(){
+        return serverMessageHandler.getVirtualClient().map(VirtualClient::getMatch);
+    }
+
+    /**
+     * Return the id of the match of the client.
+     * @return the id of the match, -1 if the client is not in a match.
+     */
+    private int getMatchID(){
+        return getMatch().map(Match::getMatchID).orElse(-1);
+    }
+
+    /**
+     * Return the name of the client for the traces and the events.
+     * @return the username of the player or, before it is chosen, the id of the client.
+     */
+    private String getPlayerName(){
+        return serverMessageHandler.getVirtualClient().map(VirtualClient::getUsername).orElse("client" + clientID);
+    }
+
     /**
      * Deserialize the messages from the client.
      * @param serializedMessage the message to deserialize.
@@ -192,11 +344,13 @@ public class ClientConnectionHandler implements Runnable {
     @Override
     public void run() {
 
+        metrics.connectionOpened();
         startPinging();
 
         while (!exit) {
             readFromStream();
         }
+        metrics.connectionClosed();
 
         in.close();
         out.close();
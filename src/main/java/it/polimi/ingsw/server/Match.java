@@ -1,7 +1,6 @@
 package it.polimi.ingsw.server;
 
 import it.polimi.ingsw.client.data.CardLeaderData;
-import it.polimi.ingsw.client.data.FaithTrackData;
 import it.polimi.ingsw.controller.Controller;
 import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionMessage;
 import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionType;
@@ -11,6 +10,10 @@ import it.polimi.ingsw.model.GameMaster;
 import it.polimi.ingsw.model.GameSetting;
 import it.polimi.ingsw.model.card.Leader;
 import it.polimi.ingsw.model.personalBoard.cardManager.CardManager;
+import it.polimi.ingsw.server.capture.MatchCapture;
+import it.polimi.ingsw.server.jfr.FanoutEvent;
+import it.polimi.ingsw.server.trace.ActionTrace;
+import it.polimi.ingsw.server.trace.TraceStage;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -31,6 +34,7 @@ public class Match{
     private final ArrayList<VirtualClient> inactivePlayers = new ArrayList<>();
     private final ArrayList<String> logs;
     private final int matchID;
+    private MatchCapture capture;
 
     private final Object playersLock = new Object();
 
@@ -132,6 +136,23 @@ public class Match{
      */
     public Controller getController() { return controller; }
 
+    /**
+     * Return the phase of the match: the game master of a match chooses the first player at the end of the setUp.
+     * @return the phase of the match.
+     */
+    public MatchPhase getPhase(){
+        Controller matchController = controller;
+        if (matchController == null)
+            return MatchPhase.WAITING_PLAYERS;
+        return matchController.getCurrentPlayer() == null ? MatchPhase.SETUP : MatchPhase.PLAYING;
+    }
+
+    /**
+     * Return the reference of the server.
+     * @return the reference of the server.
+     */
+    public Server getServer() { return server; }
+
     /**
      * Return true if the specific player is inactive.
      * @param username the username of the player.
@@ -274,6 +295,8 @@ public class Match{
                     inactivePlayers.remove(virtualClient);
                     virtualClient.setReconnected(true);
                     virtualClient.setReady(true);
+                    if (capture != null)
+                        capture.recordReconnection(virtualClient.getUsername());
 
                     String username = virtualClient.getUsername();
                     if (getController().getCurrentPlayer().equals(username)){
@@ -338,6 +361,8 @@ public class Match{
                 for (VirtualClient player: allPlayers){
                     player.getClient().getServerMessageHandler().setController(controller);
                 }
+                if (server.isCapturing())
+                    startCapture(gameMaster);
 
                 sendSetUp(gameMaster, gameSetting);
                 sendLeader(gameMaster);
@@ -348,6 +373,55 @@ public class Match{
         }
     }
 
+    /**
+     * Start the capture of the messages of the players, from the state of the match before the leaders are
+     * delivered. The match goes on without capture if the file can't be created.
+     * @param gameMaster the Game Master of the match.
+     */
+    private void startCapture(GameMaster gameMaster){
+        try {
+            capture = MatchCapture.start(Server.CAPTURE_PATH, this, gameMaster);
+        } catch (IOException e) {
+            System.out.println("Capture of match " + matchID + " not available: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Return the capture of the messages of the players.
+     * @return an Optional of the capture, empty if the match is not captured.
+     */
+    public Optional<MatchCapture> getCapture() {
+        return Optional.ofNullable(capture);
+    }
+
+    /**
+     * Attach a client to a player of a match restored from the start of a capture, like startMatch does with the
+     * clients of the lobby, without sending anything. It's used by the replay of the captures.
+     * @param username the username of the player.
+     * @param client the client of the replay.
+     * @return true if the player was waiting for a client.
+     */
+    public boolean attachPlayer(String username, ClientConnectionHandler client){
+        synchronized (playersLock){
+            Optional<VirtualClient> player = inactivePlayers.stream()
+                    .filter(x -> x.getUsername().equals(username)).findFirst();
+            if (player.isEmpty())
+                return false;
+            VirtualClient virtualClient = player.get();
+            ServerMessageHandler handler = new ServerMessageHandler(server, client);
+            handler.setController(controller);
+            handler.setVirtualClient(virtualClient);
+            handler.setServerPhase(HandlerState.WAITING_LOBBY);
+            client.setServerMessageHandler(handler);
+            client.setClientID(virtualClient.getClientID());
+            virtualClient.setClient(client);
+            virtualClient.setReady(true);
+            inactivePlayers.remove(virtualClient);
+            activePlayers.add(virtualClient);
+            return true;
+        }
+    }
+
     /**
      * Send the setUp messages to all the players.
      * @param gameMaster the Game Master of the match.
@@ -357,16 +431,9 @@ public class Match{
         synchronized (playersLock) {
             sendAllPlayers(new ConnectionMessage(ConnectionType.INFO, "Match successfully created"));
             ArrayList<String> usernames = getUsernames();
-            ArrayList<ArrayList<FaithTrackData>> faithTracks = new ArrayList<>();
-            for (int i = 0; i < usernames.size(); i++) {
-                faithTracks.add(gameSetting.getFaithTrack().toFaithTrackData());
-            }
-            if (usernames.size() == 1) {
-                faithTracks.add(gameSetting.getFaithTrack().toFaithTrackData());
-            }
             sendAllPlayers(new GameSetup(usernames, gameMaster.getMarket().toMarketData(),
                     gameMaster.toDeckDevData(),
-                    faithTracks,
+                    gameSetting.getFaithTrackLayout().toFaithTrackData(),
                     gameMaster.toEffectDataBasePro()));
         }
     }
@@ -410,8 +477,24 @@ public class Match{
      * @param message the message to send.
      */
     public void sendAllPlayers(ClientMessage message) {
-        synchronized (playersLock) {
-            activePlayers.forEach(x -> x.getClient().writeToStream(message));
+        FanoutEvent event = new FanoutEvent();
+        event.begin();
+        ActionTrace.enter(TraceStage.FANOUT);
+        int recipients;
+        try {
+            synchronized (playersLock) {
+                recipients = activePlayers.size();
+                activePlayers.forEach(x -> x.getClient().writeToStream(message));
+            }
+        } finally {
+            ActionTrace.exit();
+        }
+        event.end();
+        if (event.shouldCommit()){
+            event.matchID = matchID;
+            event.messageType = message.getClass().getSimpleName();
+            event.recipients = recipients;
+            event.commit();
         }
     }
 
@@ -421,10 +504,15 @@ public class Match{
      * @param message the message to send.
      */
     public void sendSinglePlayer(String username, ClientMessage message){
-        synchronized (playersLock) {
-            activePlayers.stream().filter(x -> x.getUsername().equals(username))
-                    .findFirst()
-                    .ifPresent(y -> y.getClient().writeToStream(message));
+        ActionTrace.enter(TraceStage.FANOUT);
+        try {
+            synchronized (playersLock) {
+                activePlayers.stream().filter(x -> x.getUsername().equals(username))
+                        .findFirst()
+                        .ifPresent(y -> y.getClient().writeToStream(message));
+            }
+        } finally {
+            ActionTrace.exit();
         }
     }
 
@@ -452,20 +540,33 @@ public class Match{
     public void removeMatchFromServer(){
         synchronized (playersLock) {
             allPlayers.forEach(x -> x.getClient().setState(HandlerState.FIRST_CONTACT));
-            System.out.println("Match with index: " + this.matchID + " deleted!");
-            try {
-                String fileName = Server.MATCH_SAVING_PATH + "/" + getMatchID() + ".txt";
-                File file = new File(fileName);
-                if (Files.deleteIfExists(file.toPath())) {
-                    System.out.println("Match data file deleted!");
-                }
-            } catch (IOException e) {
-                System.out.println("Match data file not deleted");
-            }
+            if (server.isLogging())
+                System.out.println("Match with index: " + this.matchID + " deleted!");
+            if (capture != null)
+                capture.close();
+            if (server.isSaving())
+                deleteMatchData();
             server.matchEnd(this);
         }
     }
 
+    /**
+     * Delete the saved state of the match.
+     */
+    private void deleteMatchData(){
+        long deleteStart = System.nanoTime();
+        try {
+            String fileName = Server.MATCH_SAVING_PATH + "/" + getMatchID() + ".txt";
+            File file = new File(fileName);
+            if (Files.deleteIfExists(file.toPath())) {
+                System.out.println("Match data file deleted!");
+            }
+        } catch (IOException e) {
+            System.out.println("Match data file not deleted");
+        }
+        server.getMetrics().recordDelete(System.nanoTime() - deleteStart);
+    }
+
     /**
      * Add a string to log.
      * @param s the string to add.
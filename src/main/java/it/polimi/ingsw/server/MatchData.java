@@ -13,6 +13,7 @@ public class MatchData {
     private ArrayList<String> logs;
     private int matchID;
     private int numOfPlayers;
+    private long seed;
     private GameMaster gameMaster;
 
 
@@ -35,6 +36,7 @@ public class MatchData {
         logs = match.getLogs();
         matchID = match.getMatchID();
         numOfPlayers = match.getNumOfPlayers();
+        seed = gameMaster.getSeed();
 
         this.gameMaster = gameMaster;
 
@@ -48,4 +50,12 @@ public class MatchData {
     public Match createMatch(Server server){
         return new Match(server, matchID, numOfPlayers, allPlayers, logs, gameMaster);
     }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GameMaster getGameMaster() {
+        return gameMaster;
+    }
 }
@@ -0,0 +1,19 @@
+package it.polimi.ingsw.server;
+
+/**
+ * The phases of a match on the server.
+ */
+public enum MatchPhase {
+    /**
+     * The match is waiting for its players or for their usernames.
+     */
+    WAITING_PLAYERS,
+    /**
+     * The players are choosing their leaders and their initial resources.
+     */
+    SETUP,
+    /**
+     * The turns have started.
+     */
+    PLAYING
+}
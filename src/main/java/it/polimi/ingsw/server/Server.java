@@ -7,6 +7,9 @@ import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionMessage;
 import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionType;
 import it.polimi.ingsw.message.clientMessage.ErrorMessage;
 import it.polimi.ingsw.message.clientMessage.ErrorType;
+import it.polimi.ingsw.server.metrics.MetricsEndpoint;
+import it.polimi.ingsw.server.metrics.ServerMetrics;
+import it.polimi.ingsw.server.trace.ActionTracer;
 
 import java.io.*;
 import java.net.ServerSocket;
@@ -17,10 +20,12 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manage all the components of the server like matches, players and connections.
@@ -28,7 +33,11 @@ import java.util.concurrent.Executors;
 public class Server {
     private int port;
     private boolean load;
-    private final ExecutorService executorService;
+    private boolean capture;
+    private boolean save;
+    private boolean log;
+    private int metricsPort;
+    private final ThreadPoolExecutor executorService;
     private ServerSocket serverSocket;
     private int nextClientID;
     private int nextMatchID;
@@ -38,12 +47,17 @@ public class Server {
     private final Object lockOpenMatch = new Object();
     private Match openMatch;
     private boolean exit=false;
+    private final ActionTracer actionTracer;
+    private final ServerMetrics metrics;
 
     private final HashMap<String,String> argsMap = new HashMap<>();
 
     public static final String SERVER_DATA_PATH = "ServerData";
     public static final String SERVER_INFO_PATH = SERVER_DATA_PATH + "/serverInfo.txt";
     public static final String MATCH_SAVING_PATH = SERVER_DATA_PATH + "/MatchSaving";
+    public static final String SLOW_ACTION_LOG_PATH = SERVER_DATA_PATH + "/slowActions.log";
+    //outside the server data, that are deleted when the server starts without -load
+    public static final String CAPTURE_PATH = "Captures";
 
 
     /**
@@ -52,6 +66,11 @@ public class Server {
     private void setUpArgs(){
         argsMap.put("-port", "2020");
         argsMap.put("-load", "false");
+        argsMap.put("-slowAction", "100");
+        argsMap.put("-metricsPort", "0");
+        argsMap.put("-capture", "false");
+        argsMap.put("-save", "true");
+        argsMap.put("-log", "true");
     }
 
     /**
@@ -87,19 +106,57 @@ public class Server {
             System.exit(0);
         }
 
-        if (argsMap.get("-load").equals("true")){
-            load = true;
-        }else  if (argsMap.get("-load").equals("false"))
-            load = false;
-        else{
-            System.out.println("Invalid param!");
+        load = booleanArg("-load");
+        capture = booleanArg("-capture");
+        save = booleanArg("-save");
+        log = booleanArg("-log");
+
+        long slowAction = 0;
+        try{
+            slowAction = Long.parseLong(argsMap.get("-slowAction"));
+            if (slowAction < 0)
+                throw new NumberFormatException();
+        }
+        catch (NumberFormatException e){
+            System.out.println("Invalid slow action threshold!");
+            System.exit(0);
+        }
+        actionTracer = new ActionTracer(slowAction, SLOW_ACTION_LOG_PATH);
+
+        try{
+            metricsPort = Integer.parseInt(argsMap.get("-metricsPort"));
+            if(metricsPort != 0 && (metricsPort <= 1024 || metricsPort > 65535)){
+                System.out.println("Invalid metrics port number!");
+                System.exit(0);
+            }
+        }
+        catch (NumberFormatException e){
+            System.out.println("Invalid metrics port number!");
             System.exit(0);
         }
 
-        executorService = Executors.newCachedThreadPool();
+        //same pool of Executors.newCachedThreadPool, kept as ThreadPoolExecutor to read its threads
+        executorService = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>());
         lobby = new ArrayList<>();
         matches = new ArrayList<>();
         matchesToFill = new ArrayList<>();
+        metrics = new ServerMetrics(this);
+    }
+
+    /**
+     * Return the value of a true or false parameter, the server is closed if it is neither.
+     * @param name the name of the parameter.
+     * @return the value of the parameter.
+     */
+    private boolean booleanArg(String name){
+        if (argsMap.get(name).equals("true"))
+            return true;
+        if (!argsMap.get(name).equals("false")){
+            System.out.println("Invalid param!");
+            System.exit(0);
+        }
+        return false;
     }
 
     /**
@@ -115,6 +172,10 @@ public class Server {
             }
             loadServerData();
             loadMatches();
+            if (metricsPort != 0){
+                new MetricsEndpoint(metrics.getRegistry(), metricsPort).start();
+                System.out.println("Metrics available at http://localhost:" + metricsPort + MetricsEndpoint.PATH);
+            }
             System.out.println("Server ready");
         } catch (IOException e) {
             System.out.println("Error during server setUp: " + e.getMessage());
@@ -437,7 +498,92 @@ public class Server {
      * @param match the match to delete.
      */
     public void matchEnd(Match match){
-        matches.remove(match);
+        synchronized (matches) {
+            matches.remove(match);
+        }
+    }
+
+    /**
+     * Return the tracer of the actions of the clients.
+     * @return the action tracer.
+     */
+    public ActionTracer getActionTracer() {
+        return actionTracer;
+    }
+
+    /**
+     * Return true if the messages of the matches are captured in the capture files.
+     * @return true if the matches are captured.
+     */
+    public boolean isCapturing() {
+        return capture;
+    }
+
+    /**
+     * Return true if the state of the matches is saved on disk at every turn.
+     * @return true if the matches are saved.
+     */
+    public boolean isSaving() {
+        return save;
+    }
+
+    /**
+     * Return true if the events of the matches are printed on the console.
+     * @return true if the server log is enabled.
+     */
+    public boolean isLogging() {
+        return log;
+    }
+
+    /**
+     * Return the metrics of the server.
+     * @return the metrics.
+     */
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Return how many matches are in a phase. The matches are copied without their lock, because matchEnd
+     * removes a match holding the lock of its players.
+     * @param phase the phase.
+     * @return the number of matches in the phase.
+     */
+    public int countMatches(MatchPhase phase){
+        return (int) Arrays.stream(matches.toArray(new Match[0]))
+                .filter(x -> x != null && x.getPhase() == phase).count();
+    }
+
+    /**
+     * Return the number of clients in the lobby, read without waiting for the lock of the lobby.
+     * @return the number of clients in the lobby.
+     */
+    public int getLobbySize(){
+        return lobby.size();
+    }
+
+    /**
+     * Return the number of matches to fill, read without waiting for their lock.
+     * @return the number of matches to fill.
+     */
+    public int getMatchesToFillSize(){
+        return matchesToFill.size();
+    }
+
+    /**
+     * Return the threads of the pool of the client connections.
+     * @return the number of threads.
+     */
+    public int getClientPoolSize(){
+        return executorService.getPoolSize();
+    }
+
+    /**
+     * Return the threads of the pool that are serving a client.
+     * @return the number of active threads.
+     */
+    public int getClientPoolActive(){
+        return executorService.getActiveCount();
     }
 
     /**
@@ -24,6 +24,8 @@ public class ServerInput implements Runnable{
             put("quit", ExitServerCMD.class);
             put("listmatch", ListMatchCMD.class);
             put("logs", LogsOfGameCMD.class);
+            put("trace", TraceCMD.class);
+            put("stats", StatsCMD.class);
         }
     };
 
@@ -1,13 +1,19 @@
 package it.polimi.ingsw.server;
 
+import it.polimi.ingsw.client.data.ResourcePlacementData;
 import it.polimi.ingsw.controller.Controller;
 import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionMessage;
 import it.polimi.ingsw.message.clientMessage.ErrorMessage;
 import it.polimi.ingsw.message.clientMessage.ErrorType;
 import it.polimi.ingsw.message.bothArchitectureMessage.ReconnectionMessage;
 import it.polimi.ingsw.message.serverMessage.*;
+import it.polimi.ingsw.model.ActionTable;
+import it.polimi.ingsw.model.ActionType;
+import it.polimi.ingsw.model.personalBoard.resourceManager.PaymentPolicy;
+import it.polimi.ingsw.model.personalBoard.resourceManager.ResourcePlacement;
 import it.polimi.ingsw.model.resource.Resource;
 import it.polimi.ingsw.model.resource.ResourceFactory;
+import it.polimi.ingsw.server.jfr.ControllerActionEvent;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
@@ -23,6 +29,7 @@ public class ServerMessageHandler {
     private ClientConnectionHandler client;
     private VirtualClient virtualClient;
     private HandlerState serverPhase;
+    private boolean actionAllowed = false;
     /**
      * Construct a ServerMessageHandler of a specific client.
      * @param server is the reference to the server
@@ -35,16 +42,54 @@ public class ServerMessageHandler {
     }
 
     /**
-     * Return true if the state of the handler is equal to state and not equal to IN_MATCH or is the turn of the player.
-     * @param state the state to check.
-     * @return true if the state of the handler is equal to state and not equal to IN_MATCH or is the turn of the player.
+     * Return true if the action is allowed by the {@link ActionTable} in the state of the handler and, for the
+     * actions of the turn, if it's the turn of the player and the player state allows it. Otherwise send an error.
+     * @param action the action requested.
+     * @return true if the action is allowed.
      */
-    private boolean isServerPhaseCorrect(HandlerState state){
-        if(serverPhase != state){
+    private boolean isActionAllowed(ActionType action){
+        actionAllowed = checkAction(action);
+        return actionAllowed;
+    }
+
+    /**
+     * Check an action for {@link #isActionAllowed(ActionType)}, sending the error if it isn't allowed.
+     * @param action the action requested.
+     * @return true if the action is allowed.
+     */
+    private boolean checkAction(ActionType action){
+        if(!ActionTable.isAllowed(action, serverPhase)){
             client.writeToStream(new ErrorMessage(ErrorType.INVALID_ACTION));
             return false;
-        }else{
-            return state != HandlerState.IN_MATCH || controller.isYourTurn(virtualClient.getUsername());
+        }
+        if(serverPhase != HandlerState.IN_MATCH || !ActionTable.requiresTurn(action)){
+            return true;
+        }
+        if(!controller.isYourTurn(virtualClient.getUsername())){
+            return false;
+        }
+        if(!ActionTable.isAllowed(action, controller.getPlayerState())){
+            client.writeToStream(new ErrorMessage(ErrorType.INVALID_ACTION));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Call an entry point of the controller inside a ControllerActionEvent.
+     * @param action the action of the player.
+     * @param entryPoint the call to the controller.
+     */
+    private void callController(ActionType action, Runnable entryPoint){
+        ControllerActionEvent event = new ControllerActionEvent();
+        event.begin();
+        entryPoint.run();
+        event.end();
+        if (event.shouldCommit()){
+            event.matchID = virtualClient != null ? virtualClient.getMatch().getMatchID() : -1;
+            event.player = virtualClient != null ? virtualClient.getUsername() : null;
+            event.action = action.toString();
+            event.commit();
         }
     }
 
@@ -112,7 +157,7 @@ public class ServerMessageHandler {
      * Handle the first contact between the client and the server.
      */
     public void handleFirstContact(){
-        if(!isServerPhaseCorrect(HandlerState.FIRST_CONTACT)) return;
+        if(!isActionAllowed(ActionType.FIRST_CONTACT)) return;
         server.putInLobby(client);
     }
 
@@ -120,7 +165,7 @@ public class ServerMessageHandler {
      * Handle the request for a single player match.
      */
     public void handleSinglePlayer(){
-        if(!isServerPhaseCorrect(HandlerState.FIRST_CONTACT)) return;
+        if(!isActionAllowed(ActionType.SINGLE_PLAYER)) return;
         server.singlePlayer(client);
     }
 
@@ -129,7 +174,7 @@ public class ServerMessageHandler {
      * @param message the Message with the number of player.
      */
     public void handleMatchCreation(ConnectionMessage message){
-        if (!isServerPhaseCorrect(HandlerState.NUM_OF_PLAYER)) return;
+        if (!isActionAllowed(ActionType.MATCH_CREATION)) return;
         try {server.createMatch(message.getNum(),client);}
         catch (InvalidParameterException exception){
             client.writeToStream(new ErrorMessage(exception.getMessage()));
@@ -141,10 +186,24 @@ public class ServerMessageHandler {
      * @param message the message with the player username.
      */
     public void handleUsernameInput(ConnectionMessage message){
-        if (!isServerPhaseCorrect(HandlerState.USERNAME)) return;
+        if (!isActionAllowed(ActionType.USERNAME_INPUT)) return;
         virtualClient.getMatch().setPlayerUsername(virtualClient, message.getMessage());
     }
 
+    /**
+     * Send the legal actions after a message of the match has been processed. Only the handler of the current
+     * player computes them, and only if its last message was allowed, so they are never read from the thread of
+     * another player while the current player is changing the model.
+     */
+    public void sendLegalActions(){
+        boolean processed = actionAllowed;
+        actionAllowed = false;
+        if(processed && serverPhase == HandlerState.IN_MATCH && controller != null
+                && controller.isCurrentPlayer(virtualClient.getUsername())){
+            controller.sendLegalActions();
+        }
+    }
+
     /**
      * Handle the disconnection of a player.
      */
@@ -167,8 +226,8 @@ public class ServerMessageHandler {
      * Handle the end of a turn
      */
     public void handleEndTurn(){
-        if(!isServerPhaseCorrect(HandlerState.IN_MATCH)) return;
-        controller.nextTurn();
+        if(!isActionAllowed(ActionType.END_TURN)) return;
+        callController(ActionType.END_TURN, () -> controller.nextTurn());
     }
 
     //LEADER MANAGE
@@ -178,10 +237,13 @@ public class ServerMessageHandler {
      * @param message the message with the request information.
      */
     public void handleLeaderManage(LeaderManage message){
+        if(!isActionAllowed(ActionType.LEADER_MANAGE)) return;
         if(serverPhase == HandlerState.LEADER_SETUP){
-            controller.discardLeaderSetUp(message.getIndex(), virtualClient.getUsername());
-        }else if(isServerPhaseCorrect(HandlerState.IN_MATCH)){
-            controller.leaderManage(message.getIndex(), message.isDiscard());
+            callController(ActionType.LEADER_MANAGE, () -> controller.discardLeaderSetUp(message.getIndex(),
+                    virtualClient.getUsername()));
+        }else{
+            callController(ActionType.LEADER_MANAGE, () -> controller.leaderManage(message.getIndex(),
+                    message.isDiscard()));
         }
     }
 
@@ -192,18 +254,29 @@ public class ServerMessageHandler {
      * @param message the message with the action information.
      */
     public void handleMarketAction(MarketAction message){
-        if(isServerPhaseCorrect(HandlerState.IN_MATCH)){
-            controller.marketAction(message.getSelection(), message.isRow());
+        if(isActionAllowed(ActionType.MARKET_ACTION)){
+            callController(ActionType.MARKET_ACTION, () -> controller.marketAction(message.getSelection(),
+                    message.isRow()));
         }
     }
 
+    /**
+     * Handle the request of a preview of every row and column of the market, it's allowed only to the current player
+     * in LEADER_MANAGE_BEFORE, so the market tray can't shift while it's read.
+     */
+    public void handleMarketPreview(){
+        if(!isActionAllowed(ActionType.MARKET_PREVIEW)) return;
+        callController(ActionType.MARKET_PREVIEW, () -> controller.marketPreview(virtualClient.getUsername()));
+    }
+
     /**
      * Handle the request of conversion of white marble by leaders.
      * @param message the message with the conversion information.
      */
     public void handleWhiteMarbleConversion(WhiteMarbleConversionResponse message){
-        if(isServerPhaseCorrect(HandlerState.IN_MATCH)){
-            controller.leaderWhiteMarbleConversion(message.getLeaderIndex(), message.getNumOfWhiteMarble());
+        if(isActionAllowed(ActionType.WHITE_MARBLE_CONVERSION)){
+            callController(ActionType.WHITE_MARBLE_CONVERSION, () -> controller.leaderWhiteMarbleConversion(
+                    message.getLeaderIndex(), message.getNumOfWhiteMarble()));
         }
     }
 
@@ -211,8 +284,8 @@ public class ServerMessageHandler {
      * Handle the request to discard the resources from from the market.
      */
     public void handleDiscardResourcesFromMarket(){
-        if(isServerPhaseCorrect(HandlerState.IN_MATCH)){
-            controller.clearBufferFromMarket();
+        if(isActionAllowed(ActionType.DISCARD_MARKET_RESOURCES)){
+            callController(ActionType.DISCARD_MARKET_RESOURCES, () -> controller.clearBufferFromMarket());
         }
     }
 
@@ -223,8 +296,9 @@ public class ServerMessageHandler {
      * @param message the message with all the action information.
      */
     public void handleDevelopmentAction(DevelopmentAction message){
-        if(isServerPhaseCorrect(HandlerState.IN_MATCH)){
-            controller.developmentAction(message.getRow(), message.getColumn(), message.getLocateSlot());
+        if(isActionAllowed(ActionType.DEVELOPMENT_ACTION)){
+            callController(ActionType.DEVELOPMENT_ACTION, () -> controller.developmentAction(message.getRow(),
+                    message.getColumn(), message.getLocateSlot()));
         }
     }
 
@@ -235,11 +309,12 @@ public class ServerMessageHandler {
      * @param message the message that contains the information.
      */
     public void handleProduction(ProductionAction message){
-        if(isServerPhaseCorrect(HandlerState.IN_MATCH)){
+        if(isActionAllowed(message.isLeader() ? ActionType.LEADER_PRODUCTION : ActionType.PRODUCTION)){
             if (message.isLeader()){
-                controller.leaderProductionAction(message.getSlotsIndex());
+                callController(ActionType.LEADER_PRODUCTION,
+                        () -> controller.leaderProductionAction(message.getSlotsIndex()));
             }else {
-                controller.normalProductionAction(message.getSlotsIndex());
+                callController(ActionType.PRODUCTION, () -> controller.normalProductionAction(message.getSlotsIndex()));
             }
         }
     }
@@ -248,8 +323,8 @@ public class ServerMessageHandler {
      * Handle the base production action.
      */
     public void handleBaseProduction(){
-        if(isServerPhaseCorrect(HandlerState.IN_MATCH)){
-            controller.baseProduction();
+        if(isActionAllowed(ActionType.BASE_PRODUCTION)){
+            callController(ActionType.BASE_PRODUCTION, () -> controller.baseProduction());
         }
     }
 
@@ -257,8 +332,8 @@ public class ServerMessageHandler {
      * Handle the stop of production in order to continue with the resources positioning
      */
     public void handleEndCardSelection(){
-        if(isServerPhaseCorrect(HandlerState.IN_MATCH)){
-            controller.stopProductionCardSelection();
+        if(isActionAllowed(ActionType.END_CARD_SELECTION)){
+            callController(ActionType.END_CARD_SELECTION, () -> controller.stopProductionCardSelection());
         }
     }
 
@@ -272,15 +347,17 @@ public class ServerMessageHandler {
             client.writeToStream(new ErrorMessage(ErrorType.INVALID_ACTION));
             return;
         }
+        if (!isActionAllowed(ActionType.ANY_RESPONSE)) return;
         ArrayList<Resource> resources = message.getResources().stream()
                 .map(x -> ResourceFactory.createResource(x.getType(), x.getValue()))
                 .collect(Collectors.toCollection(ArrayList::new));
 
 
         if(serverPhase == HandlerState.RESOURCE_SETUP){
-            controller.insertSetUpResources(resources, virtualClient.getUsername());
-        }else if (isServerPhaseCorrect(HandlerState.IN_MATCH)){
-            controller.anyConversion(resources);
+            callController(ActionType.ANY_RESPONSE, () -> controller.insertSetUpResources(resources,
+                    virtualClient.getUsername()));
+        }else{
+            callController(ActionType.ANY_RESPONSE, () -> controller.anyConversion(resources));
         }
     }
 
@@ -291,10 +368,10 @@ public class ServerMessageHandler {
      * @param message the message that contains the information.
      */
     public void handleStrongboxModify(StrongboxModify message){
-        if(!isServerPhaseCorrect(HandlerState.IN_MATCH) || message.getResource() == null) return;
+        if(!isActionAllowed(ActionType.STRONGBOX_MODIFY) || message.getResource() == null) return;
 
         Resource resource = ResourceFactory.createResource(message.getResource().getType(), message.getResource().getValue());
-        controller.subToStrongbox(resource);
+        callController(ActionType.STRONGBOX_MODIFY, () -> controller.subToStrongbox(resource));
     }
 
     /**
@@ -302,10 +379,58 @@ public class ServerMessageHandler {
      * @param message the message that contains the information.
      */
     public void handleDepotModify(DepotModify message){
-        if(!isServerPhaseCorrect(HandlerState.IN_MATCH) || message.getResource() == null) return;
+        if(!isActionAllowed(ActionType.DEPOT_MODIFY) || message.getResource() == null) return;
 
         Resource resource = ResourceFactory.createResource(message.getResource().getType(), message.getResource().getValue());
-        controller.depotModify(resource, message.getDepotIndex(), message.isNormalDepot());
+        callController(ActionType.DEPOT_MODIFY, () -> controller.depotModify(resource, message.getDepotIndex(),
+                message.isNormalDepot()));
+    }
+
+    /**
+     * Handle a whole plan of depot and strongbox resources insertion and deletion.
+     * @param message the message that contains the plan.
+     */
+    public void handleWarehouseLayout(WarehouseLayout message){
+        if(!isActionAllowed(ActionType.WAREHOUSE_LAYOUT) || message.getPlacements() == null) return;
+
+        ArrayList<ResourcePlacement> plan = new ArrayList<>();
+        for (ResourcePlacementData placement : message.getPlacements()){
+            if (placement == null || placement.getResource() == null){
+                client.writeToStream(new ErrorMessage(ErrorType.INVALID_MESSAGE));
+                return;
+            }
+            Resource resource = ResourceFactory.createResource(placement.getResource().getType(), placement.getResource().getValue());
+            plan.add(placement.isStrongbox() ? new ResourcePlacement(resource) :
+                    new ResourcePlacement(resource, placement.getDepotIndex(), placement.isNormalDepot()));
+        }
+        callController(ActionType.WAREHOUSE_LAYOUT, () -> controller.warehouseLayout(plan));
+    }
+
+    /**
+     * Handle the request of paying automatically all the resources to remove.
+     * @param message the message that contains the policy of the payment.
+     */
+    public void handleAutoPayment(AutoPayment message){
+        if(!isActionAllowed(ActionType.AUTO_PAYMENT)) return;
+
+        PaymentPolicy policy = message.getPolicy() == null ? PaymentPolicy.WAREHOUSE_FIRST : message.getPolicy();
+        callController(ActionType.AUTO_PAYMENT, () -> controller.autoPayment(policy));
+    }
+
+    /**
+     * Handle the request of a preview of the best arrangement of the warehouse for the resources of the buffer.
+     */
+    public void handleArrangePreview(){
+        if(!isActionAllowed(ActionType.ARRANGE_PREVIEW)) return;
+        callController(ActionType.ARRANGE_PREVIEW, () -> controller.arrangePreview());
+    }
+
+    /**
+     * Handle the request of arranging automatically the warehouse with the resources of the buffer.
+     */
+    public void handleAutoArrange(){
+        if(!isActionAllowed(ActionType.AUTO_ARRANGE)) return;
+        callController(ActionType.AUTO_ARRANGE, () -> controller.autoArrange());
     }
 
     /**
@@ -313,8 +438,9 @@ public class ServerMessageHandler {
      * @param message the message that contains the information.
      */
     public void handleSwitch(DepotSwitch message){
-        if(!isServerPhaseCorrect(HandlerState.IN_MATCH)) return;
+        if(!isActionAllowed(ActionType.DEPOT_SWITCH)) return;
 
-        controller.switchDepots(message.getFrom(), message.isFromNormal(), message.getTo(), message.isToNormal());
+        callController(ActionType.DEPOT_SWITCH, () -> controller.switchDepots(message.getFrom(), message.isFromNormal(),
+                message.getTo(), message.isToNormal()));
     }
 }
@@ -1,6 +1,5 @@
 package it.polimi.ingsw.server;
 
-import it.polimi.ingsw.client.data.ColorData;
 import it.polimi.ingsw.client.data.MarketData;
 import it.polimi.ingsw.client.data.ResourceData;
 import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionMessage;
@@ -8,8 +7,8 @@ import it.polimi.ingsw.message.bothArchitectureMessage.ConnectionType;
 import it.polimi.ingsw.message.clientMessage.*;
 import it.polimi.ingsw.message.serverMessage.ServerMessage;
 import it.polimi.ingsw.model.card.Leader;
-import it.polimi.ingsw.model.personalBoard.market.Marble;
 import it.polimi.ingsw.model.personalBoard.resourceManager.Depot;
+import it.polimi.ingsw.model.personalBoard.resourceManager.Warehouse;
 import it.polimi.ingsw.model.resource.Resource;
 import it.polimi.ingsw.observer.*;
 
@@ -325,20 +324,11 @@ public class VirtualClient implements ModelObserver, ResourceManagerObserver,
 
     /**
      * Send the update market tray to the player.
-     * @param marketTray the marketTray of the market.
-     * @param lastMarble the new marble to insert.
+     * @param marketData the new state of the market.
      */
     @Override
-    public void marketTrayChange(ArrayList<ArrayList<Marble>> marketTray, Marble lastMarble) {
-        ArrayList<ArrayList<ColorData>> marketTrayToClient = new ArrayList<>();
-        for (ArrayList<Marble> marbles : marketTray) {
-            ArrayList<ColorData> marketCol = new ArrayList<>();
-            for (Marble marble : marbles) {
-                marketCol.add(marble.getColorData());
-            }
-            marketTrayToClient.add(marketCol);
-        }
-        match.sendAllPlayers(new MarketUpdate(new MarketData(marketTrayToClient, lastMarble.getColorData(), marketTrayToClient.size(), marketTrayToClient.get(0).size())));
+    public void marketTrayChange(MarketData marketData) {
+        match.sendAllPlayers(new MarketUpdate(marketData));
     }
 
 
@@ -400,4 +390,18 @@ public class VirtualClient implements ModelObserver, ResourceManagerObserver,
                 new DepotUpdate(depotUpdated.toClient(), index, isNormalDepot, username)
         );
     }
+
+    /**
+     * Send the whole warehouse and strongbox to the players.
+     * @param warehouse the updated warehouse.
+     * @param strongboxUpdated the updated strongbox.
+     */
+    @Override
+    public void warehouseLayoutUpdate(Warehouse warehouse, ArrayList<Resource> strongboxUpdated) {
+        match.sendAllPlayers(
+                new WarehouseLayoutUpdate(warehouse.toStandardDepotData(), warehouse.toLeaderDepotData(),
+                        strongboxUpdated.stream()
+                                .map(Resource::toClient)
+                                .collect(Collectors.toCollection(ArrayList::new)), username));
+    }
 }
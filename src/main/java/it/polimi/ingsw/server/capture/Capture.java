@@ -0,0 +1,153 @@
+package it.polimi.ingsw.server.capture;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Capture is a capture file read in memory: the header of the match and its events.
+ */
+public class Capture {
+    private final int matchID;
+    private final int numOfPlayers;
+    private final List<String> players;
+    private final String snapshot;
+    private final List<CaptureEvent> events;
+    private final boolean complete;
+
+    /**
+     * Create a capture.
+     * @param matchID the id of the match.
+     * @param numOfPlayers the number of players of the match.
+     * @param players the usernames of the players.
+     * @param snapshot the MatchData of the match when it started, in JSON.
+     * @param events the events of the players.
+     * @param complete false if the file ended before the end of the capture.
+     */
+    private Capture(int matchID, int numOfPlayers, List<String> players, String snapshot, List<CaptureEvent> events,
+                    boolean complete) {
+        this.matchID = matchID;
+        this.numOfPlayers = numOfPlayers;
+        this.players = Collections.unmodifiableList(players);
+        this.snapshot = snapshot;
+        this.events = Collections.unmodifiableList(events);
+        this.complete = complete;
+    }
+
+    /**
+     * Read a capture file. A file cut before its end, by a crash of the server, gives the events written until then.
+     * @param file the path of the file.
+     * @return the capture.
+     * @throws IOException if the file can't be read or is not a capture.
+     */
+    public static Capture read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file.toFile())), 1 << 16))) {
+            byte[] magic = new byte[MatchCapture.MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MatchCapture.MAGIC))
+                throw new IOException(file + " is not a capture");
+            int version = in.readInt();
+            if (version != MatchCapture.VERSION)
+                throw new IOException("Capture version " + version + " not supported");
+            int matchID = in.readInt();
+            int numOfPlayers = in.readInt();
+            int size = in.readInt();
+            List<String> players = new ArrayList<>();
+            for (int i = 0; i < size; i++)
+                players.add(in.readUTF());
+            byte[] json = new byte[in.readInt()];
+            in.readFully(json);
+            String snapshot = new String(json, StandardCharsets.UTF_8);
+
+            List<CaptureEvent> events = new ArrayList<>();
+            boolean complete = false;
+            long micros = 0;
+            try {
+                while (true) {
+                    int tag = in.readUnsignedByte();
+                    if (tag == MatchCapture.END) {
+                        complete = true;
+                        break;
+                    }
+                    CaptureEvent.Type type = CaptureEvent.Type.fromTag(tag);
+                    if (type == null)
+                        throw new IOException("Invalid event in " + file);
+                    micros += readVarLong(in);
+                    int player = (int) readVarLong(in);
+                    if (player >= players.size())
+                        throw new IOException("Invalid player in " + file);
+                    String message = null;
+                    if (type == CaptureEvent.Type.MESSAGE) {
+                        byte[] bytes = new byte[(int) readVarLong(in)];
+                        in.readFully(bytes);
+                        message = new String(bytes, StandardCharsets.UTF_8);
+                    }
+                    events.add(new CaptureEvent(type, micros, players.get(player), message));
+                }
+            } catch (EOFException e) {
+                //the server stopped before the end of the match
+                complete = false;
+            }
+            return new Capture(matchID, numOfPlayers, players, snapshot, events, complete);
+        }
+    }
+
+    /**
+     * Read a number written by {@link MatchCapture#writeVarLong}.
+     * @param in the stream.
+     * @return the number.
+     * @throws IOException if the stream ends or the number is too long.
+     */
+    static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Invalid number in the capture");
+    }
+
+    public int getMatchID() {
+        return matchID;
+    }
+
+    public int getNumOfPlayers() {
+        return numOfPlayers;
+    }
+
+    public List<String> getPlayers() {
+        return players;
+    }
+
+    public String getSnapshot() {
+        return snapshot;
+    }
+
+    public List<CaptureEvent> getEvents() {
+        return events;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Return the time of the last event.
+     * @return the microseconds from the start of the capture.
+     */
+    public long getDurationMicros() {
+        return events.isEmpty() ? 0 : events.get(events.size() - 1).getMicros();
+    }
+}
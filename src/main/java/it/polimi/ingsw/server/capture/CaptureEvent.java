@@ -0,0 +1,73 @@
+package it.polimi.ingsw.server.capture;
+
+/**
+ * An event of a player captured in a match: a message, a lost connection or a reconnection.
+ */
+public class CaptureEvent {
+    /**
+     * The types of event, with their tag in the capture file.
+     */
+    public enum Type {
+        MESSAGE(1),
+        DISCONNECTION(2),
+        RECONNECTION(3);
+
+        private final int tag;
+
+        Type(int tag) {
+            this.tag = tag;
+        }
+
+        public int getTag() {
+            return tag;
+        }
+
+        /**
+         * Return the type of a tag.
+         * @param tag the tag read from the file.
+         * @return the type, null if the tag is not a type.
+         */
+        public static Type fromTag(int tag){
+            for (Type type : values()) {
+                if (type.tag == tag)
+                    return type;
+            }
+            return null;
+        }
+    }
+
+    private final Type type;
+    private final long micros;
+    private final String player;
+    private final String message;
+
+    /**
+     * Create an event.
+     * @param type the type of the event.
+     * @param micros the time of the event from the start of the capture.
+     * @param player the username of the player.
+     * @param message the message as the client sent it, null if the event is not a message.
+     */
+    public CaptureEvent(Type type, long micros, String player, String message) {
+        this.type = type;
+        this.micros = micros;
+        this.player = player;
+        this.message = message;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getMicros() {
+        return micros;
+    }
+
+    public String getPlayer() {
+        return player;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,298 @@
+package it.polimi.ingsw.server.capture;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.polimi.ingsw.model.GameMaster;
+import it.polimi.ingsw.model.GameSetting;
+import it.polimi.ingsw.server.ClientConnectionHandler;
+import it.polimi.ingsw.server.Match;
+import it.polimi.ingsw.server.MatchData;
+import it.polimi.ingsw.server.Server;
+import it.polimi.ingsw.server.VirtualClient;
+import it.polimi.ingsw.server.trace.ActionTrace;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CaptureReplay plays a capture again on a server without sockets: the match is restored from the snapshot of the
+ * capture and the messages of the players go through the same handling of the messages read from the sockets.
+ * The messages the server sends are hashed, so replaying the same capture many times shows if the server still
+ * behaves the same way, and the time of the replay measures the server without the network.
+ */
+public class CaptureReplay {
+    private final HashMap<String,String> argsMap = new HashMap<>();
+
+    private String capturePath;
+    private boolean recordedPace;
+    private int repeat;
+    private String outputPath;
+
+    /**
+     * SetUp the argsMap for command line parameters.
+     */
+    private void setUpArgs(){
+        argsMap.put("-capture", "");
+        argsMap.put("-pace", "fast");
+        argsMap.put("-repeat", "1");
+        argsMap.put("-output", "");
+    }
+
+    /**
+     * Read the parameters from the command line.
+     * @param args the parameters from the command line.
+     */
+    private void setUpReplay(String[] args){
+        setUpArgs();
+        for (int i = 0; i < args.length; i++) {
+            if (argsMap.containsKey(args[i])){
+                try {
+                    argsMap.replace(args[i], args[i + 1]);
+                    i++;
+                }catch (Exception e){
+                    System.out.println("Invalid param!");
+                    System.exit(0);
+                }
+            }else{
+                System.out.println("Invalid param!");
+                System.exit(0);
+            }
+        }
+
+        try {
+            capturePath = argsMap.get("-capture");
+            String pace = argsMap.get("-pace");
+            recordedPace = pace.equals("recorded");
+            repeat = Integer.parseInt(argsMap.get("-repeat"));
+            outputPath = argsMap.get("-output");
+            if (capturePath.isEmpty() || (!recordedPace && !pace.equals("fast")) || repeat < 1)
+                throw new IllegalArgumentException();
+        }catch (Exception e){
+            System.out.println("Invalid param to start the replay!");
+            System.exit(0);
+        }
+    }
+
+    public static void main(String[] args) {
+        CaptureReplay replay = new CaptureReplay();
+        replay.setUpReplay(args);
+        try {
+            replay.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Read the capture, replay it and compare the output of the replays.
+     * @throws InterruptedException if the wait of the recorded pace is interrupted.
+     */
+    private void run() throws InterruptedException {
+        Capture capture;
+        try {
+            capture = Capture.read(Paths.get(capturePath));
+        } catch (IOException e) {
+            System.out.println("Capture not readable: " + e.getMessage());
+            return;
+        }
+        System.out.printf("Match %d, players %s, %d events in %.1f s%n", capture.getMatchID(), capture.getPlayers(),
+                capture.getEvents().size(), capture.getDurationMicros() / 1e6);
+        if (!capture.isComplete())
+            System.out.println("The capture ends before the match, it's replayed up to its last event");
+
+        Server server = new Server(new String[]{"-save", "false"});
+        String firstDigest = null;
+        boolean identical = true;
+        for (int i = 0; i < repeat; i++) {
+            ReplayResult result;
+            try {
+                result = replay(server, capture, i == 0 ? outputPath : "");
+            } catch (Exception e) {
+                System.out.println("Replay not possible: " + e.getMessage());
+                return;
+            }
+            System.out.printf("Replay %d/%d: %d messages in, %d out, %d errors, %.1f ms, %.0f messages/s, digest %s%n",
+                    i + 1, repeat, result.messagesIn, result.messagesOut, result.errors, result.nanos / 1e6,
+                    result.messagesIn / (result.nanos / 1e9), result.digest);
+            if (firstDigest == null)
+                firstDigest = result.digest;
+            else if (!firstDigest.equals(result.digest))
+                identical = false;
+        }
+        if (repeat > 1)
+            System.out.println(identical ? "Output identical in all the replays" : "Output differs between the replays");
+    }
+
+    /**
+     * Replay a capture once.
+     * @param server the server of the replay, it doesn't listen on a port.
+     * @param capture the capture.
+     * @param output the file where the messages sent by the server are written, empty to not write them.
+     * @return the result of the replay.
+     * @throws Exception if the snapshot can't be restored or the output can't be written.
+     */
+    private ReplayResult replay(Server server, Capture capture, String output) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        MatchData matchData = mapper.readValue(capture.getSnapshot(), MatchData.class);
+        GameMaster gameMaster = matchData.getGameMaster();
+        Match match = matchData.createMatch(server);
+
+        ReplayResult result = new ReplayResult();
+        try (ReplaySink sink = new ReplaySink(output)) {
+            HashMap<String, ClientConnectionHandler> clients = new HashMap<>();
+            for (String player : capture.getPlayers()) {
+                ClientConnectionHandler client = new ClientConnectionHandler(server, -1, new PlayerOutput(player, sink));
+                if (!match.attachPlayer(player, client))
+                    throw new IllegalStateException("player " + player + " not in the snapshot");
+                clients.put(player, client);
+            }
+            match.sendSetUp(gameMaster, new GameSetting(capture.getNumOfPlayers()));
+            match.sendLeader(gameMaster);
+
+            long start = System.nanoTime();
+            for (CaptureEvent event : capture.getEvents()) {
+                if (recordedPace) {
+                    long wait = start + TimeUnit.MICROSECONDS.toNanos(event.getMicros()) - System.nanoTime();
+                    if (wait > 0)
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                String player = event.getPlayer();
+                switch (event.getType()) {
+                    case MESSAGE:
+                        result.messagesIn++;
+                        try {
+                            clients.get(player).handleMessage(event.getMessage(), System.nanoTime());
+                        } catch (Exception e) {
+                            //on the server the client is disconnected, the capture has its disconnection next
+                            ActionTrace.discard();
+                            result.errors++;
+                        }
+                        break;
+                    case DISCONNECTION:
+                        clients.get(player).getServerMessageHandler().handleDisconnection();
+                        break;
+                    case RECONNECTION:
+                        ClientConnectionHandler client = new ClientConnectionHandler(server, -1,
+                                new PlayerOutput(player, sink));
+                        int clientID = match.getPlayer(player).map(VirtualClient::getClientID).orElse(-1);
+                        match.playerReconnection(clientID, client);
+                        clients.put(player, client);
+                        break;
+                }
+            }
+            result.nanos = System.nanoTime() - start;
+            result.messagesOut = sink.lines;
+            result.digest = sink.getDigest();
+        }
+        return result;
+    }
+
+    /**
+     * The numbers of a replay.
+     */
+    private static class ReplayResult {
+        private long messagesIn = 0;
+        private long messagesOut = 0;
+        private long errors = 0;
+        private long nanos = 0;
+        private String digest;
+    }
+
+    /**
+     * ReplaySink receives the messages the server sends to all the players, each one tagged with its player, hashes
+     * them and, if requested, writes them in a file.
+     */
+    private static class ReplaySink implements AutoCloseable {
+        private final MessageDigest digest;
+        private final Writer writer;
+        private long lines = 0;
+
+        /**
+         * Create a sink.
+         * @param output the file where the messages are written, empty to not write them.
+         * @throws IOException if the file can't be created.
+         * @throws NoSuchAlgorithmException if the JVM has no SHA-256.
+         */
+        private ReplaySink(String output) throws IOException, NoSuchAlgorithmException {
+            digest = MessageDigest.getInstance("SHA-256");
+            writer = output.isEmpty() ? null : new BufferedWriter(
+                    new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Receive a message sent to a player.
+         * @param player the username of the player.
+         * @param message the message, without the line separator.
+         * @throws IOException if the message can't be written in the file.
+         */
+        private void line(String player, String message) throws IOException {
+            String line = player + "\t" + message + "\n";
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+            lines++;
+            if (writer != null)
+                writer.write(line);
+        }
+
+        /**
+         * Return the hash of all the messages received.
+         * @return the SHA-256 in hexadecimal.
+         */
+        private String getDigest() {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest())
+                hex.append(String.format("%02x", b));
+            return hex.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null)
+                writer.close();
+        }
+    }
+
+    /**
+     * PlayerOutput is the stream of the client of a player: it splits what the server writes in lines and sends
+     * them to the sink.
+     */
+    private static class PlayerOutput extends OutputStream {
+        private final String player;
+        private final ReplaySink sink;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        /**
+         * Create the stream of a player.
+         * @param player the username of the player.
+         * @param sink the sink of the replay.
+         */
+        private PlayerOutput(String player, ReplaySink sink) {
+            this.player = player;
+            this.sink = sink;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b == '\n') {
+                sink.line(player, line.toString(StandardCharsets.UTF_8));
+                line.reset();
+            } else if (b != '\r') {
+                line.write(b);
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package it.polimi.ingsw.server.capture;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.polimi.ingsw.model.GameMaster;
+import it.polimi.ingsw.server.Match;
+import it.polimi.ingsw.server.MatchData;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * MatchCapture writes the capture file of a match: the state of the match when it starts, then every message the
+ * players send with its time. The file is gzipped and the events are compact: a tag, the microseconds from the
+ * previous event and the index of the player as varints, then the message as the client sent it.
+ * The file is flushed at most once a second, so a capture cut by a crash of the server can be read up to the last
+ * flush.
+ */
+public class MatchCapture {
+    static final byte[] MAGIC = "MORCAP".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int END = 0;
+    private static final long FLUSH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final DataOutputStream out;
+    private final List<String> players;
+    private final int matchID;
+    private final long start;
+    private long lastMicros = 0;
+    private long lastFlush;
+    private boolean closed = false;
+
+    /**
+     * Create the capture and write its header.
+     * @param out the stream of the file.
+     * @param matchID the id of the match.
+     * @param numOfPlayers the number of players of the match.
+     * @param players the usernames of the players.
+     * @param snapshot the MatchData of the match when it starts, in JSON.
+     * @throws IOException if the header can't be written.
+     */
+    MatchCapture(DataOutputStream out, int matchID, int numOfPlayers, List<String> players, String snapshot)
+            throws IOException {
+        this.out = out;
+        this.matchID = matchID;
+        this.players = new ArrayList<>(players);
+        out.write(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(matchID);
+        out.writeInt(numOfPlayers);
+        out.writeInt(players.size());
+        for (String player : players)
+            out.writeUTF(player);
+        byte[] json = snapshot.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(json.length);
+        out.write(json);
+        start = System.nanoTime();
+        lastFlush = start;
+    }
+
+    /**
+     * Start the capture of a match in a new file of a directory.
+     * @param directory the directory of the captures.
+     * @param match the match.
+     * @param gameMaster the game master of the match, before the leaders are delivered.
+     * @return the capture.
+     * @throws IOException if the file can't be created.
+     */
+    public static MatchCapture start(String directory, Match match, GameMaster gameMaster) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        String snapshot = mapper.writeValueAsString(new MatchData(match, gameMaster));
+
+        Files.createDirectories(Paths.get(directory));
+        Path file = Paths.get(directory, "match" + match.getMatchID() + "_" + System.currentTimeMillis() + ".capture");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(file.toFile()), true), 1 << 16));
+        try {
+            return new MatchCapture(out, match.getMatchID(), match.getNumOfPlayers(), match.getUsernames(), snapshot);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Record a message of a player.
+     * @param player the username of the player.
+     * @param message the message as the client sent it.
+     */
+    public synchronized void recordMessage(String player, String message){
+        record(CaptureEvent.Type.MESSAGE, player, message);
+    }
+
+    /**
+     * Record the loss of the connection of a player.
+     * @param player the username of the player.
+     */
+    public synchronized void recordDisconnection(String player){
+        record(CaptureEvent.Type.DISCONNECTION, player, null);
+    }
+
+    /**
+     * Record the reconnection of a player.
+     * @param player the username of the player.
+     */
+    public synchronized void recordReconnection(String player){
+        record(CaptureEvent.Type.RECONNECTION, player, null);
+    }
+
+    /**
+     * Write an event, an error stops the capture but not the match.
+     * @param type the type of the event.
+     * @param player the username of the player.
+     * @param message the message, null if the event is not a message.
+     */
+    private void record(CaptureEvent.Type type, String player, String message){
+        int index = players.indexOf(player);
+        if (closed || index < 0)
+            return;
+        long now = System.nanoTime();
+        long micros = TimeUnit.NANOSECONDS.toMicros(now - start);
+        try {
+            out.writeByte(type.getTag());
+            writeVarLong(out, micros - lastMicros);
+            writeVarLong(out, index);
+            if (message != null){
+                byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+                writeVarLong(out, bytes.length);
+                out.write(bytes);
+            }
+            lastMicros = micros;
+            if (now - lastFlush > FLUSH_NANOS){
+                out.flush();
+                lastFlush = now;
+            }
+        } catch (IOException e) {
+            System.out.println("Capture of match " + matchID + " stopped: " + e.getMessage());
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Write the end of the capture and close the file.
+     */
+    public synchronized void close(){
+        if (closed)
+            return;
+        try {
+            out.writeByte(END);
+        } catch (IOException e) {
+            System.out.println("Capture of match " + matchID + " not completed: " + e.getMessage());
+        }
+        closeQuietly();
+    }
+
+    /**
+     * Close the file without writing the end.
+     */
+    private void closeQuietly(){
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.out.println("Capture of match " + matchID + " not closed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write a not negative number in 7 bits groups, the highest bit of a byte is set if another byte follows.
+     * @param out the stream.
+     * @param value the number.
+     * @throws IOException if the stream can't be written.
+     */
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0){
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
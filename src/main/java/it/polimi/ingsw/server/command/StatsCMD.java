@@ -0,0 +1,31 @@
+package it.polimi.ingsw.server.command;
+
+import it.polimi.ingsw.server.Server;
+
+/**
+ * Command to print the metrics of the server.
+ */
+@SuppressWarnings("FieldCanBeLocal")
+public class StatsCMD implements ServerCommand{
+
+    private final Server server;
+    private final String param;
+
+    /**
+     * Construct a Stats Command with specific parameters.
+     * @param param the parameters of the command, an optional part of the name of the metrics to print.
+     * @param server the reference to the server instance.
+     */
+    public StatsCMD(String param, Server server){
+        this.param=param;
+        this.server=server;
+    }
+
+    /**
+     * Print the metrics of the server, the same served by the metrics endpoint.
+     */
+    @Override
+    public void doCommand() {
+        server.getMetrics().getRegistry().print(System.out, param);
+    }
+}
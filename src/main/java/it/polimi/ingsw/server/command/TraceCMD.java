@@ -0,0 +1,32 @@
+package it.polimi.ingsw.server.command;
+
+import it.polimi.ingsw.server.Server;
+
+/**
+ * Command to print the latency histograms of the actions of the clients.
+ */
+@SuppressWarnings("FieldCanBeLocal")
+public class TraceCMD implements ServerCommand{
+
+    private final Server server;
+    @SuppressWarnings("unused")
+    private final String param;
+
+    /**
+     * Construct a Trace Command with specific parameters.
+     * @param param the parameters of the command.
+     * @param server the reference to the server instance.
+     */
+    public TraceCMD(String param, Server server){
+        this.param=param;
+        this.server=server;
+    }
+
+    /**
+     * Print the latency of every stage of the actions and the total latency of every message.
+     */
+    @Override
+    public void doCommand() {
+        server.getActionTracer().print(System.out);
+    }
+}
@@ -0,0 +1,28 @@
+package it.polimi.ingsw.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event of an entry point of the Controller called by the message handler.
+ */
+@Name("it.polimi.ingsw.server.ControllerAction")
+@Label("Controller Action")
+@Category({"Masters of Renaissance", "Server"})
+@Description("Entry point of the controller called for an action of a player")
+@StackTrace(false)
+@Threshold("10 ms")
+public class ControllerActionEvent extends jdk.jfr.Event {
+    @Label("Match ID")
+    public int matchID;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Action")
+    public String action;
+}
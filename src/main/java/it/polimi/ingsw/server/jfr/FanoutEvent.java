@@ -0,0 +1,28 @@
+package it.polimi.ingsw.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event of a message sent by a match to all its active players.
+ */
+@Name("it.polimi.ingsw.server.Fanout")
+@Label("Match Fan-out")
+@Category({"Masters of Renaissance", "Server"})
+@Description("Message sent by a match to all its active players")
+@StackTrace(false)
+@Threshold("10 ms")
+public class FanoutEvent extends jdk.jfr.Event {
+    @Label("Match ID")
+    public int matchID;
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Recipients")
+    public int recipients;
+}
@@ -0,0 +1,32 @@
+package it.polimi.ingsw.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of the save of the state of a match, one for every turn, so it is recorded without threshold.
+ */
+@Name("it.polimi.ingsw.server.MatchSave")
+@Label("Match Save")
+@Category({"Masters of Renaissance", "Server"})
+@Description("Serialization and write of the state of a match to disk")
+@StackTrace(false)
+public class MatchSaveEvent extends jdk.jfr.Event {
+    @Label("Match ID")
+    public int matchID;
+
+    @Label("Message Type")
+    @Description("The type of the saved state")
+    public String messageType;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long payloadSize;
+
+    @Label("Saved")
+    public boolean saved;
+}
@@ -0,0 +1,33 @@
+package it.polimi.ingsw.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event of ServerMessage.process: the message handler, the controller and the model.
+ */
+@Name("it.polimi.ingsw.server.MessageProcess")
+@Label("Message Process")
+@Category({"Masters of Renaissance", "Server"})
+@Description("ServerMessage.process of a message of a client")
+@StackTrace(false)
+@Threshold("10 ms")
+public class MessageProcessEvent extends jdk.jfr.Event {
+    @Label("Match ID")
+    public int matchID;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long payloadSize;
+}
@@ -0,0 +1,34 @@
+package it.polimi.ingsw.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event of the handling of a message of a client, from the end of the read of its line to the legal actions
+ * sent after it.
+ */
+@Name("it.polimi.ingsw.server.MessageRead")
+@Label("Message Read")
+@Category({"Masters of Renaissance", "Server"})
+@Description("Handling of a message of a client: deserialization, process and legal actions")
+@StackTrace(false)
+@Threshold("10 ms")
+public class MessageReadEvent extends jdk.jfr.Event {
+    @Label("Match ID")
+    public int matchID;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long payloadSize;
+}
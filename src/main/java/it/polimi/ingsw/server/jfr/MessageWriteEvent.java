@@ -0,0 +1,33 @@
+package it.polimi.ingsw.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event of a message sent to a client: serialization, wait of the lock of the stream and write.
+ */
+@Name("it.polimi.ingsw.server.MessageWrite")
+@Label("Message Write")
+@Category({"Masters of Renaissance", "Server"})
+@Description("Serialization and write of a message to a client")
+@StackTrace(false)
+@Threshold("10 ms")
+public class MessageWriteEvent extends jdk.jfr.Event {
+    @Label("Match ID")
+    public int matchID;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long payloadSize;
+}
@@ -0,0 +1,33 @@
+package it.polimi.ingsw.server.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A value that only grows, like the number of messages received. The client threads update it without contention.
+ */
+public class Counter {
+    private final LongAdder value = new LongAdder();
+
+    /**
+     * Add one to the counter.
+     */
+    public void inc(){
+        value.increment();
+    }
+
+    /**
+     * Add an amount to the counter.
+     * @param amount the amount, not negative.
+     */
+    public void add(long amount){
+        value.add(amount);
+    }
+
+    /**
+     * Return the value of the counter.
+     * @return the value.
+     */
+    public long get(){
+        return value.sum();
+    }
+}
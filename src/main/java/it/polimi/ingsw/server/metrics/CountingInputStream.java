@@ -0,0 +1,42 @@
+package it.polimi.ingsw.server.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * CountingInputStream adds the bytes read from a socket to a counter.
+ */
+public class CountingInputStream extends FilterInputStream {
+    private final Counter bytes;
+
+    /**
+     * Create a stream that counts the bytes read.
+     * @param in the stream of the socket.
+     * @param bytes the counter of the bytes.
+     */
+    public CountingInputStream(InputStream in, Counter bytes) {
+        super(in);
+        this.bytes = bytes;
+    }
+
+    /**
+     * See {@link FilterInputStream#read()}.
+     */
+    @Override
+    public int read() throws IOException {
+        int read = super.read();
+        if (read >= 0) bytes.inc();
+        return read;
+    }
+
+    /**
+     * See {@link FilterInputStream#read(byte[], int, int)}.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read > 0) bytes.add(read);
+        return read;
+    }
+}
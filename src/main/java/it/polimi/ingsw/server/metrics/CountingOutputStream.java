@@ -0,0 +1,44 @@
+package it.polimi.ingsw.server.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * CountingOutputStream adds the bytes written to a socket to a counter.
+ */
+public class CountingOutputStream extends FilterOutputStream {
+    private final Counter bytes;
+
+    /**
+     * Create a stream that counts the bytes written.
+     * @param out the stream of the socket.
+     * @param bytes the counter of the bytes.
+     */
+    public CountingOutputStream(OutputStream out, Counter bytes) {
+        super(out);
+        this.bytes = bytes;
+    }
+
+    /**
+     * See {@link FilterOutputStream#write(int)}.
+     */
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        bytes.inc();
+    }
+
+    /**
+     * Write the whole array to the socket at once, FilterOutputStream would write it one byte at a time.
+     * @param b the bytes.
+     * @param off the start of the bytes to write.
+     * @param len the number of bytes to write.
+     * @throws IOException if the socket is closed.
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        bytes.add(len);
+    }
+}
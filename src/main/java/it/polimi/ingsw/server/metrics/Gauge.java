@@ -0,0 +1,58 @@
+package it.polimi.ingsw.server.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A value that goes up and down, like the open connections. It is either set by the code that changes it or read
+ * from the state of the server when the metrics are collected.
+ */
+public class Gauge {
+    private final AtomicLong value = new AtomicLong();
+    private final LongSupplier supplier;
+
+    /**
+     * Create a gauge set by the code.
+     */
+    public Gauge() {
+        this.supplier = null;
+    }
+
+    /**
+     * Create a gauge read when the metrics are collected.
+     * @param supplier the function that reads the value.
+     */
+    public Gauge(LongSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * Add one to the gauge.
+     */
+    public void inc(){
+        value.incrementAndGet();
+    }
+
+    /**
+     * Subtract one from the gauge.
+     */
+    public void dec(){
+        value.decrementAndGet();
+    }
+
+    /**
+     * Set the value of the gauge.
+     * @param value the new value.
+     */
+    public void set(long value){
+        this.value.set(value);
+    }
+
+    /**
+     * Return the value of the gauge.
+     * @return the value.
+     */
+    public long get(){
+        return supplier != null ? supplier.getAsLong() : value.get();
+    }
+}
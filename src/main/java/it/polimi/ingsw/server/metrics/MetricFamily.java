@@ -0,0 +1,114 @@
+package it.polimi.ingsw.server.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * MetricFamily groups the metrics with the same name and different values of the labels, like the messages received
+ * of every type. A family without labels has a single metric.
+ * @param <T> the class of the metrics.
+ */
+public class MetricFamily<T> {
+    private final String name;
+    private final String help;
+    private final MetricType type;
+    private final String[] labelNames;
+    private final Supplier<T> factory;
+    private final Map<String, Labelled<T>> children = new ConcurrentHashMap<>();
+
+    /**
+     * Create a family.
+     * @param name the name of the metrics.
+     * @param help the description of the metrics.
+     * @param type the type of the metrics.
+     * @param labelNames the names of the labels.
+     * @param factory the function that creates a metric the first time a value of the labels is used.
+     */
+    MetricFamily(String name, String help, MetricType type, String[] labelNames, Supplier<T> factory) {
+        this.name = name;
+        this.help = help;
+        this.type = type;
+        this.labelNames = labelNames.clone();
+        this.factory = factory;
+    }
+
+    /**
+     * Return the metric of some values of the labels, it is created the first time.
+     * @param labelValues the values of the labels, in the order of the names.
+     * @return the metric.
+     * @throws IllegalArgumentException if the number of values is not the number of labels.
+     */
+    public T labels(String... labelValues) throws IllegalArgumentException{
+        String key = key(labelValues);
+        Labelled<T> child = children.get(key);
+        if (child == null)
+            child = children.computeIfAbsent(key, x -> new Labelled<>(labelValues.clone(), factory.get()));
+        return child.metric;
+    }
+
+    /**
+     * Add a metric created outside the family, like a gauge that reads the state of the server.
+     * @param metric the metric.
+     * @param labelValues the values of the labels, in the order of the names.
+     * @throws IllegalArgumentException if the number of values is not the number of labels.
+     */
+    public void register(T metric, String... labelValues) throws IllegalArgumentException{
+        children.put(key(labelValues), new Labelled<>(labelValues.clone(), metric));
+    }
+
+    /**
+     * Return the key of some values of the labels.
+     * @param labelValues the values of the labels.
+     * @return the key of the metric in the children.
+     * @throws IllegalArgumentException if the number of values is not the number of labels.
+     */
+    private String key(String[] labelValues) throws IllegalArgumentException{
+        if (labelValues.length != labelNames.length)
+            throw new IllegalArgumentException(name + " has " + labelNames.length + " labels");
+        return labelValues.length == 1 ? labelValues[0] : String.join("\u0000", labelValues);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public MetricType getType() {
+        return type;
+    }
+
+    public String[] getLabelNames() {
+        return labelNames.clone();
+    }
+
+    /**
+     * Return the metrics of the family ordered by the values of their labels.
+     * @return the metrics with their labels.
+     */
+    List<Labelled<T>> getChildren(){
+        List<Labelled<T>> list = new ArrayList<>(children.values());
+        list.sort(Comparator.comparing(x -> String.join("\u0000", x.labelValues)));
+        return list;
+    }
+
+    /**
+     * A metric of the family with the values of its labels.
+     * @param <T> the class of the metric.
+     */
+    static class Labelled<T> {
+        final String[] labelValues;
+        final T metric;
+
+        Labelled(String[] labelValues, T metric) {
+            this.labelValues = labelValues;
+            this.metric = metric;
+        }
+    }
+}
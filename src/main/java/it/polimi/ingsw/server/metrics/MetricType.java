@@ -0,0 +1,20 @@
+package it.polimi.ingsw.server.metrics;
+
+/**
+ * The types of metric, with their name in the Prometheus text format.
+ */
+public enum MetricType {
+    COUNTER("counter"),
+    GAUGE("gauge"),
+    HISTOGRAM("histogram");
+
+    private final String prometheusName;
+
+    MetricType(String prometheusName) {
+        this.prometheusName = prometheusName;
+    }
+
+    public String getPrometheusName() {
+        return prometheusName;
+    }
+}
@@ -0,0 +1,87 @@
+package it.polimi.ingsw.server.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MetricsEndpoint serves the metrics of a registry in the Prometheus text format at /metrics. It listens only on the
+ * loopback address, so the metrics can be read from the machine of the server or through a tunnel, and it answers
+ * on its own thread, so a scrape never waits for the clients.
+ */
+public class MetricsEndpoint {
+    public static final String PATH = "/metrics";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsRegistry registry;
+    private final HttpServer httpServer;
+
+    /**
+     * Create the endpoint and bind its port.
+     * @param registry the metrics to serve.
+     * @param port the port, 0 to use a free one.
+     * @throws IOException if the port can't be bound.
+     */
+    public MetricsEndpoint(MetricsRegistry registry, int port) throws IOException {
+        this.registry = registry;
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        httpServer.createContext(PATH, this::handle);
+    }
+
+    /**
+     * Start answering the requests.
+     */
+    public void start(){
+        httpServer.start();
+    }
+
+    /**
+     * Stop answering the requests and close the port.
+     */
+    public void stop(){
+        httpServer.stop(0);
+    }
+
+    /**
+     * Return the port of the endpoint.
+     * @return the port.
+     */
+    public int getPort(){
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Answer a request: the metrics for a GET, only the headers for a HEAD, 405 for the other methods.
+     * @param exchange the request.
+     * @throws IOException if the response can't be written.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            StringBuilder text = new StringBuilder();
+            registry.writePrometheus(text);
+            byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (method.equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
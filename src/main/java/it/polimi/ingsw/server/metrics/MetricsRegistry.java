@@ -0,0 +1,196 @@
+package it.polimi.ingsw.server.metrics;
+
+import it.polimi.ingsw.server.trace.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * MetricsRegistry keeps the counters, the gauges and the histograms of the server and writes them in the Prometheus
+ * text format or as a table for the console. The histograms are LatencyHistograms, exported in seconds.
+ */
+public class MetricsRegistry {
+    private final List<MetricFamily<?>> families = new CopyOnWriteArrayList<>();
+
+    /**
+     * Create a family of counters.
+     * @param name the name, that should end with _total.
+     * @param help the description.
+     * @param labelNames the names of the labels.
+     * @return the family.
+     * @throws IllegalArgumentException if the name is already used.
+     */
+    public MetricFamily<Counter> counter(String name, String help, String... labelNames) throws IllegalArgumentException{
+        return add(name, help, MetricType.COUNTER, labelNames, Counter::new);
+    }
+
+    /**
+     * Create a family of gauges.
+     * @param name the name.
+     * @param help the description.
+     * @param labelNames the names of the labels.
+     * @return the family.
+     * @throws IllegalArgumentException if the name is already used.
+     */
+    public MetricFamily<Gauge> gauge(String name, String help, String... labelNames) throws IllegalArgumentException{
+        return add(name, help, MetricType.GAUGE, labelNames, Gauge::new);
+    }
+
+    /**
+     * Create a family of histograms of durations.
+     * @param name the name, that should end with _seconds.
+     * @param help the description.
+     * @param labelNames the names of the labels.
+     * @return the family.
+     * @throws IllegalArgumentException if the name is already used.
+     */
+    public MetricFamily<LatencyHistogram> histogram(String name, String help, String... labelNames)
+            throws IllegalArgumentException{
+        return add(name, help, MetricType.HISTOGRAM, labelNames, LatencyHistogram::new);
+    }
+
+    /**
+     * Create a family and add it to the registry.
+     * @param name the name.
+     * @param help the description.
+     * @param type the type of the metrics.
+     * @param labelNames the names of the labels.
+     * @param factory the function that creates the metrics.
+     * @param <T> the class of the metrics.
+     * @return the family.
+     * @throws IllegalArgumentException if the name is already used.
+     */
+    private synchronized <T> MetricFamily<T> add(String name, String help, MetricType type, String[] labelNames,
+                                                 Supplier<T> factory) throws IllegalArgumentException{
+        if (families.stream().anyMatch(x -> x.getName().equals(name)))
+            throw new IllegalArgumentException("Metric " + name + " already registered");
+        MetricFamily<T> family = new MetricFamily<>(name, help, type, labelNames, factory);
+        families.add(family);
+        return family;
+    }
+
+    /**
+     * Write all the metrics in the Prometheus text format, version 0.0.4.
+     * @param out where the metrics are written.
+     */
+    public void writePrometheus(StringBuilder out){
+        for (MetricFamily<?> family : families) {
+            out.append("# HELP ").append(family.getName()).append(' ').append(escapeHelp(family.getHelp())).append('\n');
+            out.append("# TYPE ").append(family.getName()).append(' ').append(family.getType().getPrometheusName())
+                    .append('\n');
+            String[] labelNames = family.getLabelNames();
+            for (MetricFamily.Labelled<?> child : family.getChildren()) {
+                String labels = labels(labelNames, child.labelValues);
+                if (child.metric instanceof LatencyHistogram)
+                    writeHistogram(out, family.getName(), labels, (LatencyHistogram) child.metric);
+                else
+                    writeSample(out, family.getName(), labels, Long.toString(value(child.metric)));
+            }
+        }
+    }
+
+    /**
+     * Write the buckets, the sum and the count of a histogram. The count is the sum of the buckets read, so it is
+     * the same as the last bucket even while the client threads are recording.
+     * @param out where the histogram is written.
+     * @param name the name of the family.
+     * @param labels the labels of the histogram, without the braces.
+     * @param histogram the histogram.
+     */
+    private void writeHistogram(StringBuilder out, String name, String labels, LatencyHistogram histogram){
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKETS - 1; i++) {
+            cumulative += histogram.getBucketCount(i);
+            writeSample(out, name + "_bucket", prefix + "le=\"" + LatencyHistogram.upperBound(i) / 1e9 + "\"",
+                    Long.toString(cumulative));
+        }
+        cumulative += histogram.getBucketCount(LatencyHistogram.BUCKETS - 1);
+        writeSample(out, name + "_bucket", prefix + "le=\"+Inf\"", Long.toString(cumulative));
+        writeSample(out, name + "_sum", labels, Double.toString(histogram.getSum() / 1e9));
+        writeSample(out, name + "_count", labels, Long.toString(cumulative));
+    }
+
+    /**
+     * Write a line of a metric.
+     * @param out where the line is written.
+     * @param name the name of the sample.
+     * @param labels the labels, without the braces.
+     * @param value the value.
+     */
+    private void writeSample(StringBuilder out, String name, String labels, String value){
+        out.append(name);
+        if (!labels.isEmpty())
+            out.append('{').append(labels).append('}');
+        out.append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Print the metrics as a table, the histograms with their percentiles in milliseconds.
+     * @param out where the metrics are printed.
+     * @param filter only the metrics whose name contains it are printed, empty to print all of them.
+     */
+    public void print(PrintStream out, String filter){
+        for (MetricFamily<?> family : families) {
+            if (!family.getName().contains(filter))
+                continue;
+            String[] labelNames = family.getLabelNames();
+            for (MetricFamily.Labelled<?> child : family.getChildren()) {
+                String labels = labels(labelNames, child.labelValues);
+                String name = labels.isEmpty() ? family.getName() : family.getName() + "{" + labels + "}";
+                if (child.metric instanceof LatencyHistogram) {
+                    LatencyHistogram histogram = (LatencyHistogram) child.metric;
+                    out.printf("%-60s count=%d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms%n", name,
+                            histogram.getCount(), histogram.getMean() / 1e6, histogram.percentile(50) / 1e6,
+                            histogram.percentile(99) / 1e6, histogram.getMax() / 1e6);
+                }
+                else
+                    out.printf("%-60s %d%n", name, value(child.metric));
+            }
+        }
+    }
+
+    /**
+     * Return the value of a counter or of a gauge.
+     * @param metric the counter or the gauge.
+     * @return the value.
+     */
+    private long value(Object metric){
+        return metric instanceof Counter ? ((Counter) metric).get() : ((Gauge) metric).get();
+    }
+
+    /**
+     * Return the labels of a metric as name="value" pairs.
+     * @param labelNames the names of the labels.
+     * @param labelValues the values of the labels.
+     * @return the labels, without the braces.
+     */
+    private String labels(String[] labelNames, String[] labelValues){
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i < labelNames.length; i++) {
+            if (i > 0) labels.append(',');
+            labels.append(labelNames[i]).append("=\"").append(escapeLabel(labelValues[i])).append('"');
+        }
+        return labels.toString();
+    }
+
+    /**
+     * Escape the value of a label: backslash, double quote and new line.
+     * @param value the value.
+     * @return the escaped value.
+     */
+    private String escapeLabel(String value){
+        return escapeHelp(value).replace("\"", "\\\"");
+    }
+
+    /**
+     * Escape the description of a metric: backslash and new line.
+     * @param help the description.
+     * @return the escaped description.
+     */
+    private String escapeHelp(String help){
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,162 @@
+package it.polimi.ingsw.server.metrics;
+
+import it.polimi.ingsw.server.MatchPhase;
+import it.polimi.ingsw.server.Server;
+import it.polimi.ingsw.server.trace.ActionTracer;
+import it.polimi.ingsw.server.trace.LatencyHistogram;
+import it.polimi.ingsw.server.trace.TraceStage;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * ServerMetrics registers the metrics of the server: connections, matches by phase, messages and bytes in and out,
+ * serialization and persistence time, the queues and the threads. The counters and the histograms are updated by
+ * the client threads, the gauges of the state of the server are read when the metrics are collected.
+ */
+public class ServerMetrics {
+    private static final String PREFIX = "mor_";
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final Gauge connections;
+    private final Counter connectionsTotal;
+    private final MetricFamily<Counter> messagesIn;
+    private final MetricFamily<Counter> messagesOut;
+    private final Counter bytesIn;
+    private final Counter bytesOut;
+    private final LatencyHistogram encode;
+    private final LatencyHistogram decode;
+    private final LatencyHistogram save;
+    private final LatencyHistogram delete;
+    private final Gauge pendingWrites;
+
+    /**
+     * Create the metrics of a server.
+     * @param server the server, its state is read only when the metrics are collected.
+     */
+    public ServerMetrics(Server server) {
+        connections = registry.gauge(PREFIX + "connections", "Open client connections.").labels();
+        connectionsTotal = registry.counter(PREFIX + "connections_total", "Client connections accepted.").labels();
+
+        MetricFamily<Gauge> matches = registry.gauge(PREFIX + "matches", "Matches on the server by phase.", "phase");
+        for (MatchPhase phase : MatchPhase.values())
+            matches.register(new Gauge(() -> server.countMatches(phase)), phase.toString().toLowerCase());
+
+        messagesIn = registry.counter(PREFIX + "messages_in_total", "Messages received from the clients.", "type");
+        messagesOut = registry.counter(PREFIX + "messages_out_total", "Messages sent to the clients.", "type");
+        bytesIn = registry.counter(PREFIX + "bytes_in_total", "Bytes read from the client sockets.").labels();
+        bytesOut = registry.counter(PREFIX + "bytes_out_total", "Bytes written to the client sockets.").labels();
+
+        MetricFamily<LatencyHistogram> serialization = registry.histogram(PREFIX + "serialization_seconds",
+                "Jackson serialization time of the messages.", "direction");
+        encode = serialization.labels("encode");
+        decode = serialization.labels("decode");
+        MetricFamily<LatencyHistogram> persistence = registry.histogram(PREFIX + "persistence_seconds",
+                "Time to save and delete the state of the matches on disk.", "operation");
+        save = persistence.labels("save");
+        delete = persistence.labels("delete");
+
+        ActionTracer tracer = server.getActionTracer();
+        MetricFamily<LatencyHistogram> stages = registry.histogram(PREFIX + "action_stage_seconds",
+                "Exclusive time of the stages of the actions of the clients.", "stage");
+        for (TraceStage stage : TraceStage.values())
+            stages.register(tracer.getStage(stage), stage.toString().toLowerCase());
+        registry.histogram(PREFIX + "action_seconds",
+                "Time from the arrival of an action to the last message written because of it.")
+                .register(tracer.getTotal());
+
+        registry.gauge(PREFIX + "lobby_clients", "Clients in the lobby waiting for a match.")
+                .register(new Gauge(server::getLobbySize));
+        registry.gauge(PREFIX + "matches_to_fill", "Matches waiting to replace the players that left.")
+                .register(new Gauge(server::getMatchesToFillSize));
+        pendingWrites = registry.gauge(PREFIX + "pending_writes",
+                "Messages waiting for the lock of the socket of their client.").labels();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        registry.gauge(PREFIX + "jvm_threads", "Live threads of the JVM.")
+                .register(new Gauge(threads::getThreadCount));
+        MetricFamily<Gauge> pool = registry.gauge(PREFIX + "client_pool_threads",
+                "Threads of the pool of the client connections.", "state");
+        pool.register(new Gauge(server::getClientPoolSize), "all");
+        pool.register(new Gauge(server::getClientPoolActive), "active");
+    }
+
+    /**
+     * Count a client connection that has been opened.
+     */
+    public void connectionOpened(){
+        connections.inc();
+        connectionsTotal.inc();
+    }
+
+    /**
+     * Count a client connection that has been closed.
+     */
+    public void connectionClosed(){
+        connections.dec();
+    }
+
+    /**
+     * Count a message received.
+     * @param type the simple name of the class of the message.
+     */
+    public void messageIn(String type){
+        messagesIn.labels(type).inc();
+    }
+
+    /**
+     * Count a message sent.
+     * @param type the simple name of the class of the message.
+     */
+    public void messageOut(String type){
+        messagesOut.labels(type).inc();
+    }
+
+    /**
+     * Record the serialization of a message sent.
+     * @param nanos the time of the serialization.
+     */
+    public void recordEncode(long nanos){
+        encode.record(nanos);
+    }
+
+    /**
+     * Record the deserialization of a message received.
+     * @param nanos the time of the deserialization.
+     */
+    public void recordDecode(long nanos){
+        decode.record(nanos);
+    }
+
+    /**
+     * Record the save of the state of a match.
+     * @param nanos the time of the save.
+     */
+    public void recordSave(long nanos){
+        save.record(nanos);
+    }
+
+    /**
+     * Record the deletion of the state of a match.
+     * @param nanos the time of the deletion.
+     */
+    public void recordDelete(long nanos){
+        delete.record(nanos);
+    }
+
+    public Counter getBytesIn() {
+        return bytesIn;
+    }
+
+    public Counter getBytesOut() {
+        return bytesOut;
+    }
+
+    public Gauge getPendingWrites() {
+        return pendingWrites;
+    }
+
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+}
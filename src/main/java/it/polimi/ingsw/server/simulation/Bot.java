@@ -0,0 +1,198 @@
+package it.polimi.ingsw.server.simulation;
+
+import it.polimi.ingsw.client.bot.LegalMoves;
+import it.polimi.ingsw.client.data.LegalActionsData;
+import it.polimi.ingsw.client.data.ResourceData;
+import it.polimi.ingsw.message.serverMessage.AnyResponse;
+import it.polimi.ingsw.message.serverMessage.AutoArrange;
+import it.polimi.ingsw.message.serverMessage.AutoPayment;
+import it.polimi.ingsw.message.serverMessage.EndProductionSelection;
+import it.polimi.ingsw.message.serverMessage.EndTurn;
+import it.polimi.ingsw.message.serverMessage.LeaderManage;
+import it.polimi.ingsw.message.serverMessage.MarketAction;
+import it.polimi.ingsw.message.serverMessage.ServerMessage;
+import it.polimi.ingsw.message.serverMessage.WhiteMarbleConversionResponse;
+import it.polimi.ingsw.model.GameMaster;
+import it.polimi.ingsw.model.personalBoard.PersonalBoard;
+import it.polimi.ingsw.model.personalBoard.cardManager.CardManager;
+import it.polimi.ingsw.model.personalBoard.market.Market;
+import it.polimi.ingsw.model.personalBoard.resourceManager.PaymentPolicy;
+import it.polimi.ingsw.model.personalBoard.resourceManager.ResourceManager;
+import it.polimi.ingsw.model.resource.ResourceBag;
+import it.polimi.ingsw.model.resource.ResourceType;
+import it.polimi.ingsw.server.HandlerState;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Bot plays a player of a headless match: it reads the model of the match, like a client reads its copy, and returns
+ * the next message to send to the server. The answers forced by the rules (conversions, payments and the positioning
+ * of the resources) are the same for every bot, the choices of the turn are left to the subclasses. The moves they
+ * choose from are the ones of {@link LegalMoves}, shared with the bots of the clients.
+ */
+public abstract class Bot {
+    protected static final ResourceType[] CONCRETE_TYPES = {ResourceType.COIN, ResourceType.SHIELD,
+            ResourceType.STONE, ResourceType.SERVANT};
+
+    protected final SplittableRandom random;
+
+    /**
+     * Create a bot.
+     * @param random the random generator of the bot, seeded by the match.
+     */
+    protected Bot(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Return the message of a player during the set up of the match.
+     * @param gameMaster the game master of the match.
+     * @param username the username of the player.
+     * @param state the state of the handler of the player.
+     * @return the message to send, null if the player has nothing to do.
+     */
+    public ServerMessage setUpMessage(GameMaster gameMaster, String username, HandlerState state){
+        switch (state){
+            case LEADER_SETUP:
+                CardManager cardManager = gameMaster.getPlayerPersonalBoard(username).getCardManager();
+                return new LeaderManage(chooseSetUpDiscard(cardManager), true);
+            case RESOURCE_SETUP:
+                ArrayList<ResourceData> resources = new ArrayList<>();
+                int first = random.nextInt(CONCRETE_TYPES.length);
+                resources.add(new ResourceData(CONCRETE_TYPES[first], 1));
+                //the fourth player fills the first two depots, so the second resource is of another type
+                if (gameMaster.getPlayerPosition(username) == 3)
+                    resources.add(new ResourceData(CONCRETE_TYPES[(first + 1 + random.nextInt(3)) % 4], 1));
+                return new AnyResponse(resources);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Return the message of the current player.
+     * @param gameMaster the game master of the match.
+     * @param legalActions the legal actions of the current player.
+     * @param rejected true if the last message of the player has been rejected, the bot falls back to an action
+     *                 that is always legal in the state.
+     * @return the message to send.
+     */
+    public ServerMessage turnMessage(GameMaster gameMaster, LegalActionsData legalActions, boolean rejected){
+        PersonalBoard personalBoard = gameMaster.getCurrentPlayerPersonalBoard();
+        CardManager cardManager = personalBoard.getCardManager();
+        ResourceManager resourceManager = personalBoard.getResourceManager();
+        switch (gameMaster.getPlayerState()){
+            case LEADER_MANAGE_BEFORE:
+                return rejected ? randomMarketAction(gameMaster.getMarket()) : chooseAction(gameMaster, legalActions);
+            case WHITE_MARBLE_CONVERSION:
+                return new WhiteMarbleConversionResponse(chooseMarbleLeader(cardManager.mapOfMarbleEffect()),
+                        gameMaster.getMarket().getWhiteMarbleDrew());
+            case MARKET_RESOURCE_POSITIONING:
+                return new AutoArrange();
+            case ANY_BUY_DEV_CONVERSION:
+            case ANY_PRODUCE_COST_CONVERSION:
+                return new AnyResponse(payAny(resourceManager.getAvailableResources(),
+                        resourceManager.getAnyRequired()));
+            case ANY_PRODUCE_PROFIT_CONVERSION:
+                return new AnyResponse(chooseProfit(resourceManager.getAnyToProduce()));
+            case PRODUCTION_ACTION:
+                return rejected ? new EndProductionSelection() : chooseNextProduction(gameMaster, legalActions);
+            case BUY_DEV_RESOURCE_REMOVING:
+            case PRODUCTION_RESOURCE_REMOVING:
+                return new AutoPayment(PaymentPolicy.WAREHOUSE_FIRST);
+            default:
+                return rejected ? new EndTurn() : chooseEndOfTurn(gameMaster, legalActions);
+        }
+    }
+
+    /**
+     * Return the index of the leader to discard during the set up.
+     * @param cardManager the card manager of the player.
+     * @return the index of the leader.
+     */
+    protected abstract int chooseSetUpDiscard(CardManager cardManager);
+
+    /**
+     * Return the first message of the turn: a leader action or the normal action.
+     * @param gameMaster the game master of the match.
+     * @param legalActions the legal actions of the current player.
+     * @return the message to send.
+     */
+    protected abstract ServerMessage chooseAction(GameMaster gameMaster, LegalActionsData legalActions);
+
+    /**
+     * Return the next production to add, or the end of the selection.
+     * @param gameMaster the game master of the match.
+     * @param legalActions the legal actions of the current player.
+     * @return the message to send.
+     */
+    protected abstract ServerMessage chooseNextProduction(GameMaster gameMaster, LegalActionsData legalActions);
+
+    /**
+     * Return a leader action after the normal action or the end of the turn.
+     * @param gameMaster the game master of the match.
+     * @param legalActions the legal actions of the current player.
+     * @return the message to send.
+     */
+    protected abstract ServerMessage chooseEndOfTurn(GameMaster gameMaster, LegalActionsData legalActions);
+
+    /**
+     * Return the leader that converts all the white marbles drawn.
+     * @param marbleEffects the marble effects of the player, by index of the leader.
+     * @return the index of the leader.
+     */
+    protected int chooseMarbleLeader(Map<Integer, ArrayList<ResourceData>> marbleEffects){
+        ArrayList<Integer> leaders = new ArrayList<>(marbleEffects.keySet());
+        leaders.sort(Integer::compareTo);
+        return leaders.get(random.nextInt(leaders.size()));
+    }
+
+    /**
+     * Return the resources produced by the any of the productions.
+     * @param anyToProduce the number of any to convert.
+     * @return the resources.
+     */
+    protected ArrayList<ResourceData> chooseProfit(int anyToProduce){
+        ArrayList<ResourceData> resources = new ArrayList<>();
+        for (int i = 0; i < anyToProduce; i++)
+            resources.add(new ResourceData(CONCRETE_TYPES[random.nextInt(CONCRETE_TYPES.length)], 1));
+        return resources;
+    }
+
+    /**
+     * Return the resources that pay the any required, taken each time from the type the player has most of.
+     * @param available the resources the player can still pay with.
+     * @param anyRequired the number of any to pay.
+     * @return the resources.
+     */
+    protected ArrayList<ResourceData> payAny(ResourceBag available, int anyRequired){
+        int[] left = new int[CONCRETE_TYPES.length];
+        for (int i = 0; i < CONCRETE_TYPES.length; i++)
+            left[i] = available.get(CONCRETE_TYPES[i]);
+        ArrayList<ResourceData> resources = new ArrayList<>();
+        for (int n = 0; n < anyRequired; n++){
+            int most = 0;
+            for (int i = 1; i < left.length; i++){
+                if (left[i] > left[most])
+                    most = i;
+            }
+            left[most]--;
+            resources.add(new ResourceData(CONCRETE_TYPES[most], 1));
+        }
+        return resources;
+    }
+
+    /**
+     * Return the insertion of the marble in a random row or column, it's always legal at the start of the turn.
+     * @param market the market of the match.
+     * @return the message to send.
+     */
+    protected MarketAction randomMarketAction(Market market){
+        int selection = random.nextInt(market.getNumRow() + market.getNumCol());
+        if (selection < market.getNumRow())
+            return new MarketAction(selection, true);
+        return new MarketAction(selection - market.getNumRow(), false);
+    }
+}
@@ -0,0 +1,27 @@
+package it.polimi.ingsw.server.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * The bots that can play the matches of a tournament.
+ */
+public enum BotType {
+    /** Every player is a RandomBot. */
+    RANDOM,
+    /** Every player is a ScriptedBot. */
+    SCRIPTED,
+    /** The players alternate: the first one is a ScriptedBot, the second one a RandomBot and so on. */
+    MIXED;
+
+    /**
+     * Create the bot of a player.
+     * @param player the index of the player, before the shuffle of the turns.
+     * @param random the random generator of the bot.
+     * @return the bot.
+     */
+    public Bot create(int player, SplittableRandom random){
+        if (this == SCRIPTED || (this == MIXED && player % 2 == 0))
+            return new ScriptedBot(random);
+        return new RandomBot(random);
+    }
+}
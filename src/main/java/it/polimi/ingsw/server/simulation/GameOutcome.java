@@ -0,0 +1,118 @@
+package it.polimi.ingsw.server.simulation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * GameOutcome is the result of a headless match: how it ended, the points of the players and the work it took.
+ */
+public class GameOutcome {
+    public static final String CSV_HEADER = "game,seed,players,status,winner,points,turns,messagesIn,messagesOut," +
+            "errors,micros";
+
+    /**
+     * How a headless match ended.
+     */
+    public enum Status {
+        /** The match reached the game over. */
+        COMPLETED,
+        /** A player kept being rejected by the server in the same state. */
+        STUCK,
+        /** The match needed more messages than the limit. */
+        MESSAGE_LIMIT,
+        /** The server threw an exception while handling a message. */
+        CRASHED
+    }
+
+    private final int gameID;
+    private final long seed;
+    private final Status status;
+    private final String winner;
+    private final Map<String, Integer> points;
+    private final int turns;
+    private final long messagesIn;
+    private final long messagesOut;
+    private final long errors;
+    private final long nanos;
+
+    /**
+     * Create the outcome of a match.
+     * @param gameID the index of the match in the tournament.
+     * @param seed the seed of the match.
+     * @param status how the match ended.
+     * @param winner the winner announced by the server, null if the match didn't complete.
+     * @param points the victory points of the players, in turn order.
+     * @param turns the turns ended by the players.
+     * @param messagesIn the messages sent by the players.
+     * @param messagesOut the messages sent by the server.
+     * @param errors the error messages sent by the server.
+     * @param nanos the time of the match, set up included.
+     */
+    public GameOutcome(int gameID, long seed, Status status, String winner, Map<String, Integer> points, int turns,
+                       long messagesIn, long messagesOut, long errors, long nanos) {
+        this.gameID = gameID;
+        this.seed = seed;
+        this.status = status;
+        this.winner = winner;
+        this.points = new LinkedHashMap<>(points);
+        this.turns = turns;
+        this.messagesIn = messagesIn;
+        this.messagesOut = messagesOut;
+        this.errors = errors;
+        this.nanos = nanos;
+    }
+
+    public int getGameID() {
+        return gameID;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getWinner() {
+        return winner;
+    }
+
+    public Map<String, Integer> getPoints() {
+        return points;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public long getMessagesIn() {
+        return messagesIn;
+    }
+
+    public long getMessagesOut() {
+        return messagesOut;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Return the outcome as a line of the csv of the tournament, the points are written as player=points separated
+     * by spaces.
+     * @return the csv line, without the line separator.
+     */
+    public String toCsv(){
+        String pointsColumn = points.entrySet().stream()
+                .map(x -> x.getKey() + "=" + x.getValue())
+                .collect(Collectors.joining(" "));
+        return gameID + "," + seed + "," + points.size() + "," + status + "," + (winner == null ? "" : winner) + "," +
+                pointsColumn + "," + turns + "," + messagesIn + "," + messagesOut + "," + errors + "," + nanos / 1000;
+    }
+}
@@ -0,0 +1,257 @@
+package it.polimi.ingsw.server.simulation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.polimi.ingsw.exception.JsonFileModificationError;
+import it.polimi.ingsw.message.clientMessage.ClientMessage;
+import it.polimi.ingsw.message.clientMessage.GameOver;
+import it.polimi.ingsw.message.serverMessage.EndTurn;
+import it.polimi.ingsw.message.serverMessage.ServerMessage;
+import it.polimi.ingsw.model.GameMaster;
+import it.polimi.ingsw.model.GameSetting;
+import it.polimi.ingsw.server.ClientConnectionHandler;
+import it.polimi.ingsw.server.HandlerState;
+import it.polimi.ingsw.server.Match;
+import it.polimi.ingsw.server.Server;
+import it.polimi.ingsw.server.trace.ActionTrace;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * HeadlessGame plays a whole match on a server without sockets, like CaptureReplay does: the match has its real
+ * GameMaster and Controller, and the bots send their messages serialized as the client does, so they go through the
+ * same handling of the messages read from the sockets. Only the messages the server sends are not read back, the
+ * bots look at the model instead.
+ */
+public class HeadlessGame {
+    static final int MAX_MESSAGES = 20000;
+    static final int MAX_REJECTIONS = 16;
+
+    private final Server server;
+    private final int gameID;
+    private final long seed;
+    private final int numOfPlayers;
+    private final BotType botType;
+
+    private final ObjectMapper clientMapper = new ObjectMapper();
+    private final Map<String, ClientConnectionHandler> clients = new HashMap<>();
+    private final Map<String, PlayerOutput> outputs = new HashMap<>();
+    private long messagesIn = 0;
+    private boolean crashed = false;
+
+    /**
+     * Create a headless match.
+     * @param server the server of the match, it doesn't listen on a port and doesn't save the matches.
+     * @param gameID the index of the match in the tournament, also its match id.
+     * @param seed the seed of the match, it drives the shuffles of the game and the choices of the bots.
+     * @param numOfPlayers the number of players.
+     * @param botType the bots of the players.
+     */
+    public HeadlessGame(Server server, int gameID, long seed, int numOfPlayers, BotType botType) {
+        this.server = server;
+        this.gameID = gameID;
+        this.seed = seed;
+        this.numOfPlayers = numOfPlayers;
+        this.botType = botType;
+    }
+
+    /**
+     * Play the match up to its end.
+     * @return the outcome of the match.
+     * @throws IOException if the json files of the game can't be read.
+     * @throws JsonFileModificationError if the json files of the game are not valid.
+     */
+    public GameOutcome play() throws IOException, JsonFileModificationError {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        ArrayList<String> usernames = new ArrayList<>();
+        LinkedHashMap<String, Integer> players = new LinkedHashMap<>();
+        Map<String, Bot> bots = new HashMap<>();
+        for (int i = 0; i < numOfPlayers; i++){
+            usernames.add("player" + i);
+            players.put("player" + i, i);
+            bots.put("player" + i, botType.create(i, random.split()));
+        }
+
+        GameSetting gameSetting = new GameSetting(numOfPlayers);
+        GameMaster gameMaster = new GameMaster(gameSetting, new ArrayList<>(usernames), seed);
+        Match match = new Match(server, gameID, numOfPlayers, players, new ArrayList<>(), gameMaster);
+        for (String username : usernames){
+            PlayerOutput output = new PlayerOutput();
+            ClientConnectionHandler client = new ClientConnectionHandler(server, -1, output);
+            match.attachPlayer(username, client);
+            clients.put(username, client);
+            outputs.put(username, output);
+        }
+        match.sendSetUp(gameMaster, gameSetting);
+        match.sendLeader(gameMaster);
+
+        GameOutcome.Status status = setUp(gameMaster, usernames, bots);
+        int turns = 0;
+        int rejections = 0;
+        while (status == null && !gameMaster.isGameEnded()){
+            if (messagesIn >= MAX_MESSAGES){
+                status = GameOutcome.Status.MESSAGE_LIMIT;
+            }else if (rejections >= MAX_REJECTIONS){
+                status = GameOutcome.Status.STUCK;
+            }else{
+                String player = gameMaster.getCurrentPlayer();
+                ServerMessage message = bots.get(player).turnMessage(gameMaster, gameMaster.toLegalActionsData(),
+                        rejections > 0);
+                boolean rejected = send(player, message);
+                if (crashed)
+                    status = GameOutcome.Status.CRASHED;
+                else if (rejected)
+                    rejections++;
+                else{
+                    rejections = 0;
+                    if (message instanceof EndTurn)
+                        turns++;
+                }
+            }
+        }
+
+        Map<String, Integer> points = new LinkedHashMap<>();
+        for (String username : gameMaster.getPlayersTurn()){
+            if (players.containsKey(username))
+                points.put(username, gameMaster.getVictoryPoints(username));
+        }
+        long messagesOut = 0;
+        long errors = 0;
+        String gameOver = null;
+        for (PlayerOutput output : outputs.values()){
+            messagesOut += output.lines;
+            errors += output.errors;
+            if (output.gameOver != null)
+                gameOver = output.gameOver;
+        }
+        return new GameOutcome(gameID, seed, status == null ? GameOutcome.Status.COMPLETED : status,
+                winnerOf(gameOver), points, turns, messagesIn, messagesOut, errors, System.nanoTime() - start);
+    }
+
+    /**
+     * Play the set up of the match: the discard of the leaders and the choice of the initial resources.
+     * @param gameMaster the game master of the match.
+     * @param usernames the usernames of the players.
+     * @param bots the bots of the players.
+     * @return null if the match has started, otherwise how the match ended.
+     */
+    private GameOutcome.Status setUp(GameMaster gameMaster, List<String> usernames, Map<String, Bot> bots){
+        int rejections = 0;
+        boolean progress = true;
+        while (progress){
+            progress = false;
+            for (String username : usernames){
+                ServerMessage message = bots.get(username).setUpMessage(gameMaster, username,
+                        clients.get(username).getState());
+                if (message == null)
+                    continue;
+                boolean rejected = send(username, message);
+                if (crashed)
+                    return GameOutcome.Status.CRASHED;
+                if (rejected && ++rejections >= MAX_REJECTIONS)
+                    return GameOutcome.Status.STUCK;
+                progress = true;
+            }
+        }
+        return clients.get(usernames.get(0)).getState() == HandlerState.IN_MATCH ? null : GameOutcome.Status.STUCK;
+    }
+
+    /**
+     * Send a message of a player to the server.
+     * @param username the username of the player.
+     * @param message the message.
+     * @return true if the server answered with an error or threw an exception, that also marks the match as crashed.
+     */
+    private boolean send(String username, ServerMessage message){
+        PlayerOutput output = outputs.get(username);
+        long errors = output.errors;
+        try {
+            String serializedMessage = clientMapper.writeValueAsString(message);
+            messagesIn++;
+            clients.get(username).handleMessage(serializedMessage, System.nanoTime());
+        } catch (Exception e) {
+            ActionTrace.discard();
+            crashed = true;
+            return true;
+        }
+        return output.errors > errors;
+    }
+
+    /**
+     * Return the winner of the game over sent by the server, read as the client reads it: the player with the
+     * highest score, the scores are already made different by the tie break of the server.
+     * @param gameOver the game over message, null if it wasn't sent.
+     * @return the username of the winner, null if there's no game over.
+     */
+    private String winnerOf(String gameOver){
+        if (gameOver == null)
+            return null;
+        try {
+            ClientMessage message = clientMapper.readValue(gameOver, ClientMessage.class);
+            return ((GameOver) message).getPlayers().entrySet().stream()
+                    .max(Map.Entry.comparingByKey())
+                    .map(Map.Entry::getValue)
+                    .orElse(null);
+        } catch (JsonProcessingException | ClassCastException e) {
+            return null;
+        }
+    }
+
+    /**
+     * PlayerOutput is the stream of the client of a player: it counts the lines the server writes and its errors,
+     * and keeps the game over. The type of a message is the first property the server writes, so the lines are
+     * matched against the prefixes byte by byte and only the game over is decoded.
+     */
+    private static class PlayerOutput extends OutputStream {
+        private static final byte[] ERROR_PREFIX = "{\"@class\":\"ErrorMessage\"".getBytes(StandardCharsets.UTF_8);
+        private static final byte[] GAME_OVER_PREFIX = "{\"@class\":\"GameOver\"".getBytes(StandardCharsets.UTF_8);
+
+        private final ByteArrayOutputStream gameOverLine = new ByteArrayOutputStream();
+        private int position = 0;
+        private boolean error = true;
+        private boolean gameOverMatch = true;
+        private long lines = 0;
+        private long errors = 0;
+        private String gameOver;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+                if (error && position >= ERROR_PREFIX.length)
+                    errors++;
+                else if (gameOverMatch && position >= GAME_OVER_PREFIX.length)
+                    gameOver = gameOverLine.toString(StandardCharsets.UTF_8);
+                gameOverLine.reset();
+                position = 0;
+                error = true;
+                gameOverMatch = true;
+                return;
+            }
+            if (b == '\r')
+                return;
+            error = error && (position >= ERROR_PREFIX.length || ERROR_PREFIX[position] == (byte) b);
+            gameOverMatch = gameOverMatch && (position >= GAME_OVER_PREFIX.length
+                    || GAME_OVER_PREFIX[position] == (byte) b);
+            if (gameOverMatch)
+                gameOverLine.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++)
+                write(b[i]);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package it.polimi.ingsw.server.simulation;
+
+import it.polimi.ingsw.client.bot.LegalMoves;
+import it.polimi.ingsw.client.data.LegalActionsData;
+import it.polimi.ingsw.message.serverMessage.EndProductionSelection;
+import it.polimi.ingsw.message.serverMessage.EndTurn;
+import it.polimi.ingsw.message.serverMessage.LeaderManage;
+import it.polimi.ingsw.message.serverMessage.ServerMessage;
+import it.polimi.ingsw.model.GameMaster;
+import it.polimi.ingsw.model.card.Leader;
+import it.polimi.ingsw.model.personalBoard.cardManager.CardManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * RandomBot chooses uniformly among the legal actions: first the kind of action (leader, buy, production or market)
+ * among the ones possible, then the action of that kind. It sometimes discards a leader at the end of the turn.
+ */
+public class RandomBot extends Bot {
+    private static final int DISCARD_ODDS = 20;
+
+    /**
+     * Create a random bot.
+     * @param random the random generator of the bot, seeded by the match.
+     */
+    public RandomBot(SplittableRandom random) {
+        super(random);
+    }
+
+    @Override
+    protected int chooseSetUpDiscard(CardManager cardManager) {
+        return random.nextInt(cardManager.getLeaders().size());
+    }
+
+    @Override
+    protected ServerMessage chooseAction(GameMaster gameMaster, LegalActionsData legalActions) {
+        List<List<ServerMessage>> kinds = new ArrayList<>();
+        addIfNotEmpty(kinds, LegalMoves.leaderActivations(legalActions));
+        addIfNotEmpty(kinds, LegalMoves.purchases(legalActions));
+        addIfNotEmpty(kinds, LegalMoves.productions(legalActions));
+        if (kinds.isEmpty() || random.nextInt(kinds.size() + 1) == kinds.size())
+            return randomMarketAction(gameMaster.getMarket());
+        List<ServerMessage> kind = kinds.get(random.nextInt(kinds.size()));
+        return kind.get(random.nextInt(kind.size()));
+    }
+
+    @Override
+    protected ServerMessage chooseNextProduction(GameMaster gameMaster, LegalActionsData legalActions) {
+        List<ServerMessage> productions = LegalMoves.productions(legalActions);
+        if (productions.isEmpty() || random.nextBoolean())
+            return new EndProductionSelection();
+        return productions.get(random.nextInt(productions.size()));
+    }
+
+    @Override
+    protected ServerMessage chooseEndOfTurn(GameMaster gameMaster, LegalActionsData legalActions) {
+        CardManager cardManager = gameMaster.getCurrentPlayerPersonalBoard().getCardManager();
+        List<ServerMessage> activations = LegalMoves.leaderActivations(legalActions);
+        if (!activations.isEmpty() && random.nextBoolean())
+            return activations.get(random.nextInt(activations.size()));
+        if (random.nextInt(DISCARD_ODDS) == 0){
+            List<Leader> leaders = cardManager.getLeaders();
+            for (int i = 0; i < leaders.size(); i++){
+                if (!leaders.get(i).isActive())
+                    return new LeaderManage(i, true);
+            }
+        }
+        return new EndTurn();
+    }
+
+    /**
+     * Add a kind of action to the kinds to choose from, if it has at least an action.
+     * @param kinds the kinds of action.
+     * @param kind the actions of a kind.
+     */
+    private static void addIfNotEmpty(List<List<ServerMessage>> kinds, List<ServerMessage> kind){
+        if (!kind.isEmpty())
+            kinds.add(kind);
+    }
+}
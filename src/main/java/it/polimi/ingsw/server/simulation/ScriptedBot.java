@@ -0,0 +1,113 @@
+package it.polimi.ingsw.server.simulation;
+
+import it.polimi.ingsw.client.bot.LegalMoves;
+import it.polimi.ingsw.client.data.LegalActionsData;
+import it.polimi.ingsw.client.data.ResourceData;
+import it.polimi.ingsw.message.serverMessage.DevelopmentAction;
+import it.polimi.ingsw.message.serverMessage.EndProductionSelection;
+import it.polimi.ingsw.message.serverMessage.EndTurn;
+import it.polimi.ingsw.message.serverMessage.MarketAction;
+import it.polimi.ingsw.message.serverMessage.ServerMessage;
+import it.polimi.ingsw.model.GameMaster;
+import it.polimi.ingsw.model.card.DevelopmentDeck;
+import it.polimi.ingsw.model.personalBoard.cardManager.CardManager;
+import it.polimi.ingsw.model.personalBoard.market.Market;
+import it.polimi.ingsw.model.resource.ResourceBag;
+import it.polimi.ingsw.model.resource.ResourceType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * ScriptedBot plays greedily with a fixed priority: it activates a leader as soon as it can, buys the affordable card
+ * with the most victory points, otherwise produces with all its cards, otherwise takes the row or column of the
+ * market with the most resources. It never discards a leader after the set up and never uses the base production:
+ * turning two resources in one every turn, the players never save enough to buy a card.
+ */
+public class ScriptedBot extends Bot {
+
+    /**
+     * Create a scripted bot.
+     * @param random the random generator of the bot, seeded by the match.
+     */
+    public ScriptedBot(SplittableRandom random) {
+        super(random);
+    }
+
+    @Override
+    protected int chooseSetUpDiscard(CardManager cardManager) {
+        return cardManager.getLeaders().size() - 1;
+    }
+
+    @Override
+    protected ServerMessage chooseAction(GameMaster gameMaster, LegalActionsData legalActions) {
+        CardManager cardManager = gameMaster.getCurrentPlayerPersonalBoard().getCardManager();
+        List<ServerMessage> activations = LegalMoves.leaderActivations(legalActions);
+        if (!activations.isEmpty())
+            return activations.get(0);
+
+        DevelopmentDeck deck = gameMaster.getDeckDevelopment();
+        DevelopmentAction best = null;
+        int bestPoints = -1;
+        for (ServerMessage message : LegalMoves.purchases(legalActions)){
+            DevelopmentAction purchase = (DevelopmentAction) message;
+            int points = deck.peek(purchase.getRow(), purchase.getColumn()).getVictoryPoints();
+            if (points > bestPoints){
+                best = purchase;
+                bestPoints = points;
+            }
+        }
+        if (best != null)
+            return best;
+
+        List<ServerMessage> productions = LegalMoves.cardProductions(legalActions);
+        if (!productions.isEmpty())
+            return productions.get(0);
+        return richestLine(gameMaster.getMarket(), cardManager.whiteMarbleConversion());
+    }
+
+    @Override
+    protected ServerMessage chooseNextProduction(GameMaster gameMaster, LegalActionsData legalActions) {
+        List<ServerMessage> productions = LegalMoves.cardProductions(legalActions);
+        return productions.isEmpty() ? new EndProductionSelection() : productions.get(0);
+    }
+
+    @Override
+    protected ServerMessage chooseEndOfTurn(GameMaster gameMaster, LegalActionsData legalActions) {
+        List<ServerMessage> activations = LegalMoves.leaderActivations(legalActions);
+        return activations.isEmpty() ? new EndTurn() : activations.get(0);
+    }
+
+    /**
+     * The profit of a production is always coins, the resource of the most expensive cards.
+     * @param anyToProduce the number of any to convert.
+     * @return the resources.
+     */
+    @Override
+    protected ArrayList<ResourceData> chooseProfit(int anyToProduce) {
+        ArrayList<ResourceData> resources = new ArrayList<>();
+        if (anyToProduce > 0)
+            resources.add(new ResourceData(ResourceType.COIN, anyToProduce));
+        return resources;
+    }
+
+    /**
+     * Return the insertion of the marble in the row or column that gives the most resources, faith included.
+     * @param market the market of the match.
+     * @param whiteMarbleConversion the resources given by a white marble, empty if the player must choose them.
+     * @return the message to send.
+     */
+    private static MarketAction richestLine(Market market, ResourceBag whiteMarbleConversion){
+        ResourceBag[] preview = market.createPreviewBuffer();
+        market.preview(whiteMarbleConversion, preview);
+        int best = 0;
+        for (int i = 1; i < preview.length; i++){
+            if (preview[i].sum() > preview[best].sum())
+                best = i;
+        }
+        if (best < market.getNumRow())
+            return new MarketAction(best, true);
+        return new MarketAction(best - market.getNumRow(), false);
+    }
+}
@@ -0,0 +1,268 @@
+package it.polimi.ingsw.server.simulation;
+
+import it.polimi.ingsw.exception.JsonFileModificationError;
+import it.polimi.ingsw.server.Server;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Tournament plays thousands of headless matches with bots on all the cores, through the real rules of the server
+ * and without the network. Every match has its own seed, drawn from the seed of the tournament, so a tournament
+ * is repeatable whatever the number of threads. It writes the outcome and the time of every match in a csv and
+ * prints the matches per second per core, to compare the changes to the server end to end and to look for leaks
+ * and matches that never end.
+ */
+public class Tournament {
+    private final HashMap<String,String> argsMap = new HashMap<>();
+
+    private int games;
+    private int numOfPlayers;
+    private BotType botType;
+    private long seed;
+    private int threads;
+    private String outputPath;
+
+    /**
+     * SetUp the argsMap for command line parameters.
+     */
+    private void setUpArgs(){
+        argsMap.put("-games", "1000");
+        argsMap.put("-players", "4");
+        argsMap.put("-bot", "mixed");
+        argsMap.put("-seed", "2021");
+        argsMap.put("-threads", "0");
+        argsMap.put("-output", "");
+    }
+
+    /**
+     * Read the parameters from the command line.
+     * @param args the parameters from the command line.
+     */
+    private void setUpTournament(String[] args){
+        setUpArgs();
+        for (int i = 0; i < args.length; i++) {
+            if (argsMap.containsKey(args[i])){
+                try {
+                    argsMap.replace(args[i], args[i + 1]);
+                    i++;
+                }catch (Exception e){
+                    System.out.println("Invalid param!");
+                    System.exit(0);
+                }
+            }else{
+                System.out.println("Invalid param!");
+                System.exit(0);
+            }
+        }
+
+        try {
+            games = Integer.parseInt(argsMap.get("-games"));
+            numOfPlayers = Integer.parseInt(argsMap.get("-players"));
+            botType = BotType.valueOf(argsMap.get("-bot").toUpperCase());
+            seed = Long.parseLong(argsMap.get("-seed"));
+            threads = Integer.parseInt(argsMap.get("-threads"));
+            if (threads == 0)
+                threads = Runtime.getRuntime().availableProcessors();
+            outputPath = argsMap.get("-output");
+            if (games < 1 || numOfPlayers < 1 || numOfPlayers > 4 || threads < 1)
+                throw new IllegalArgumentException();
+        }catch (Exception e){
+            System.out.println("Invalid param to start the tournament!");
+            System.exit(0);
+        }
+    }
+
+    public static void main(String[] args) {
+        Tournament tournament = new Tournament();
+        tournament.setUpTournament(args);
+        tournament.run();
+        System.exit(0);
+    }
+
+    /**
+     * Play the tournament, write the csv and print the summary.
+     */
+    private void run(){
+        System.out.printf("%d matches of %d players, %s bots, seed %d, %d threads on %d cores%n", games,
+                numOfPlayers, botType.toString().toLowerCase(), seed, threads,
+                Runtime.getRuntime().availableProcessors());
+        Server server = new Server(new String[]{"-save", "false", "-slowAction", "0", "-log", "false"});
+        long heapBefore = usedHeapAfterGC();
+
+        List<GameOutcome> outcomes;
+        long nanos;
+        try {
+            long start = System.nanoTime();
+            outcomes = play(server, games, numOfPlayers, botType, seed, threads);
+            nanos = System.nanoTime() - start;
+        } catch (IllegalStateException e) {
+            System.out.println("Tournament not possible: " + e.getMessage());
+            return;
+        }
+        long heapAfter = usedHeapAfterGC();
+
+        if (!outputPath.isEmpty()) {
+            try {
+                writeCsv(outcomes, outputPath);
+            } catch (IOException e) {
+                System.out.println("Csv not writable: " + e.getMessage());
+            }
+        }
+        printSummary(outcomes, nanos);
+        System.out.printf("Heap used after GC: %.1f MB before, %.1f MB after, %d matches still on the server%n",
+                heapBefore / 1e6, heapAfter / 1e6, server.getMatches().size());
+    }
+
+    /**
+     * Play the matches of a tournament on a fork join pool.
+     * @param server the server of the matches, it doesn't listen on a port, doesn't save and doesn't log the matches.
+     * @param games the number of matches.
+     * @param numOfPlayers the number of players of every match.
+     * @param botType the bots of the players.
+     * @param seed the seed of the tournament.
+     * @param threads the number of threads of the pool.
+     * @return the outcomes of the matches, in order.
+     * @throws IllegalStateException if the settings of the game can't be read.
+     */
+    public static List<GameOutcome> play(Server server, int games, int numOfPlayers, BotType botType, long seed,
+                                         int threads){
+        long[] seeds = new SplittableRandom(seed).longs(games).toArray();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.invoke(new GameRange(server, seeds, numOfPlayers, botType, 0, games));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Write the outcomes of the matches in a csv, one line for each match after the header.
+     * @param outcomes the outcomes.
+     * @param path the path of the csv.
+     * @throws IOException if the file can't be written.
+     */
+    private static void writeCsv(List<GameOutcome> outcomes, String path) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path),
+                StandardCharsets.UTF_8))) {
+            writer.write(GameOutcome.CSV_HEADER + "\n");
+            for (GameOutcome outcome : outcomes)
+                writer.write(outcome.toCsv() + "\n");
+        }
+    }
+
+    /**
+     * Print the throughput of the tournament, how the matches ended, their times and the wins of every player.
+     * @param outcomes the outcomes of the matches.
+     * @param nanos the time of the whole tournament.
+     */
+    private void printSummary(List<GameOutcome> outcomes, long nanos){
+        double seconds = nanos / 1e9;
+        double gamesPerSecond = outcomes.size() / seconds;
+        System.out.printf("%d matches in %.2f s: %.1f matches/s, %.1f matches/s per core%n", outcomes.size(),
+                seconds, gamesPerSecond, gamesPerSecond / threads);
+
+        Map<GameOutcome.Status, Integer> statuses = new EnumMap<>(GameOutcome.Status.class);
+        Map<String, Integer> wins = new TreeMap<>();
+        long[] times = new long[outcomes.size()];
+        long messagesIn = 0;
+        long messagesOut = 0;
+        long errors = 0;
+        long turns = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            GameOutcome outcome = outcomes.get(i);
+            statuses.merge(outcome.getStatus(), 1, Integer::sum);
+            if (outcome.getWinner() != null)
+                wins.merge(outcome.getWinner(), 1, Integer::sum);
+            times[i] = outcome.getNanos();
+            messagesIn += outcome.getMessagesIn();
+            messagesOut += outcome.getMessagesOut();
+            errors += outcome.getErrors();
+            turns += outcome.getTurns();
+        }
+        Arrays.sort(times);
+        System.out.println("Status: " + statuses);
+        System.out.printf("Match time: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n", times[times.length / 2] / 1e6,
+                times[(int) Math.min(times.length - 1, Math.round(times.length * 0.99))] / 1e6,
+                times[times.length - 1] / 1e6);
+        System.out.printf("Per match: %.1f turns, %.1f messages in, %.1f out, %.2f errors; %.0f messages in/s%n",
+                (double) turns / outcomes.size(), (double) messagesIn / outcomes.size(),
+                (double) messagesOut / outcomes.size(), (double) errors / outcomes.size(), messagesIn / seconds);
+        System.out.println("Wins: " + wins);
+    }
+
+    /**
+     * Return the heap used after a garbage collection, to compare it before and after the tournament.
+     * @return the bytes used.
+     */
+    private static long usedHeapAfterGC(){
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * GameRange plays a range of the matches of a tournament, splitting it in halves until a single match is left.
+     */
+    private static class GameRange extends RecursiveTask<List<GameOutcome>> {
+        private final Server server;
+        private final long[] seeds;
+        private final int numOfPlayers;
+        private final BotType botType;
+        private final int from;
+        private final int to;
+
+        /**
+         * Create the task of a range of matches.
+         * @param server the server of the matches.
+         * @param seeds the seeds of all the matches of the tournament.
+         * @param numOfPlayers the number of players of every match.
+         * @param botType the bots of the players.
+         * @param from the first match of the range.
+         * @param to the match after the last one of the range.
+         */
+        private GameRange(Server server, long[] seeds, int numOfPlayers, BotType botType, int from, int to) {
+            this.server = server;
+            this.seeds = seeds;
+            this.numOfPlayers = numOfPlayers;
+            this.botType = botType;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<GameOutcome> compute() {
+            if (to - from == 1) {
+                try {
+                    List<GameOutcome> outcome = new ArrayList<>(1);
+                    outcome.add(new HeadlessGame(server, from, seeds[from], numOfPlayers, botType).play());
+                    return outcome;
+                } catch (IOException | JsonFileModificationError e) {
+                    throw new IllegalStateException("game settings not readable, " + e.getMessage(), e);
+                }
+            }
+            int middle = (from + to) >>> 1;
+            GameRange left = new GameRange(server, seeds, numOfPlayers, botType, from, middle);
+            GameRange right = new GameRange(server, seeds, numOfPlayers, botType, middle, to);
+            left.fork();
+            List<GameOutcome> rightOutcomes = right.compute();
+            List<GameOutcome> outcomes = new ArrayList<>(left.join());
+            outcomes.addAll(rightOutcomes);
+            return outcomes;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package it.polimi.ingsw.server.trace;
+
+import java.util.Arrays;
+
+/**
+ * ActionTrace follows one message of a client through the server. All the work caused by a message runs on the
+ * thread of the connection of the client, also the messages sent to the other players, so the trace is kept in a
+ * thread local and the code of the stages only opens and closes them with the static methods, that do nothing
+ * when no trace is running.
+ * The time of every stage is exclusive: the serialization of a message sent during the process counts as ENCODE,
+ * not as PROCESS. The spans keep the monotonic start and end of every stage, relative to the arrival of the message.
+ */
+public class ActionTrace {
+    private static final ThreadLocal<ActionTrace> CURRENT = new ThreadLocal<>();
+    private static final int MAX_DEPTH = 8;
+    private static final TraceStage[] STAGES = TraceStage.values();
+
+    private final long arrival;
+    private final long[] stageNanos = new long[STAGES.length];
+    private int stagesSeen = 0;
+    private final TraceStage[] stack = new TraceStage[MAX_DEPTH];
+    private final int[] openSpans = new int[MAX_DEPTH];
+    private int depth = 0;
+    private int overflow = 0;
+    private long mark;
+    private long end;
+    private long lastWrite;
+    private boolean written = false;
+
+    private TraceStage[] spanStages = new TraceStage[16];
+    private long[] spanStarts = new long[16];
+    private long[] spanEnds = new long[16];
+    private int spans = 0;
+
+    private int matchID = -1;
+    private String player = "";
+    private String messageType = "";
+
+    /**
+     * Create a trace, the first stage is READ.
+     * @param arrival the monotonic time the message arrived.
+     */
+    private ActionTrace(long arrival) {
+        this.arrival = arrival;
+        this.mark = arrival;
+        push(TraceStage.READ, arrival);
+    }
+
+    /**
+     * Start the trace of a message on this thread.
+     * @param arrival the monotonic time the message arrived, from System.nanoTime.
+     * @return the trace.
+     */
+    public static ActionTrace start(long arrival){
+        ActionTrace trace = new ActionTrace(arrival);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * Return the trace running on this thread.
+     * @return the trace, null if no message is traced.
+     */
+    public static ActionTrace current(){
+        return CURRENT.get();
+    }
+
+    /**
+     * Open a stage inside the current one.
+     * @param stage the stage.
+     */
+    public static void enter(TraceStage stage){
+        ActionTrace trace = CURRENT.get();
+        if (trace != null) trace.push(stage, System.nanoTime());
+    }
+
+    /**
+     * Close the current stage.
+     */
+    public static void exit(){
+        ActionTrace trace = CURRENT.get();
+        if (trace != null) trace.pop(System.nanoTime());
+    }
+
+    /**
+     * Close the current stage and open the next one at the same level.
+     * @param stage the next stage.
+     */
+    public static void next(TraceStage stage){
+        ActionTrace trace = CURRENT.get();
+        if (trace != null){
+            long now = System.nanoTime();
+            trace.pop(now);
+            trace.push(stage, now);
+        }
+    }
+
+    /**
+     * Remember that a message has been written to a client.
+     */
+    public static void written(){
+        ActionTrace trace = CURRENT.get();
+        if (trace != null){
+            trace.lastWrite = System.nanoTime();
+            trace.written = true;
+        }
+    }
+
+    /**
+     * Stop the trace running on this thread without recording it.
+     */
+    public static void discard(){
+        CURRENT.remove();
+    }
+
+    /**
+     * Close all the stages still open and stop the trace.
+     */
+    void stop(){
+        long now = System.nanoTime();
+        while (depth > 0 || overflow > 0)
+            pop(now);
+        end = now;
+        if (CURRENT.get() == this)
+            CURRENT.remove();
+    }
+
+    /**
+     * Open a stage.
+     * @param stage the stage.
+     * @param now the current time.
+     */
+    private void push(TraceStage stage, long now){
+        if (depth == MAX_DEPTH){
+            overflow++;
+            return;
+        }
+        account(now);
+        if (spans == spanStages.length){
+            spanStages = Arrays.copyOf(spanStages, spans * 2);
+            spanStarts = Arrays.copyOf(spanStarts, spans * 2);
+            spanEnds = Arrays.copyOf(spanEnds, spans * 2);
+        }
+        spanStages[spans] = stage;
+        spanStarts[spans] = now;
+        spanEnds[spans] = Long.MIN_VALUE;
+        openSpans[depth] = spans++;
+        stack[depth++] = stage;
+        stagesSeen |= 1 << stage.ordinal();
+    }
+
+    /**
+     * Close the current stage.
+     * @param now the current time.
+     */
+    private void pop(long now){
+        if (overflow > 0){
+            overflow--;
+            return;
+        }
+        if (depth == 0)
+            return;
+        account(now);
+        depth--;
+        spanEnds[openSpans[depth]] = now;
+    }
+
+    /**
+     * Add the time since the last change to the stage on top.
+     * @param now the current time.
+     */
+    private void account(long now){
+        if (depth > 0)
+            stageNanos[stack[depth - 1].ordinal()] += now - mark;
+        mark = now;
+    }
+
+    /**
+     * Set who sent the message and what it is.
+     * @param matchID the id of the match, -1 if the client is not in a match.
+     * @param player the username of the player or the id of the client.
+     * @param messageType the type of the message.
+     */
+    public void setTags(int matchID, String player, String messageType){
+        this.matchID = matchID;
+        this.player = player;
+        this.messageType = messageType;
+    }
+
+    /**
+     * Return true if the message went through a stage.
+     * @param stage the stage.
+     * @return true if the stage has been opened at least once.
+     */
+    public boolean hasStage(TraceStage stage){
+        return (stagesSeen & 1 << stage.ordinal()) != 0;
+    }
+
+    /**
+     * Return the exclusive time of a stage.
+     * @param stage the stage.
+     * @return the time in nanoseconds.
+     */
+    public long getStageNanos(TraceStage stage){
+        return stageNanos[stage.ordinal()];
+    }
+
+    /**
+     * Return the time from the arrival of the message to the last message written, or to the end of the trace if
+     * nothing was written.
+     * @return the time in nanoseconds.
+     */
+    public long getTotalNanos(){
+        return (written ? lastWrite : end) - arrival;
+    }
+
+    public int getMatchID() {
+        return matchID;
+    }
+
+    public String getPlayer() {
+        return player;
+    }
+
+    public String getMessageType() {
+        return messageType;
+    }
+
+    /**
+     * Return the trace in one line: tags, total, exclusive time of the stages and the spans, as start+duration in
+     * milliseconds from the arrival.
+     * @return the line.
+     */
+    @Override
+    public String toString() {
+        StringBuilder line = new StringBuilder();
+        line.append("match=").append(matchID)
+                .append(" player=").append(player)
+                .append(" message=").append(messageType)
+                .append(String.format(" total=%.3fms", getTotalNanos() / 1e6));
+        for (TraceStage stage : STAGES) {
+            if (hasStage(stage))
+                line.append(String.format(" %s=%.3f", stage, getStageNanos(stage) / 1e6));
+        }
+        line.append(" spans=");
+        for (int i = 0; i < spans; i++) {
+            long spanEnd = spanEnds[i] != Long.MIN_VALUE ? spanEnds[i] : end;
+            line.append(String.format("%s%s@%.3f+%.3f", i > 0 ? "," : "", spanStages[i],
+                    (spanStarts[i] - arrival) / 1e6, (spanEnd - spanStarts[i]) / 1e6));
+        }
+        return line.toString();
+    }
+}
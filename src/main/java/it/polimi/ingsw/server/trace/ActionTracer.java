@@ -0,0 +1,131 @@
+package it.polimi.ingsw.server.trace;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ActionTracer collects the traces of the actions of all the clients of the server: the exclusive time of every
+ * stage and the total time of every type of message go in histograms, the actions slower than a threshold are
+ * written in full in the slow action log.
+ */
+public class ActionTracer {
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final EnumMap<TraceStage, LatencyHistogram> stages = new EnumMap<>(TraceStage.class);
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final Map<String, LatencyHistogram> messages = new ConcurrentHashMap<>();
+    private final long slowThreshold;
+    private final String slowLogPath;
+    private final AtomicLong slowActions = new AtomicLong();
+    private final Object slowLogLock = new Object();
+    private PrintWriter slowLog;
+
+    /**
+     * Create a tracer.
+     * @param slowThresholdMillis the total time above which an action is written in the slow action log, 0 to not
+     *                            write the log.
+     * @param slowLogPath the path of the slow action log.
+     */
+    public ActionTracer(long slowThresholdMillis, String slowLogPath) {
+        this.slowThreshold = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.slowLogPath = slowLogPath;
+        for (TraceStage stage : TraceStage.values())
+            stages.put(stage, new LatencyHistogram());
+    }
+
+    /**
+     * Stop a trace and record it.
+     * @param trace the trace of the action.
+     */
+    public void end(ActionTrace trace){
+        trace.stop();
+        for (TraceStage stage : TraceStage.values()) {
+            if (trace.hasStage(stage))
+                stages.get(stage).record(trace.getStageNanos(stage));
+        }
+        long nanos = trace.getTotalNanos();
+        total.record(nanos);
+        messages.computeIfAbsent(trace.getMessageType(), x -> new LatencyHistogram()).record(nanos);
+        if (slowThreshold > 0 && nanos >= slowThreshold)
+            logSlowAction(trace);
+    }
+
+    /**
+     * Append a slow action to the log, the file is opened at the first one.
+     * @param trace the trace of the action.
+     */
+    private void logSlowAction(ActionTrace trace){
+        slowActions.incrementAndGet();
+        synchronized (slowLogLock){
+            try {
+                if (slowLog == null)
+                    slowLog = new PrintWriter(new FileWriter(slowLogPath, true), true);
+                slowLog.println(System.currentTimeMillis() + " " + trace);
+            } catch (IOException e) {
+                System.out.println("Slow action log not available: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Return the histogram of a stage.
+     * @param stage the stage.
+     * @return the histogram of the exclusive time of the stage.
+     */
+    public LatencyHistogram getStage(TraceStage stage){
+        return stages.get(stage);
+    }
+
+    /**
+     * Return the histogram of the total time of the actions.
+     * @return the histogram.
+     */
+    public LatencyHistogram getTotal(){
+        return total;
+    }
+
+    public long getSlowActions() {
+        return slowActions.get();
+    }
+
+    /**
+     * Print the histograms of the stages and of the messages.
+     * @param out where the histograms are printed.
+     */
+    public void print(PrintStream out){
+        out.printf("Actions: %d, slow: %d (threshold %.1f ms)%n", total.getCount(), slowActions.get(),
+                slowThreshold / 1e6);
+        out.printf("%-28s %8s %9s %9s %9s %9s %9s%n", "latency (ms)", "count", "mean", "p50", "p90", "p99", "max");
+        for (TraceStage stage : TraceStage.values())
+            printLine(out, stage.toString(), stages.get(stage));
+        printLine(out, "TOTAL", total);
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(messages).entrySet())
+            printLine(out, "  " + entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * Print the line of a histogram.
+     * @param out where the line is printed.
+     * @param name the name of the line.
+     * @param histogram the histogram.
+     */
+    private void printLine(PrintStream out, String name, LatencyHistogram histogram){
+        ArrayList<Object> values = new ArrayList<>();
+        values.add(name);
+        values.add(histogram.getCount());
+        values.add(histogram.getMean() / 1e6);
+        for (double percentile : PERCENTILES)
+            values.add(histogram.percentile(percentile) / 1e6);
+        values.add(histogram.getMax() / 1e6);
+        out.printf("%-28s %8d %9.3f %9.3f %9.3f %9.3f %9.3f%n", values.toArray());
+    }
+}
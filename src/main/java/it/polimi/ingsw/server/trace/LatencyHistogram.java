@@ -0,0 +1,98 @@
+package it.polimi.ingsw.server.trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram counts durations in buckets that double every time: the bucket i holds the durations between
+ * 2^(i-1) and 2^i microseconds. Recording is lock free, so the histogram can be shared by all the client threads,
+ * and the percentiles are the upper bound of the bucket where they fall.
+ */
+public class LatencyHistogram {
+    public static final int BUCKETS = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a duration.
+     * @param nanos the duration in nanoseconds.
+     */
+    public void record(long nanos){
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucketOf(nanos));
+        count.incrementAndGet();
+        sum.addAndGet(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Return the bucket of a duration.
+     * @param nanos the duration in nanoseconds.
+     * @return the index of the bucket.
+     */
+    static int bucketOf(long nanos){
+        long micros = nanos / 1000;
+        return Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(micros));
+    }
+
+    /**
+     * Return the upper bound of a bucket.
+     * @param bucket the index of the bucket.
+     * @return the upper bound in nanoseconds.
+     */
+    public static long upperBound(int bucket){
+        return (1L << bucket) * 1000;
+    }
+
+    /**
+     * Return the percentile of the durations recorded.
+     * @param percentile the percentile, between 0 and 100.
+     * @return the upper bound of the bucket of the percentile in nanoseconds, never more than the maximum, 0 if
+     * nothing was recorded.
+     */
+    public long percentile(double percentile){
+        long total = count.get();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank)
+                return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Return how many durations fell in a bucket.
+     * @param bucket the index of the bucket.
+     * @return the count of the bucket.
+     */
+    public long getBucketCount(int bucket){
+        return counts.get(bucket);
+    }
+
+    public long getSum() {
+        return sum.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Return the mean of the durations recorded.
+     * @return the mean in nanoseconds, 0 if nothing was recorded.
+     */
+    public long getMean() {
+        long total = count.get();
+        return total == 0 ? 0 : sum.get() / total;
+    }
+}
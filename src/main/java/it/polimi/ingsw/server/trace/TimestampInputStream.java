@@ -0,0 +1,49 @@
+package it.polimi.ingsw.server.trace;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * TimestampInputStream remembers when the last bytes came from the socket, so the trace of a message starts when
+ * the message arrived and not when the thread of the client started waiting for it.
+ */
+public class TimestampInputStream extends FilterInputStream {
+    private volatile long lastRead = System.nanoTime();
+
+    /**
+     * Create a stream that remembers the time of the reads.
+     * @param in the stream of the socket.
+     */
+    public TimestampInputStream(InputStream in) {
+        super(in);
+    }
+
+    /**
+     * See {@link FilterInputStream#read()}.
+     */
+    @Override
+    public int read() throws IOException {
+        int read = super.read();
+        if (read >= 0) lastRead = System.nanoTime();
+        return read;
+    }
+
+    /**
+     * See {@link FilterInputStream#read(byte[], int, int)}.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read > 0) lastRead = System.nanoTime();
+        return read;
+    }
+
+    /**
+     * Return the time of the last read that returned some bytes.
+     * @return the monotonic time, from System.nanoTime.
+     */
+    public long getLastRead() {
+        return lastRead;
+    }
+}
@@ -0,0 +1,35 @@
+package it.polimi.ingsw.server.trace;
+
+/**
+ * The stages an action of a client goes through in the server, from the socket to the last message written.
+ */
+public enum TraceStage {
+    /**
+     * From the arrival of the bytes of the line to the end of the Scanner read.
+     */
+    READ,
+    /**
+     * Jackson deserialization of the ServerMessage.
+     */
+    DECODE,
+    /**
+     * ServerMessage.process: the message handler and the logic of the controller and of the model.
+     */
+    PROCESS,
+    /**
+     * The match sending a message to its players, without the serialization and the writes.
+     */
+    FANOUT,
+    /**
+     * Jackson serialization of a ClientMessage.
+     */
+    ENCODE,
+    /**
+     * Write of a message on the socket, with the wait of the lock of the stream.
+     */
+    WRITE,
+    /**
+     * Computation of the legal actions of the current player after the action.
+     */
+    LEGAL_ACTIONS
+}
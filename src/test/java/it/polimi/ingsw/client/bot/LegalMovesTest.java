@@ -0,0 +1,55 @@
+package it.polimi.ingsw.client.bot;
+
+import it.polimi.ingsw.client.data.LegalActionsData;
+import it.polimi.ingsw.message.serverMessage.BaseProduction;
+import it.polimi.ingsw.message.serverMessage.DevelopmentAction;
+import it.polimi.ingsw.message.serverMessage.LeaderManage;
+import it.polimi.ingsw.message.serverMessage.ProductionAction;
+import it.polimi.ingsw.message.serverMessage.ServerMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LegalMovesTest {
+
+    @Test
+    void purchasesTest(){
+        //deck of 2 rows and 2 columns: card (0,1) fits slots 0 and 2, card (1,0) is not affordable
+        int[] validSlots = {0, 0b101, 0b010, 0};
+        LegalActionsData legalActions = new LegalActionsData("player", 0, 2, 0b0010, validSlots,
+                0, false, 0, 0);
+
+        ArrayList<ServerMessage> purchases = LegalMoves.purchases(legalActions);
+        assertEquals(2, purchases.size());
+        DevelopmentAction first = (DevelopmentAction) purchases.get(0);
+        DevelopmentAction second = (DevelopmentAction) purchases.get(1);
+        assertEquals(0, first.getRow());
+        assertEquals(1, first.getColumn());
+        assertEquals(0, first.getLocateSlot());
+        assertEquals(2, second.getLocateSlot());
+
+        assertTrue(LegalMoves.purchases(new LegalActionsData("player", 0, 0, 0, new int[0],
+                0, false, 0, 0)).isEmpty());
+    }
+
+    @Test
+    void productionsAndLeadersTest(){
+        LegalActionsData legalActions = new LegalActionsData("player", 0, 4, 0, new int[12],
+                0b110, true, 0b01, 0b10);
+
+        ArrayList<ServerMessage> productions = LegalMoves.productions(legalActions);
+        assertEquals(4, productions.size());
+        assertEquals(1, ((ProductionAction) productions.get(0)).getSlotsIndex());
+        assertEquals(2, ((ProductionAction) productions.get(1)).getSlotsIndex());
+        assertTrue(((ProductionAction) productions.get(2)).isLeader());
+        assertTrue(productions.get(3) instanceof BaseProduction);
+        assertEquals(3, LegalMoves.cardProductions(legalActions).size());
+
+        ArrayList<ServerMessage> activations = LegalMoves.leaderActivations(legalActions);
+        assertEquals(1, activations.size());
+        assertEquals(1, ((LeaderManage) activations.get(0)).getIndex());
+        assertFalse(((LeaderManage) activations.get(0)).isDiscard());
+    }
+}
@@ -0,0 +1,48 @@
+package it.polimi.ingsw.client.bot;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadReportTest {
+
+    @Test
+    void percentileTest(){
+        LoadReport report = new LoadReport();
+        for (int i = 100; i >= 1; i--)
+            report.recordLatency("EndTurn", i);
+        report.recordLatency("MarketAction", 1000);
+
+        assertEquals(50, report.percentile("EndTurn", 50));
+        assertEquals(99, report.percentile("EndTurn", 99));
+        assertEquals(100, report.percentile("EndTurn", 100));
+        assertEquals(1, report.percentile("EndTurn", 0));
+        assertEquals(1000, report.percentile("MarketAction", 50));
+        assertEquals(1000, report.percentile(null, 100));
+        assertEquals(0, report.percentile("BaseProduction", 50));
+    }
+
+    @Test
+    void printTest(){
+        LoadReport report = new LoadReport();
+        report.recordLatency("EndTurn", 2_000_000);
+        report.matchEnded(true);
+        report.matchEnded(false);
+        report.reconnection();
+        report.addBotCpuTime(10);
+        report.addBotCpuTime(-1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.print(new PrintStream(out), 1_000_000_000);
+        String printed = out.toString();
+        assertTrue(printed.contains("1 completed, 1 failed"));
+        assertTrue(printed.contains("1 reconnections"));
+        assertTrue(printed.contains("EndTurn"));
+        assertEquals(1, report.getCompletedMatches());
+        assertEquals(1, report.getFailedMatches());
+        assertEquals(10, report.getBotCpuTime());
+    }
+}
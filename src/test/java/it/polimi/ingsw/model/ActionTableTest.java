@@ -0,0 +1,57 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.server.HandlerState;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActionTableTest {
+
+    @Test
+    void handlerStateTest(){
+        assertTrue(ActionTable.isAllowed(ActionType.FIRST_CONTACT, HandlerState.FIRST_CONTACT));
+        assertFalse(ActionTable.isAllowed(ActionType.FIRST_CONTACT, HandlerState.IN_MATCH));
+        assertTrue(ActionTable.isAllowed(ActionType.LEADER_MANAGE, HandlerState.LEADER_SETUP));
+        assertTrue(ActionTable.isAllowed(ActionType.ANY_RESPONSE, HandlerState.RESOURCE_SETUP));
+        assertFalse(ActionTable.isAllowed(ActionType.MARKET_ACTION, HandlerState.RESOURCE_SETUP));
+    }
+
+    @Test
+    void playerStateTest(){
+        assertTrue(ActionTable.isAllowed(ActionType.MARKET_ACTION, HandlerState.IN_MATCH, PlayerState.LEADER_MANAGE_BEFORE));
+        assertFalse(ActionTable.isAllowed(ActionType.MARKET_ACTION, HandlerState.IN_MATCH, PlayerState.LEADER_MANAGE_AFTER));
+        assertFalse(ActionTable.isAllowed(ActionType.END_TURN, PlayerState.LEADER_MANAGE_BEFORE));
+        assertTrue(ActionTable.isAllowed(ActionType.END_TURN, PlayerState.LEADER_MANAGE_AFTER));
+        assertFalse(ActionTable.isAllowed(ActionType.DEPOT_MODIFY, (PlayerState) null));
+
+        //set up actions don't depend on the player state
+        assertTrue(ActionTable.isAllowed(ActionType.LEADER_MANAGE, HandlerState.LEADER_SETUP, null));
+
+        //the market preview reads the tray, so only the current player can ask it before the market action
+        assertTrue(ActionTable.requiresTurn(ActionType.MARKET_PREVIEW));
+        assertTrue(ActionTable.isAllowed(ActionType.MARKET_PREVIEW, HandlerState.IN_MATCH, PlayerState.LEADER_MANAGE_BEFORE));
+        assertFalse(ActionTable.isAllowed(ActionType.MARKET_PREVIEW, HandlerState.IN_MATCH, PlayerState.WHITE_MARBLE_CONVERSION));
+    }
+
+    @Test
+    void legalActionsTest(){
+        EnumSet<ActionType> actions = ActionTable.legalActions(HandlerState.IN_MATCH,
+                PlayerState.MARKET_RESOURCE_POSITIONING, true);
+        assertEquals(EnumSet.of(ActionType.DISCARD_MARKET_RESOURCES,
+                ActionType.DEPOT_MODIFY, ActionType.DEPOT_SWITCH, ActionType.WAREHOUSE_LAYOUT,
+                ActionType.ARRANGE_PREVIEW, ActionType.AUTO_ARRANGE), actions);
+
+        actions = ActionTable.legalActions(HandlerState.IN_MATCH, PlayerState.MARKET_RESOURCE_POSITIONING, false);
+        assertEquals(EnumSet.noneOf(ActionType.class), actions);
+    }
+
+    @Test
+    void dumpTest(){
+        String dump = ActionTable.dump();
+        for (ActionType action : ActionType.values())
+            assertTrue(dump.contains(action + ":"));
+        assertEquals(ActionType.values().length, dump.split("\n").length);
+    }
+}
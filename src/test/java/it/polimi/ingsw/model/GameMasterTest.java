@@ -1,12 +1,21 @@
 package it.polimi.ingsw.model;
 
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import it.polimi.ingsw.client.data.LegalActionsData;
 import it.polimi.ingsw.client.data.ModelData;
 import it.polimi.ingsw.exception.DeckDevelopmentCardException;
 import it.polimi.ingsw.model.card.Color;
+import it.polimi.ingsw.model.card.DevelopmentDeck;
 import it.polimi.ingsw.model.personalBoard.PersonalBoard;
+import it.polimi.ingsw.model.resource.ResourceFactory;
+import it.polimi.ingsw.model.resource.ResourceType;
 import it.polimi.ingsw.model.token.CardToken;
 import it.polimi.ingsw.model.token.PositionToken;
 import it.polimi.ingsw.model.token.Token;
+import it.polimi.ingsw.observer.ModelObserver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -139,19 +148,55 @@ class GameMasterTest {
     @Test
     void discardDevelopment() {
         gm.discardDevelopmentSinglePlayer(Color.GREEN, 4);
-        assertTrue(gm.getDeckDevelopment().get(0).get(0).isEmpty());
+        assertTrue(gm.getDeckDevelopment().isEmpty(0,0));
         assertThrows(DeckDevelopmentCardException.class, () -> gm.getDeckDevelopmentCard(0,0));
 
         assertDoesNotThrow(()->gm.discardDevelopmentSinglePlayer(Color.GREEN, 3));
-        assertTrue(gm.getDeckDevelopment().get(0).get(0).isEmpty());
+        assertTrue(gm.getDeckDevelopment().isEmpty(0,0));
 
         assertDoesNotThrow(()->gm.discardDevelopmentSinglePlayer(Color.GREEN, 1));
-        assertTrue(gm.getDeckDevelopment().get(0).get(0).isEmpty());
+        assertTrue(gm.getDeckDevelopment().isEmpty(0,0));
 
         assertDoesNotThrow(()->gm.discardDevelopmentSinglePlayer(Color.GREEN, 4));
 
     }
 
+    @Test
+    void legalActionsTest(){
+        LegalActionsData legalActions = gm.toLegalActionsData();
+        assertEquals(gm.getCurrentPlayer(), legalActions.getUsername());
+        assertTrue(legalActions.isLegal(ActionType.MARKET_ACTION));
+        assertFalse(legalActions.isLegal(ActionType.END_TURN));
+        assertEquals(0, legalActions.getAffordableDeck());
+        assertFalse(legalActions.isBaseProductionUsable());
+
+        for (ResourceType type : ResourceType.values()){
+            if (type != ResourceType.ANY && type != ResourceType.FAITH)
+                gm.getCurrentPlayerPersonalBoard().getResourceManager()
+                        .addToStrongbox(ResourceFactory.createResource(type, 20));
+        }
+        gm.getCurrentPlayerPersonalBoard().getResourceManager().restoreRM();
+        legalActions = gm.toLegalActionsData();
+        assertTrue(legalActions.isBaseProductionUsable());
+        DevelopmentDeck deck = gm.getDeckDevelopment();
+        for (int row = 0; row < deck.getRows(); row++){
+            for (int col = 0; col < deck.getColumns(); col++){
+                boolean levelOne = deck.peek(row, col).getLevel() == 1;
+                assertEquals(levelOne, legalActions.canBuy(row, col));
+                assertEquals(levelOne, legalActions.canBuyIn(row, col, 2));
+                //the cards of the deck are not attached to the player
+                assertNull(deck.peek(row, col).getOwner());
+            }
+        }
+        assertEquals(legalActions, gm.toLegalActionsData());
+
+        gm.onPlayerStateChange(PlayerState.LEADER_MANAGE_AFTER);
+        legalActions = gm.toLegalActionsData();
+        assertTrue(legalActions.isLegal(ActionType.END_TURN));
+        assertEquals(0, legalActions.getAffordableDeck());
+        assertFalse(legalActions.isBaseProductionUsable());
+    }
+
     @Test
     public void overrideTest(){
         assertDoesNotThrow(() -> gmSp.discardLeader());
@@ -166,4 +211,70 @@ class GameMasterTest {
         assertDoesNotThrow(()->gmSp.attachObserver(null));
         assertDoesNotThrow(()->gmSp.shuffleToken());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void seedTest() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        ArrayList<String> players = new ArrayList<>(List.of("Lorenzo", "Matteo", "Davide"));
+
+        GameMaster first = new GameMaster(new GameSetting(3), new ArrayList<>(players), 42);
+        GameMaster second = new GameMaster(new GameSetting(3), new ArrayList<>(players), 42);
+        GameMaster other = new GameMaster(new GameSetting(3), new ArrayList<>(players), 43);
+        assertEquals(42, first.getSeed());
+        assertEquals(mapper.writeValueAsString(first), mapper.writeValueAsString(second));
+        assertNotEquals(mapper.writeValueAsString(first), mapper.writeValueAsString(other));
+
+        //the shuffles of the tokens go on the same way in a match loaded from its save
+        GameMaster single = new GameMaster(new GameSetting(1), new ArrayList<>(List.of("Lorenzo")), 7);
+        single.shuffleToken();
+        GameMaster loaded = mapper.readValue(mapper.writeValueAsString(single), GameMaster.class);
+        single.shuffleToken();
+        loaded.shuffleToken();
+        //the constructor of the market shuffles the list of its marbles when it's loaded, the tray is the same
+        ObjectNode singleTree = mapper.valueToTree(single);
+        ObjectNode loadedTree = mapper.valueToTree(loaded);
+        assertEquals(singleTree.remove("market").get("marketTray"), loadedTree.remove("market").get("marketTray"));
+        assertEquals(singleTree, loadedTree);
+    }
+
+    @Test
+    public void gameOverTieTest(){
+        Map<Float, String> ranking = new HashMap<>();
+        gm.attachObserver(new ModelObserver() {
+            @Override
+            public void currentPlayerChange(String nextPlayer) {}
+
+            @Override
+            public void removeDeckDevelopmentSinglePlayer(int row, int column) {}
+
+            @Override
+            public void weHaveAWinner(Map<Float, String> matchRanking) {
+                ranking.putAll(matchRanking);
+            }
+
+            @Override
+            public void winningCondition() {}
+        });
+        //same victory points, the resources break the tie: the first player 4, the second 0, the third 2
+        List<String> players = gm.getPlayersTurn();
+        gm.getPlayerPersonalBoard(players.get(0)).getResourceManager()
+                .addToStrongbox(ResourceFactory.createResource(ResourceType.COIN, 4));
+        gm.getPlayerPersonalBoard(players.get(2)).getResourceManager()
+                .addToStrongbox(ResourceFactory.createResource(ResourceType.STONE, 2));
+
+        gm.winningCondition();
+        for (int i = 0; i < players.size(); i++){
+            gm.onPlayerStateChange(PlayerState.LEADER_MANAGE_AFTER);
+            assertDoesNotThrow(()->gm.nextPlayer());
+        }
+        assertTrue(gm.isGameEnded());
+        assertEquals(3, ranking.size());
+        List<String> ordered = ranking.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+        assertEquals(List.of(players.get(1), players.get(2), players.get(0)), ordered);
+    }
+}
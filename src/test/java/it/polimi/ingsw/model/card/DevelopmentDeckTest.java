@@ -0,0 +1,83 @@
+package it.polimi.ingsw.model.card;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.polimi.ingsw.model.GameSetting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DevelopmentDeckTest {
+    ArrayList<ArrayList<ArrayList<Development>>> piles;
+    DevelopmentDeck deck;
+
+    @BeforeEach
+    void init(){
+        piles = assertDoesNotThrow(() -> new GameSetting(1).getDeckDevelopment());
+        deck = new DevelopmentDeck(piles);
+    }
+
+    @Test
+    void popTest(){
+        assertEquals(3, deck.getRows());
+        assertEquals(4, deck.getColumns());
+        assertSame(piles.get(0).get(1).get(0), deck.peek(0, 1));
+        assertSame(piles.get(0).get(1).get(0), deck.pop(0, 1));
+        assertSame(piles.get(0).get(1).get(1), deck.peek(0, 1));
+        assertEquals(3, deck.size(0, 1));
+        assertEquals(11, deck.remaining(1));
+
+        for (int i = 0; i < 3; i++)
+            deck.pop(0, 1);
+        assertTrue(deck.isEmpty(0, 1));
+        assertNull(deck.pop(0, 1));
+        assertEquals(8, deck.remaining(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> deck.pop(3, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> deck.peek(0, -1));
+    }
+
+    @Test
+    void emptyColumnTest(){
+        for (int row = 0; row < deck.getRows(); row++){
+            assertFalse(deck.hasEmptyColumn());
+            while (!deck.isEmpty(row, 2))
+                deck.pop(row, 2);
+        }
+        assertTrue(deck.hasEmptyColumn());
+        assertEquals(0, deck.remaining(2));
+    }
+
+    @Test
+    void copyTest(){
+        DevelopmentDeck copy = deck.copy();
+        copy.pop(2, 3);
+        assertEquals(4, deck.size(2, 3));
+        assertEquals(3, copy.size(2, 3));
+        assertSame(deck.peek(1, 1), copy.peek(1, 1));
+    }
+
+    @Test
+    void toDeckDevDataTest(){
+        deck.pop(1, 0);
+        assertEquals(3, deck.toDeckDevData().getDeck().get(1).get(0).size());
+        assertEquals(piles.get(1).get(0).get(1).toCardDevData().getId(),
+                deck.toDeckDevData().getDeck().get(1).get(0).get(0).getId());
+    }
+
+    @Test
+    void serializationTest(){
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        deck.pop(0, 0);
+        DevelopmentDeck restored = assertDoesNotThrow(() ->
+                mapper.readValue(mapper.writeValueAsString(deck), DevelopmentDeck.class));
+        assertEquals(3, restored.size(0, 0));
+        assertEquals(deck.peek(0, 0).toCardDevData().getId(), restored.peek(0, 0).toCardDevData().getId());
+        assertEquals(11, restored.remaining(0));
+    }
+}
@@ -0,0 +1,295 @@
+package it.polimi.ingsw.model.forward;
+
+import it.polimi.ingsw.model.GameMaster;
+import it.polimi.ingsw.model.GameSetting;
+import it.polimi.ingsw.model.PlayerState;
+import it.polimi.ingsw.model.card.Development;
+import it.polimi.ingsw.model.card.Effect.Activation.ProductionEffect;
+import it.polimi.ingsw.model.card.Effect.Effect;
+import it.polimi.ingsw.model.personalBoard.PersonalBoard;
+import it.polimi.ingsw.model.personalBoard.cardManager.CardManager;
+import it.polimi.ingsw.model.personalBoard.market.Market;
+import it.polimi.ingsw.model.personalBoard.resourceManager.PaymentPolicy;
+import it.polimi.ingsw.model.personalBoard.resourceManager.ResourceManager;
+import it.polimi.ingsw.model.resource.Resource;
+import it.polimi.ingsw.model.resource.ResourceFactory;
+import it.polimi.ingsw.model.resource.ResourceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static it.polimi.ingsw.model.forward.ForwardRules.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactStateTest {
+    private static final long SEED = 2021;
+
+    /**
+     * Create a match after the set up: every player keeps the last two leaders and the first turn is started.
+     */
+    private GameMaster newMatch(int numberOfPlayers, long seed) throws Exception {
+        ArrayList<String> players = new ArrayList<>();
+        for (int i = 0; i < numberOfPlayers; i++)
+            players.add("player" + i);
+        GameMaster gameMaster = new GameMaster(new GameSetting(numberOfPlayers), players, seed);
+        gameMaster.deliverLeaderCards();
+        for (String player : gameMaster.getPlayersTurn()){
+            gameMaster.getPlayerPersonalBoard(player).getCardManager().discardLeaderSetUp(0);
+            gameMaster.getPlayerPersonalBoard(player).getCardManager().discardLeaderSetUp(0);
+        }
+        gameMaster.nextPlayer();
+        return gameMaster;
+    }
+
+    /**
+     * Play an action on the real model with the same steps of the Controller.
+     */
+    private void playReal(GameMaster gameMaster, ForwardRules rules, CompactState before, int action) throws Exception {
+        PersonalBoard personalBoard = gameMaster.getPlayerPersonalBoard(gameMaster.getCurrentPlayer());
+        ResourceManager resourceManager = personalBoard.getResourceManager();
+        CardManager cardManager = personalBoard.getCardManager();
+        if (action == END_TURN){
+            gameMaster.nextPlayer();
+            if (!gameMaster.isGameEnded()){
+                PersonalBoard next = gameMaster.getPlayerPersonalBoard(gameMaster.getCurrentPlayer());
+                next.getResourceManager().restoreRM();
+                next.getCardManager().restoreCM();
+            }
+            return;
+        }
+        if (action < rules.buyBase){
+            int line = (action - rules.marketBase) / rules.whiteChoices;
+            Market market = gameMaster.getMarket();
+            if (line < rules.rows)
+                market.insertMarbleInRow(line);
+            else
+                market.insertMarbleInCol(line - rules.rows);
+            resourceManager.resourceFromMarket(market.getResourceToSend());
+            market.reset();
+            resourceManager.autoArrange();
+            resourceManager.applyFaithPoints();
+        }else if (action < rules.produceBase){
+            int cell = (action - rules.buyBase) / rules.slots;
+            int row = cell / rules.columns;
+            int col = cell % rules.columns;
+            Development card = gameMaster.getDeckDevelopmentCard(row, col);
+            cardManager.addDevCardTo(card, (action - rules.buyBase) % rules.slots);
+            cardManager.setDeckBufferInfo(row, col);
+            card.checkRequirements();
+            resourceManager.autoPay(PaymentPolicy.WAREHOUSE_FIRST);
+            cardManager.emptyCardSlotBuffer();
+        }else{
+            int mask = (action - rules.produceBase) / TYPES;
+            ResourceType anyProfit = ResourceType.values()[(action - rules.produceBase) % TYPES];
+            int seat = before.getCurrentSeat();
+            int[] remaining = new int[TYPES];
+            for (int t = 0; t < TYPES; t++)
+                remaining[t] = before.howManyDoIHave(seat, ResourceType.values()[t]);
+            int anyCost = 0;
+            int anyGain = 0;
+            //the base production is the last one, its ANY cost stops the selection
+            for (int i = 0; i <= rules.slots; i++){
+                if ((mask & (1 << i)) == 0)
+                    continue;
+                Development development = i < rules.slots
+                        ? cardManager.getCardSlot(i).getLastInsertedCard() : cardManager.getBaseProduction();
+                for (Effect effect : development.getOnActivationEffects()){
+                    if (!(effect instanceof ProductionEffect))
+                        continue;
+                    for (Resource resource : ((ProductionEffect) effect).getResourceCost()){
+                        if (resource.getType() == ResourceType.ANY) anyCost += resource.getValue();
+                        else if (resource.getType().ordinal() < TYPES) remaining[resource.getType().ordinal()] -= resource.getValue();
+                    }
+                    for (Resource resource : ((ProductionEffect) effect).getResourceAcquired()){
+                        if (resource.getType() == ResourceType.ANY) anyGain += resource.getValue();
+                    }
+                }
+                if (i < rules.slots)
+                    cardManager.developmentProduce(i);
+                else
+                    cardManager.baseProductionProduce();
+            }
+            if (anyCost > 0){
+                ArrayList<Resource> conversion = new ArrayList<>();
+                for (int k = 0; k < anyCost; k++){
+                    int most = 0;
+                    for (int t = 1; t < TYPES; t++){
+                        if (remaining[t] > remaining[most]) most = t;
+                    }
+                    remaining[most]--;
+                    conversion.add(ResourceFactory.createResource(ResourceType.values()[most], 1));
+                }
+                resourceManager.convertAnyRequirement(conversion, false);
+            }
+            if (anyGain > 0){
+                ArrayList<Resource> profit = new ArrayList<>();
+                profit.add(ResourceFactory.createResource(anyProfit, anyGain));
+                resourceManager.convertAnyProductionProfit(profit);
+            }
+            resourceManager.stopProduction();
+            resourceManager.autoPay(PaymentPolicy.WAREHOUSE_FIRST);
+            resourceManager.doProduction();
+            resourceManager.applyFaithPoints();
+            cardManager.restoreCM();
+        }
+        resourceManager.restoreRM();
+        gameMaster.onPlayerStateChange(PlayerState.LEADER_MANAGE_AFTER);
+    }
+
+    /**
+     * Play random turns on the compact state and on the real model, the states must stay the same after every
+     * action. The leaders are left in the hand, the real model reorders them when they're activated.
+     */
+    private void crossCheck(int numberOfPlayers, long seed, int maxActions) throws Exception {
+        GameMaster gameMaster = newMatch(numberOfPlayers, seed);
+        ForwardRules rules = new ForwardRules(gameMaster);
+        CompactState state = CompactState.fromGameMaster(rules, gameMaster);
+        Random random = new Random(seed);
+        int[] actions = new int[rules.getActionCount()];
+        int[] playable = new int[rules.getActionCount()];
+        int played = 0;
+        while (!state.isEnded() && played < maxActions){
+            int count = state.legalActions(actions);
+            int playableCount = 0;
+            for (int i = 0; i < count; i++){
+                if (actions[i] == END_TURN || actions[i] >= rules.marketBase)
+                    playable[playableCount++] = actions[i];
+            }
+            assertTrue(playableCount > 0);
+            int action = playable[random.nextInt(playableCount)];
+            CompactState before = state.copy();
+            assertTrue(state.apply(action), rules.describe(action));
+            playReal(gameMaster, rules, before, action);
+            assertEquals(CompactState.fromGameMaster(rules, gameMaster), state,
+                    "after " + played + " actions, " + rules.describe(action));
+            played++;
+        }
+    }
+
+    @Test
+    void singlePlayerCrossCheckTest() throws Exception {
+        crossCheck(1, SEED, 400);
+        crossCheck(1, SEED + 1, 400);
+    }
+
+    @Test
+    void multiPlayerCrossCheckTest() throws Exception {
+        crossCheck(2, SEED, 400);
+        crossCheck(3, SEED + 1, 400);
+    }
+
+    @Test
+    void fromGameMasterTest() throws Exception {
+        GameMaster gameMaster = newMatch(2, SEED);
+        ForwardRules rules = new ForwardRules(gameMaster);
+        CompactState state = CompactState.fromGameMaster(rules, gameMaster);
+        Market market = gameMaster.getMarket();
+        byte[] tray = new byte[market.getNumRow() * market.getNumCol()];
+        market.copyTray(tray);
+
+        assertEquals(2, rules.getSeats());
+        assertEquals(NONE, rules.getLorenzoSeat());
+        assertEquals(0, state.getCurrentSeat());
+        assertFalse(state.isEnded());
+        assertFalse(state.isMainActionDone());
+        for (int i = 0; i < tray.length; i++)
+            assertEquals(tray[i], state.getMarble(i / market.getNumCol(), i % market.getNumCol()));
+        assertEquals(market.getMarbleToInsert(), state.getMarbleToInsert());
+        assertEquals(gameMaster.getDeckDevelopment().size(0, 0), state.getDeckSize(0, 0));
+        assertEquals(0, state.getDevelopmentCount(1));
+
+        //in the middle of an action the state can't be built
+        gameMaster.onPlayerStateChange(PlayerState.MARKET_RESOURCE_POSITIONING);
+        assertThrows(IllegalStateException.class, () -> CompactState.fromGameMaster(rules, gameMaster));
+        assertEquals(1, new ForwardRules(newMatch(1, SEED)).getLorenzoSeat());
+    }
+
+    @Test
+    void copyTest() throws Exception {
+        GameMaster gameMaster = newMatch(2, SEED);
+        ForwardRules rules = new ForwardRules(gameMaster);
+        CompactState state = CompactState.fromGameMaster(rules, gameMaster);
+        CompactState copy = state.copy();
+        assertEquals(state, copy);
+        assertEquals(state.hashCode(), copy.hashCode());
+
+        assertTrue(copy.apply(rules.market(0, 0)));
+        assertNotEquals(state, copy);
+        assertFalse(state.isMainActionDone());
+        assertTrue(copy.isMainActionDone());
+
+        state.copyFrom(copy);
+        assertEquals(copy, state);
+    }
+
+    @Test
+    void illegalActionTest() throws Exception {
+        GameMaster gameMaster = newMatch(2, SEED);
+        ForwardRules rules = new ForwardRules(gameMaster);
+        CompactState state = CompactState.fromGameMaster(rules, gameMaster);
+        CompactState before = state.copy();
+
+        assertFalse(state.apply(END_TURN));
+        assertFalse(state.apply(-1));
+        assertFalse(state.apply(rules.getActionCount()));
+        //nobody owns a card of the first level to produce with
+        assertFalse(state.apply(rules.produce(1, ResourceType.COIN)));
+        //the marbles have no leader to become
+        assertFalse(state.apply(rules.market(0, 1)));
+        assertEquals(before, state);
+
+        assertTrue(state.apply(rules.market(rules.lines - 1, 0)));
+        assertFalse(state.apply(rules.market(0, 0)));
+        assertTrue(state.apply(END_TURN));
+        assertEquals(1, state.getCurrentSeat());
+    }
+
+    @Test
+    void discardLeaderTest() throws Exception {
+        GameMaster gameMaster = newMatch(2, SEED);
+        ForwardRules rules = new ForwardRules(gameMaster);
+        CompactState state = CompactState.fromGameMaster(rules, gameMaster);
+
+        assertTrue(state.apply(rules.discardLeader(1)));
+        assertEquals(1, state.getFaithPosition(0));
+        assertFalse(state.apply(rules.discardLeader(1)));
+        assertFalse(state.apply(rules.activateLeader(1)));
+        assertTrue(state.apply(rules.discardLeader(0)));
+        assertEquals(2, state.getFaithPosition(0));
+
+        int[] actions = new int[rules.getActionCount()];
+        int count = state.legalActions(actions);
+        for (int i = 0; i < count; i++)
+            assertTrue(actions[i] >= rules.marketBase);
+    }
+
+    @Test
+    void playoutTest() throws Exception {
+        for (int numberOfPlayers = 1; numberOfPlayers <= 4; numberOfPlayers++){
+            GameMaster gameMaster = newMatch(numberOfPlayers, SEED);
+            ForwardRules rules = new ForwardRules(gameMaster);
+            CompactState state = CompactState.fromGameMaster(rules, gameMaster);
+            Random random = new Random(SEED);
+            int[] actions = new int[rules.getActionCount()];
+            int played = 0;
+            while (!state.isEnded()){
+                int count = state.legalActions(actions);
+                assertTrue(count > 0);
+                assertTrue(state.apply(actions[random.nextInt(count)]));
+                played++;
+                assertTrue(played < 100_000, "the game doesn't end");
+            }
+            assertEquals(0, state.legalActions(actions));
+            assertFalse(state.apply(END_TURN));
+            int winner = state.getWinner();
+            for (int seat = 0; seat < rules.getSeats(); seat++){
+                assertTrue(state.getScore(seat) <= state.getScore(winner));
+                assertTrue(state.getFaithPosition(seat) <= 24);
+                for (ResourceType type : new ResourceType[]{ResourceType.COIN, ResourceType.SHIELD,
+                        ResourceType.STONE, ResourceType.SERVANT})
+                    assertTrue(state.getStrongbox(seat, type) >= 0);
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package it.polimi.ingsw.model.personalBoard;
 
+import it.polimi.ingsw.client.data.ModelData;
 import it.polimi.ingsw.model.GameMaster;
 import it.polimi.ingsw.model.GameSetting;
 import org.junit.jupiter.api.BeforeEach;
@@ -43,6 +44,20 @@ class PersonalBoardTest {
         assertNotNull(personalBoard.toClient(false));
     }
 
+    @Test
+    void toClientFaithTrack() {
+        personalBoard.getFaithTrack().movePlayer(8);
+        personalBoard.getFaithTrack().popeFavorActivated(0);
+        ModelData modelData = personalBoard.toClient(true);
+
+        //only the state of the player is sent, the cells of the track are sent once for all the players
+        assertEquals(8, modelData.getCurrentPosOnFaithTrack());
+        assertTrue(modelData.isPopeFavorAcquired(0));
+        assertFalse(modelData.isPopeFavorAcquired(1));
+        assertEquals(personalBoard.getFaithTrack().getPopeFavorAcquired(), modelData.getPopeFavorAcquired());
+        assertEquals(personalBoard.getFaithTrack().allVP(), modelData.getFaithTrackVP());
+    }
+
     @Test
     void getFaithTrack() {
         assertNotNull(personalBoard.getFaithTrack());
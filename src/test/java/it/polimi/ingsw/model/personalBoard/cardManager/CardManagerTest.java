@@ -2,17 +2,22 @@ package it.polimi.ingsw.model.personalBoard.cardManager;
 
 import it.polimi.ingsw.exception.CardAlreadyUsed;
 import it.polimi.ingsw.exception.CardWithHigherOrSameLevelAlreadyIn;
+import it.polimi.ingsw.exception.InvalidStateActionException;
 import it.polimi.ingsw.exception.LeaderCardAlreadyActivatedException;
 import it.polimi.ingsw.exception.NotEnoughRequirementException;
+import it.polimi.ingsw.model.GameMaster;
 import it.polimi.ingsw.model.GameSetting;
 import it.polimi.ingsw.model.PlayerState;
 import it.polimi.ingsw.model.card.Color;
 import it.polimi.ingsw.model.card.Development;
+import it.polimi.ingsw.model.card.Effect.Activation.ProductionEffect;
 import it.polimi.ingsw.model.card.Effect.Effect;
 import it.polimi.ingsw.model.card.Leader;
+import it.polimi.ingsw.model.card.requirement.CardReq;
 import it.polimi.ingsw.model.card.requirement.Requirement;
 import it.polimi.ingsw.model.personalBoard.PersonalBoard;
 import it.polimi.ingsw.model.personalBoard.resourceManager.ResourceManager;
+import it.polimi.ingsw.model.resource.Resource;
 import it.polimi.ingsw.model.resource.ResourceFactory;
 import it.polimi.ingsw.model.resource.ResourceType;
 import org.junit.jupiter.api.BeforeEach;
@@ -104,6 +109,26 @@ class CardManagerTest {
         assertDoesNotThrow(()->cardManager.doIHaveDev(1,Color.GREEN, 0));
     }
 
+    @Test
+    void devCountMatrix() {
+        assertDoesNotThrow(() -> cardManager.addDevCardTo(devLv1_1,0));
+        clearBuffer();
+        assertDoesNotThrow(() -> cardManager.addDevCardTo(devLv2_2,0));
+        assertThrows(NotEnoughRequirementException.class, ()->cardManager.doIHaveDev(1, Color.BLUE, 2));
+        clearBuffer();
+
+        assertDoesNotThrow(()->cardManager.doIHaveDev(1, Color.BLUE, 2));
+        assertDoesNotThrow(()->cardManager.doIHaveDev(2, Color.ANY, 0));
+        assertThrows(NotEnoughRequirementException.class, ()->cardManager.doIHaveDev(2, Color.BLUE, 1));
+        assertThrows(NotEnoughRequirementException.class, ()->cardManager.doIHaveDev(1, Color.YELLOW, 2));
+        assertThrows(NotEnoughRequirementException.class, ()->cardManager.doIHaveDev(1, Color.ANY, 4));
+        assertEquals(2, cardManager.getVictoryPointsCard());
+
+        cardManager.restoreCardsManagerReference(personalBoard, null);
+        assertEquals(2, cardManager.getVictoryPointsCard());
+        assertDoesNotThrow(()->cardManager.doIHaveDev(2, Color.BLUE, 0));
+    }
+
     @Test
     void discardLeader(){
         assertThrows(IndexOutOfBoundsException.class, () -> cardManager.discardLeader(0));
@@ -212,6 +237,21 @@ class CardManagerTest {
         assertDoesNotThrow(()-> cardManager.baseProductionProduce());
     }
 
+    @Test
+    void rejectedActionIsStackless() {
+        assertDoesNotThrow(()->cardManager.baseProductionProduce());
+        CardAlreadyUsed first = assertThrows(CardAlreadyUsed.class, ()-> cardManager.baseProductionProduce());
+        CardAlreadyUsed second = assertThrows(CardAlreadyUsed.class, ()-> cardManager.baseProductionProduce());
+        assertSame(first, second);
+        assertEquals(0, first.getStackTrace().length);
+
+        personalBoard.attachGameMasterObserver(new GameMaster());
+        InvalidStateActionException state = assertThrows(InvalidStateActionException.class,
+                ()-> cardManager.discardLeader(0));
+        assertSame(InvalidStateActionException.INSTANCE, state);
+        assertEquals(0, state.getStackTrace().length);
+    }
+
     @Test
     void howManyCardDoIOwnLeaders(){
         assertDoesNotThrow(()->cardManager.addLeader(leader1));
@@ -239,6 +279,72 @@ class CardManagerTest {
         assertDoesNotThrow(()->cardManager.mapOfMarbleEffect());
     }
 
+    @Test
+    void effectIndexes(){
+        ArrayList<Leader> deckLeader = new ArrayList<>(gs.getDeckLeader());
+        Leader marbleLeader = deckLeader.get(10);
+        marbleLeader.setActive();
+        cardManager.addLeader(leader1);
+        cardManager.addLeader(marbleLeader);
+        assertEquals(1, cardManager.howManyMarbleEffects());
+        assertEquals(0, cardManager.howManyProductionEffects());
+        assertTrue(cardManager.mapOfMarbleEffect().containsKey(1));
+        assertEquals(1, cardManager.whiteMarbleConversion().sum());
+
+        Leader otherMarbleLeader = deckLeader.get(11);
+        otherMarbleLeader.setActive();
+        cardManager.addLeader(otherMarbleLeader);
+        assertEquals(2, cardManager.howManyMarbleEffects());
+        assertEquals(2, cardManager.mapOfMarbleEffect().size());
+        assertEquals(0, cardManager.whiteMarbleConversion().sum());
+
+        assertDoesNotThrow(() -> cardManager.discardLeaderSetUp(2));
+        assertEquals(1, cardManager.howManyMarbleEffects());
+        assertEquals(1, cardManager.whiteMarbleConversion().sum());
+    }
+
+    @Test
+    void legalMasks(){
+        assertEquals(0b111, cardManager.insertableSlots(devLv1_1));
+        assertEquals(0, cardManager.insertableSlots(devLv2_1));
+        assertDoesNotThrow(() -> cardManager.addDevCardTo(devLv1_1, 1));
+        clearBuffer();
+        assertEquals(0b101, cardManager.insertableSlots(devLv1_2));
+        assertEquals(0b010, cardManager.insertableSlots(devLv2_1));
+
+        //the development cards of the set up have no production
+        assertEquals(0, cardManager.usableProductions());
+
+        ArrayList<Resource> cost = new ArrayList<>();
+        cost.add(ResourceFactory.createResource(ResourceType.STONE, 2));
+        ArrayList<Resource> acquired = new ArrayList<>();
+        acquired.add(ResourceFactory.createResource(ResourceType.COIN, 1));
+        ArrayList<Effect> production = new ArrayList<>();
+        production.add(new ProductionEffect(cost, acquired));
+        personalBoard.getResourceManager().restoreRM();
+        Development productionDev = new Development(9, 1, requirements, production, effects, 2, Color.PURPLE);
+        productionDev.setResourceManager(personalBoard.getResourceManager());
+        assertDoesNotThrow(() -> cardManager.addDevCardTo(productionDev, 1));
+        clearBuffer();
+        assertEquals(0b010, cardManager.usableProductions());
+        assertDoesNotThrow(() -> cardManager.developmentProduce(1));
+        assertEquals(0, cardManager.usableProductions());
+        cardManager.restoreCM();
+        assertEquals(0b010, cardManager.usableProductions());
+
+        ArrayList<Requirement> cardRequirement = new ArrayList<>();
+        cardRequirement.add(new CardReq(Color.PURPLE, 2, 1));
+        Leader leaderWithReq = new Leader(10, 1, cardRequirement, effects, effects);
+        ArrayList<Requirement> tooManyCards = new ArrayList<>();
+        tooManyCards.add(new CardReq(Color.ANY, 0, 3));
+        Leader leaderNotActivatable = new Leader(11, 1, tooManyCards, effects, effects);
+        leaderWithReq.attachCardToUser(personalBoard, null);
+        leaderNotActivatable.attachCardToUser(personalBoard, null);
+        cardManager.addLeader(leaderNotActivatable);
+        cardManager.addLeader(leaderWithReq);
+        assertEquals(0b10, cardManager.activatableLeaders());
+    }
+
     @Test
     void leaderInfinite(){
         cardManager.addLeader(leader1);
@@ -12,6 +12,9 @@ import java.io.File;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class FaithTrackTest {
 
@@ -101,4 +104,25 @@ class FaithTrackTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    void testSerializationKeepsOnlyPlayerState(){
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        assertDoesNotThrow(()-> {
+            FaithTrack defaultTrack = new FaithTrack(FaithTrackLayout.getDefault());
+            defaultTrack.movePlayer(5);
+            defaultTrack.popeFavorActivated(0);
+
+            String serialized = mapper.writeValueAsString(defaultTrack);
+            assertFalse(serialized.contains("track"));
+
+            FaithTrack restored = mapper.readValue(serialized, FaithTrack.class);
+            assertSame(FaithTrackLayout.getDefault(), restored.getLayout());
+            assertEquals(5, restored.getCurrentPositionOnTrack());
+            assertEquals(2, restored.getPopeFavorVP());
+            assertTrue(restored.isPopeFavorAcquired(0));
+            assertFalse(restored.isPopeFavorAcquired(1));
+        });
+    }
+
+}
@@ -3,8 +3,11 @@ package it.polimi.ingsw.model.personalBoard.market;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import it.polimi.ingsw.client.data.MarketData;
 import it.polimi.ingsw.exception.WrongMarblesNumberException;
 import it.polimi.ingsw.exception.WrongMarketDimensionException;
+import it.polimi.ingsw.model.resource.ResourceBag;
+import it.polimi.ingsw.model.resource.ResourceType;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -120,4 +123,74 @@ class MarketTest {
         assertEquals(0, market.getWhiteMarbleDrew());
         assertEquals(0, market.getResourceToSend().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testInsertMarbleShiftsTray(){
+        MarketData before = market.toMarketData();
+        assertDoesNotThrow(() -> market.insertMarbleInRow(1));
+        MarketData afterRow = market.toMarketData();
+        for (int j = 0; j < 3; j++)
+            assertEquals(before.getMarketTray().get(1).get(j + 1), afterRow.getMarketTray().get(1).get(j));
+        assertEquals(before.getExtraMarble(), afterRow.getMarketTray().get(1).get(3));
+        assertEquals(before.getMarketTray().get(1).get(0), afterRow.getExtraMarble());
+
+        market.reset();
+        assertDoesNotThrow(() -> market.insertMarbleInCol(2));
+        MarketData afterCol = market.toMarketData();
+        for (int i = 0; i < 2; i++)
+            assertEquals(afterRow.getMarketTray().get(i + 1).get(2), afterCol.getMarketTray().get(i).get(2));
+        assertEquals(afterRow.getExtraMarble(), afterCol.getMarketTray().get(2).get(2));
+        assertEquals(afterRow.getMarketTray().get(0).get(2), afterCol.getExtraMarble());
+    }
+
+    @Test
+    void testSerialization(){
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        assertDoesNotThrow(() -> market.insertMarbleInCol(0));
+        Market restored = assertDoesNotThrow(() -> mapper.readValue(mapper.writeValueAsString(market), Market.class));
+        MarketData expected = market.toMarketData();
+        MarketData actual = restored.toMarketData();
+        assertEquals(expected.getMarketTray(), actual.getMarketTray());
+        assertEquals(expected.getExtraMarble(), actual.getExtraMarble());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0,1,2,3,4,5,6})
+    void testPreviewMatchesInsertion(int line){
+        ResourceBag[] preview = market.createPreviewBuffer();
+        assertEquals(7, preview.length);
+        market.preview(new ResourceBag(), preview);
+
+        if (line < 3) assertDoesNotThrow(() -> market.insertMarbleInRow(line));
+        else assertDoesNotThrow(() -> market.insertMarbleInCol(line - 3));
+
+        ResourceBag expected = ResourceBag.of(market.getResourceToSend());
+        for (ResourceType type : ResourceType.values()) {
+            if (type != ResourceType.ANY)
+                assertEquals(expected.get(type), preview[line].get(type));
+        }
+        assertEquals(market.getWhiteMarbleDrew(), preview[line].get(ResourceType.ANY));
+    }
+
+    @Test
+    void testPreviewWithConversion(){
+        ResourceBag[] preview = market.createPreviewBuffer();
+        market.preview(new ResourceBag(), preview);
+        int whites = 0;
+        for (int i = 0; i < 3; i++)
+            whites += preview[i].get(ResourceType.ANY);
+
+        ResourceBag conversion = new ResourceBag();
+        conversion.add(ResourceType.SERVANT, 1);
+        ResourceBag[] converted = market.createPreviewBuffer();
+        market.preview(conversion, converted);
+        int servants = 0;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, converted[i].get(ResourceType.ANY));
+            servants += converted[i].get(ResourceType.SERVANT) - preview[i].get(ResourceType.SERVANT);
+        }
+        assertEquals(whites, servants);
+    }
+}
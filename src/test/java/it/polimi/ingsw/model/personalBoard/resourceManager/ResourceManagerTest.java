@@ -10,6 +10,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -114,6 +115,56 @@ class ResourceManagerTest {
 
     }
 
+    @Test
+    void canIAffordProductionWithoutDiscount() {
+        ArrayList<Resource> disc = new ArrayList<>();
+        disc.add(ResourceFactory.createResource(ResourceType.STONE, 1));
+        rs.addDiscount(disc);
+        rs.restoreRM();
+
+        ArrayList<Resource> production = new ArrayList<>();
+        production.add(ResourceFactory.createResource(ResourceType.COIN, 6));
+        production.add(ResourceFactory.createResource(ResourceType.SERVANT, 3));
+        production.add(ResourceFactory.createResource(ResourceType.STONE, 2));
+        assertDoesNotThrow(() -> rs.canIAfford(production, false));
+
+        //only the shield is left, the unused discount must not pay the second any
+        ArrayList<Resource> baseProduction = new ArrayList<>();
+        baseProduction.add(ResourceFactory.createResource(ResourceType.ANY, 2));
+        assertFalse(rs.canAfford(baseProduction, false));
+        assertThrows(NotEnoughRequirementException.class, () -> rs.canIAfford(baseProduction, false));
+    }
+
+    @Test
+    void availableResourcesAreACopy() {
+        assertEquals(12, rs.getAvailableResources().sum());
+        //changing the copy doesn't change the resource manager
+        rs.getAvailableResources().add(ResourceFactory.createResource(ResourceType.COIN, 10));
+        assertEquals(12, rs.getAvailableResources().sum());
+    }
+
+    @Test
+    void canIAffordFailureRestoresAny() {
+        //not enough stones: the any of the same cost must not stay required
+        ArrayList<Resource> tooManyStones = new ArrayList<>();
+        tooManyStones.add(ResourceFactory.createResource(ResourceType.ANY, 1));
+        tooManyStones.add(ResourceFactory.createResource(ResourceType.STONE, 3));
+        assertThrows(NotEnoughRequirementException.class, () -> rs.canIAfford(tooManyStones, false));
+        assertEquals(0, rs.getAnyRequired());
+
+        //more any than resources
+        ArrayList<Resource> tooManyAny = new ArrayList<>();
+        tooManyAny.add(ResourceFactory.createResource(ResourceType.ANY, 13));
+        assertThrows(NotEnoughRequirementException.class, () -> rs.canIAfford(tooManyAny, false));
+        assertEquals(0, rs.getAnyRequired());
+
+        //the next check of the turn asks only its own any
+        ArrayList<Resource> affordable = new ArrayList<>();
+        affordable.add(ResourceFactory.createResource(ResourceType.ANY, 12));
+        assertDoesNotThrow(() -> rs.canIAfford(affordable, false));
+        assertEquals(12, rs.getAnyRequired());
+    }
+
     @ParameterizedTest
     @ValueSource(ints = {0, 1, 2})
     void canIAfford(int index) {
@@ -145,6 +196,152 @@ class ResourceManagerTest {
         }
     }
 
+    @Test
+    void canAfford() {
+        ArrayList<Resource> disc = new ArrayList<>();
+        disc.add(ResourceFactory.createResource(ResourceType.COIN, 1));
+        rs.addDiscount(disc);
+        rs.restoreRM();
+
+        ArrayList<Resource> resourcesCosts = new ArrayList<>();
+        resourcesCosts.add(ResourceFactory.createResource(ResourceType.COIN, 7));
+        resourcesCosts.add(ResourceFactory.createResource(ResourceType.SERVANT, 3));
+        resourcesCosts.add(ResourceFactory.createResource(ResourceType.STONE, 1));
+        assertTrue(rs.canAfford(resourcesCosts, true));
+        assertFalse(rs.canAfford(resourcesCosts, false));
+
+        ArrayList<Resource> anyCosts = new ArrayList<>();
+        anyCosts.add(ResourceFactory.createResource(ResourceType.ANY, 12));
+        assertTrue(rs.canAfford(anyCosts, false));
+        anyCosts.add(ResourceFactory.createResource(ResourceType.ANY, 1));
+        //the discount pays an any only when buying a card
+        assertFalse(rs.canAfford(anyCosts, false));
+        assertTrue(rs.canAfford(anyCosts, true));
+
+        //nothing changed, so the same resources can still be afforded
+        assertEquals(7, resourcesCosts.get(0).getValue());
+        assertDoesNotThrow(() -> rs.canIAfford(resourcesCosts, true));
+        ArrayList<Resource> coinCost = new ArrayList<>();
+        coinCost.add(ResourceFactory.createResource(ResourceType.COIN, 1));
+        assertFalse(rs.canAfford(coinCost, true));
+    }
+
+    @Test
+    void applyResourcePlan() {
+        ArrayList<Resource> fromMarket = new ArrayList<>();
+        fromMarket.add(ResourceFactory.createResource(ResourceType.SHIELD, 1));
+        fromMarket.add(ResourceFactory.createResource(ResourceType.STONE, 2));
+        fromMarket.add(ResourceFactory.createResource(ResourceType.SERVANT, 1));
+        rs.resourceFromMarket(fromMarket);
+
+        //the stones can't go in the depot of coins, so nothing changes
+        ArrayList<ResourcePlacement> wrongPlan = new ArrayList<>();
+        wrongPlan.add(new ResourcePlacement(ResourceFactory.createResource(ResourceType.SHIELD, 1), 1, true));
+        wrongPlan.add(new ResourcePlacement(ResourceFactory.createResource(ResourceType.STONE, 2), 0, true));
+        assertThrows(InvalidOrganizationWarehouseException.class, () -> rs.applyResourcePlan(wrongPlan, true));
+        assertEquals(1, rs.getWarehouse().getDepot(1, true).getResourceValue());
+        assertEquals(4, rs.getBufferSize());
+
+        ArrayList<ResourcePlacement> tooMuch = new ArrayList<>();
+        tooMuch.add(new ResourcePlacement(ResourceFactory.createResource(ResourceType.SHIELD, 2), 1, true));
+        assertThrows(NegativeResourceException.class, () -> rs.applyResourcePlan(tooMuch, true));
+
+        ArrayList<ResourcePlacement> toStrongbox = new ArrayList<>();
+        toStrongbox.add(new ResourcePlacement(ResourceFactory.createResource(ResourceType.SERVANT, 1)));
+        assertThrows(InvalidStateActionException.class, () -> rs.applyResourcePlan(toStrongbox, true));
+
+        ArrayList<ResourcePlacement> plan = new ArrayList<>();
+        plan.add(new ResourcePlacement(ResourceFactory.createResource(ResourceType.SHIELD, 1), 1, true));
+        plan.add(new ResourcePlacement(ResourceFactory.createResource(ResourceType.STONE, 2), 2, true));
+        assertDoesNotThrow(() -> rs.applyResourcePlan(plan, true));
+        assertEquals(2, rs.getWarehouse().getDepot(1, true).getResourceValue());
+        assertEquals(ResourceType.STONE, rs.getWarehouse().getDepot(2, true).getResourceType());
+        assertEquals(1, rs.getBufferSize());
+
+        //the resources of the plan are not shared with the depots
+        assertEquals(1, plan.get(0).getResource().getValue());
+    }
+
+    @Test
+    void applyResourcePlanRemoving() {
+        ArrayList<Resource> cost = new ArrayList<>();
+        cost.add(ResourceFactory.createResource(ResourceType.COIN, 3));
+        assertDoesNotThrow(() -> rs.canIAfford(cost, false));
+
+        ArrayList<ResourcePlacement> plan = new ArrayList<>();
+        plan.add(new ResourcePlacement(ResourceFactory.createResource(ResourceType.COIN, 2)));
+        plan.add(new ResourcePlacement(ResourceFactory.createResource(ResourceType.COIN, 1), 2, true));
+        assertThrows(NegativeResourceException.class, () -> rs.applyResourcePlan(plan, false));
+        assertEquals(5, rs.getStrongbox().howManyDoIHave(ResourceType.COIN));
+
+        plan.set(1, new ResourcePlacement(ResourceFactory.createResource(ResourceType.COIN, 1), 0, true));
+        assertDoesNotThrow(() -> rs.applyResourcePlan(plan, false));
+        assertEquals(3, rs.getStrongbox().howManyDoIHave(ResourceType.COIN));
+        assertEquals(ResourceType.ANY, rs.getWarehouse().getDepot(0, true).getResourceType());
+        assertEquals(0, rs.getBufferSize());
+    }
+
+    @Test
+    void autoPay() {
+        ArrayList<Resource> cost = new ArrayList<>();
+        cost.add(ResourceFactory.createResource(ResourceType.COIN, 3));
+        cost.add(ResourceFactory.createResource(ResourceType.SHIELD, 1));
+        assertDoesNotThrow(() -> rs.canIAfford(cost, false));
+
+        ArrayList<ResourcePlacement> plan = assertDoesNotThrow(() -> rs.paymentPlan(PaymentPolicy.WAREHOUSE_FIRST));
+        assertFalse(plan.get(0).isStrongbox());
+        assertEquals(2, plan.stream().filter(ResourcePlacement::isStrongbox).mapToInt(x -> x.getResource().getValue()).sum());
+        plan = assertDoesNotThrow(() -> rs.paymentPlan(PaymentPolicy.STRONGBOX_FIRST));
+        assertEquals(3, plan.stream().filter(ResourcePlacement::isStrongbox).mapToInt(x -> x.getResource().getValue()).sum());
+
+        assertDoesNotThrow(() -> rs.autoPay(PaymentPolicy.WAREHOUSE_FIRST));
+        assertEquals(0, rs.getBufferSize());
+        assertEquals(ResourceType.ANY, rs.getWarehouse().getDepot(0, true).getResourceType());
+        assertEquals(ResourceType.ANY, rs.getWarehouse().getDepot(1, true).getResourceType());
+        assertEquals(3, rs.getStrongbox().howManyDoIHave(ResourceType.COIN));
+
+        rs.addToBuffer(ResourceFactory.createResource(ResourceType.SHIELD, 1));
+        assertThrows(NegativeResourceException.class, () -> rs.autoPay(PaymentPolicy.STRONGBOX_FIRST));
+        assertEquals(1, rs.getBufferSize());
+    }
+
+    @Test
+    void autoArrange() {
+        rs.addToBuffer(ResourceFactory.createResource(ResourceType.SHIELD, 3));
+        rs.addToBuffer(ResourceFactory.createResource(ResourceType.STONE, 1));
+
+        WarehouseArrangement arrangement = rs.previewArrangement();
+        assertEquals(ResourceType.COIN, arrangement.getDepot(0, true).getType());
+        assertEquals(ResourceType.STONE, arrangement.getDepot(1, true).getType());
+        assertEquals(3, arrangement.getDepot(2, true).getValue());
+        assertEquals(3, arrangement.howManyKept(ResourceType.SHIELD));
+        assertEquals(1, arrangement.howManyDiscarded());
+        //the preview doesn't change anything
+        assertEquals(ResourceType.SHIELD, rs.getWarehouse().getDepot(1, true).getResourceType());
+        assertEquals(4, rs.getBufferSize());
+
+        assertDoesNotThrow(() -> rs.autoArrange());
+        assertEquals(0, rs.getBufferSize());
+        assertEquals(1, rs.getWarehouse().howManyDoIHave(ResourceType.COIN));
+        assertEquals(ResourceType.STONE, rs.getWarehouse().getDepot(1, true).getResourceType());
+        assertEquals(ResourceType.SHIELD, rs.getWarehouse().getDepot(2, true).getResourceType());
+        assertEquals(3, rs.getWarehouse().howManyDoIHave(ResourceType.SHIELD));
+    }
+
+    @Test
+    void arrangeWithLeaderDepot() {
+        rs.addLeaderDepot(new ArrayList<>(List.of(new Depot(ResourceFactory.createResource(ResourceType.SERVANT, 0), 2))));
+        rs.addToBuffer(ResourceFactory.createResource(ResourceType.SERVANT, 5));
+
+        WarehouseArrangement arrangement = rs.previewArrangement();
+        assertEquals(2, arrangement.getDepot(0, false).getValue());
+        assertEquals(ResourceType.SERVANT, arrangement.getDepot(2, true).getType());
+        assertEquals(5, arrangement.howManyKept(ResourceType.SERVANT));
+        assertEquals(0, arrangement.howManyDiscarded());
+        assertEquals(ResourceType.COIN, arrangement.getDepot(0, true).getType());
+        assertEquals(ResourceType.SHIELD, arrangement.getDepot(1, true).getType());
+    }
+
     @Test
     void switchResourceFromDepotToDepot() {
         assertDoesNotThrow(() -> rs.switchResourceFromDepotToDepot(0, true, 1, true));
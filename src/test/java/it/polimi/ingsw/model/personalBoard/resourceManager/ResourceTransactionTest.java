@@ -0,0 +1,139 @@
+package it.polimi.ingsw.model.personalBoard.resourceManager;
+
+import it.polimi.ingsw.exception.InvalidOrganizationWarehouseException;
+import it.polimi.ingsw.exception.NegativeResourceException;
+import it.polimi.ingsw.model.resource.Resource;
+import it.polimi.ingsw.model.resource.ResourceFactory;
+import it.polimi.ingsw.model.resource.ResourceType;
+import it.polimi.ingsw.observer.ResourceManagerObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceTransactionTest {
+    ResourceManager rs = new ResourceManager();
+    RecordingObserver observer = new RecordingObserver();
+
+    @BeforeEach
+    void init(){
+        rs.addToStrongbox(ResourceFactory.createResource(ResourceType.COIN, 5));
+        assertDoesNotThrow(() -> rs.addToWarehouse(true, 1, ResourceFactory.createResource(ResourceType.SHIELD, 1)));
+        rs.restoreRM();
+        rs.addToBuffer(ResourceFactory.createResource(ResourceType.SHIELD, 1));
+        rs.addToBuffer(ResourceFactory.createResource(ResourceType.COIN, 2));
+        rs.attachObserver(observer);
+    }
+
+    @Test
+    void commitTest(){
+        ResourceTransaction transaction = rs.beginTransaction();
+        assertDoesNotThrow(() -> transaction.subToBuffer(ResourceFactory.createResource(ResourceType.SHIELD, 1)));
+        assertDoesNotThrow(() -> transaction.addToWarehouse(true, 1, ResourceFactory.createResource(ResourceType.SHIELD, 1)));
+        assertDoesNotThrow(() -> transaction.subToBuffer(ResourceFactory.createResource(ResourceType.COIN, 2)));
+        assertDoesNotThrow(() -> transaction.subToStrongbox(ResourceFactory.createResource(ResourceType.COIN, 2)));
+
+        //nothing is visible or sent before the commit
+        assertEquals(1, rs.getWarehouse().howManyDoIHave(ResourceType.SHIELD));
+        assertEquals(5, rs.getStrongbox().howManyDoIHave(ResourceType.COIN));
+        assertEquals(3, rs.getBufferSize());
+        assertTrue(observer.updates.isEmpty());
+
+        transaction.commit();
+        //a single depot changed, so the observers get it on its own, then the strongbox and the buffer once
+        assertEquals(List.of("depotUpdate SHIELD 2 1", "strongboxUpdate", "bufferUpdate 0"), observer.updates);
+        assertEquals(2, rs.getWarehouse().howManyDoIHave(ResourceType.SHIELD));
+        assertEquals(3, rs.getStrongbox().howManyDoIHave(ResourceType.COIN));
+        assertEquals(0, rs.getBufferSize());
+        assertThrows(IllegalStateException.class, transaction::commit);
+    }
+
+    @Test
+    void failureTest(){
+        ResourceTransaction transaction = rs.beginTransaction();
+        assertDoesNotThrow(() -> transaction.subToBuffer(ResourceFactory.createResource(ResourceType.COIN, 2)));
+        assertDoesNotThrow(() -> transaction.addToWarehouse(true, 2, ResourceFactory.createResource(ResourceType.COIN, 2)));
+        assertThrows(InvalidOrganizationWarehouseException.class,
+                () -> transaction.addToWarehouse(true, 0, ResourceFactory.createResource(ResourceType.COIN, 1)));
+        assertThrows(NegativeResourceException.class,
+                () -> transaction.subToBuffer(ResourceFactory.createResource(ResourceType.STONE, 1)));
+        transaction.rollback();
+
+        assertTrue(observer.updates.isEmpty());
+        assertEquals(0, rs.getWarehouse().howManyDoIHave(ResourceType.COIN));
+        assertEquals(ResourceType.ANY, rs.getWarehouse().getDepot(2, true).getResourceType());
+        assertEquals(3, rs.getBufferSize());
+    }
+
+    @Test
+    void switchTest(){
+        ResourceTransaction transaction = rs.beginTransaction();
+        assertDoesNotThrow(() -> transaction.switchDepots(1, true, 0, true));
+        assertEquals(ResourceType.SHIELD, rs.getWarehouse().getDepot(1, true).getResourceType());
+        transaction.commit();
+        //two depots changed, so the observers get the whole warehouse once
+        assertEquals(List.of("warehouseLayoutUpdate"), observer.updates);
+        assertEquals(ResourceType.SHIELD, rs.getWarehouse().getDepot(0, true).getResourceType());
+        assertEquals(ResourceType.ANY, rs.getWarehouse().getDepot(1, true).getResourceType());
+        assertEquals(1, rs.getWarehouse().howManyDoIHave(ResourceType.SHIELD));
+    }
+
+    @Test
+    void autoArrangeTest(){
+        assertDoesNotThrow(() -> rs.autoArrange());
+        assertEquals(2, rs.getWarehouse().howManyDoIHave(ResourceType.SHIELD));
+        assertEquals(2, rs.getWarehouse().howManyDoIHave(ResourceType.COIN));
+        assertEquals(0, rs.getBufferSize());
+        //the arrangement is committed like any other transaction: one update of the warehouse and one of the buffer
+        assertEquals(List.of("warehouseLayoutUpdate", "bufferUpdate 0"), observer.updates);
+    }
+
+    /**
+     * RecordingObserver keeps the updates of the warehouse, the strongbox and the buffer sent by the ResourceManager.
+     */
+    private static class RecordingObserver implements ResourceManagerObserver {
+        private final List<String> updates = new ArrayList<>();
+
+        @Override
+        public void bufferUpdate(ArrayList<Resource> resources) {
+            updates.add("bufferUpdate " + resources.stream().mapToInt(Resource::getValue).sum());
+        }
+
+        @Override
+        public void depotPositioningRequest(ArrayList<Resource> resources) {}
+
+        @Override
+        public void warehouseRemovingRequest(ArrayList<Resource> resources) {}
+
+        @Override
+        public void anyRequirementConversionRequest(ArrayList<Resource> optionOfConversion,
+                                                    ArrayList<Resource> optionOfDiscount, int numOfAny) {}
+
+        @Override
+        public void anyProductionProfitRequest(int numOfAny) {}
+
+        @Override
+        public void strongboxUpdate(ArrayList<Resource> strongboxUpdated) {
+            updates.add("strongboxUpdate");
+        }
+
+        @Override
+        public void depotUpdate(Resource depotUpdated, int index, boolean isNormalDepot) {
+            updates.add("depotUpdate " + depotUpdated.getType() + " " + depotUpdated.getValue() + " " + index);
+        }
+
+        @Override
+        public void warehouseLayoutUpdate(Warehouse warehouse, ArrayList<Resource> strongboxUpdated) {
+            updates.add("warehouseLayoutUpdate");
+        }
+
+        @Override
+        public void updateLeaderDepot(ArrayList<Depot> depots, boolean isDiscard) {}
+
+        @Override
+        public void productionCardSelectionCompleted() {}
+    }
+}
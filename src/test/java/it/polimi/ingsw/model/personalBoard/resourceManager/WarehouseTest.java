@@ -165,4 +165,24 @@ class WarehouseTest {
         assertDoesNotThrow(()->testWarehouse.toLeaderDepotMax());
     }
 
-}
\ No newline at end of file
+    @Test
+    void totalsFollowEveryChange(){
+        assertEquals(1, testWarehouse.howManyDoIHave(ResourceType.STONE));
+
+        assertDoesNotThrow(() -> w.addDepotResourceAt(2, ResourceFactory.createResource(ResourceType.STONE, 2), true));
+        assertEquals(3, w.howManyDoIHave(ResourceType.STONE));
+        assertDoesNotThrow(() -> w.subDepotResourceAt(2, ResourceFactory.createResource(ResourceType.STONE, 1), true));
+        assertEquals(2, w.howManyDoIHave(ResourceType.STONE));
+        assertThrows(NegativeResourceException.class, () -> w.subDepotResourceAt(0, ResourceFactory.createResource(ResourceType.COIN, 2), true));
+        assertEquals(1, w.howManyDoIHave(ResourceType.COIN));
+
+        w.addDepotLeader(new Depot(ResourceFactory.createResource(ResourceType.SHIELD, 1), 2));
+        assertEquals(2, w.howManyDoIHave(ResourceType.SHIELD));
+
+        w.popResourceFromDepotAt(1, true);
+        assertEquals(1, w.howManyDoIHave(ResourceType.SHIELD));
+        w.restoreDepot(2, true);
+        assertEquals(0, w.howManyDoIHave(ResourceType.STONE));
+        assertEquals(2, w.getTotals().sum());
+    }
+}
@@ -0,0 +1,69 @@
+package it.polimi.ingsw.model.resource;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.polimi.ingsw.exception.NegativeResourceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceBagTest {
+    ResourceBag bag;
+
+    @BeforeEach
+    void init(){
+        bag = new ResourceBag();
+        bag.add(ResourceType.COIN, 2);
+        bag.add(ResourceFactory.createResource(ResourceType.STONE, 3));
+    }
+
+    @Test
+    void addAndGetTest(){
+        bag.add(ResourceType.COIN, 1);
+        assertEquals(3, bag.get(ResourceType.COIN));
+        assertEquals(3, bag.get(ResourceType.STONE));
+        assertEquals(0, bag.get(ResourceType.SHIELD));
+        assertEquals(6, bag.sum());
+    }
+
+    @Test
+    void subTest(){
+        assertDoesNotThrow(() -> bag.sub(ResourceType.COIN, 2));
+        assertFalse(bag.contains(ResourceType.COIN));
+        assertThrows(NegativeResourceException.class, () -> bag.sub(ResourceType.STONE, 4));
+        assertEquals(3, bag.get(ResourceType.STONE));
+    }
+
+    @Test
+    void toResourceListTest(){
+        ArrayList<Resource> resources = bag.toResourceList();
+        assertEquals(2, resources.size());
+        assertTrue(resources.contains(ResourceFactory.createResource(ResourceType.COIN, 0)));
+
+        ArrayList<Resource> concrete = bag.toConcreteResourceList();
+        assertEquals(4, concrete.size());
+        assertEquals(0, concrete.get(concrete.indexOf(ResourceFactory.createResource(ResourceType.SHIELD, 0))).getValue());
+    }
+
+    @Test
+    void ofTest(){
+        ArrayList<Resource> resources = new ArrayList<>();
+        resources.add(ResourceFactory.createResource(ResourceType.SERVANT, 1));
+        resources.add(ResourceFactory.createResource(ResourceType.SERVANT, 2));
+        assertEquals(3, ResourceBag.of(resources).get(ResourceType.SERVANT));
+    }
+
+    @Test
+    void serializationTest(){
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        ResourceBag restored = assertDoesNotThrow(() ->
+                mapper.readValue(mapper.writeValueAsString(bag), ResourceBag.class));
+        assertEquals(2, restored.get(ResourceType.COIN));
+        assertEquals(3, restored.get(ResourceType.STONE));
+    }
+}
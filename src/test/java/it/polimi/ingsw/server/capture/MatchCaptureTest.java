@@ -0,0 +1,99 @@
+package it.polimi.ingsw.server.capture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchCaptureTest {
+    Path file;
+    Path copy;
+    DataOutputStream out;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("match", ".capture");
+        copy = Files.createTempFile("match", ".capture");
+        file.toFile().deleteOnExit();
+        copy.toFile().deleteOnExit();
+        out = new DataOutputStream(new GZIPOutputStream(new FileOutputStream(file.toFile()), true));
+    }
+
+    @Test
+    void roundTripTest() throws IOException {
+        MatchCapture capture = new MatchCapture(out, 3, 2, List.of("Lorenzo", "Cosimo"), "{\"matchID\":3}");
+        capture.recordMessage("Cosimo", "{\"type\":\"EndTurn\",\"note\":\"\u00e8\"}");
+        capture.recordDisconnection("Lorenzo");
+        capture.recordMessage("Unknown", "ignored");
+        capture.recordReconnection("Lorenzo");
+        capture.close();
+        capture.recordMessage("Cosimo", "after the end");
+
+        Capture read = Capture.read(file);
+        assertTrue(read.isComplete());
+        assertEquals(3, read.getMatchID());
+        assertEquals(2, read.getNumOfPlayers());
+        assertEquals(List.of("Lorenzo", "Cosimo"), read.getPlayers());
+        assertEquals("{\"matchID\":3}", read.getSnapshot());
+
+        List<CaptureEvent> events = read.getEvents();
+        assertEquals(3, events.size());
+        assertEquals(CaptureEvent.Type.MESSAGE, events.get(0).getType());
+        assertEquals("Cosimo", events.get(0).getPlayer());
+        assertEquals("{\"type\":\"EndTurn\",\"note\":\"\u00e8\"}", events.get(0).getMessage());
+        assertEquals(CaptureEvent.Type.DISCONNECTION, events.get(1).getType());
+        assertEquals("Lorenzo", events.get(1).getPlayer());
+        assertNull(events.get(1).getMessage());
+        assertEquals(CaptureEvent.Type.RECONNECTION, events.get(2).getType());
+        for (int i = 1; i < events.size(); i++)
+            assertTrue(events.get(i).getMicros() >= events.get(i - 1).getMicros());
+    }
+
+    @Test
+    void truncatedTest() throws IOException {
+        MatchCapture capture = new MatchCapture(out, 1, 1, List.of("Lorenzo"), "{}");
+        capture.recordMessage("Lorenzo", "first");
+        capture.recordMessage("Lorenzo", "second");
+        out.flush();
+        Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+
+        Capture read = Capture.read(copy);
+        assertFalse(read.isComplete());
+        assertEquals(2, read.getEvents().size());
+        assertEquals("second", read.getEvents().get(1).getMessage());
+        capture.close();
+    }
+
+    @Test
+    void notCaptureTest() throws IOException {
+        out.writeBytes("NOTCAP");
+        out.close();
+        assertThrows(IOException.class, () -> Capture.read(file));
+    }
+
+    @Test
+    void varLongTest() throws IOException {
+        long[] values = {0, 1, 127, 128, 300, 16383, 16384, Integer.MAX_VALUE, Long.MAX_VALUE};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        for (long value : values)
+            MatchCapture.writeVarLong(data, value);
+        assertEquals(1 + 1 + 1 + 2 + 2 + 2 + 3 + 5 + 9, bytes.size());
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (long value : values)
+            assertEquals(value, Capture.readVarLong(in));
+    }
+}
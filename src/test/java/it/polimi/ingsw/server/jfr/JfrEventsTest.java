@@ -0,0 +1,57 @@
+package it.polimi.ingsw.server.jfr;
+
+import it.polimi.ingsw.message.clientMessage.MatchStart;
+import it.polimi.ingsw.server.Match;
+import it.polimi.ingsw.server.Server;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEventsTest {
+
+    @Test
+    void fanoutEventTest() throws IOException {
+        Match match = new Match(2, new Server(new String[0]), 42);
+        Path file = Files.createTempFile("fanout", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("it.polimi.ingsw.server.Fanout").withThreshold(Duration.ZERO);
+            recording.start();
+            match.sendAllPlayers(new MatchStart());
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(x -> x.getEventType().getName().equals("it.polimi.ingsw.server.Fanout"))
+                    .collect(Collectors.toList());
+            assertEquals(1, events.size());
+            assertEquals(42, events.get(0).getInt("matchID"));
+            assertEquals("MatchStart", events.get(0).getString("messageType"));
+            assertEquals(0, events.get(0).getInt("recipients"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void thresholdTest(){
+        //the events of every message are recorded only when slow, unless the threshold is lowered
+        assertEquals("10 ms", setting(EventType.getEventType(MessageReadEvent.class), "threshold"));
+        assertEquals("10 ms", setting(EventType.getEventType(MessageWriteEvent.class), "threshold"));
+        assertEquals("0 ns", setting(EventType.getEventType(MatchSaveEvent.class), "threshold"));
+    }
+
+    private String setting(EventType type, String name){
+        return type.getSettingDescriptors().stream().filter(x -> x.getName().equals(name))
+                .findFirst().orElseThrow().getDefaultValue();
+    }
+}
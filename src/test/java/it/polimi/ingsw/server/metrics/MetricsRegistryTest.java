@@ -0,0 +1,75 @@
+package it.polimi.ingsw.server.metrics;
+
+import it.polimi.ingsw.server.trace.LatencyHistogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+    MetricsRegistry registry;
+
+    @BeforeEach
+    void setUp(){
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    void counterAndGaugeTest(){
+        MetricFamily<Counter> messages = registry.counter("messages_total", "Messages.", "type");
+        messages.labels("EndTurn").inc();
+        messages.labels("EndTurn").add(2);
+        messages.labels("Chat\"Message\\").inc();
+        registry.gauge("queue", "A queue.").register(new Gauge(() -> 7));
+
+        StringBuilder text = new StringBuilder();
+        registry.writePrometheus(text);
+        String prometheus = text.toString();
+        assertTrue(prometheus.contains("# HELP messages_total Messages.\n# TYPE messages_total counter\n"));
+        assertTrue(prometheus.contains("messages_total{type=\"EndTurn\"} 3\n"));
+        assertTrue(prometheus.contains("messages_total{type=\"Chat\\\"Message\\\\\"} 1\n"));
+        assertTrue(prometheus.contains("# TYPE queue gauge\nqueue 7\n"));
+        assertSame(messages.labels("EndTurn"), messages.labels("EndTurn"));
+    }
+
+    @Test
+    void histogramTest(){
+        LatencyHistogram histogram = registry.histogram("save_seconds", "Saves.", "operation").labels("save");
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+        histogram.record(TimeUnit.SECONDS.toNanos(2));
+
+        StringBuilder text = new StringBuilder();
+        registry.writePrometheus(text);
+        String prometheus = text.toString();
+        assertTrue(prometheus.contains("save_seconds_bucket{operation=\"save\",le=\"1.0E-6\"} 0\n"));
+        assertTrue(prometheus.contains("save_seconds_bucket{operation=\"save\",le=\"4.0E-6\"} 1\n"));
+        assertTrue(prometheus.contains("save_seconds_bucket{operation=\"save\",le=\"+Inf\"} 2\n"));
+        assertTrue(prometheus.contains("save_seconds_count{operation=\"save\"} 2\n"));
+        assertTrue(prometheus.contains("save_seconds_sum{operation=\"save\"} 2.000003\n"));
+    }
+
+    @Test
+    void printTest(){
+        registry.counter("messages_total", "Messages.", "type").labels("EndTurn").inc();
+        registry.gauge("connections", "Connections.").labels().set(4);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        registry.print(new PrintStream(bytes), "connections");
+        String printed = bytes.toString();
+        assertTrue(printed.startsWith("connections"));
+        assertTrue(printed.trim().endsWith("4"));
+        assertFalse(printed.contains("messages_total"));
+    }
+
+    @Test
+    void invalidTest(){
+        MetricFamily<Counter> messages = registry.counter("messages_total", "Messages.", "type");
+        assertThrows(IllegalArgumentException.class, () -> registry.gauge("messages_total", "Again."));
+        assertThrows(IllegalArgumentException.class, messages::labels);
+        assertThrows(IllegalArgumentException.class, () -> messages.labels("a", "b"));
+    }
+}
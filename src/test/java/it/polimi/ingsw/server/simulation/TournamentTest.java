@@ -0,0 +1,54 @@
+package it.polimi.ingsw.server.simulation;
+
+import it.polimi.ingsw.server.Server;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+    Server server = new Server(new String[]{"-save", "false", "-slowAction", "0", "-log", "false"});
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4})
+    void completedTest(int numOfPlayers) {
+        for (BotType botType : BotType.values()) {
+            List<GameOutcome> outcomes = Tournament.play(server, 2, numOfPlayers, botType, numOfPlayers, 1);
+            assertEquals(2, outcomes.size());
+            for (int i = 0; i < outcomes.size(); i++) {
+                GameOutcome outcome = outcomes.get(i);
+                assertEquals(i, outcome.getGameID());
+                assertEquals(GameOutcome.Status.COMPLETED, outcome.getStatus());
+                assertNotNull(outcome.getWinner());
+                assertEquals(numOfPlayers, outcome.getPoints().size());
+                assertTrue(outcome.getTurns() > 0);
+                assertTrue(outcome.getMessagesOut() > outcome.getMessagesIn());
+                assertEquals(outcome.getPoints().size() + 10, outcome.toCsv().split("[, ]").length);
+            }
+        }
+        assertTrue(server.getMatches().isEmpty());
+    }
+
+    @Test
+    void repeatableTest() {
+        List<String> sequential = withoutTime(Tournament.play(server, 4, 2, BotType.MIXED, 2021, 1));
+        List<String> parallel = withoutTime(Tournament.play(server, 4, 2, BotType.MIXED, 2021, 3));
+        assertEquals(sequential, parallel);
+        assertNotEquals(sequential, withoutTime(Tournament.play(server, 4, 2, BotType.MIXED, 2022, 1)));
+    }
+
+    /**
+     * Return the csv lines of the outcomes without the time, the only column that changes between two runs.
+     * @param outcomes the outcomes.
+     * @return the csv lines.
+     */
+    private static List<String> withoutTime(List<GameOutcome> outcomes) {
+        return outcomes.stream()
+                .map(x -> x.toCsv().substring(0, x.toCsv().lastIndexOf(',')))
+                .collect(Collectors.toList());
+    }
+}
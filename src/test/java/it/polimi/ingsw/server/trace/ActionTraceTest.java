@@ -0,0 +1,84 @@
+package it.polimi.ingsw.server.trace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActionTraceTest {
+
+    @Test
+    void noTraceTest(){
+        ActionTrace.discard();
+        ActionTrace.enter(TraceStage.ENCODE);
+        ActionTrace.exit();
+        ActionTrace.written();
+        assertNull(ActionTrace.current());
+    }
+
+    @Test
+    void exclusiveTimeTest() throws InterruptedException {
+        ActionTracer tracer = new ActionTracer(0, "unused");
+        ActionTrace trace = ActionTrace.start(System.nanoTime());
+        assertSame(trace, ActionTrace.current());
+        ActionTrace.next(TraceStage.DECODE);
+        ActionTrace.next(TraceStage.PROCESS);
+        ActionTrace.enter(TraceStage.FANOUT);
+        ActionTrace.enter(TraceStage.ENCODE);
+        TimeUnit.MILLISECONDS.sleep(20);
+        ActionTrace.next(TraceStage.WRITE);
+        ActionTrace.exit();
+        ActionTrace.written();
+        ActionTrace.exit();
+        ActionTrace.next(TraceStage.LEGAL_ACTIONS);
+        trace.setTags(3, "player", "EndTurn");
+        tracer.end(trace);
+
+        assertNull(ActionTrace.current());
+        assertTrue(trace.getStageNanos(TraceStage.ENCODE) >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(trace.getStageNanos(TraceStage.PROCESS) < trace.getStageNanos(TraceStage.ENCODE));
+        assertTrue(trace.getTotalNanos() >= trace.getStageNanos(TraceStage.ENCODE));
+        for (TraceStage stage : TraceStage.values())
+            assertTrue(trace.hasStage(stage));
+        assertTrue(trace.toString().startsWith("match=3 player=player message=EndTurn"));
+        assertTrue(trace.toString().contains("ENCODE@"));
+
+        assertEquals(1, tracer.getTotal().getCount());
+        assertEquals(1, tracer.getStage(TraceStage.FANOUT).getCount());
+        assertEquals(0, tracer.getSlowActions());
+    }
+
+    @Test
+    void unbalancedStagesTest(){
+        ActionTracer tracer = new ActionTracer(0, "unused");
+        ActionTrace trace = ActionTrace.start(System.nanoTime());
+        for (int i = 0; i < 20; i++)
+            ActionTrace.enter(TraceStage.FANOUT);
+        for (int i = 0; i < 30; i++)
+            ActionTrace.exit();
+        ActionTrace.enter(TraceStage.PROCESS);
+        tracer.end(trace);
+
+        assertNull(ActionTrace.current());
+        assertTrue(trace.hasStage(TraceStage.PROCESS));
+        assertFalse(trace.hasStage(TraceStage.WRITE));
+        assertEquals(0, tracer.getStage(TraceStage.WRITE).getCount());
+    }
+
+    @Test
+    void histogramTest(){
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(50));
+        for (int i = 1; i <= 100; i++)
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(100), histogram.getMax());
+        //63 durations are under 64 microseconds, the median falls in the bucket up to 64
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(64), histogram.percentile(50));
+        assertEquals(histogram.getMax(), histogram.percentile(99));
+        assertEquals(0, LatencyHistogram.bucketOf(999));
+        assertEquals(1, LatencyHistogram.bucketOf(1000));
+    }
+}